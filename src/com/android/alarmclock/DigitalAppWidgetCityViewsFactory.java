@@ -18,7 +18,6 @@ package com.android.alarmclock;
 
 import static android.appwidget.AppWidgetManager.EXTRA_APPWIDGET_ID;
 import static android.appwidget.AppWidgetManager.INVALID_APPWIDGET_ID;
-import static java.util.Calendar.DAY_OF_WEEK;
 
 import android.content.Context;
 import android.content.Intent;
@@ -33,14 +32,12 @@ import com.android.deskclock.LogUtils;
 import com.android.deskclock.R;
 import com.android.deskclock.Utils;
 import com.android.deskclock.data.City;
+import com.android.deskclock.data.CityTime;
 import com.android.deskclock.data.DataModel;
 
 import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.Collections;
 import java.util.List;
-import java.util.Locale;
-import java.util.TimeZone;
 
 /**
  * This factory produces entries in the world cities list view displayed at the bottom of the
@@ -59,8 +56,10 @@ public class DigitalAppWidgetCityViewsFactory implements RemoteViewsFactory {
     private float mFontScale = 1;
 
     private City mHomeCity;
+    private CityTime mHomeCityTime;
     private boolean mShowHomeClock;
     private List<City> mCities = Collections.emptyList();
+    private List<CityTime> mCityTimes = Collections.emptyList();
 
     public DigitalAppWidgetCityViewsFactory(Context context, Intent intent) {
         mContext = context;
@@ -111,7 +110,10 @@ public class DigitalAppWidgetCityViewsFactory implements RemoteViewsFactory {
 
         final City left = leftIndex == -1 ? mHomeCity :
                 (leftIndex < mCities.size() ? mCities.get(leftIndex) : null);
+        final CityTime leftTime = leftIndex == -1 ? mHomeCityTime :
+                (leftIndex < mCities.size() ? mCityTimes.get(leftIndex) : null);
         final City right = rightIndex < mCities.size() ? mCities.get(rightIndex) : null;
+        final CityTime rightTime = rightIndex < mCities.size() ? mCityTimes.get(rightIndex) : null;
 
         String packageName = mContext.getPackageName();
         int[] layoutIds = WidgetUtils.getWidgetLayouts(mContext, mWidgetId);
@@ -124,14 +126,16 @@ public class DigitalAppWidgetCityViewsFactory implements RemoteViewsFactory {
 
         // Show the left clock if one exists.
         if (left != null) {
-            update(rv, left, R.id.left_clock, R.id.city_name_left, R.id.city_day_left);
+            update(rv, left, leftTime, R.id.left_clock, R.id.city_name_left,
+                    R.id.city_day_left);
         } else {
             hide(rv, R.id.left_clock, R.id.city_name_left, R.id.city_day_left);
         }
 
         // Show the right clock if one exists.
         if (right != null) {
-            update(rv, right, R.id.right_clock, R.id.city_name_right, R.id.city_day_right);
+            update(rv, right, rightTime, R.id.right_clock, R.id.city_name_right,
+                    R.id.city_day_right);
         } else {
             hide(rv, R.id.right_clock, R.id.city_name_right, R.id.city_day_right);
         }
@@ -178,12 +182,15 @@ public class DigitalAppWidgetCityViewsFactory implements RemoteViewsFactory {
 
         // Store the data in local variables.
         mHomeCity = refreshRunnable.mHomeCity;
+        mHomeCityTime = refreshRunnable.mHomeCityTime;
         mCities = refreshRunnable.mCities;
+        mCityTimes = refreshRunnable.mCityTimes;
         mShowHomeClock = refreshRunnable.mShowHomeClock;
         mFontScale = WidgetUtils.getScaleRatio(mContext, null, mWidgetId, mCities.size());
     }
 
-    private void update(RemoteViews rv, City city, int clockId, int labelId, int dayId) {
+    private void update(RemoteViews rv, City city, CityTime cityTime, int clockId, int labelId,
+            int dayId) {
         rv.setCharSequence(clockId, "setFormat12Hour", Utils.get12ModeFormat(0.4f, false));
         rv.setCharSequence(clockId, "setFormat24Hour", Utils.get24ModeFormat(false));
 
@@ -193,15 +200,12 @@ public class DigitalAppWidgetCityViewsFactory implements RemoteViewsFactory {
         rv.setString(clockId, "setTimeZone", city.getTimeZone().getID());
         rv.setTextViewText(labelId, city.getName());
 
-        // Compute if the city week day matches the weekday of the current timezone.
-        final Calendar localCal = Calendar.getInstance(TimeZone.getDefault());
-        final Calendar cityCal = Calendar.getInstance(city.getTimeZone());
-        final boolean displayDayOfWeek = localCal.get(DAY_OF_WEEK) != cityCal.get(DAY_OF_WEEK);
+        // Display the week day if it differs from the week day of the current timezone.
+        final boolean displayDayOfWeek = cityTime.getDayDifference() != 0;
 
         // Bind the week day display.
         if (displayDayOfWeek) {
-            final Locale locale = Locale.getDefault();
-            final String weekday = cityCal.getDisplayName(DAY_OF_WEEK, Calendar.SHORT, locale);
+            final String weekday = cityTime.getShortWeekday();
             final String slashDay = mContext.getString(R.string.world_day_of_week_label, weekday);
             rv.setTextViewText(dayId, slashDay);
         }
@@ -223,13 +227,20 @@ public class DigitalAppWidgetCityViewsFactory implements RemoteViewsFactory {
      */
     private static final class RefreshRunnable implements Runnable {
         private City mHomeCity;
+        private CityTime mHomeCityTime;
         private List<City> mCities;
+        private List<CityTime> mCityTimes;
         private boolean mShowHomeClock;
 
         @Override
         public void run() {
             mHomeCity = DataModel.getDataModel().getHomeCity();
+            mHomeCityTime = DataModel.getDataModel().getCityTime(mHomeCity);
             mCities = new ArrayList<>(DataModel.getDataModel().getSelectedCities());
+            mCityTimes = new ArrayList<>(mCities.size());
+            for (City city : mCities) {
+                mCityTimes.add(DataModel.getDataModel().getCityTime(city));
+            }
             mShowHomeClock = DataModel.getDataModel().getShowHomeClock();
         }
     }
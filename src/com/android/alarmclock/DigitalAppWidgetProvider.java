@@ -67,6 +67,7 @@ import com.android.deskclock.R;
 import com.android.deskclock.Utils;
 import com.android.deskclock.data.City;
 import com.android.deskclock.data.DataModel;
+import com.android.deskclock.perf.Perf;
 import com.android.deskclock.uidata.UiDataModel;
 import com.android.deskclock.worldclock.CitySelectionActivity;
 
@@ -207,11 +208,13 @@ public class DigitalAppWidgetProvider extends AppWidgetProvider {
      */
     private static void relayoutWidget(Context context, AppWidgetManager wm, int widgetId,
             Bundle options) {
+        final long start = Perf.begin();
         final RemoteViews portrait = relayoutWidget(context, wm, widgetId, options, true);
         final RemoteViews landscape = relayoutWidget(context, wm, widgetId, options, false);
         final RemoteViews widget = new RemoteViews(landscape, portrait);
         wm.updateAppWidget(widgetId, widget);
         wm.notifyAppWidgetViewDataChanged(widgetId, R.id.world_city_list);
+        Perf.end(Perf.WIDGET_RELAYOUT, start);
     }
 
     public static void updateAppWidget(Context context, AppWidgetManager wm, int widgetId) {
@@ -19,11 +19,16 @@ package com.android.deskclock;
 import static com.android.deskclock.uidata.UiDataModel.Tab.ALARMS;
 
 import android.app.Activity;
+import android.content.ContentResolver;
 import android.content.Context;
 import android.content.Intent;
+import android.database.ContentObserver;
 import android.database.Cursor;
 import android.graphics.drawable.Drawable;
+import android.net.Uri;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.os.SystemClock;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -46,6 +51,7 @@ import com.android.deskclock.alarms.dataadapter.AlarmItemHolder;
 import com.android.deskclock.alarms.dataadapter.CollapsedAlarmViewHolder;
 import com.android.deskclock.alarms.dataadapter.ExpandedAlarmViewHolder;
 import com.android.deskclock.provider.Alarm;
+import com.android.deskclock.provider.AlarmChangeSet;
 import com.android.deskclock.provider.AlarmInstance;
 import com.android.deskclock.uidata.UiDataModel;
 import com.android.deskclock.widget.EmptyViewController;
@@ -77,6 +83,9 @@ public final class AlarmClockFragment extends DeskClockFragment implements
     // Updates "Today/Tomorrow" in the UI when midnight passes.
     private final Runnable mMidnightUpdater = new MidnightRunnable();
 
+    // Rebinds individual alarms as they are updated in the provider.
+    private final ContentObserver mAlarmChangeObserver = new AlarmChangeObserver();
+
     // Views
     private ViewGroup mMainLayout;
     private RecyclerView mRecyclerView;
@@ -105,6 +114,8 @@ public final class AlarmClockFragment extends DeskClockFragment implements
     public void onCreate(Bundle savedState) {
         super.onCreate(savedState);
         mCursorLoader = (CursorLoader) LoaderManager.getInstance(this).initLoader(0, null, this);
+        requireContext().getContentResolver().registerContentObserver(Alarm.ALARM_CHANGES_URI,
+                true /* notifyForDescendants */, mAlarmChangeObserver);
         if (savedState != null) {
             mExpandedAlarmId = savedState.getLong(KEY_EXPANDED_ID, Alarm.INVALID_ID);
         }
@@ -269,6 +280,7 @@ public final class AlarmClockFragment extends DeskClockFragment implements
     @Override
     public void onDestroy() {
         super.onDestroy();
+        requireContext().getContentResolver().unregisterContentObserver(mAlarmChangeObserver);
         ToastManager.cancelToast();
     }
 
@@ -350,6 +362,44 @@ public final class AlarmClockFragment extends DeskClockFragment implements
         }
     }
 
+    /**
+     * Reloads the row of a single alarm in the background and rebinds it once loaded.
+     *
+     * @param alarmId identifies the alarm to be reloaded
+     */
+    private void reloadAlarm(long alarmId) {
+        final ContentResolver cr = requireContext().getContentResolver();
+        final Handler mainHandler = new Handler(Looper.getMainLooper());
+        AsyncHandler.post(() -> {
+            try (Cursor cursor = Alarm.getAlarmWithInstance(cr, alarmId)) {
+                if (cursor == null || !cursor.moveToFirst()) {
+                    // The alarm was deleted; the deletion itself triggers a full reload.
+                    return;
+                }
+
+                final Alarm alarm = new Alarm(cursor);
+                final AlarmInstance alarmInstance = alarm.canPreemptivelyDismiss()
+                        ? new AlarmInstance(cursor, true /* joinedTable */) : null;
+                mainHandler.post(() -> replaceAlarm(alarm, alarmInstance));
+            }
+        });
+    }
+
+    /**
+     * Swaps the item holder of a reloaded alarm into the adapter, preserving its expansion.
+     */
+    private void replaceAlarm(Alarm alarm, AlarmInstance alarmInstance) {
+        if (mItemAdapter == null || mItemAdapter.getItems() == null || !isAdded()) {
+            return;
+        }
+
+        final AlarmItemHolder itemHolder =
+                new AlarmItemHolder(alarm, alarmInstance, mAlarmTimeClickHandler);
+        if (mItemAdapter.replaceItem(itemHolder) && itemHolder.isExpanded()) {
+            mAlarmTimeClickHandler.setSelectedAlarm(alarm);
+        }
+    }
+
     /**
      * @param alarmId identifies the alarm to be displayed
      */
@@ -441,6 +491,48 @@ public final class AlarmClockFragment extends DeskClockFragment implements
         }
     }
 
+    /**
+     * Observes {@link AlarmChangeSet}s published by the provider for single-row updates and
+     * rebinds only the affected alarm. Instance state changes that do not alter what the row
+     * displays are ignored entirely.
+     */
+    private final class AlarmChangeObserver extends ContentObserver {
+
+        private AlarmChangeObserver() {
+            super(new Handler(Looper.getMainLooper()));
+        }
+
+        @Override
+        public void onChange(boolean selfChange, Uri uri) {
+            final AlarmChangeSet changeSet = AlarmChangeSet.fromUri(uri);
+            if (changeSet == null || changeSet.affectsSortOrder()
+                    || mItemAdapter == null || mItemAdapter.getItems() == null) {
+                // The change cannot be scoped to a single row, so reload all alarms.
+                if (mCursorLoader != null) {
+                    mCursorLoader.onContentChanged();
+                }
+                return;
+            }
+
+            final AlarmItemHolder itemHolder = mItemAdapter.findItemById(changeSet.alarmId);
+            if (itemHolder == null) {
+                // The alarm is not displayed yet; its insertion triggers a full reload.
+                return;
+            }
+
+            final Alarm alarm = itemHolder.item;
+            if (changeSet.isStateOnly() && alarm.instanceId == changeSet.instanceId
+                    && Alarm.canPreemptivelyDismiss(changeSet.instanceState)
+                            == alarm.canPreemptivelyDismiss()) {
+                LogUtils.v("Ignoring undisplayed change: %s", changeSet);
+                alarm.instanceState = changeSet.instanceState;
+                return;
+            }
+
+            reloadAlarm(changeSet.alarmId);
+        }
+    }
+
     /**
      * This runnable executes at midnight and refreshes the display of all alarms. Collapsed alarms
      * that do no repeat will have their "Tomorrow" strings updated to say "Today".
@@ -30,6 +30,7 @@ import com.android.deskclock.alarms.AlarmStateManager;
 import com.android.deskclock.controller.Controller;
 import com.android.deskclock.data.DataModel;
 import com.android.deskclock.provider.AlarmInstance;
+import com.android.deskclock.provider.AlarmSchedule;
 
 import java.util.Calendar;
 import java.util.List;
@@ -63,6 +64,7 @@ public class AlarmInitReceiver extends BroadcastReceiver {
      *     <li>Fix alarm states on ACTION_BOOT_COMPLETED, TIME_SET, TIMEZONE_CHANGED,
      *     and LOCALE_CHANGED</li>
      *     <li>Rebuild notifications on MY_PACKAGE_REPLACED</li>
+     *     <li>Cancel the per-instance wakeups of earlier versions on MY_PACKAGE_REPLACED</li>
      * </ul>
      */
     @Override
@@ -91,6 +93,9 @@ public class AlarmInitReceiver extends BroadcastReceiver {
             // functionality works as expected.
         } else if (Intent.ACTION_TIME_CHANGED.equals(action)) {
             DataModel.getDataModel().updateAfterTimeSet();
+        } else if (Intent.ACTION_TIMEZONE_CHANGED.equals(action)) {
+            // Alarm instances store wall clock times that map to new moments in the new zone.
+            AlarmSchedule.onTimeZoneChanged();
         }
 
         // Update shortcuts so they exist for the user.
@@ -119,7 +124,7 @@ public class AlarmInitReceiver extends BroadcastReceiver {
                 List<AlarmInstance> alarmInstances = AlarmInstance.getInstances(cr, null);
                 AlarmInstance alarmInstance = null;
                 for (AlarmInstance instance : alarmInstances) {
-                    if (instance.getAlarmTime().getTimeInMillis() == alarmTime) {
+                    if (instance.getSchedule().getAlarmTime() == alarmTime) {
                         alarmInstance = instance;
                         break;
                     }
@@ -146,6 +151,12 @@ public class AlarmInitReceiver extends BroadcastReceiver {
 
         AsyncHandler.post(() -> {
             try {
+                // Earlier versions registered one wakeup per instance; fold them into the
+                // timeline once, after the upgrade.
+                if (Intent.ACTION_MY_PACKAGE_REPLACED.equals(action)) {
+                    AlarmStateManager.cancelLegacyInstanceWakeups(context);
+                }
+
                 // Process restored data if any exists
                 if (!DeskClockBackupAgent.processRestoredData(context)) {
                     // Update all the alarm instances on time change event
@@ -94,7 +94,7 @@ public class AlarmSelectionActivity extends ListActivity {
         executor.execute(() -> {
             switch (mAction) {
                 case ACTION_DISMISS:
-                    HandleApiCalls.dismissAlarm(alarm, this);
+                    HandleApiCalls.dismissAlarm(alarm, getApplicationContext());
                     break;
                 case ACTION_INVALID:
                     LogUtils.i("Invalid action");
@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+
+import com.android.deskclock.provider.AlarmTransfer;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Exports all alarms to, or imports alarms from, {@value #FILE_NAME} in the app's external files
+ * directory using {@link AlarmTransfer}. Only holders of {@code android.permission.DUMP}, such as
+ * the shell, may send these broadcasts:
+ *
+ * <pre>
+ * adb shell am broadcast -a com.android.deskclock.action.EXPORT_ALARMS \
+ *         -n com.android.deskclock/.AlarmTransferReceiver
+ * </pre>
+ *
+ * The number of alarms transferred is returned as the result code; -1 indicates a failure.
+ */
+public class AlarmTransferReceiver extends BroadcastReceiver {
+
+    private static final LogUtils.Logger LOGGER = new LogUtils.Logger("AlarmTransferReceiver");
+
+    public static final String ACTION_EXPORT_ALARMS =
+            "com.android.deskclock.action.EXPORT_ALARMS";
+    public static final String ACTION_IMPORT_ALARMS =
+            "com.android.deskclock.action.IMPORT_ALARMS";
+
+    /** The file, in the app's external files directory, holding the transferred alarms. */
+    private static final String FILE_NAME = "alarms.jsonl";
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        final String action = intent.getAction();
+        if (!ACTION_EXPORT_ALARMS.equals(action) && !ACTION_IMPORT_ALARMS.equals(action)) {
+            return;
+        }
+
+        final PendingResult result = goAsync();
+        final Context appContext = context.getApplicationContext();
+        AsyncHandler.post(() -> {
+            int count = -1;
+            try {
+                final File file = new File(appContext.getExternalFilesDir(null), FILE_NAME);
+                if (ACTION_EXPORT_ALARMS.equals(action)) {
+                    try (Writer out = new OutputStreamWriter(new FileOutputStream(file),
+                            StandardCharsets.UTF_8)) {
+                        count = AlarmTransfer.exportAlarms(appContext.getContentResolver(), out);
+                    }
+                } else {
+                    try (Reader in = new InputStreamReader(new FileInputStream(file),
+                            StandardCharsets.UTF_8)) {
+                        count = AlarmTransfer.importAlarms(appContext, in);
+                    }
+                }
+                LOGGER.i("%s: %d alarms in %s", action, count, file);
+            } catch (IOException e) {
+                LOGGER.e("Failed to transfer alarms", e);
+            } finally {
+                result.setResultCode(count);
+                result.finish();
+            }
+        });
+    }
+}
@@ -38,6 +38,10 @@ import java.util.Locale;
 public class AlarmUtils {
 
     public static String getFormattedTime(Context context, Calendar time) {
+        return getFormattedTime(context, time.getTimeInMillis());
+    }
+
+    public static String getFormattedTime(Context context, long time) {
         final String skeleton = DateFormat.is24HourFormat(context) ? "EHm" : "Ehma";
         final String pattern = DateFormat.getBestDateTimePattern(Locale.getDefault(), skeleton);
         return (String) DateFormat.format(pattern, time);
@@ -45,7 +49,7 @@ public class AlarmUtils {
 
     public static String getAlarmText(Context context, AlarmInstance instance,
             boolean includeLabel) {
-        String alarmTimeStr = getFormattedTime(context, instance.getAlarmTime());
+        String alarmTimeStr = getFormattedTime(context, instance.getSchedule().getAlarmTime());
         return (instance.mLabel.isEmpty() || !includeLabel)
                 ? alarmTimeStr
                 : alarmTimeStr + " - " + instance.mLabel;
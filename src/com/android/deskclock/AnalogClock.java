@@ -16,12 +16,15 @@
 
 package com.android.deskclock;
 
+import static android.text.format.DateUtils.HOUR_IN_MILLIS;
+import static android.text.format.DateUtils.MINUTE_IN_MILLIS;
 import static android.text.format.DateUtils.SECOND_IN_MILLIS;
 
 import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
+import android.os.SystemClock;
 import android.text.format.DateFormat;
 import android.util.AttributeSet;
 import android.widget.FrameLayout;
@@ -35,30 +38,41 @@ import java.util.TimeZone;
 
 /**
  * This widget display an analog clock with two hands for hours and minutes.
+ *
+ * <p>The dial never changes, so it is cached in a hardware layer and only the hands are
+ * redrawn, by rotating them. Ticks are scheduled to land on wall clock second boundaries, or on
+ * minute boundaries when seconds are not displayed, and each tick computes the next boundary
+ * afresh from the wall clock so that delayed ticks do not accumulate drift.</p>
  */
 public class AnalogClock extends FrameLayout {
 
+    /**
+     * A tick that runs this close before a boundary displays the time at the boundary. This
+     * tolerates handler delivery landing slightly early relative to the wall clock.
+     */
+    private static final long TICK_TOLERANCE_MILLIS = 20;
+
     private final BroadcastReceiver mIntentReceiver = new BroadcastReceiver() {
         @Override
         public void onReceive(Context context, Intent intent) {
             if (mTimeZone == null && Intent.ACTION_TIMEZONE_CHANGED.equals(intent.getAction())) {
                 final String tz = intent.getStringExtra(Intent.EXTRA_TIMEZONE);
                 mTime = Calendar.getInstance(TimeZone.getTimeZone(tz));
+                mDescTime = Long.MIN_VALUE;
             }
-            onTimeChanged();
+            // The wall clock jumped; realign the ticks to its new boundaries.
+            updateTicking();
         }
     };
 
     private final Runnable mClockTick = new Runnable() {
         @Override
         public void run() {
-            onTimeChanged();
-
-            if (mEnableSeconds) {
-                final long now = System.currentTimeMillis();
-                final long delay = SECOND_IN_MILLIS - now % SECOND_IN_MILLIS;
-                postDelayed(this, delay);
-            }
+            final long now = System.currentTimeMillis();
+            final long resolution = mEnableSeconds ? SECOND_IN_MILLIS : MINUTE_IN_MILLIS;
+            final long tickTime = getTickTime(now, resolution);
+            onTimeChanged(tickTime);
+            postAtTime(this, SystemClock.uptimeMillis() + tickTime + resolution - now);
         }
     };
 
@@ -71,6 +85,15 @@ public class AnalogClock extends FrameLayout {
     private TimeZone mTimeZone;
     private boolean mEnableSeconds = true;
 
+    /** {@code true} while this clock and all of its ancestors are visible in its window. */
+    private boolean mVisibleAggregated;
+
+    /** {@code true} while this clock is attached and visible, so that it must tick. */
+    private boolean mTicking;
+
+    /** The minute at which the content description was last formatted. */
+    private long mDescTime = Long.MIN_VALUE;
+
     public AnalogClock(Context context) {
         this(context, null /* attrs */);
     }
@@ -90,6 +113,7 @@ public class AnalogClock extends FrameLayout {
         final ImageView dial = new AppCompatImageView(context);
         dial.setImageResource(R.drawable.clock_analog_dial);
         dial.getDrawable().mutate();
+        dial.setLayerType(LAYER_TYPE_HARDWARE, null);
         addView(dial);
 
         mHourHand = new AppCompatImageView(context);
@@ -113,7 +137,6 @@ public class AnalogClock extends FrameLayout {
         super.onAttachedToWindow();
 
         final IntentFilter filter = new IntentFilter();
-        filter.addAction(Intent.ACTION_TIME_TICK);
         filter.addAction(Intent.ACTION_TIME_CHANGED);
         filter.addAction(Intent.ACTION_TIMEZONE_CHANGED);
         getContext().registerReceiver(mIntentReceiver, filter, Context.RECEIVER_NOT_EXPORTED);
@@ -121,12 +144,8 @@ public class AnalogClock extends FrameLayout {
         // Refresh the calendar instance since the time zone may have changed while the receiver
         // wasn't registered.
         mTime = Calendar.getInstance(mTimeZone != null ? mTimeZone : TimeZone.getDefault());
-        onTimeChanged();
-
-        // Tick every second.
-        if (mEnableSeconds) {
-            mClockTick.run();
-        }
+        mDescTime = Long.MIN_VALUE;
+        updateTicking();
     }
 
     @Override
@@ -134,36 +153,82 @@ public class AnalogClock extends FrameLayout {
         super.onDetachedFromWindow();
 
         getContext().unregisterReceiver(mIntentReceiver);
+        updateTicking();
+    }
+
+    @Override
+    public void onVisibilityAggregated(boolean isVisible) {
+        super.onVisibilityAggregated(isVisible);
+        mVisibleAggregated = isVisible;
+        updateTicking();
+    }
+
+    /**
+     * Starts or restarts ticking if this clock is attached and visible; otherwise stops it.
+     */
+    private void updateTicking() {
         removeCallbacks(mClockTick);
+        mTicking = isAttachedToWindow() && mVisibleAggregated;
+        if (mTicking) {
+            // Update the hands now and schedule the next tick.
+            mClockTick.run();
+        }
     }
 
-    private void onTimeChanged() {
-        mTime.setTimeInMillis(System.currentTimeMillis());
-        final float hourAngle = mTime.get(Calendar.HOUR) * 30f;
-        mHourHand.setRotation(hourAngle);
-        final float minuteAngle = mTime.get(Calendar.MINUTE) * 6f;
-        mMinuteHand.setRotation(minuteAngle);
+    /**
+     * Rotates the hands to show {@code time}. Rotating a hand only updates the properties of its
+     * display list, so neither the dial nor the hands are redrawn.
+     */
+    private void onTimeChanged(long time) {
+        final TimeZone timeZone = mTime.getTimeZone();
+        final long localTime = time + timeZone.getOffset(time);
+        final long hour = Math.floorMod(Math.floorDiv(localTime, HOUR_IN_MILLIS), 12);
+        mHourHand.setRotation(hour * 30f);
+        final long minute = Math.floorMod(Math.floorDiv(localTime, MINUTE_IN_MILLIS), 60);
+        mMinuteHand.setRotation(minute * 6f);
         if (mEnableSeconds) {
-            final float secondAngle = mTime.get(Calendar.SECOND) * 6f;
-            mSecondHand.setRotation(secondAngle);
+            final long second = Math.floorMod(Math.floorDiv(localTime, SECOND_IN_MILLIS), 60);
+            mSecondHand.setRotation(second * 6f);
+        }
+
+        // The description only shows hours and minutes; format it once per minute.
+        final long descTime = Math.floorDiv(time, MINUTE_IN_MILLIS);
+        if (descTime != mDescTime) {
+            mDescTime = descTime;
+            mTime.setTimeInMillis(time);
+            setContentDescription(DateFormat.format(mDescFormat, mTime));
         }
-        setContentDescription(DateFormat.format(mDescFormat, mTime));
-        invalidate();
     }
 
     public void setTimeZone(String id) {
         mTimeZone = TimeZone.getTimeZone(id);
         mTime.setTimeZone(mTimeZone);
-        onTimeChanged();
+        mDescTime = Long.MIN_VALUE;
+        if (mTicking) {
+            updateTicking();
+        }
     }
 
     public void enableSeconds(boolean enable) {
+        if (mEnableSeconds == enable) {
+            return;
+        }
+
         mEnableSeconds = enable;
-        if (mEnableSeconds) {
-            mSecondHand.setVisibility(VISIBLE);
-            mClockTick.run();
-        } else {
-            mSecondHand.setVisibility(GONE);
+        mSecondHand.setVisibility(mEnableSeconds ? VISIBLE : GONE);
+        if (mTicking) {
+            // Switch between second and minute resolution ticks.
+            updateTicking();
         }
     }
+
+    /**
+     * @param now the current wall clock time
+     * @param resolution the interval between ticks
+     * @return the start of the tick interval containing {@code now}, or of the next interval if
+     *      {@code now} is within {@link #TICK_TOLERANCE_MILLIS} of it
+     */
+    static long getTickTime(long now, long resolution) {
+        return Math.floorDiv(now + TICK_TOLERANCE_MILLIS, resolution) * resolution;
+    }
 }
@@ -16,6 +16,9 @@ import android.os.Handler;
 import android.os.HandlerThread;
 import android.os.Looper;
 import android.os.Message;
+import android.os.SystemClock;
+
+import com.android.deskclock.perf.Perf;
 
 /**
  * <p>This class controls playback of ringtones. Uses {@link Ringtone} in a
@@ -37,6 +40,12 @@ import android.os.Message;
  * <p>If the {@link Ringtone} fails to play the requested audio, an
  * {@link #getFallbackRingtoneUri in-app fallback} is used because playing <strong>some</strong>
  * sort of noise is always preferable to remaining silent.</p>
+ *
+ * <p>Resolving a {@link Ringtone} prepares its media player, which can be slow on slow storage.
+ * Callers that know a ringtone is about to be played may {@link #prepare} it ahead of time; a
+ * subsequent {@link #play} of the same uri then starts the prepared ringtone immediately. The
+ * delay between {@link #play} being called and playback starting is logged; callers may also
+ * pass a {@link Perf} span that is ended once playback starts.</p>
  */
 public final class AsyncRingtonePlayer {
 
@@ -49,8 +58,12 @@ public final class AsyncRingtonePlayer {
     private static final int EVENT_PLAY = 1;
     private static final int EVENT_STOP = 2;
     private static final int EVENT_VOLUME = 3;
+    private static final int EVENT_PREPARE = 4;
+    private static final int EVENT_RELEASE_PREPARED = 5;
     private static final String RINGTONE_URI_KEY = "RINGTONE_URI_KEY";
     private static final String CRESCENDO_DURATION_KEY = "CRESCENDO_DURATION_KEY";
+    private static final String REQUEST_TIME_KEY = "REQUEST_TIME_KEY";
+    private static final String FIRST_AUDIO_SPAN_KEY = "FIRST_AUDIO_SPAN_KEY";
 
     /** Handler running on the ringtone thread. */
     private Handler mHandler;
@@ -68,25 +81,50 @@ public final class AsyncRingtonePlayer {
 
     /** Plays the ringtone. */
     public void play(Uri ringtoneUri, long crescendoDuration) {
+        play(ringtoneUri, crescendoDuration, 0);
+    }
+
+    /**
+     * Plays the ringtone.
+     *
+     * @param firstAudioSpan a {@link Perf#begin} token; the {@link Perf#ALARM_FIRST_AUDIO} span
+     *      it starts is ended once the ringtone starts playing
+     */
+    public void play(Uri ringtoneUri, long crescendoDuration, long firstAudioSpan) {
         LOGGER.d("Posting play.");
-        postMessage(EVENT_PLAY, ringtoneUri, crescendoDuration, 0);
+        postMessage(EVENT_PLAY, ringtoneUri, crescendoDuration, firstAudioSpan, 0);
+    }
+
+    /**
+     * Resolves and prepares the ringtone ahead of a later {@link #play} of the same uri. The
+     * prepared ringtone is released if it has not been played within {@code keepAliveMillis}.
+     */
+    public void prepare(Uri ringtoneUri, long keepAliveMillis) {
+        LOGGER.d("Posting prepare.");
+        synchronized (this) {
+            postMessage(EVENT_PREPARE, ringtoneUri, 0, 0, 0);
+            mHandler.removeMessages(EVENT_RELEASE_PREPARED);
+            postMessage(EVENT_RELEASE_PREPARED, null, 0, 0, keepAliveMillis);
+        }
     }
 
     /** Stops playing the ringtone. */
     public void stop() {
         LOGGER.d("Posting stop.");
-        postMessage(EVENT_STOP, null, 0, 0);
+        postMessage(EVENT_STOP, null, 0, 0, 0);
     }
 
-    /** Schedules an adjustment of the playback volume 50ms in the future. */
-    private void scheduleVolumeAdjustment() {
-        LOGGER.v("Adjusting volume.");
-
+    /**
+     * Schedules an adjustment of the playback volume in the future.
+     *
+     * @param delayMillis the time until the next step of the crescendo
+     */
+    private void scheduleVolumeAdjustment(long delayMillis) {
         // Ensure we never have more than one volume adjustment queued.
         mHandler.removeMessages(EVENT_VOLUME);
 
         // Queue the next volume adjustment.
-        postMessage(EVENT_VOLUME, null, 0, 50);
+        postMessage(EVENT_VOLUME, null, 0, 0, delayMillis);
     }
 
     /**
@@ -95,10 +133,11 @@ public final class AsyncRingtonePlayer {
      * @param messageCode the message to post
      * @param ringtoneUri the ringtone in question, if any
      * @param crescendoDuration the length of time, in ms, over which to crescendo the ringtone
+     * @param firstAudioSpan the {@link Perf} span to end once playback starts, if any
      * @param delayMillis the amount of time to delay sending the message, if any
      */
     private void postMessage(int messageCode, Uri ringtoneUri, long crescendoDuration,
-            long delayMillis) {
+            long firstAudioSpan, long delayMillis) {
         synchronized (this) {
             if (mHandler == null) {
                 mHandler = getNewHandler();
@@ -109,6 +148,8 @@ public final class AsyncRingtonePlayer {
                 final Bundle bundle = new Bundle();
                 bundle.putParcelable(RINGTONE_URI_KEY, ringtoneUri);
                 bundle.putLong(CRESCENDO_DURATION_KEY, crescendoDuration);
+                bundle.putLong(REQUEST_TIME_KEY, SystemClock.elapsedRealtime());
+                bundle.putLong(FIRST_AUDIO_SPAN_KEY, firstAudioSpan);
                 message.setData(bundle);
             }
 
@@ -132,16 +173,32 @@ public final class AsyncRingtonePlayer {
                         final Bundle data = msg.getData();
                         final Uri ringtoneUri = data.getParcelable(RINGTONE_URI_KEY);
                         final long crescendoDuration = data.getLong(CRESCENDO_DURATION_KEY);
-                        if (getPlaybackDelegate().play(mContext, ringtoneUri, crescendoDuration)) {
-                            scheduleVolumeAdjustment();
+                        final boolean crescendo = getPlaybackDelegate().play(mContext,
+                                ringtoneUri, crescendoDuration);
+                        final long latency =
+                                SystemClock.elapsedRealtime() - data.getLong(REQUEST_TIME_KEY);
+                        LOGGER.i("Ringtone playback started %d ms after request", latency);
+                        if (getPlaybackDelegate().isStarted()) {
+                            Perf.end(Perf.ALARM_FIRST_AUDIO, data.getLong(FIRST_AUDIO_SPAN_KEY));
+                        }
+                        if (crescendo) {
+                            scheduleVolumeAdjustment(0);
                         }
                         break;
+                    case EVENT_PREPARE:
+                        getPlaybackDelegate().prepare(mContext,
+                                msg.getData().getParcelable(RINGTONE_URI_KEY));
+                        break;
+                    case EVENT_RELEASE_PREPARED:
+                        getPlaybackDelegate().releasePrepared();
+                        break;
                     case EVENT_STOP:
                         getPlaybackDelegate().stop();
                         break;
                     case EVENT_VOLUME:
-                        if (getPlaybackDelegate().adjustVolume()) {
-                            scheduleVolumeAdjustment();
+                        final long delay = getPlaybackDelegate().adjustVolume();
+                        if (delay >= 0) {
+                            scheduleVolumeAdjustment(delay);
                         }
                         break;
                 }
@@ -185,29 +242,6 @@ public final class AsyncRingtonePlayer {
         }
     }
 
-    /**
-     * @param currentTime current time of the device
-     * @param stopTime time at which the crescendo finishes
-     * @param duration length of time over which the crescendo occurs
-     * @return the scalar volume value that produces a linear increase in volume (in decibels)
-     */
-    private static float computeVolume(long currentTime, long stopTime, long duration) {
-        // Compute the percentage of the crescendo that has completed.
-        final float elapsedCrescendoTime = stopTime - currentTime;
-        final float fractionComplete = 1 - (elapsedCrescendoTime / duration);
-
-        // Use the fraction to compute a target decibel between -40dB (near silent) and 0dB (max).
-        final float gain = (fractionComplete * 40) - 40;
-
-        // Convert the target gain (in decibels) into the corresponding volume scalar.
-        final float volume = (float) Math.pow(10f, gain/20f);
-
-        LOGGER.v("Ringtone crescendo %,.2f%% complete (scalar: %f, volume: %f dB)",
-                fractionComplete * 100, volume, gain);
-
-        return volume;
-    }
-
     /**
      * @return the platform-specific playback delegate to use to play the ringtone
      */
@@ -233,15 +267,31 @@ public final class AsyncRingtonePlayer {
          */
         boolean play(Context context, Uri ringtoneUri, long crescendoDuration);
 
+        /**
+         * Resolve and prepare the ringtone so that a later {@link #play} of it starts quickly.
+         */
+        void prepare(Context context, Uri ringtoneUri);
+
+        /**
+         * Release any prepared ringtone that has not been played.
+         */
+        void releasePrepared();
+
         /**
          * Stop any ongoing ringtone playback.
          */
         void stop();
 
         /**
-         * @return {@code true} iff another volume adjustment should be scheduled
+         * @return {@code true} if the last {@link #play} started playing some ringtone
          */
-        boolean adjustVolume();
+        boolean isStarted();
+
+        /**
+         * @return the delay in milliseconds until the next volume adjustment, or {@code -1} if
+         *      no further adjustment is required
+         */
+        long adjustVolume();
     }
 
     /**
@@ -255,11 +305,23 @@ public final class AsyncRingtonePlayer {
         /** The current ringtone. Only used by the ringtone thread. */
         private Ringtone mRingtone;
 
+        /** A ringtone prepared ahead of playback. Only used by the ringtone thread. */
+        private Ringtone mPreparedRingtone;
+
+        /** The uri requested when {@link #mPreparedRingtone} was prepared. */
+        private Uri mPreparedUri;
+
         /** The duration over which to increase the volume. */
         private long mCrescendoDuration = 0;
 
-        /** The time at which the crescendo shall cease; 0 if no crescendo is present. */
-        private long mCrescendoStopTime = 0;
+        /** The volume ramp of the current crescendo; null if no crescendo is present. */
+        private CrescendoCurve mCrescendoCurve;
+
+        /** The time at which the crescendo started. */
+        private long mCrescendoStartTime = 0;
+
+        /** {@code true} once the current ringtone has been told to play without error. */
+        private boolean mStarted;
 
         /**
          * Starts the actual playback of the ringtone. Executes on ringtone-thread.
@@ -268,6 +330,7 @@ public final class AsyncRingtonePlayer {
         public boolean play(Context context, Uri ringtoneUri, long crescendoDuration) {
             checkAsyncRingtonePlayerThread();
             mCrescendoDuration = crescendoDuration;
+            mStarted = false;
 
             LOGGER.i("Play ringtone via android.media.Ringtone.");
 
@@ -280,23 +343,24 @@ public final class AsyncRingtonePlayer {
                 ringtoneUri = getInCallRingtoneUri(context);
             }
 
-            // Attempt to fetch the specified ringtone.
-            mRingtone = RingtoneManager.getRingtone(context, ringtoneUri);
-
-            if (mRingtone == null) {
-                // Fall back to the system default ringtone.
-                ringtoneUri = RingtoneManager.getDefaultUri(RingtoneManager.TYPE_ALARM);
-                mRingtone = RingtoneManager.getRingtone(context, ringtoneUri);
+            if (mPreparedRingtone != null && ringtoneUri.equals(mPreparedUri)) {
+                LOGGER.v("Using the prepared ringtone");
+                mRingtone = mPreparedRingtone;
+                mPreparedRingtone = null;
+                mPreparedUri = null;
+            } else {
+                releasePrepared();
+                mRingtone = resolveRingtone(context, ringtoneUri);
             }
 
-            mRingtone.setLooping(true);
-
             try {
                 return startPlayback(inTelephoneCall);
             } catch (Throwable t) {
                 LOGGER.e("Using the fallback ringtone, could not play " + ringtoneUri, t);
                 // Recover from any/all playback errors by attempting to play the fallback tone.
                 mRingtone = RingtoneManager.getRingtone(context, getFallbackRingtoneUri(context));
+                mRingtone.setAudioAttributes(getAudioAttributes());
+                mRingtone.setLooping(true);
                 try {
                     return startPlayback(inTelephoneCall);
                 } catch (Throwable t2) {
@@ -308,6 +372,75 @@ public final class AsyncRingtonePlayer {
             return false;
         }
 
+        /**
+         * Resolves and prepares the ringtone ahead of playback. Executes on ringtone-thread.
+         */
+        @Override
+        public void prepare(Context context, Uri ringtoneUri) {
+            checkAsyncRingtonePlayerThread();
+
+            if (mPreparedRingtone != null && ringtoneUri.equals(mPreparedUri)) {
+                return;
+            }
+            releasePrepared();
+
+            final long startTime = SystemClock.elapsedRealtime();
+            mPreparedRingtone = resolveRingtone(context, ringtoneUri);
+            mPreparedUri = ringtoneUri;
+            LOGGER.i("Prepared ringtone in %d ms", SystemClock.elapsedRealtime() - startTime);
+        }
+
+        /**
+         * Releases the prepared ringtone, if any. Executes on ringtone-thread.
+         */
+        @Override
+        public void releasePrepared() {
+            checkAsyncRingtonePlayerThread();
+
+            if (mPreparedRingtone != null) {
+                LOGGER.v("Releasing the prepared ringtone");
+                mPreparedRingtone.stop();
+                mPreparedRingtone = null;
+                mPreparedUri = null;
+            }
+        }
+
+        /**
+         * Fetches a looping ringtone for the given uri, falling back to the system default alarm
+         * and then the in-app fallback if no ringtone can be created for the uri. Uris that
+         * cannot be played are handled by the fallback in {@link #play}.
+         */
+        private Ringtone resolveRingtone(Context context, Uri ringtoneUri) {
+            // Attempt to fetch the specified ringtone.
+            Ringtone ringtone = RingtoneManager.getRingtone(context, ringtoneUri);
+
+            if (ringtone == null) {
+                // Fall back to the system default ringtone.
+                LOGGER.w("Falling back to the default alarm, could not open %s", ringtoneUri);
+                ringtoneUri = RingtoneManager.getDefaultUri(RingtoneManager.TYPE_ALARM);
+                ringtone = RingtoneManager.getRingtone(context, ringtoneUri);
+            }
+
+            if (ringtone == null) {
+                ringtone = RingtoneManager.getRingtone(context, getFallbackRingtoneUri(context));
+            }
+
+            // Setting the attributes (re)creates the underlying player, so do it before play().
+            ringtone.setAudioAttributes(getAudioAttributes());
+            ringtone.setLooping(true);
+            return ringtone;
+        }
+
+        /**
+         * @return attributes that play the ringtone via the alarm stream
+         */
+        private AudioAttributes getAudioAttributes() {
+            return new AudioAttributes.Builder()
+                    .setUsage(AudioAttributes.USAGE_ALARM)
+                    .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
+                    .build();
+        }
+
         /**
          * Prepare the Ringtone for playback, then start the playback.
          *
@@ -316,12 +449,8 @@ public final class AsyncRingtonePlayer {
          *      required to advance the crescendo effect
          */
         private boolean startPlayback(boolean inTelephoneCall) {
-            // Indicate the ringtone should be played via the alarm stream.
-            AudioAttributes audioAttributes = new AudioAttributes.Builder()
-                    .setUsage(AudioAttributes.USAGE_ALARM)
-                    .setContentType(AudioAttributes.CONTENT_TYPE_SONIFICATION)
-                    .build();
-            mRingtone.setAudioAttributes(audioAttributes);
+            // The ringtone was already told to play via the alarm stream when it was resolved.
+            final AudioAttributes audioAttributes = getAudioAttributes();
 
             // Attempt to adjust the ringtone volume if the user is in a telephone call.
             boolean scheduleVolumeAdjustment = false;
@@ -331,8 +460,9 @@ public final class AsyncRingtonePlayer {
             } else if (mCrescendoDuration > 0) {
                 setRingtoneVolume(0);
 
-                // Compute the time at which the crescendo will stop.
-                mCrescendoStopTime = Utils.now() + mCrescendoDuration;
+                LOGGER.v("Starting %d ms crescendo", mCrescendoDuration);
+                mCrescendoCurve = CrescendoCurve.forDuration(mCrescendoDuration);
+                mCrescendoStartTime = Utils.now();
                 scheduleVolumeAdjustment = true;
             }
 
@@ -342,6 +472,7 @@ public final class AsyncRingtonePlayer {
             mAudioManager.requestAudioFocus(mFocusRequest);
 
             mRingtone.play();
+            mStarted = true;
 
             return scheduleVolumeAdjustment;
         }
@@ -366,7 +497,8 @@ public final class AsyncRingtonePlayer {
             LOGGER.i("Stop ringtone via android.media.Ringtone.");
 
             mCrescendoDuration = 0;
-            mCrescendoStopTime = 0;
+            mCrescendoCurve = null;
+            mStarted = false;
 
             if (mRingtone != null && mRingtone.isPlaying()) {
                 LOGGER.d("Ringtone.stop() invoked.");
@@ -380,34 +512,38 @@ public final class AsyncRingtonePlayer {
             }
         }
 
+        @Override
+        public boolean isStarted() {
+            checkAsyncRingtonePlayerThread();
+            return mStarted;
+        }
+
         /**
          * Adjusts the volume of the ringtone being played to create a crescendo effect.
          */
         @Override
-        public boolean adjustVolume() {
+        public long adjustVolume() {
             checkAsyncRingtonePlayerThread();
 
             // If ringtone is absent or not playing, ignore volume adjustment.
-            if (mRingtone == null || !mRingtone.isPlaying()) {
+            if (mRingtone == null || !mRingtone.isPlaying() || mCrescendoCurve == null) {
                 mCrescendoDuration = 0;
-                mCrescendoStopTime = 0;
-                return false;
+                mCrescendoCurve = null;
+                return -1;
             }
 
-            // If the crescendo is complete set the volume to the maximum; we're done.
-            final long currentTime = Utils.now();
-            if (currentTime > mCrescendoStopTime) {
+            // Apply the step of the crescendo that has been reached.
+            final long elapsed = Utils.now() - mCrescendoStartTime;
+            setRingtoneVolume(mCrescendoCurve.getVolumeAt(elapsed));
+
+            // Schedule the next volume bump in the crescendo, if any.
+            final long delay = mCrescendoCurve.getDelayToNextStep(elapsed);
+            if (delay < 0) {
+                LOGGER.v("Crescendo complete");
                 mCrescendoDuration = 0;
-                mCrescendoStopTime = 0;
-                setRingtoneVolume(1);
-                return false;
+                mCrescendoCurve = null;
             }
-
-            final float volume = computeVolume(currentTime, mCrescendoStopTime, mCrescendoDuration);
-            setRingtoneVolume(volume);
-
-            // Schedule the next volume bump in the crescendo.
-            return true;
+            return delay;
         }
     }
 }
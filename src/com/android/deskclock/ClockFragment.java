@@ -21,7 +21,7 @@ import static android.view.View.GONE;
 import static android.view.View.INVISIBLE;
 import static android.view.View.VISIBLE;
 import static com.android.deskclock.uidata.UiDataModel.Tab.CLOCKS;
-import static java.util.Calendar.DAY_OF_WEEK;
+import static java.util.Calendar.DAY_OF_YEAR;
 
 import android.app.Activity;
 import android.content.BroadcastReceiver;
@@ -29,7 +29,6 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
 import android.os.Bundle;
-import android.text.format.DateUtils;
 import android.view.GestureDetector;
 import android.view.LayoutInflater;
 import android.view.MotionEvent;
@@ -45,14 +44,15 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.android.deskclock.data.City;
 import com.android.deskclock.data.CityListener;
+import com.android.deskclock.data.CityTime;
 import com.android.deskclock.data.DataModel;
 import com.android.deskclock.events.Events;
 import com.android.deskclock.uidata.UiDataModel;
 import com.android.deskclock.worldclock.CitySelectionActivity;
 
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
-import java.util.TimeZone;
 
 /**
  * Fragment that shows the clock (analog or digital), the next alarm info and the world clock.
@@ -268,7 +268,7 @@ public final class ClockFragment extends DeskClockFragment {
     private final class QuarterHourRunnable implements Runnable {
         @Override
         public void run() {
-            mCityAdapter.notifyDataSetChanged();
+            mCityAdapter.refreshTimes();
         }
     }
 
@@ -319,6 +319,15 @@ public final class ClockFragment extends DeskClockFragment {
         private final String mDateFormat;
         private final String mDateFormatForAccessibility;
 
+        /** The cities displayed by world clocks, beginning with the home city if shown. */
+        private final List<City> mCities = new ArrayList<>();
+
+        /** The times bound to the world clock of each city in {@link #mCities}. */
+        private final List<CityTime> mCityTimes = new ArrayList<>();
+
+        /** The day of the year of the date bound to the main clock. */
+        private int mMainClockDay;
+
         private SelectedCitiesAdapter(Context context, String dateFormat,
                 String dateFormatForAccessibility) {
             mContext = context;
@@ -327,6 +336,7 @@ public final class ClockFragment extends DeskClockFragment {
             mInflater = LayoutInflater.from(context);
             mIsPortrait = Utils.isPortrait(context);
             mShowHomeClock = DataModel.getDataModel().getShowHomeClock();
+            loadCities();
         }
 
         @Override
@@ -356,19 +366,12 @@ public final class ClockFragment extends DeskClockFragment {
             final int viewType = getItemViewType(position);
             switch (viewType) {
                 case WORLD_CLOCK:
-                    // Retrieve the city to bind.
-                    final City city;
-                    // If showing home clock, put it at the top
-                    if (mShowHomeClock && position == (mIsPortrait ? 1 : 0)) {
-                        city = getHomeCity();
-                    } else {
-                        final int positionAdjuster = (mIsPortrait ? 1 : 0)
-                                + (mShowHomeClock ? 1 : 0);
-                        city = getCities().get(position - positionAdjuster);
-                    }
-                    ((CityViewHolder) holder).bind(mContext, city);
+                    // Retrieve the city to bind; the home clock, if shown, is at the top.
+                    final int index = position - (mIsPortrait ? 1 : 0);
+                    ((CityViewHolder) holder).bind(mCities.get(index), mCityTimes.get(index));
                     break;
                 case MAIN_CLOCK:
+                    mMainClockDay = Calendar.getInstance().get(DAY_OF_YEAR);
                     ((MainClockViewHolder) holder).bind(mContext, mDateFormat,
                             mDateFormatForAccessibility);
                     break;
@@ -380,17 +383,41 @@ public final class ClockFragment extends DeskClockFragment {
         @Override
         public int getItemCount() {
             final int mainClockCount = mIsPortrait ? 1 : 0;
-            final int homeClockCount = mShowHomeClock ? 1 : 0;
-            final int worldClockCount = getCities().size();
-            return mainClockCount + homeClockCount + worldClockCount;
+            return mainClockCount + mCities.size();
         }
 
-        private City getHomeCity() {
-            return DataModel.getDataModel().getHomeCity();
+        /**
+         * Reloads the displayed cities and their times.
+         */
+        private void loadCities() {
+            mCities.clear();
+            if (mShowHomeClock) {
+                mCities.add(DataModel.getDataModel().getHomeCity());
+            }
+            mCities.addAll(DataModel.getDataModel().getSelectedCities());
+
+            mCityTimes.clear();
+            for (City city : mCities) {
+                mCityTimes.add(DataModel.getDataModel().getCityTime(city));
+            }
         }
 
-        private List<City> getCities() {
-            return DataModel.getDataModel().getSelectedCities();
+        /**
+         * Rebinds only the clocks whose displayed date or time difference has changed.
+         */
+        private void refreshTimes() {
+            final int mainClockCount = mIsPortrait ? 1 : 0;
+            if (mIsPortrait && Calendar.getInstance().get(DAY_OF_YEAR) != mMainClockDay) {
+                notifyItemChanged(0);
+            }
+
+            for (int i = 0; i < mCities.size(); i++) {
+                final CityTime cityTime = DataModel.getDataModel().getCityTime(mCities.get(i));
+                if (!cityTime.equals(mCityTimes.get(i))) {
+                    mCityTimes.set(i, cityTime);
+                    notifyItemChanged(mainClockCount + i);
+                }
+            }
         }
 
         private void refreshAlarm() {
@@ -401,6 +428,7 @@ public final class ClockFragment extends DeskClockFragment {
 
         @Override
         public void citiesChanged() {
+            loadCities();
             notifyDataSetChanged();
         }
 
@@ -420,7 +448,7 @@ public final class ClockFragment extends DeskClockFragment {
                 mHoursAhead = itemView.findViewById(R.id.hours_ahead);
             }
 
-            private void bind(Context context, City city) {
+            private void bind(City city, CityTime cityTime) {
                 final String cityTimeZoneId = city.getTimeZone().getID();
 
                 // Configure the digital clock or analog clock depending on the user preference.
@@ -441,34 +469,9 @@ public final class ClockFragment extends DeskClockFragment {
                 // Bind the city name.
                 mName.setText(city.getName());
 
-                // Compute if the city week day matches the weekday of the current timezone.
-                final Calendar localCal = Calendar.getInstance(TimeZone.getDefault());
-                final Calendar cityCal = Calendar.getInstance(city.getTimeZone());
-                final boolean displayDayOfWeek =
-                        localCal.get(DAY_OF_WEEK) != cityCal.get(DAY_OF_WEEK);
-
-                // Compare offset from UTC time on today's date (daylight savings time, etc.)
-                final TimeZone currentTimeZone = TimeZone.getDefault();
-                final TimeZone cityTimeZone = TimeZone.getTimeZone(cityTimeZoneId);
-                final long currentTimeMillis = System.currentTimeMillis();
-                final long currentUtcOffset = currentTimeZone.getOffset(currentTimeMillis);
-                final long cityUtcOffset = cityTimeZone.getOffset(currentTimeMillis);
-                final long offsetDelta = cityUtcOffset - currentUtcOffset;
-
-                final int hoursDifferent = (int) (offsetDelta / DateUtils.HOUR_IN_MILLIS);
-                final int minutesDifferent = (int) (offsetDelta / DateUtils.MINUTE_IN_MILLIS) % 60;
-                final boolean displayMinutes = offsetDelta % DateUtils.HOUR_IN_MILLIS != 0;
-                final boolean isAhead = hoursDifferent > 0 || (hoursDifferent == 0
-                        && minutesDifferent > 0);
                 // Bind the number of hours ahead or behind, or hide if the time is the same.
-                final boolean displayDifference = hoursDifferent != 0 || displayMinutes;
-                mHoursAhead.setVisibility(displayDifference ? VISIBLE : GONE);
-                final String timeString = Utils.createHoursDifferentString(
-                        context, displayMinutes, isAhead, hoursDifferent, minutesDifferent);
-                mHoursAhead.setText(displayDayOfWeek ?
-                        (context.getString(isAhead ? R.string.world_hours_tomorrow
-                                : R.string.world_hours_yesterday, timeString))
-                        : timeString);
+                mHoursAhead.setVisibility(cityTime.isTimeDifferent() ? VISIBLE : GONE);
+                mHoursAhead.setText(cityTime.getTimeDifference());
             }
         }
 
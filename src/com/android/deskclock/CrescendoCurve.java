@@ -0,0 +1,195 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock;
+
+import android.util.LongSparseArray;
+
+import java.util.Arrays;
+
+/**
+ * A precomputed volume ramp used to crescendo alarm and timer ringtones.
+ *
+ * <p>The gain rises linearly in decibels from {@link #MIN_GAIN_DB} (near silent) to 0dB (max)
+ * over the crescendo duration. Rather than recomputing the volume every few milliseconds, the
+ * ramp is split into discrete steps whose size is chosen so that each step is imperceptible:
+ * {@link #QUIET_STEP_DB} while the ringtone is barely audible and {@link #LOUD_STEP_DB} once it
+ * is not. Steps are never closer together than {@link #MIN_STEP_MILLIS}. Curves are cached per
+ * duration since only a handful of durations can be configured.</p>
+ */
+public final class CrescendoCurve {
+
+    /** The gain at which the crescendo starts. */
+    static final float MIN_GAIN_DB = -40f;
+
+    /** Below this gain the ringtone is barely audible and coarser steps go unnoticed. */
+    static final float QUIET_GAIN_DB = -30f;
+
+    /** Gain increase per step while the ringtone is quieter than {@link #QUIET_GAIN_DB}. */
+    static final float QUIET_STEP_DB = 1f;
+
+    /** Gain increase per step once the ringtone is louder than {@link #QUIET_GAIN_DB}. */
+    static final float LOUD_STEP_DB = 0.5f;
+
+    /** The minimum time between two volume adjustments. */
+    static final long MIN_STEP_MILLIS = 50;
+
+    private static final LongSparseArray<CrescendoCurve> sCurves = new LongSparseArray<>();
+
+    /** The length of the crescendo. */
+    private final long mDuration;
+
+    /** The offset from the start of the crescendo at which each step begins. */
+    private final long[] mStepTimes;
+
+    /** The volume scalar applied for each step. */
+    private final float[] mStepVolumes;
+
+    private CrescendoCurve(long duration) {
+        mDuration = duration;
+
+        final int maxSteps = (int) Math.min(duration / MIN_STEP_MILLIS,
+                (QUIET_GAIN_DB - MIN_GAIN_DB) / QUIET_STEP_DB - QUIET_GAIN_DB / LOUD_STEP_DB) + 1;
+        final long[] times = new long[maxSteps + 1];
+        final float[] volumes = new float[maxSteps + 1];
+
+        int count = 0;
+        float gain = MIN_GAIN_DB;
+        long time = 0;
+        while (time < duration && count < maxSteps) {
+            times[count] = time;
+            volumes[count] = toVolume(gain);
+            count++;
+
+            // Advance by one imperceptible step, but never faster than the minimum step time.
+            final float step = gain < QUIET_GAIN_DB ? QUIET_STEP_DB : LOUD_STEP_DB;
+            time = Math.max(time + MIN_STEP_MILLIS,
+                    (long) Math.ceil(toTime(gain + step, duration)));
+            gain = toGain(time, duration);
+        }
+
+        // The ramp always ends at full volume once the duration has elapsed, replacing a final
+        // step that would otherwise be too close to it.
+        if (count > 1 && duration - times[count - 1] < MIN_STEP_MILLIS) {
+            count--;
+        }
+        times[count] = duration;
+        volumes[count] = 1f;
+        count++;
+
+        mStepTimes = Arrays.copyOf(times, count);
+        mStepVolumes = Arrays.copyOf(volumes, count);
+    }
+
+    /**
+     * @param duration the length of the crescendo in milliseconds; must be positive
+     * @return the shared curve for the given duration
+     */
+    public static CrescendoCurve forDuration(long duration) {
+        if (duration <= 0) {
+            throw new IllegalArgumentException("Crescendo duration must be positive: " + duration);
+        }
+
+        synchronized (sCurves) {
+            CrescendoCurve curve = sCurves.get(duration);
+            if (curve == null) {
+                curve = new CrescendoCurve(duration);
+                sCurves.put(duration, curve);
+            }
+            return curve;
+        }
+    }
+
+    /**
+     * @return the length of the crescendo in milliseconds
+     */
+    public long getDuration() {
+        return mDuration;
+    }
+
+    /**
+     * @return the number of discrete volume steps, including the final full volume step
+     */
+    public int getStepCount() {
+        return mStepTimes.length;
+    }
+
+    /**
+     * @return the offset from the start of the crescendo at which the given step begins
+     */
+    public long getStepTime(int step) {
+        return mStepTimes[step];
+    }
+
+    /**
+     * @return the volume scalar of the given step
+     */
+    public float getStepVolume(int step) {
+        return mStepVolumes[step];
+    }
+
+    /**
+     * @param elapsed the time since the crescendo started
+     * @return the index of the step in effect after {@code elapsed} milliseconds
+     */
+    public int getStepAt(long elapsed) {
+        if (elapsed <= 0) {
+            return 0;
+        }
+
+        final int index = Arrays.binarySearch(mStepTimes, elapsed);
+        return index >= 0 ? index : -index - 2;
+    }
+
+    /**
+     * @param elapsed the time since the crescendo started
+     * @return the volume scalar in effect after {@code elapsed} milliseconds
+     */
+    public float getVolumeAt(long elapsed) {
+        return mStepVolumes[getStepAt(elapsed)];
+    }
+
+    /**
+     * @param elapsed the time since the crescendo started
+     * @return the time until the next step after {@code elapsed} milliseconds, or {@code -1} if
+     *      the crescendo is complete
+     */
+    public long getDelayToNextStep(long elapsed) {
+        final int next = getStepAt(elapsed) + 1;
+        return next < mStepTimes.length ? mStepTimes[next] - Math.max(0, elapsed) : -1;
+    }
+
+    /**
+     * @return the gain in decibels reached {@code time} milliseconds into the crescendo
+     */
+    private static float toGain(long time, long duration) {
+        return MIN_GAIN_DB * (1 - (float) time / duration);
+    }
+
+    /**
+     * @return the time in milliseconds at which the crescendo reaches the given gain
+     */
+    private static double toTime(float gain, long duration) {
+        return (1 - gain / MIN_GAIN_DB) * duration;
+    }
+
+    /**
+     * @return the volume scalar that corresponds to the given gain in decibels
+     */
+    private static float toVolume(float gain) {
+        return (float) Math.pow(10f, gain / 20f);
+    }
+}
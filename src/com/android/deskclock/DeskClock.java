@@ -32,10 +32,13 @@ import android.content.pm.PackageManager;
 import android.net.Uri;
 import android.os.Build;
 import android.os.Bundle;
+import android.os.Process;
+import android.os.SystemClock;
 import android.view.KeyEvent;
 import android.view.Menu;
 import android.view.MenuItem;
 import android.view.View;
+import android.view.ViewTreeObserver;
 import android.widget.ImageView;
 import android.widget.TextView;
 
@@ -53,6 +56,7 @@ import com.android.deskclock.data.DataModel;
 import com.android.deskclock.data.DataModel.SilentSetting;
 import com.android.deskclock.data.OnSilentSettingsListener;
 import com.android.deskclock.events.Events;
+import com.android.deskclock.perf.Perf;
 import com.android.deskclock.provider.Alarm;
 import com.android.deskclock.stopwatch.StopwatchService;
 import com.android.deskclock.timer.TimerService;
@@ -63,8 +67,11 @@ import com.google.android.material.bottomnavigation.BottomNavigationView;
 import com.google.android.material.navigation.NavigationBarView;
 import com.google.android.material.snackbar.Snackbar;
 
+import java.io.FileDescriptor;
+import java.io.PrintWriter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 /**
  * The main activity of the application which displays 4 different tabs contains alarms, world
@@ -121,6 +128,9 @@ public class DeskClock extends BaseActivity
     /** {@code true} when a settings change necessitates recreating this activity. */
     private boolean mRecreateActivity;
 
+    /** {@code true} once the first frame drawn by this process has been measured. */
+    private static boolean sFirstFrameRecorded;
+
     private static final String PERMISSION_POWER_OFF_ALARM =
             "org.codeaurora.permission.POWER_OFF_ALARM";
 
@@ -241,6 +251,30 @@ public class DeskClock extends BaseActivity
         UiDataModel.getUiDataModel().addTabListener(mTabChangeWatcher);
 
         mTitleView = findViewById(R.id.title_view);
+
+        if (!sFirstFrameRecorded && Perf.isEnabled()) {
+            sFirstFrameRecorded = true;
+            recordFirstFrame();
+        }
+    }
+
+    /**
+     * Records the time from process start until this activity first draws, per the tab shown.
+     */
+    private void recordFirstFrame() {
+        final View decorView = getWindow().getDecorView();
+        final String metric = Perf.STARTUP_FIRST_FRAME + "." +
+                UiDataModel.getUiDataModel().getSelectedTab().name().toLowerCase(Locale.ROOT);
+        decorView.getViewTreeObserver().addOnPreDrawListener(
+                new ViewTreeObserver.OnPreDrawListener() {
+                    @Override
+                    public boolean onPreDraw() {
+                        decorView.getViewTreeObserver().removeOnPreDrawListener(this);
+                        Perf.sample(metric,
+                                SystemClock.uptimeMillis() - Process.getStartUptimeMillis());
+                        return true;
+                    }
+                });
     }
 
     private final NavigationBarView.OnItemSelectedListener mNavigationListener
@@ -282,6 +316,17 @@ public class DeskClock extends BaseActivity
         }
     };
 
+    @Override
+    public void dump(@NonNull String prefix, FileDescriptor fd, @NonNull PrintWriter writer,
+            String[] args) {
+        super.dump(prefix, fd, writer, args);
+        Perf.dump(writer);
+
+        final UiDataModel uiDataModel = UiDataModel.getUiDataModel();
+        writer.println("Formatted number cache: hits=" + uiDataModel.getFormattedNumberCacheHits()
+                + " misses=" + uiDataModel.getFormattedNumberCacheMisses());
+    }
+
     @Override
     protected void onStart() {
         DataModel.getDataModel().addSilentSettingsListener(mSilentSettingChangeWatcher);
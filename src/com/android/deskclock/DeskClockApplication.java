@@ -20,18 +20,40 @@ import android.app.Application;
 import android.content.Context;
 import android.content.SharedPreferences;
 import android.preference.PreferenceManager;
+import android.util.Log;
 
 import com.android.deskclock.controller.Controller;
 import com.android.deskclock.data.DataModel;
 import com.android.deskclock.events.LogEventTracker;
+import com.android.deskclock.perf.Perf;
+import com.android.deskclock.perf.RingBufferPerfSink;
 import com.android.deskclock.uidata.UiDataModel;
 
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 public class DeskClockApplication extends Application {
 
+    /** Log tag whose loggability enables performance measurements on release builds. */
+    private static final String PERF_TAG = "DeskClockPerf";
+
+    /** The number of recent performance measurements retained for dumps. */
+    private static final int PERF_BUFFER_CAPACITY = 256;
+
+    /** The number of threads creating data models in parallel at startup. */
+    private static final int PREWARM_THREADS = 2;
+
     @Override
     public void onCreate() {
         super.onCreate();
 
+        // Record performance measurements on development builds or when explicitly enabled via
+        // "adb shell setprop log.tag.DeskClockPerf DEBUG"; they are dumped with dumpsys.
+        if (LogUtils.Logger.DEBUG || Log.isLoggable(PERF_TAG, Log.DEBUG)) {
+            Perf.setSink(new RingBufferPerfSink(PERF_BUFFER_CAPACITY));
+        }
+
         final Context applicationContext = getApplicationContext();
         final SharedPreferences prefs = getDefaultSharedPreferences(applicationContext);
 
@@ -39,6 +61,40 @@ public class DeskClockApplication extends Application {
         UiDataModel.getUiDataModel().init(applicationContext, prefs);
         Controller.getController().setContext(applicationContext);
         Controller.getController().addEventTracker(new LogEventTracker(applicationContext));
+
+        prewarm();
+    }
+
+    /**
+     * Creates, off the main thread, the data models the tab that will be shown first depends on.
+     * The threads exit once idle so nothing lingers after startup.
+     */
+    private static void prewarm() {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(PREWARM_THREADS,
+                PREWARM_THREADS, 1, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                r -> new Thread(r, "DeskClockPrewarm"));
+        executor.allowCoreThreadTimeOut(true);
+
+        final UiDataModel uiDataModel = UiDataModel.getUiDataModel();
+        DataModel.getDataModel().prewarm(getFeature(uiDataModel.getSelectedTab()), executor);
+        uiDataModel.prewarm(executor);
+    }
+
+    /**
+     * @return the data model feature backing the given tab
+     */
+    private static DataModel.Feature getFeature(UiDataModel.Tab tab) {
+        switch (tab) {
+            case ALARMS:
+                return DataModel.Feature.ALARMS;
+            case TIMERS:
+                return DataModel.Feature.TIMERS;
+            case STOPWATCH:
+                return DataModel.Feature.STOPWATCH;
+            case CLOCKS:
+            default:
+                return DataModel.Feature.CLOCKS;
+        }
     }
 
     /**
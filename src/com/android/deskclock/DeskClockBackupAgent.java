@@ -21,11 +21,16 @@ import android.app.PendingIntent;
 import android.app.backup.BackupAgent;
 import android.app.backup.BackupDataInput;
 import android.app.backup.BackupDataOutput;
+import android.content.ContentProviderOperation;
+import android.content.ContentProviderResult;
 import android.content.ContentResolver;
 import android.content.Context;
 import android.content.Intent;
+import android.content.OperationApplicationException;
 import android.os.ParcelFileDescriptor;
+import android.os.RemoteException;
 import android.os.SystemClock;
+import android.util.LongSparseArray;
 
 import androidx.annotation.NonNull;
 
@@ -33,9 +38,11 @@ import com.android.deskclock.alarms.AlarmStateManager;
 import com.android.deskclock.data.DataModel;
 import com.android.deskclock.provider.Alarm;
 import com.android.deskclock.provider.AlarmInstance;
+import com.android.deskclock.provider.ClockContract;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.List;
 
@@ -118,26 +125,60 @@ public class DeskClockBackupAgent extends BackupAgent {
         // Now that alarms have been restored, schedule new instances in AlarmManager.
         final ContentResolver contentResolver = context.getContentResolver();
         final List<Alarm> alarms = Alarm.getAlarms(contentResolver, null);
+        final LongSparseArray<Alarm> alarmsById = new LongSparseArray<>(alarms.size());
+        for (Alarm alarm : alarms) {
+            alarmsById.put(alarm.id, alarm);
+        }
+
+        // Remove any instances that may currently exist for the restored alarms;
+        // these aren't relevant on the restore device and we'll recreate them below.
+        final List<AlarmInstance> staleInstances = new ArrayList<>();
+        for (AlarmInstance instance : AlarmInstance.getInstances(contentResolver, null)) {
+            if (instance.mAlarmId != null && alarmsById.get(instance.mAlarmId) != null) {
+                staleInstances.add(instance);
+            }
+        }
+        AlarmStateManager.cancelInstances(context, staleInstances);
+
+        final ArrayList<ContentProviderOperation> operations = new ArrayList<>();
+        for (AlarmInstance instance : staleInstances) {
+            operations.add(ContentProviderOperation
+                    .newDelete(AlarmInstance.getContentUri(instance.mId)).build());
+        }
 
+        // Create the next alarm instance of each enabled alarm in memory.
+        final int firstInsert = operations.size();
+        final List<AlarmInstance> newInstances = new ArrayList<>();
         final Calendar now = Calendar.getInstance();
         for (Alarm alarm : alarms) {
-            // Remove any instances that may currently exist for the alarm;
-            // these aren't relevant on the restore device and we'll recreate them below.
-            AlarmStateManager.deleteAllInstances(context, alarm.id);
-
             if (alarm.enabled) {
-                // Create the next alarm instance to schedule.
-                AlarmInstance alarmInstance = alarm.createInstanceAfter(now);
-
-                // Add the next alarm instance to the database.
-                alarmInstance = AlarmInstance.addInstance(contentResolver, alarmInstance);
+                final AlarmInstance alarmInstance = alarm.createInstanceAfter(now);
+                newInstances.add(alarmInstance);
+                operations.add(ContentProviderOperation.newInsert(AlarmInstance.CONTENT_URI)
+                        .withValues(AlarmInstance.createContentValues(alarmInstance))
+                        .build());
+            }
+        }
 
-                // Schedule the next alarm instance in AlarmManager.
-                AlarmStateManager.registerInstance(context, alarmInstance, true);
-                LOGGER.i("DeskClockBackupAgent scheduled alarm instance: %s", alarmInstance);
+        // Apply all deletes and inserts in a single transaction.
+        if (!operations.isEmpty()) {
+            try {
+                final ContentProviderResult[] results =
+                        contentResolver.applyBatch(ClockContract.AUTHORITY, operations);
+                for (int i = 0; i < newInstances.size(); i++) {
+                    newInstances.get(i).mId = AlarmInstance.getId(results[firstInsert + i].uri);
+                }
+            } catch (OperationApplicationException | RemoteException e) {
+                // Leave the restore pending; the existing instances are fixed up instead.
+                LOGGER.e("Failed to replace restored alarm instances", e);
+                return false;
             }
         }
 
+        // Schedule the new alarm instances in AlarmManager, then the next alarm once.
+        AlarmStateManager.registerInstances(context, newInstances);
+        LOGGER.i("DeskClockBackupAgent scheduled %d alarm instances", newInstances.size());
+
         // Remove the preference to avoid executing this logic multiple times.
         DataModel.getDataModel().setRestoreBackupFinished(false);
 
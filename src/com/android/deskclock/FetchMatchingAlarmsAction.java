@@ -16,14 +16,12 @@
 
 package com.android.deskclock;
 
-import android.app.Activity;
 import android.content.ContentResolver;
 import android.content.Context;
 import android.content.Intent;
 import android.provider.AlarmClock;
 
 import com.android.deskclock.alarms.AlarmStateManager;
-import com.android.deskclock.controller.Controller;
 import com.android.deskclock.provider.Alarm;
 import com.android.deskclock.provider.AlarmInstance;
 
@@ -44,15 +42,13 @@ class FetchMatchingAlarmsAction implements Runnable {
     private final List<Alarm> mAlarms;
     private final Intent mIntent;
     private final List<Alarm> mMatchingAlarms = new ArrayList<>();
-    private final Activity mActivity;
+    private String mFailure;
 
-    public FetchMatchingAlarmsAction(Context context, List<Alarm> alarms, Intent intent,
-                                     Activity activity) {
+    public FetchMatchingAlarmsAction(Context context, List<Alarm> alarms, Intent intent) {
         mContext = context;
         // only enabled alarms are passed
         mAlarms = alarms;
         mIntent = intent;
-        mActivity = activity;
     }
 
     @Override
@@ -83,7 +79,7 @@ class FetchMatchingAlarmsAction implements Runnable {
                     final String amPm = isPm == null ? "" : (isPm ? ampm[1] : ampm[0]);
                     final String reason = mContext.getString(R.string.invalid_time, hour, minutes,
                             amPm);
-                    notifyFailureAndLog(reason, mActivity);
+                    failAndLog(reason);
                     return;
                 }
 
@@ -97,7 +93,7 @@ class FetchMatchingAlarmsAction implements Runnable {
                 }
                 if (mMatchingAlarms.isEmpty()) {
                     final String reason = mContext.getString(R.string.no_alarm_at, hour24, minutes);
-                    notifyFailureAndLog(reason, mActivity);
+                    failAndLog(reason);
                     return;
                 }
                 break;
@@ -119,7 +115,7 @@ class FetchMatchingAlarmsAction implements Runnable {
                 final AlarmInstance nextAlarm = AlarmStateManager.getNextFiringAlarm(mContext);
                 if (nextAlarm == null) {
                     final String reason = mContext.getString(R.string.no_scheduled_alarms);
-                    notifyFailureAndLog(reason, mActivity);
+                    failAndLog(reason);
                     return;
                 }
 
@@ -138,7 +134,7 @@ class FetchMatchingAlarmsAction implements Runnable {
                 final String label = mIntent.getStringExtra(AlarmClock.EXTRA_MESSAGE);
                 if (label == null) {
                     final String reason = mContext.getString(R.string.no_label_specified);
-                    notifyFailureAndLog(reason, mActivity);
+                    failAndLog(reason);
                     return;
                 }
 
@@ -151,7 +147,7 @@ class FetchMatchingAlarmsAction implements Runnable {
 
                 if (mMatchingAlarms.isEmpty()) {
                     final String reason = mContext.getString(R.string.no_alarms_with_label);
-                    notifyFailureAndLog(reason, mActivity);
+                    failAndLog(reason);
                     return;
                 }
                 break;
@@ -170,8 +166,15 @@ class FetchMatchingAlarmsAction implements Runnable {
         return mMatchingAlarms;
     }
 
-    private void notifyFailureAndLog(String reason, Activity activity) {
+    /**
+     * @return the reason no alarms could be matched, or {@code null} if the intent was valid
+     */
+    public String getFailure() {
+        return mFailure;
+    }
+
+    private void failAndLog(String reason) {
         LogUtils.e(reason);
-        Controller.getController().notifyVoiceFailure(activity, reason);
+        mFailure = reason;
     }
 }
@@ -36,6 +36,7 @@ import android.os.Parcelable;
 import android.provider.AlarmClock;
 import android.text.TextUtils;
 import android.text.format.DateFormat;
+import android.view.WindowManager;
 
 import com.android.deskclock.alarms.AlarmStateManager;
 import com.android.deskclock.controller.Controller;
@@ -50,12 +51,11 @@ import com.android.deskclock.timer.TimerService;
 import com.android.deskclock.uidata.UiDataModel;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 
 /**
  * This activity is never visible. It processes all public intents defined by {@link AlarmClock}
@@ -66,21 +66,41 @@ public class HandleApiCalls extends Activity {
 
     private static final LogUtils.Logger LOGGER = new LogUtils.Logger("HandleApiCalls");
 
+    /** Serializes the commands that change alarms and their instances. */
+    private static final String ALARMS_KEY = "alarms";
+
     private Context mAppContext;
 
+    /** The number of commands submitted by this activity whose outcome is not yet reported. */
+    private int mPendingCommands;
+
     @Override
     protected void onCreate(Bundle icicle) {
         super.onCreate(icicle);
 
         mAppContext = getApplicationContext();
 
+        // The window is never drawn; it must not swallow touches while commands are running.
+        getWindow().addFlags(WindowManager.LayoutParams.FLAG_NOT_TOUCHABLE);
+
+        handleIntent(getIntent());
+    }
+
+    @Override
+    protected void onNewIntent(Intent intent) {
+        super.onNewIntent(intent);
+
+        setIntent(intent);
+        handleIntent(intent);
+    }
+
+    private void handleIntent(Intent intent) {
         try {
-            final Intent intent = getIntent();
             final String action = intent == null ? null : intent.getAction();
             if (action == null) {
                 return;
             }
-            LOGGER.i("onCreate: " + intent);
+            LOGGER.i("handleIntent: " + intent);
 
             switch (action) {
 
@@ -109,10 +129,31 @@ public class HandleApiCalls extends Activity {
         } catch (Exception e) {
             LOGGER.wtf(e);
         } finally {
-            finish();
+            // The voice interaction ends with this activity, so outlive any submitted command.
+            if (mPendingCommands == 0) {
+                finish();
+            }
         }
     }
 
+    /**
+     * Runs the {@code command} in the background; this activity finishes once its outcome, and
+     * that of every other command it submitted, is reported.
+     */
+    private void submit(String coalesceKey, IntentCommandPipeline.Command command) {
+        mPendingCommands++;
+        IntentCommandPipeline.getPipeline().submit(ALARMS_KEY, coalesceKey, this, command);
+    }
+
+    /**
+     * Called on the main thread once the outcome of a submitted command has been reported.
+     */
+    void onCommandReported() {
+        mPendingCommands--;
+        if (mPendingCommands == 0) {
+            finish();
+        }
+    }
 
     private void handleDismissAlarm(Intent intent) {
         // Change to the alarms tab.
@@ -121,27 +162,25 @@ public class HandleApiCalls extends Activity {
         // Open DeskClock which is now positioned on the alarms tab.
         startActivity(new Intent(mAppContext, DeskClock.class));
 
-        new DismissAlarmAsync(mAppContext, intent, this).execute();
+        submit(null, new DismissAlarmCommand(intent));
     }
 
-    public static void dismissAlarm(Alarm alarm, Activity activity) {
-        final Context context = activity.getApplicationContext();
+    static IntentCommandPipeline.Result dismissAlarm(Alarm alarm, Context context) {
         final AlarmInstance instance = AlarmInstance.getNextUpcomingInstanceByAlarmId(
                 context.getContentResolver(), alarm.id);
         if (instance == null) {
             final String reason = context.getString(R.string.no_alarm_scheduled_for_this_time);
-            Controller.getController().notifyVoiceFailure(activity, reason);
             LOGGER.i("No alarm instance to dismiss");
-            return;
+            return IntentCommandPipeline.Result.failure(reason);
         }
 
-        dismissAlarmInstance(instance, activity);
+        return dismissAlarmInstance(instance, context);
     }
 
-    public static void dismissAlarmInstance(AlarmInstance instance, Activity activity) {
+    static IntentCommandPipeline.Result dismissAlarmInstance(AlarmInstance instance,
+            Context context) {
         Utils.enforceNotMainLooper();
 
-        final Context context = activity.getApplicationContext();
         final Date alarmTime = instance.getAlarmTime().getTime();
         final String time = DateFormat.getTimeFormat(context).format(alarmTime);
 
@@ -155,92 +194,89 @@ public class HandleApiCalls extends Activity {
             // Otherwise the alarm cannot be dismissed at this time.
             final String reason = context.getString(
                     R.string.alarm_cant_be_dismissed_still_more_than_24_hours_away, time);
-            Controller.getController().notifyVoiceFailure(activity, reason);
             LOGGER.i("Can't dismiss alarm more than 24 hours in advance");
+            return IntentCommandPipeline.Result.failure(reason);
         }
 
         // Log the successful dismissal.
         final String reason = context.getString(R.string.alarm_is_dismissed, time);
-        Controller.getController().notifyVoiceSuccess(activity, reason);
         LOGGER.i("Alarm dismissed: " + instance);
         Events.sendAlarmEvent(R.string.action_dismiss, R.string.label_intent);
+        return IntentCommandPipeline.Result.success(reason, null);
     }
 
-    private static class DismissAlarmAsync {
+    /**
+     * Dismisses the alarms matching the DISMISS_ALARM intent data, or asks the user to pick one.
+     */
+    private static final class DismissAlarmCommand implements IntentCommandPipeline.Command {
 
-        private final Context mContext;
         private final Intent mIntent;
-        private final Activity mActivity;
 
-        public DismissAlarmAsync(Context context, Intent intent, Activity activity) {
-            mContext = context;
+        private DismissAlarmCommand(Intent intent) {
             mIntent = intent;
-            mActivity = activity;
         }
 
-        protected void execute() {
-            ExecutorService executor = Executors.newSingleThreadExecutor();
-            executor.execute(() -> {
-                final ContentResolver cr = mContext.getContentResolver();
-                final List<Alarm> alarms = getEnabledAlarms(mContext);
-                if (alarms.isEmpty()) {
-                    final String reason = mContext.getString(R.string.no_scheduled_alarms);
-                    Controller.getController().notifyVoiceFailure(mActivity, reason);
-                    LOGGER.i("No scheduled alarms");
-                    return;
-                }
+        @Override
+        public IntentCommandPipeline.Result execute(Context context) {
+            final ContentResolver cr = context.getContentResolver();
+            final List<Alarm> alarms = getEnabledAlarms(context);
+            if (alarms.isEmpty()) {
+                final String reason = context.getString(R.string.no_scheduled_alarms);
+                LOGGER.i("No scheduled alarms");
+                return IntentCommandPipeline.Result.failure(reason);
+            }
 
-                // remove Alarms in MISSED, DISMISSED, and PREDISMISSED states
-                for (Iterator<Alarm> i = alarms.iterator(); i.hasNext();) {
-                    final AlarmInstance instance = AlarmInstance.getNextUpcomingInstanceByAlarmId(
-                            cr, i.next().id);
-                    if (instance == null || instance.mAlarmState > FIRED_STATE) {
-                        i.remove();
-                    }
+            // remove Alarms in MISSED, DISMISSED, and PREDISMISSED states
+            for (Iterator<Alarm> i = alarms.iterator(); i.hasNext();) {
+                final AlarmInstance instance = AlarmInstance.getNextUpcomingInstanceByAlarmId(
+                        cr, i.next().id);
+                if (instance == null || instance.mAlarmState > FIRED_STATE) {
+                    i.remove();
                 }
+            }
 
-                final String searchMode = mIntent.getStringExtra(
-                        AlarmClock.EXTRA_ALARM_SEARCH_MODE);
-                if (searchMode == null && alarms.size() > 1) {
-                    // shows the UI where user picks which alarm they want to DISMISS
-                    final Intent pickSelectionIntent = new Intent(mContext,
-                            AlarmSelectionActivity.class)
-                            .setFlags(Intent.FLAG_ACTIVITY_NEW_TASK)
-                            .putExtra(EXTRA_ACTION, ACTION_DISMISS)
-                            .putExtra(EXTRA_ALARMS, alarms.toArray(new Parcelable[0]));
-                    mContext.startActivity(pickSelectionIntent);
-                    final String voiceMessage = mContext.getString(R.string.pick_alarm_to_dismiss);
-                    Controller.getController().notifyVoiceSuccess(mActivity, voiceMessage);
-                    return;
-                }
+            final String searchMode = mIntent.getStringExtra(AlarmClock.EXTRA_ALARM_SEARCH_MODE);
+            if (searchMode == null && alarms.size() > 1) {
+                // shows the UI where user picks which alarm they want to DISMISS
+                return pickAlarmToDismiss(context, alarms);
+            }
 
-                // fetch the alarms that are specified by the intent
-                final FetchMatchingAlarmsAction fmaa =
-                        new FetchMatchingAlarmsAction(mContext, alarms, mIntent, mActivity);
-                fmaa.run();
-                final List<Alarm> matchingAlarms = fmaa.getMatchingAlarms();
-
-                // If there are multiple matching alarms and it wasn't expected
-                // disambiguate what the user meant
-                if (!AlarmClock.ALARM_SEARCH_MODE_ALL.equals(searchMode) &&
-                        matchingAlarms.size() > 1) {
-                  final Intent pickSelectionIntent = new Intent(mContext,
-                          AlarmSelectionActivity.class)
-                          .setFlags(Intent.FLAG_ACTIVITY_NEW_TASK)
-                          .putExtra(EXTRA_ACTION, ACTION_DISMISS)
-                          .putExtra(EXTRA_ALARMS, matchingAlarms.toArray(new Parcelable[0]));
-                    mContext.startActivity(pickSelectionIntent);
-                    final String voiceMessage = mContext.getString(R.string.pick_alarm_to_dismiss);
-                    Controller.getController().notifyVoiceSuccess(mActivity, voiceMessage);
-                    return;
-                }
+            // fetch the alarms that are specified by the intent
+            final FetchMatchingAlarmsAction fmaa =
+                    new FetchMatchingAlarmsAction(context, alarms, mIntent);
+            fmaa.run();
+            if (fmaa.getFailure() != null) {
+                return IntentCommandPipeline.Result.failure(fmaa.getFailure());
+            }
+            final List<Alarm> matchingAlarms = fmaa.getMatchingAlarms();
 
-                // Apply the action to the matching alarms
-                for (Alarm alarm : matchingAlarms) {
-                    dismissAlarm(alarm, mActivity);
-                    LOGGER.i("Alarm dismissed: " + alarm);
+            // If there are multiple matching alarms and it wasn't expected
+            // disambiguate what the user meant
+            if (!AlarmClock.ALARM_SEARCH_MODE_ALL.equals(searchMode) &&
+                    matchingAlarms.size() > 1) {
+                return pickAlarmToDismiss(context, matchingAlarms);
+            }
+
+            // Apply the action to the matching alarms; report the first failure, if any.
+            IntentCommandPipeline.Result outcome = null;
+            for (Alarm alarm : matchingAlarms) {
+                final IntentCommandPipeline.Result result = dismissAlarm(alarm, context);
+                if (outcome == null || outcome.isSuccess()) {
+                    outcome = result;
                 }
-            });
+            }
+            return outcome;
+        }
+
+        private static IntentCommandPipeline.Result pickAlarmToDismiss(Context context,
+                List<Alarm> alarms) {
+            final Intent pickSelectionIntent = new Intent(context, AlarmSelectionActivity.class)
+                    .setFlags(Intent.FLAG_ACTIVITY_NEW_TASK)
+                    .putExtra(EXTRA_ACTION, ACTION_DISMISS)
+                    .putExtra(EXTRA_ALARMS, alarms.toArray(new Parcelable[0]));
+            final String voiceMessage = context.getString(R.string.pick_alarm_to_dismiss);
+            return IntentCommandPipeline.Result.success(voiceMessage,
+                    () -> context.startActivity(pickSelectionIntent));
         }
 
         private static List<Alarm> getEnabledAlarms(Context context) {
@@ -251,26 +287,26 @@ public class HandleApiCalls extends Activity {
     }
 
     private void handleSnoozeAlarm() {
-        ExecutorService executor = Executors.newSingleThreadExecutor();
-        executor.execute(() -> {
-            final Context context = getApplicationContext();
+        submit(null, context -> {
             final ContentResolver cr = context.getContentResolver();
             final List<AlarmInstance> alarmInstances = AlarmInstance.getInstancesByState(
                     cr, FIRED_STATE);
             if (alarmInstances.isEmpty()) {
                 final String reason = context.getString(R.string.no_firing_alarms);
-                Controller.getController().notifyVoiceFailure(this, reason);
                 LOGGER.i("No firing alarms");
-                return;
+                return IntentCommandPipeline.Result.failure(reason);
             }
 
+            IntentCommandPipeline.Result outcome = null;
             for (AlarmInstance firingAlarmInstance : alarmInstances) {
-                snoozeAlarm(firingAlarmInstance, context, this);
+                outcome = snoozeAlarm(firingAlarmInstance, context);
             }
+            return outcome;
         });
     }
 
-    static void snoozeAlarm(AlarmInstance alarmInstance, Context context, Activity activity) {
+    static IntentCommandPipeline.Result snoozeAlarm(AlarmInstance alarmInstance,
+            Context context) {
         Utils.enforceNotMainLooper();
 
         final String time = DateFormat.getTimeFormat(context).format(
@@ -278,9 +314,9 @@ public class HandleApiCalls extends Activity {
         final String reason = context.getString(R.string.alarm_is_snoozed, time);
         AlarmStateManager.setSnoozeState(context, alarmInstance, true);
 
-        Controller.getController().notifyVoiceSuccess(activity, reason);
         LOGGER.i("Alarm snoozed: " + alarmInstance);
         Events.sendAlarmEvent(R.string.action_snooze, R.string.label_intent);
+        return IntentCommandPipeline.Result.success(reason, null);
     }
 
     /***
@@ -311,7 +347,6 @@ public class HandleApiCalls extends Activity {
         }
 
         final boolean skipUi = intent.getBooleanExtra(AlarmClock.EXTRA_SKIP_UI, false);
-        final ContentResolver cr = getContentResolver();
 
         // If time information was not provided an existing alarm cannot be located and a new one
         // cannot be created so show the UI for creating the alarm from scratch per spec.
@@ -336,43 +371,91 @@ public class HandleApiCalls extends Activity {
         final List<String> argsList = new ArrayList<>();
         setSelectionFromIntent(intent, hour, minutes, selection, argsList);
 
-        // Try to locate an existing alarm using the intent data.
+        // The alarm to create if no existing alarm matches the intent data.
+        final Alarm newAlarm = new Alarm();
+        updateAlarmFromIntent(newAlarm, intent);
+        newAlarm.deleteAfterUse = !newAlarm.daysOfWeek.isRepeating() && skipUi;
+
+        // Identical requests that have yet to run would have the same effect and are coalesced.
         final String[] args = argsList.toArray(new String[0]);
-        final List<Alarm> alarms = Alarm.getAlarms(cr, selection.toString(), args);
+        final String coalesceKey = selection + Arrays.toString(args) + "|skipUi=" + skipUi;
+        submit(coalesceKey, new SetAlarmCommand(selection.toString(), args, newAlarm, skipUi));
+    }
 
-        final Alarm alarm;
-        if (!alarms.isEmpty()) {
-            // Enable the first matching alarm.
-            alarm = alarms.get(0);
-            alarm.enabled = true;
-            Alarm.updateAlarm(cr, alarm);
+    /**
+     * Enables the alarm matching the SET_ALARM intent data, or creates one, and schedules its
+     * next instance.
+     */
+    private static final class SetAlarmCommand implements IntentCommandPipeline.Command {
+
+        private final String mSelection;
+        private final String[] mArgs;
+        private final Alarm mNewAlarm;
+        private final boolean mSkipUi;
+
+        private SetAlarmCommand(String selection, String[] args, Alarm newAlarm, boolean skipUi) {
+            mSelection = selection;
+            mArgs = args;
+            mNewAlarm = newAlarm;
+            mSkipUi = skipUi;
+        }
 
-            // Delete all old instances.
-            AlarmStateManager.deleteAllInstances(this, alarm.id);
+        @Override
+        public IntentCommandPipeline.Result execute(Context context) {
+            final ContentResolver cr = context.getContentResolver();
 
-            Events.sendAlarmEvent(R.string.action_update, R.string.label_intent);
-            LOGGER.i("Updated alarm: " + alarm);
-        } else {
-            // No existing alarm could be located; create one using the intent data.
-            alarm = new Alarm();
-            updateAlarmFromIntent(alarm, intent);
-            alarm.deleteAfterUse = !alarm.daysOfWeek.isRepeating() && skipUi;
+            // Try to locate an existing alarm using the intent data.
+            final List<Alarm> alarms = Alarm.getAlarms(cr, mSelection, mArgs);
 
-            // Save the new alarm.
-            Alarm.addAlarm(cr, alarm);
+            final Alarm alarm;
+            if (!alarms.isEmpty()) {
+                // Enable the first matching alarm.
+                alarm = alarms.get(0);
+                alarm.enabled = true;
+                Alarm.updateAlarm(cr, alarm);
 
-            Events.sendAlarmEvent(R.string.action_create, R.string.label_intent);
-            LOGGER.i("Created new alarm: " + alarm);
-        }
+                // Delete all old instances.
+                AlarmStateManager.deleteAllInstances(context, alarm.id);
 
-        // Schedule the next instance.
-        final Calendar now = DataModel.getDataModel().getCalendar();
-        final AlarmInstance alarmInstance = alarm.createInstanceAfter(now);
-        setupInstance(alarmInstance, skipUi);
+                Events.sendAlarmEvent(R.string.action_update, R.string.label_intent);
+                LOGGER.i("Updated alarm: " + alarm);
+            } else {
+                // No existing alarm could be located; create one using the intent data.
+                alarm = mNewAlarm;
+
+                // Save the new alarm.
+                Alarm.addAlarm(cr, alarm);
+
+                Events.sendAlarmEvent(R.string.action_create, R.string.label_intent);
+                LOGGER.i("Created new alarm: " + alarm);
+            }
 
-        final String time = DateFormat.getTimeFormat(this)
-                .format(alarmInstance.getAlarmTime().getTime());
-        Controller.getController().notifyVoiceSuccess(this, getString(R.string.alarm_is_set, time));
+            // Schedule the next instance.
+            final Calendar now = DataModel.getDataModel().getCalendar();
+            final AlarmInstance instance =
+                    AlarmInstance.addInstance(cr, alarm.createInstanceAfter(now));
+            AlarmStateManager.registerInstance(context, instance, true);
+
+            final long alarmTime = instance.getAlarmTime().getTimeInMillis();
+            final String time = DateFormat.getTimeFormat(context)
+                    .format(instance.getAlarmTime().getTime());
+            final String message = context.getString(R.string.alarm_is_set, time);
+            return IntentCommandPipeline.Result.success(message, () -> {
+                AlarmUtils.popAlarmSetToast(context, alarmTime);
+                if (!mSkipUi) {
+                    // Change to the alarms tab.
+                    UiDataModel.getUiDataModel().setSelectedTab(ALARMS);
+
+                    // Open DeskClock which is now positioned on the alarms tab.
+                    final Intent showAlarm =
+                            Alarm.createIntent(context, DeskClock.class, instance.mAlarmId)
+                                    .putExtra(AlarmClockFragment.SCROLL_TO_ALARM_INTENT_EXTRA,
+                                            instance.mAlarmId)
+                                    .addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+                    context.startActivity(showAlarm);
+                }
+            });
+        }
     }
 
     private void handleDismissTimer(Intent intent) {
@@ -498,22 +581,6 @@ public class HandleApiCalls extends Activity {
         }
     }
 
-    private void setupInstance(AlarmInstance instance, boolean skipUi) {
-        instance = AlarmInstance.addInstance(this.getContentResolver(), instance);
-        AlarmStateManager.registerInstance(this, instance, true);
-        AlarmUtils.popAlarmSetToast(this, instance.getAlarmTime().getTimeInMillis());
-        if (!skipUi) {
-            // Change to the alarms tab.
-            UiDataModel.getUiDataModel().setSelectedTab(ALARMS);
-
-            // Open DeskClock which is now positioned on the alarms tab.
-            final Intent showAlarm = Alarm.createIntent(this, DeskClock.class, instance.mAlarmId)
-                    .putExtra(AlarmClockFragment.SCROLL_TO_ALARM_INTENT_EXTRA, instance.mAlarmId)
-                    .addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
-            startActivity(showAlarm);
-        }
-    }
-
     /**
      * @param alarm the alarm to be updated
      * @param intent the intent containing new alarm field values to merge into the {@code alarm}
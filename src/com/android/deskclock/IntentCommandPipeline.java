@@ -0,0 +1,324 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.Process;
+import android.util.ArrayMap;
+
+import androidx.annotation.VisibleForTesting;
+
+import com.android.deskclock.controller.Controller;
+import com.android.deskclock.perf.Perf;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executes the provider work requested by {@link android.provider.AlarmClock} intents off the
+ * main thread. {@link HandleApiCalls} validates each intent on the main thread and submits a
+ * {@link Command} here, so that bursts of intents never block the main thread.
+ * <ul>
+ *     <li>Commands sharing a serial key run one at a time in submission order; commands with
+ *     different keys may run concurrently.</li>
+ *     <li>A command submitted while an identical command (same coalesce key) is still waiting
+ *     to run is dropped, and its requester is told the outcome of the waiting command.</li>
+ *     <li>Outcomes, including the failure of a command that throws, are reported to every
+ *     requester through the voice controller, and any follow-up UI work is run, on the main
+ *     thread. Each requester is then told its command is done so that it may finish.</li>
+ * </ul>
+ */
+final class IntentCommandPipeline {
+
+    private static final LogUtils.Logger LOGGER = new LogUtils.Logger("IntentCommandPipeline");
+
+    /** Counter of commands dropped because an identical command was already waiting. */
+    private static final String COMMAND_COALESCED = "intent_command_coalesced";
+
+    /** Span of the background execution of one command. */
+    private static final String COMMAND_EXECUTE = "intent_command_execute";
+
+    /** The maximum number of commands, each with a different serial key, running at once. */
+    private static final int MAX_THREADS = 2;
+
+    private static final IntentCommandPipeline sPipeline = new IntentCommandPipeline();
+
+    /** Guards the queues, the waiting commands and the outstanding count below. */
+    private final Object mLock = new Object();
+
+    /** Maps a serial key to its commands, the first of which is running. */
+    private final Map<String, ArrayDeque<PendingCommand>> mQueues = new ArrayMap<>();
+
+    /** Maps a coalesce key to the command with that key that has not yet started. */
+    private final Map<String, PendingCommand> mWaiting = new ArrayMap<>();
+
+    /** The number of commands submitted whose outcome has not yet been reported. */
+    private int mOutstanding;
+
+    /** The number of commands ever submitted, including those coalesced. */
+    private long mSubmitted;
+
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+
+    private final ExecutorService mExecutor;
+
+    static IntentCommandPipeline getPipeline() {
+        return sPipeline;
+    }
+
+    private IntentCommandPipeline() {
+        final ThreadPoolExecutor executor = new ThreadPoolExecutor(MAX_THREADS, MAX_THREADS,
+                10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> new Thread(() -> {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    r.run();
+                }, "IntentCommandPipeline"));
+        executor.allowCoreThreadTimeOut(true);
+        mExecutor = executor;
+    }
+
+    /**
+     * @param serialKey identifies the state the command modifies; commands with equal keys
+     *      never run concurrently
+     * @param coalesceKey identifies commands whose effects are identical; {@code null} if the
+     *      command must never be dropped
+     * @param requester the activity hosting the voice interaction, if any, that requested the
+     *      command; it is told once the outcome has been reported
+     * @param command the work to execute in the background
+     */
+    void submit(String serialKey, String coalesceKey, HandleApiCalls requester,
+            Command command) {
+        synchronized (mLock) {
+            mOutstanding++;
+            mSubmitted++;
+
+            if (coalesceKey != null) {
+                final PendingCommand waiting = mWaiting.get(coalesceKey);
+                if (waiting != null) {
+                    waiting.mRequesters.add(requester);
+                    Perf.count(COMMAND_COALESCED);
+                    LOGGER.i("Coalesced command: %s", coalesceKey);
+                    return;
+                }
+            }
+
+            final PendingCommand pending =
+                    new PendingCommand(serialKey, coalesceKey, requester, command);
+            if (coalesceKey != null) {
+                mWaiting.put(coalesceKey, pending);
+            }
+
+            ArrayDeque<PendingCommand> queue = mQueues.get(serialKey);
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                mQueues.put(serialKey, queue);
+            }
+            queue.add(pending);
+            if (queue.size() == 1) {
+                mExecutor.execute(pending);
+            }
+        }
+    }
+
+    /**
+     * @return the number of commands ever submitted, including those coalesced
+     */
+    @VisibleForTesting
+    long getSubmittedCount() {
+        synchronized (mLock) {
+            return mSubmitted;
+        }
+    }
+
+    /**
+     * Blocks until every submitted command has run and reported its outcome.
+     *
+     * @return {@code true} if the pipeline became idle before the timeout elapsed
+     */
+    @VisibleForTesting
+    boolean awaitIdle(long timeoutMillis) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + timeoutMillis;
+        synchronized (mLock) {
+            while (mOutstanding > 0) {
+                final long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    return false;
+                }
+                mLock.wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Called on a worker thread when {@code finished} completes; starts the next command with
+     * the same serial key.
+     */
+    private void onExecuted(PendingCommand finished) {
+        synchronized (mLock) {
+            final ArrayDeque<PendingCommand> queue = mQueues.get(finished.mSerialKey);
+            queue.remove();
+            final PendingCommand next = queue.peek();
+            if (next == null) {
+                mQueues.remove(finished.mSerialKey);
+            } else {
+                mExecutor.execute(next);
+            }
+        }
+    }
+
+    /**
+     * Called on the main thread once the outcome of a command has been reported.
+     */
+    private void onReported(int requesterCount) {
+        synchronized (mLock) {
+            mOutstanding -= requesterCount;
+            if (mOutstanding == 0) {
+                mLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Work requested by an intent.
+     */
+    interface Command {
+        /**
+         * Runs on a background thread.
+         *
+         * @return the outcome to report to every requester, or {@code null} if there is none
+         */
+        Result execute(Context context);
+    }
+
+    /**
+     * The outcome of a {@link Command}.
+     */
+    static final class Result {
+
+        private final boolean mSuccess;
+        private final String mMessage;
+        private final Runnable mFollowUp;
+
+        private Result(boolean success, String message, Runnable followUp) {
+            mSuccess = success;
+            mMessage = message;
+            mFollowUp = followUp;
+        }
+
+        /**
+         * @return {@code true} if the command succeeded
+         */
+        boolean isSuccess() {
+            return mSuccess;
+        }
+
+        /**
+         * @param message spoken to indicate the command succeeded
+         * @param followUp run once on the main thread after the outcome is reported; may be
+         *      {@code null}
+         */
+        static Result success(String message, Runnable followUp) {
+            return new Result(true, message, followUp);
+        }
+
+        /**
+         * @param message spoken to indicate the command failed
+         */
+        static Result failure(String message) {
+            return new Result(false, message, null);
+        }
+    }
+
+    private final class PendingCommand implements Runnable {
+
+        private final String mSerialKey;
+        private final String mCoalesceKey;
+        private final Command mCommand;
+
+        /** Guarded by {@link #mLock} until the command starts. */
+        private final List<HandleApiCalls> mRequesters = new ArrayList<>(1);
+
+        private PendingCommand(String serialKey, String coalesceKey, HandleApiCalls requester,
+                Command command) {
+            mSerialKey = serialKey;
+            mCoalesceKey = coalesceKey;
+            mCommand = command;
+            mRequesters.add(requester);
+        }
+
+        @Override
+        public void run() {
+            // Once started, later duplicates must run again to observe the effects of this one.
+            final List<HandleApiCalls> requesters;
+            synchronized (mLock) {
+                if (mCoalesceKey != null) {
+                    mWaiting.remove(mCoalesceKey);
+                }
+                requesters = new ArrayList<>(mRequesters);
+            }
+
+            final Context context = requesters.get(0).getApplicationContext();
+            Result result;
+            final long start = Perf.begin();
+            try {
+                result = mCommand.execute(context);
+            } catch (Exception e) {
+                LOGGER.wtf(e);
+                result = Result.failure(context.getString(R.string.voice_action_failed));
+            } finally {
+                Perf.end(COMMAND_EXECUTE, start);
+                onExecuted(this);
+            }
+
+            final Result outcome = result;
+            mMainHandler.post(() -> {
+                try {
+                    if (outcome != null) {
+                        report(outcome, requesters);
+                    }
+                } finally {
+                    onReported(requesters.size());
+                    for (HandleApiCalls requester : requesters) {
+                        requester.onCommandReported();
+                    }
+                }
+            });
+        }
+
+        private void report(Result result, List<HandleApiCalls> requesters) {
+            final Controller controller = Controller.getController();
+            for (HandleApiCalls requester : requesters) {
+                if (result.mSuccess) {
+                    controller.notifyVoiceSuccess(requester, result.mMessage);
+                } else {
+                    controller.notifyVoiceFailure(requester, result.mMessage);
+                }
+            }
+            if (result.mFollowUp != null) {
+                result.mFollowUp.run();
+            }
+        }
+    }
+}
@@ -204,6 +204,21 @@ public class ItemAdapter<T extends ItemAdapter.ItemHolder>
         return this;
     }
 
+    /**
+     * Appends the specified item holders to the end of the dataset. Invokes
+     * {@link #notifyItemRangeInserted} to update the UI.
+     *
+     * @param itemHolders the item holders to append
+     */
+    public void addItems(@NonNull List<T> itemHolders) {
+        for (T itemHolder : itemHolders) {
+            itemHolder.addOnItemChangedListener(mItemChangedNotifier);
+        }
+        final int position = mItemHolders.size();
+        mItemHolders.addAll(itemHolders);
+        notifyItemRangeInserted(position, itemHolders.size());
+    }
+
     /**
      * Removes the first occurrence of the specified element from this list, if it is present
      * (optional operation). If this list does not contain the element, it is unchanged. Invokes
@@ -220,6 +235,32 @@ public class ItemAdapter<T extends ItemAdapter.ItemHolder>
         }
     }
 
+    /**
+     * Replaces the item holder with the same {@link ItemHolder#itemId} as the specified item
+     * holder, transferring the instance state of the old holder to the new one. Invokes
+     * {@link #notifyItemChanged} to update the UI.
+     *
+     * @param itemHolder the item holder to swap in
+     * @return {@code true} if a matching item holder was found and replaced
+     */
+    public boolean replaceItem(@NonNull T itemHolder) {
+        for (int i = 0; i < getItemCount(); i++) {
+            final T oldItemHolder = mItemHolders.get(i);
+            if (oldItemHolder.itemId == itemHolder.itemId) {
+                final Bundle bundle = new Bundle();
+                oldItemHolder.onSaveInstanceState(bundle);
+                itemHolder.onRestoreInstanceState(bundle);
+
+                oldItemHolder.removeOnItemChangedListener(mItemChangedNotifier);
+                itemHolder.addOnItemChangedListener(mItemChangedNotifier);
+                mItemHolders.set(i, itemHolder);
+                notifyItemChanged(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * Sets the listener to be invoked whenever any item changes.
      */
@@ -0,0 +1,63 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock;
+
+import java.util.function.Supplier;
+
+/**
+ * Creates a value the first time it is requested, from any thread, and returns that same value
+ * thereafter. A factory may request other lazy values it depends on; as long as those
+ * dependencies are acyclic, concurrent first requests cannot deadlock.
+ *
+ * @param <T> the type of the value
+ */
+public final class Lazy<T> {
+
+    private Supplier<T> mFactory;
+
+    private volatile T mValue;
+
+    public Lazy(Supplier<T> factory) {
+        mFactory = factory;
+    }
+
+    /**
+     * @return the value, creating it on the calling thread if no other thread has yet done so
+     */
+    public T get() {
+        T value = mValue;
+        if (value == null) {
+            synchronized (this) {
+                value = mValue;
+                if (value == null) {
+                    value = mFactory.get();
+                    mValue = value;
+                    // The factory may capture large objects; it is never needed again.
+                    mFactory = null;
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * @return {@code true} if the value has been created
+     */
+    public boolean isInitialized() {
+        return mValue != null;
+    }
+}
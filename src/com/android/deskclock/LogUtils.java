@@ -19,6 +19,8 @@ package com.android.deskclock;
 import android.os.Build;
 import android.util.Log;
 
+import java.util.function.Supplier;
+
 public class LogUtils {
 
     /**
@@ -42,6 +44,86 @@ public class LogUtils {
         DEFAULT_LOGGER.w(message, args);
     }
 
+    public static void v(String message, Object arg) {
+        DEFAULT_LOGGER.v(message, arg);
+    }
+
+    public static void v(String message, Object arg1, Object arg2) {
+        DEFAULT_LOGGER.v(message, arg1, arg2);
+    }
+
+    public static void v(String message, long arg) {
+        DEFAULT_LOGGER.v(message, arg);
+    }
+
+    public static void v(String message, long arg1, long arg2) {
+        DEFAULT_LOGGER.v(message, arg1, arg2);
+    }
+
+    public static void v(Supplier<String> message) {
+        DEFAULT_LOGGER.v(message);
+    }
+
+    public static void d(String message, Object arg) {
+        DEFAULT_LOGGER.d(message, arg);
+    }
+
+    public static void d(String message, Object arg1, Object arg2) {
+        DEFAULT_LOGGER.d(message, arg1, arg2);
+    }
+
+    public static void d(String message, long arg) {
+        DEFAULT_LOGGER.d(message, arg);
+    }
+
+    public static void d(String message, long arg1, long arg2) {
+        DEFAULT_LOGGER.d(message, arg1, arg2);
+    }
+
+    public static void d(Supplier<String> message) {
+        DEFAULT_LOGGER.d(message);
+    }
+
+    public static void i(String message, Object arg) {
+        DEFAULT_LOGGER.i(message, arg);
+    }
+
+    public static void i(String message, Object arg1, Object arg2) {
+        DEFAULT_LOGGER.i(message, arg1, arg2);
+    }
+
+    public static void i(String message, long arg) {
+        DEFAULT_LOGGER.i(message, arg);
+    }
+
+    public static void i(String message, long arg1, long arg2) {
+        DEFAULT_LOGGER.i(message, arg1, arg2);
+    }
+
+    public static void i(Supplier<String> message) {
+        DEFAULT_LOGGER.i(message);
+    }
+
+    public static void w(String message, Object arg) {
+        DEFAULT_LOGGER.w(message, arg);
+    }
+
+    public static void w(String message, Object arg1, Object arg2) {
+        DEFAULT_LOGGER.w(message, arg1, arg2);
+    }
+
+    public static void w(String message, long arg) {
+        DEFAULT_LOGGER.w(message, arg);
+    }
+
+    public static void w(String message, long arg1, long arg2) {
+        DEFAULT_LOGGER.w(message, arg1, arg2);
+    }
+
+    public static void w(Supplier<String> message) {
+        DEFAULT_LOGGER.w(message);
+    }
+
     public static void e(String message, Object... args) {
         DEFAULT_LOGGER.e(message, args);
     }
@@ -108,6 +190,132 @@ public class LogUtils {
             }
         }
 
+        /*
+         * The overloads below avoid the varargs array and the boxing of primitive arguments, so
+         * that logging at a disabled level allocates nothing. The Supplier variants defer building
+         * a message that is expensive to compute; note that a lambda capturing local state is
+         * itself allocated, so prefer the other overloads when the arguments are cheap.
+         */
+        public void v(String message, Object arg) {
+            if (isVerboseLoggable()) {
+                Log.v(logTag, String.format(message, arg));
+            }
+        }
+
+        public void v(String message, Object arg1, Object arg2) {
+            if (isVerboseLoggable()) {
+                Log.v(logTag, String.format(message, arg1, arg2));
+            }
+        }
+
+        public void v(String message, long arg) {
+            if (isVerboseLoggable()) {
+                Log.v(logTag, String.format(message, arg));
+            }
+        }
+
+        public void v(String message, long arg1, long arg2) {
+            if (isVerboseLoggable()) {
+                Log.v(logTag, String.format(message, arg1, arg2));
+            }
+        }
+
+        public void v(Supplier<String> message) {
+            if (isVerboseLoggable()) {
+                Log.v(logTag, message.get());
+            }
+        }
+
+        public void d(String message, Object arg) {
+            if (isDebugLoggable()) {
+                Log.d(logTag, String.format(message, arg));
+            }
+        }
+
+        public void d(String message, Object arg1, Object arg2) {
+            if (isDebugLoggable()) {
+                Log.d(logTag, String.format(message, arg1, arg2));
+            }
+        }
+
+        public void d(String message, long arg) {
+            if (isDebugLoggable()) {
+                Log.d(logTag, String.format(message, arg));
+            }
+        }
+
+        public void d(String message, long arg1, long arg2) {
+            if (isDebugLoggable()) {
+                Log.d(logTag, String.format(message, arg1, arg2));
+            }
+        }
+
+        public void d(Supplier<String> message) {
+            if (isDebugLoggable()) {
+                Log.d(logTag, message.get());
+            }
+        }
+
+        public void i(String message, Object arg) {
+            if (isInfoLoggable()) {
+                Log.i(logTag, String.format(message, arg));
+            }
+        }
+
+        public void i(String message, Object arg1, Object arg2) {
+            if (isInfoLoggable()) {
+                Log.i(logTag, String.format(message, arg1, arg2));
+            }
+        }
+
+        public void i(String message, long arg) {
+            if (isInfoLoggable()) {
+                Log.i(logTag, String.format(message, arg));
+            }
+        }
+
+        public void i(String message, long arg1, long arg2) {
+            if (isInfoLoggable()) {
+                Log.i(logTag, String.format(message, arg1, arg2));
+            }
+        }
+
+        public void i(Supplier<String> message) {
+            if (isInfoLoggable()) {
+                Log.i(logTag, message.get());
+            }
+        }
+
+        public void w(String message, Object arg) {
+            if (isWarnLoggable()) {
+                Log.w(logTag, String.format(message, arg));
+            }
+        }
+
+        public void w(String message, Object arg1, Object arg2) {
+            if (isWarnLoggable()) {
+                Log.w(logTag, String.format(message, arg1, arg2));
+            }
+        }
+
+        public void w(String message, long arg) {
+            if (isWarnLoggable()) {
+                Log.w(logTag, String.format(message, arg));
+            }
+        }
+
+        public void w(String message, long arg1, long arg2) {
+            if (isWarnLoggable()) {
+                Log.w(logTag, String.format(message, arg1, arg2));
+            }
+        }
+
+        public void w(Supplier<String> message) {
+            if (isWarnLoggable()) {
+                Log.w(logTag, message.get());
+            }
+        }
+
         public void e(String message, Object... args) {
             if (isErrorLoggable()) {
                 Log.e(logTag, args == null || args.length == 0 ? message
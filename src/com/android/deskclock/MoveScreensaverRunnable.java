@@ -27,6 +27,8 @@ import android.view.animation.AccelerateInterpolator;
 import android.view.animation.DecelerateInterpolator;
 import android.view.animation.Interpolator;
 
+import androidx.annotation.VisibleForTesting;
+
 import com.android.deskclock.uidata.UiDataModel;
 
 /**
@@ -34,12 +36,36 @@ import com.android.deskclock.uidata.UiDataModel;
  * {@link #mContentView} if {@link #mSaverView} is transparent. It also schedules itself to run
  * each minute, at which time {@link #mSaverView} is faded out, set to a new random location, and
  * faded in.
+ *
+ * <p>In low power mode {@link #mSaverView} instead steps, without animating, to the next point of
+ * a fixed path that spreads its positions evenly over {@link #mContentView}, so that each move
+ * costs a single frame.</p>
  */
 public final class MoveScreensaverRunnable implements Runnable {
 
     /** The duration over which the fade in/out animations occur. */
     private static final long FADE_TIME = 3000L;
 
+    /** The number of positions in the low power path; one per minute of an hour. */
+    @VisibleForTesting
+    static final int PATH_LENGTH = 60;
+
+    /**
+     * The low power path, as fractions of the free space in each axis. The points follow the
+     * two dimensional low discrepancy sequence based on the plastic number, so consecutive
+     * positions are far apart and every part of the screen is visited equally often.
+     */
+    private static final float[] PATH_X = new float[PATH_LENGTH];
+    private static final float[] PATH_Y = new float[PATH_LENGTH];
+
+    static {
+        final double plastic = 1.32471795724474602596;
+        for (int i = 0; i < PATH_LENGTH; i++) {
+            PATH_X[i] = (float) ((0.5 + (i + 1) / plastic) % 1);
+            PATH_Y[i] = (float) ((0.5 + (i + 1) / (plastic * plastic)) % 1);
+        }
+    }
+
     /** Accelerate the hide animation. */
     private final Interpolator mAcceleration = new AccelerateInterpolator();
 
@@ -52,16 +78,25 @@ public final class MoveScreensaverRunnable implements Runnable {
     /** The display within the {@link #mContentView} that is randomly positioned. */
     private final View mSaverView;
 
+    /** {@code true} if the saver view follows the low power path rather than animating. */
+    private final boolean mLowPower;
+
     /** Tracks the currently executing animation if any; used to gracefully stop the animation. */
     private Animator mActiveAnimator;
 
+    /** The index of the next position along the low power path. */
+    private int mPathIndex;
+
     /**
      * @param contentView contains the {@code saverView}
      * @param saverView a child view of {@code contentView} that periodically moves around
+     * @param lowPower {@code true} to move the {@code saverView} along a fixed path without
+     *      animating
      */
-    public MoveScreensaverRunnable(View contentView, View saverView) {
+    public MoveScreensaverRunnable(View contentView, View saverView, boolean lowPower) {
         mContentView = contentView;
         mSaverView = saverView;
+        mLowPower = lowPower;
     }
 
     /**
@@ -77,8 +112,9 @@ public final class MoveScreensaverRunnable implements Runnable {
         // Execute the position updater runnable to choose the first random position of saver view.
         run();
 
-        // Schedule callbacks every minute to adjust the position of mSaverView.
-        UiDataModel.getUiDataModel().addMinuteCallback(this, -FADE_TIME);
+        // Schedule callbacks every minute to adjust the position of mSaverView. Fades begin early
+        // so that the saver view reappears as the minute changes.
+        UiDataModel.getUiDataModel().addMinuteCallback(this, mLowPower ? 0 : -FADE_TIME);
     }
 
     /**
@@ -99,6 +135,11 @@ public final class MoveScreensaverRunnable implements Runnable {
         Utils.enforceMainLooper();
 
         final boolean selectInitialPosition = mSaverView.getAlpha() == 0f;
+        if (mLowPower) {
+            moveAlongPath(selectInitialPosition);
+            return;
+        }
+
         if (selectInitialPosition) {
             // When selecting an initial position for the saver view the width and height of
             // mContentView are untrustworthy if this was caused by a configuration change. To
@@ -147,6 +188,26 @@ public final class MoveScreensaverRunnable implements Runnable {
         mActiveAnimator.start();
     }
 
+    /**
+     * Moves the saver view to the next position of the low power path in a single frame.
+     *
+     * @param initialPosition {@code true} if the size of the content view may be untrustworthy
+     */
+    private void moveAlongPath(boolean initialPosition) {
+        // As with random positions, the initial position is chosen within the smallest box that
+        // is guaranteed to fit after a configuration change.
+        final int smallestDim = Math.min(mContentView.getWidth(), mContentView.getHeight());
+        final int width = initialPosition ? smallestDim : mContentView.getWidth();
+        final int height = initialPosition ? smallestDim : mContentView.getHeight();
+        final float freeX = Math.max(0, width - mSaverView.getWidth());
+        final float freeY = Math.max(0, height - mSaverView.getHeight());
+
+        mSaverView.setX((int) (PATH_X[mPathIndex] * freeX));
+        mSaverView.setY((int) (PATH_Y[mPathIndex] * freeY));
+        mSaverView.setAlpha(1f);
+        mPathIndex = (mPathIndex + 1) % PATH_LENGTH;
+    }
+
     /**
      * @return a random integer between 0 and the {@code maximum} exclusive.
      */
@@ -100,7 +100,24 @@ public class NotificationUtils {
         });
     }
 
+    /**
+     * Ids of the channels created by this process; creating a channel is an IPC.
+     */
+    private static final Set<String> sCreatedChannelIds = new ArraySet<>();
+
+    /**
+     * Creates the channel with the given id unless this process already created it.
+     */
     public static void createChannel(Context context, String id) {
+        synchronized (sCreatedChannelIds) {
+            if (sCreatedChannelIds.contains(id)) {
+                return;
+            }
+        }
+        createChannelInternal(context, id);
+    }
+
+    private static void createChannelInternal(Context context, String id) {
         if (!CHANNEL_PROPS.containsKey(id)) {
             Log.e(TAG, "Invalid channel requested: " + id);
             return;
@@ -121,6 +138,9 @@ public class NotificationUtils {
         }
         NotificationManagerCompat nm = NotificationManagerCompat.from(context);
         nm.createNotificationChannel(channel);
+        synchronized (sCreatedChannelIds) {
+            sCreatedChannelIds.add(id);
+        }
     }
 
     private static void deleteChannel(NotificationManagerCompat nm, String channelId) {
@@ -153,7 +173,7 @@ public class NotificationUtils {
         // to the actual channels
         Set<String> existingChannelIds = getAllExistingChannelIds(nm);
         for (String id : existingChannelIds) {
-            createChannel(context, id);
+            createChannelInternal(context, id);
         }
     }
 }
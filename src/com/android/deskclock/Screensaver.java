@@ -36,6 +36,7 @@ public final class Screensaver extends DreamService {
 
     private final OnPreDrawListener mStartPositionUpdater = new StartPositionUpdater();
     private MoveScreensaverRunnable mPositionUpdater;
+    private ScreensaverPowerMonitor mPowerMonitor;
 
     private String mDateFormat;
     private String mDateFormatForAccessibility;
@@ -97,7 +98,9 @@ public final class Screensaver extends DreamService {
                 | View.SYSTEM_UI_FLAG_HIDE_NAVIGATION
                 | View.SYSTEM_UI_FLAG_LAYOUT_FULLSCREEN);
 
-        mPositionUpdater = new MoveScreensaverRunnable(mContentView, mMainClockView);
+        final boolean lowPower = DataModel.getDataModel().getScreensaverLowPowerOn();
+        mPositionUpdater = new MoveScreensaverRunnable(mContentView, mMainClockView, lowPower);
+        mPowerMonitor = new ScreensaverPowerMonitor(LOGGER, mContentView);
 
         // We want the screen saver to exit upon user interaction.
         setInteractive(false);
@@ -113,6 +116,7 @@ public final class Screensaver extends DreamService {
 
         startPositionUpdater();
         UiDataModel.getUiDataModel().addMidnightCallback(mMidnightUpdater);
+        mPowerMonitor.start();
     }
 
     @Override
@@ -120,6 +124,7 @@ public final class Screensaver extends DreamService {
         LOGGER.v("Screensaver detached from window");
         super.onDetachedFromWindow();
 
+        mPowerMonitor.stop();
         UiDataModel.getUiDataModel().removePeriodicCallback(mMidnightUpdater);
         stopPositionUpdater();
 
@@ -34,6 +34,7 @@ import android.widget.TextClock;
 
 import androidx.annotation.NonNull;
 
+import com.android.deskclock.data.DataModel;
 import com.android.deskclock.events.Events;
 import com.android.deskclock.uidata.UiDataModel;
 
@@ -86,6 +87,7 @@ public class ScreensaverActivity extends BaseActivity {
     private View mMainClockView;
 
     private MoveScreensaverRunnable mPositionUpdater;
+    private ScreensaverPowerMonitor mPowerMonitor;
 
     private boolean mAlreadyActive;
 
@@ -116,7 +118,9 @@ public class ScreensaverActivity extends BaseActivity {
                 | View.SYSTEM_UI_FLAG_LAYOUT_FULLSCREEN);
         mContentView.setOnApplyWindowInsetsListener(new InteractionListener());
 
-        mPositionUpdater = new MoveScreensaverRunnable(mContentView, mMainClockView);
+        final boolean lowPower = DataModel.getDataModel().getScreensaverLowPowerOn();
+        mPositionUpdater = new MoveScreensaverRunnable(mContentView, mMainClockView, lowPower);
+        mPowerMonitor = new ScreensaverPowerMonitor(LOGGER, mContentView);
 
         final Intent intent = getIntent();
         if (intent != null) {
@@ -146,6 +150,7 @@ public class ScreensaverActivity extends BaseActivity {
 
         startPositionUpdater();
         UiDataModel.getUiDataModel().addMidnightCallback(mMidnightUpdater);
+        mPowerMonitor.start();
 
         final Intent intent = registerReceiver(null, new IntentFilter(ACTION_BATTERY_CHANGED),
                 Context.RECEIVER_NOT_EXPORTED);
@@ -156,6 +161,7 @@ public class ScreensaverActivity extends BaseActivity {
     @Override
     public void onPause() {
         super.onPause();
+        mPowerMonitor.stop();
         UiDataModel.getUiDataModel().removePeriodicCallback(mMidnightUpdater);
         stopPositionUpdater();
     }
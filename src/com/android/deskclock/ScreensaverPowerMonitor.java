@@ -0,0 +1,125 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock;
+
+import static android.text.format.DateUtils.MINUTE_IN_MILLIS;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.os.SystemClock;
+import android.view.View;
+import android.view.ViewTreeObserver;
+
+import androidx.annotation.VisibleForTesting;
+
+import com.android.deskclock.perf.Perf;
+import com.android.deskclock.uidata.UiDataModel;
+
+/**
+ * Counts the frames drawn by a screen saver and the number of times its main thread wakes up,
+ * and reports both every hour so that its power draw through the night can be verified. A
+ * wakeup is counted each time the main thread finishes a burst of work and goes idle again.
+ */
+final class ScreensaverPowerMonitor {
+
+    /** A report covering at least this long is recorded as a full hour. */
+    @VisibleForTesting
+    static final long FULL_HOUR_MILLIS = 59 * MINUTE_IN_MILLIS;
+
+    private final LogUtils.Logger mLogger;
+
+    /** The view whose window draws are counted. */
+    private final View mContentView;
+
+    private final ViewTreeObserver.OnDrawListener mFrameCounter = () -> mFrames++;
+
+    private final MessageQueue.IdleHandler mWakeupCounter = () -> {
+        mWakeups++;
+        return true;
+    };
+
+    private final Runnable mReporter = () -> report(SystemClock.elapsedRealtime());
+
+    private boolean mStarted;
+    private int mFrames;
+    private int mWakeups;
+
+    /** The time at which the current reporting period began. */
+    private long mPeriodStart;
+
+    ScreensaverPowerMonitor(LogUtils.Logger logger, View contentView) {
+        mLogger = logger;
+        mContentView = contentView;
+    }
+
+    /**
+     * Starts counting; reports follow at the top of each hour.
+     */
+    void start() {
+        if (mStarted) {
+            return;
+        }
+
+        mStarted = true;
+        mFrames = 0;
+        mWakeups = 0;
+        mPeriodStart = SystemClock.elapsedRealtime();
+        mContentView.getViewTreeObserver().addOnDrawListener(mFrameCounter);
+        Looper.myQueue().addIdleHandler(mWakeupCounter);
+        UiDataModel.getUiDataModel().addHourCallback(mReporter);
+    }
+
+    /**
+     * Reports the counts for the partial hour since the last report and stops counting.
+     */
+    void stop() {
+        if (!mStarted) {
+            return;
+        }
+
+        report(SystemClock.elapsedRealtime());
+        mStarted = false;
+        UiDataModel.getUiDataModel().removePeriodicCallback(mReporter);
+        Looper.myQueue().removeIdleHandler(mWakeupCounter);
+        final ViewTreeObserver observer = mContentView.getViewTreeObserver();
+        if (observer.isAlive()) {
+            observer.removeOnDrawListener(mFrameCounter);
+        }
+    }
+
+    /**
+     * Reports the counts for the period ending at {@code now} and begins the next period.
+     *
+     * @param now the current {@link SystemClock#elapsedRealtime()}
+     */
+    @VisibleForTesting
+    void report(long now) {
+        final long elapsed = now - mPeriodStart;
+        mLogger.i("%d frames and %d wakeups in %d minutes", mFrames, mWakeups,
+                elapsed / MINUTE_IN_MILLIS);
+
+        // Partial hours, when the screen saver started or stopped, would skew the histograms.
+        if (elapsed >= FULL_HOUR_MILLIS) {
+            Perf.sample(Perf.SCREENSAVER_FRAMES_PER_HOUR, mFrames);
+            Perf.sample(Perf.SCREENSAVER_WAKEUPS_PER_HOUR, mWakeups);
+        }
+
+        mFrames = 0;
+        mWakeups = 0;
+        mPeriodStart = now;
+    }
+}
@@ -246,8 +246,7 @@ public class Utils {
     }
 
     public static boolean isAlarmWithin24Hours(AlarmInstance alarmInstance) {
-        final Calendar nextAlarmTime = alarmInstance.getAlarmTime();
-        final long nextAlarmTimeMillis = nextAlarmTime.getTimeInMillis();
+        final long nextAlarmTimeMillis = alarmInstance.getSchedule().getAlarmTime();
         return nextAlarmTimeMillis - System.currentTimeMillis() <= DateUtils.DAY_IN_MILLIS;
     }
 
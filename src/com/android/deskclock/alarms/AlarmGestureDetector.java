@@ -0,0 +1,320 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.alarms;
+
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+
+import com.android.deskclock.LogUtils;
+
+/**
+ * Detects the flip and shake gestures used to snooze or dismiss a ringing alarm.
+ *
+ * <p>A single accelerometer registration feeds both gestures. Samples are delivered in hardware
+ * batches (using a max report latency) to a background looper where they run through fixed-size
+ * ring-buffer filters, so the main looper only hears about recognized gestures. The filters are
+ * free of framework types so recorded sensor traces can be replayed through them in tests.</p>
+ */
+final class AlarmGestureDetector {
+
+    private static final LogUtils.Logger LOGGER = new LogUtils.Logger("AlarmGestureDetector");
+
+    /** Sampling period used when only the flip gesture is detected. */
+    private static final int FLIP_SAMPLING_PERIOD_US = SensorManager.SENSOR_DELAY_NORMAL;
+
+    /** Events may be held in the sensor hub for this long when only detecting flips. */
+    private static final int FLIP_MAX_REPORT_LATENCY_US = 600 * 1000;
+
+    /** Shakes are short; sample quickly but still let the hub batch a few hundred millis. */
+    private static final int SHAKE_SAMPLING_PERIOD_US = SensorManager.SENSOR_DELAY_GAME;
+
+    /** Events may be held in the sensor hub for this long when detecting shakes. */
+    private static final int SHAKE_MAX_REPORT_LATENCY_US = 200 * 1000;
+
+    /**
+     * Callbacks for recognized gestures, invoked on the main thread.
+     */
+    interface Listener {
+        void onFlip();
+
+        void onShake();
+    }
+
+    private final SensorManager mSensorManager;
+    private final Listener mListener;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+
+    /** The current registration, or {@code null} when stopped; only touched on the main thread. */
+    private Session mSession;
+
+    AlarmGestureDetector(SensorManager sensorManager, Listener listener) {
+        mSensorManager = sensorManager;
+        mListener = listener;
+    }
+
+    /**
+     * Starts listening for the requested gestures. Does nothing if neither gesture is requested
+     * or the device has no accelerometer.
+     */
+    void start(boolean detectFlip, boolean detectShake) {
+        stop();
+        if (!detectFlip && !detectShake) {
+            return;
+        }
+
+        final Sensor sensor = mSensorManager.getDefaultSensor(Sensor.TYPE_ACCELEROMETER);
+        if (sensor == null) {
+            LOGGER.w("No accelerometer; flip and shake actions are unavailable");
+            return;
+        }
+
+        final Session session = new Session(detectFlip, detectShake);
+        mSession = session;
+
+        final int samplingPeriodUs = detectShake
+                ? SHAKE_SAMPLING_PERIOD_US : FLIP_SAMPLING_PERIOD_US;
+        final int maxReportLatencyUs = detectShake
+                ? SHAKE_MAX_REPORT_LATENCY_US : FLIP_MAX_REPORT_LATENCY_US;
+        if (!mSensorManager.registerListener(session, sensor, samplingPeriodUs,
+                maxReportLatencyUs, session.mHandler)) {
+            LOGGER.e("Unable to register accelerometer listener");
+            stop();
+        }
+    }
+
+    /**
+     * Stops listening for gestures; gestures recognized but not yet dispatched are dropped.
+     */
+    void stop() {
+        if (mSession == null) {
+            return;
+        }
+
+        mSensorManager.unregisterListener(mSession);
+        mSession.mThread.quitSafely();
+        mSession = null;
+    }
+
+    /**
+     * One registration of the sensor listener. Each start gets its own filters and looper, so
+     * samples still queued on a stopped session's looper can never touch the filters of the
+     * session that replaced it.
+     */
+    private final class Session implements SensorEventListener {
+
+        private final FlipFilter mFlipFilter = new FlipFilter();
+        private final ShakeFilter mShakeFilter = new ShakeFilter();
+        private final HandlerThread mThread;
+        private final Handler mHandler;
+        private final boolean mDetectShake;
+
+        /** Only touched on the sensor thread. */
+        private boolean mDetectFlip;
+
+        Session(boolean detectFlip, boolean detectShake) {
+            mDetectFlip = detectFlip;
+            mDetectShake = detectShake;
+            mFlipFilter.reset();
+            mShakeFilter.reset();
+
+            mThread = new HandlerThread("AlarmGestures", Process.THREAD_PRIORITY_BACKGROUND);
+            mThread.start();
+            mHandler = new Handler(mThread.getLooper());
+        }
+
+        @Override
+        public void onSensorChanged(SensorEvent event) {
+            final float x = event.values[0];
+            final float y = event.values[1];
+            final float z = event.values[2];
+            if (mDetectFlip && mFlipFilter.onSample(event.timestamp, z)) {
+                // A flip is only reported once per alarm.
+                mDetectFlip = false;
+                dispatch(true /* flip */);
+            }
+            if (mDetectShake && mShakeFilter.onSample(x, y, z)) {
+                dispatch(false /* flip */);
+            }
+        }
+
+        @Override
+        public void onAccuracyChanged(Sensor sensor, int accuracy) {
+        }
+
+        private void dispatch(boolean flip) {
+            mMainHandler.post(() -> {
+                if (mSession != this) {
+                    return;
+                }
+                if (flip) {
+                    mListener.onFlip();
+                } else {
+                    mListener.onShake();
+                }
+            });
+        }
+    }
+
+    /**
+     * Recognizes the device being turned from face up to face down. The z axis must stay within
+     * a band around gravity for {@link #SAMPLES} consecutive samples, spaced at least
+     * {@link #SAMPLE_SPACING_NS} apart so batched bursts cannot satisfy the filter at once.
+     */
+    static final class FlipFilter {
+
+        // Accelerometers are not quite accurate.
+        private static final float GRAVITY_UPPER_THRESHOLD = 1.3f * SensorManager.STANDARD_GRAVITY;
+        private static final float GRAVITY_LOWER_THRESHOLD = 0.7f * SensorManager.STANDARD_GRAVITY;
+
+        static final int SAMPLES = 3;
+        static final long SAMPLE_SPACING_NS = 150_000_000L;
+
+        private final boolean[] mSamples = new boolean[SAMPLES];
+        private int mSampleIndex;
+        private int mPassCount;
+        private long mLastSampleTimeNs;
+        private boolean mWasFaceUp;
+        private boolean mFlipped;
+
+        void reset() {
+            clearSamples();
+            mLastSampleTimeNs = Long.MIN_VALUE;
+            mWasFaceUp = false;
+            mFlipped = false;
+        }
+
+        /**
+         * @param timestampNs the time at which the sample was taken
+         * @param z           the acceleration along the z axis, in m/s^2
+         * @return {@code true} exactly once, for the sample that completes a flip
+         */
+        boolean onSample(long timestampNs, float z) {
+            if (mFlipped || (mLastSampleTimeNs != Long.MIN_VALUE
+                    && timestampNs - mLastSampleTimeNs < SAMPLE_SPACING_NS)) {
+                return false;
+            }
+            mLastSampleTimeNs = timestampNs;
+
+            final boolean pass = mWasFaceUp
+                    ? z < -GRAVITY_LOWER_THRESHOLD && z > -GRAVITY_UPPER_THRESHOLD
+                    : z > GRAVITY_LOWER_THRESHOLD && z < GRAVITY_UPPER_THRESHOLD;
+
+            // Add a sample overwriting the oldest one. Several samples are used to avoid the
+            // erroneous values the sensor sometimes returns.
+            if (mSamples[mSampleIndex] != pass) {
+                mPassCount += pass ? 1 : -1;
+                mSamples[mSampleIndex] = pass;
+            }
+            mSampleIndex = (mSampleIndex + 1) % SAMPLES;
+
+            if (mPassCount < SAMPLES) {
+                return false;
+            }
+
+            if (!mWasFaceUp) {
+                mWasFaceUp = true;
+                clearSamples();
+                return false;
+            }
+
+            mFlipped = true;
+            return true;
+        }
+
+        private void clearSamples() {
+            for (int i = 0; i < SAMPLES; i++) {
+                mSamples[i] = false;
+            }
+            mSampleIndex = 0;
+            mPassCount = 0;
+        }
+    }
+
+    /**
+     * Recognizes vigorous shaking: the mean magnitude of linear acceleration (with gravity
+     * removed by a low-pass filter) over the last {@link #WINDOW} samples must reach
+     * {@link #SENSITIVITY}. The window is cleared after each recognized shake.
+     */
+    static final class ShakeFilter {
+
+        private static final float SENSITIVITY = 16;
+        private static final float ALPHA = 0.8f;
+
+        static final int WINDOW = 5;
+
+        private final float[] mGravity = new float[3];
+        private final float[] mWindow = new float[WINDOW];
+        private int mWindowIndex;
+        private int mFill;
+        private float mSum;
+        private boolean mPrimed;
+
+        void reset() {
+            mPrimed = false;
+            clearWindow();
+        }
+
+        /**
+         * @return {@code true} if this sample completes a shake
+         */
+        boolean onSample(float x, float y, float z) {
+            if (!mPrimed) {
+                // Seed the gravity estimate so the first samples are not mistaken for motion.
+                mGravity[0] = x;
+                mGravity[1] = y;
+                mGravity[2] = z;
+                mPrimed = true;
+                return false;
+            }
+
+            mGravity[0] = ALPHA * mGravity[0] + (1 - ALPHA) * x;
+            mGravity[1] = ALPHA * mGravity[1] + (1 - ALPHA) * y;
+            mGravity[2] = ALPHA * mGravity[2] + (1 - ALPHA) * z;
+
+            final float magnitude = Math.abs(x - mGravity[0]) + Math.abs(y - mGravity[1])
+                    + Math.abs(z - mGravity[2]);
+
+            mSum += magnitude - mWindow[mWindowIndex];
+            mWindow[mWindowIndex] = magnitude;
+            mWindowIndex = (mWindowIndex + 1) % WINDOW;
+            if (mFill < WINDOW) {
+                mFill++;
+            }
+
+            if (mFill == WINDOW && mSum / WINDOW >= SENSITIVITY) {
+                clearWindow();
+                return true;
+            }
+            return false;
+        }
+
+        private void clearWindow() {
+            for (int i = 0; i < WINDOW; i++) {
+                mWindow[i] = 0;
+            }
+            mWindowIndex = 0;
+            mFill = 0;
+            mSum = 0;
+        }
+    }
+}
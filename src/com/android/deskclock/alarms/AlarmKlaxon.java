@@ -18,14 +18,20 @@ package com.android.deskclock.alarms;
 
 import android.content.Context;
 import android.media.AudioAttributes;
+import android.net.Uri;
 import android.os.VibrationEffect;
 import android.os.Vibrator;
+import android.text.format.DateUtils;
 
 import com.android.deskclock.AsyncRingtonePlayer;
 import com.android.deskclock.LogUtils;
+import com.android.deskclock.Utils;
 import com.android.deskclock.data.DataModel;
+import com.android.deskclock.perf.Perf;
 import com.android.deskclock.provider.AlarmInstance;
 
+import java.util.concurrent.TimeUnit;
+
 /**
  * Manages playing alarm ringtones and vibrating the device.
  */
@@ -33,6 +39,9 @@ final class AlarmKlaxon {
 
     private static final long[] VIBRATE_PATTERN = {500, 500};
 
+    /** How long a prepared ringtone is kept past the scheduled alarm time before release. */
+    private static final long PREPARED_RINGTONE_GRACE_MILLIS = 5 * DateUtils.MINUTE_IN_MILLIS;
+
     private static boolean sStarted = false;
     private static AsyncRingtonePlayer sAsyncRingtonePlayer;
 
@@ -54,7 +63,8 @@ final class AlarmKlaxon {
 
         if (!AlarmInstance.NO_RINGTONE_URI.equals(instance.mRingtone)) {
             final long crescendoDuration = DataModel.getDataModel().getAlarmCrescendoDuration();
-            getAsyncRingtonePlayer(context).play(instance.mRingtone, crescendoDuration);
+            getAsyncRingtonePlayer(context).play(instance.mRingtone, crescendoDuration,
+                    beginFirstAudioSpan(instance));
         }
 
         if (instance.mVibrate) {
@@ -69,6 +79,36 @@ final class AlarmKlaxon {
         sStarted = true;
     }
 
+    /**
+     * Prepares the ringtone of an instance that is about to fire, so that {@link #start} can
+     * begin playback without first loading it.
+     */
+    public static void prepare(Context context, AlarmInstance instance) {
+        final Uri ringtone = instance.mRingtone;
+        if (ringtone == null || AlarmInstance.NO_RINGTONE_URI.equals(ringtone)) {
+            return;
+        }
+
+        LogUtils.v("AlarmKlaxon.prepare()");
+        final long untilFire = instance.getSchedule().getAlarmTime() - Utils.wallClock();
+        getAsyncRingtonePlayer(context).prepare(ringtone,
+                Math.max(0, untilFire) + PREPARED_RINGTONE_GRACE_MILLIS);
+    }
+
+    /**
+     * @return a {@link Perf} span that began at the scheduled time of {@code instance}, so that
+     *      it covers the delivery of the alarm as well as the start of its playback
+     */
+    private static long beginFirstAudioSpan(AlarmInstance instance) {
+        final long span = Perf.begin();
+        if (span == 0) {
+            return 0;
+        }
+
+        final long late = Utils.wallClock() - instance.getSchedule().getAlarmTime();
+        return span - TimeUnit.MILLISECONDS.toNanos(Math.max(0, late));
+    }
+
     private static Vibrator getVibrator(Context context) {
         return context.getSystemService(Vibrator.class);
     }
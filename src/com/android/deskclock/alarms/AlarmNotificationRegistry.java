@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.alarms;
+
+import android.app.Notification;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.service.notification.StatusBarNotification;
+import android.util.ArrayMap;
+import android.util.SparseArray;
+
+import java.util.Map;
+
+/**
+ * Tracks the alarm notifications this process has posted, per notification group, so group
+ * summaries can be maintained without asking the {@link NotificationManager} for every active
+ * notification. The registry is seeded from the active notifications once per process to account
+ * for notifications posted by a previous process, and a tracked summary is confirmed against them
+ * before a post is skipped. Not thread-safe; callers must synchronize.
+ */
+final class AlarmNotificationRegistry {
+
+    /** Maps notification id to the group and sort key of each posted alarm notification. */
+    private final SparseArray<Entry> mEntries = new SparseArray<>();
+
+    /** Maps group key to the content intent of its posted summary notification. */
+    private final Map<String, PendingIntent> mSummaries = new ArrayMap<>(2);
+
+    private boolean mSeeded;
+
+    /**
+     * Reads the alarm notifications that are already posted the first time the registry is used.
+     *
+     * @param groups the keys of the groups to track
+     */
+    void ensureSeeded(Context context, String... groups) {
+        if (mSeeded) {
+            return;
+        }
+        mSeeded = true;
+
+        final NotificationManager nm = context.getSystemService(NotificationManager.class);
+        for (StatusBarNotification sbn : nm.getActiveNotifications()) {
+            final Notification n = sbn.getNotification();
+            final String group = n.getGroup();
+            if (!isTracked(group, groups)) {
+                continue;
+            }
+            if (isGroupSummary(n)) {
+                mSummaries.put(group, n.contentIntent);
+            } else {
+                mEntries.put(sbn.getId(), new Entry(group, n.getSortKey(), n.contentIntent));
+            }
+        }
+    }
+
+    /**
+     * Records that a notification was posted, replacing any notification with the same id.
+     *
+     * @return the group the replaced notification belonged to if it differs from the group of
+     *      the posted notification; {@code null} otherwise
+     */
+    String onPosted(int id, Notification notification) {
+        final String group = notification.getGroup();
+        final Entry previous = mEntries.get(id);
+        mEntries.put(id, new Entry(group, notification.getSortKey(), notification.contentIntent));
+        return previous != null && !previous.group.equals(group) ? previous.group : null;
+    }
+
+    /**
+     * Records that a notification was canceled.
+     *
+     * @return the group the notification belonged to, or {@code null} if it was not tracked
+     */
+    String onCanceled(int id) {
+        final Entry previous = mEntries.get(id);
+        if (previous == null) {
+            return null;
+        }
+        mEntries.remove(id);
+        return previous.group;
+    }
+
+    /**
+     * @return the content intent of the first notification in the group by sort key, or
+     *      {@code null} if the group is empty
+     */
+    PendingIntent getFirstContentIntent(String group) {
+        Entry first = null;
+        for (int i = 0; i < mEntries.size(); i++) {
+            final Entry entry = mEntries.valueAt(i);
+            if (entry.group.equals(group) && (first == null || compare(entry, first) < 0)) {
+                first = entry;
+            }
+        }
+        return first == null ? null : first.contentIntent;
+    }
+
+    /**
+     * @return {@code true} if a summary notification is posted for the group
+     */
+    boolean hasSummary(String group) {
+        return mSummaries.containsKey(group);
+    }
+
+    /**
+     * Confirms against the active notifications that the summary this process posted for the
+     * group is still showing. The user or the system may remove a summary without this process
+     * hearing about it, so callers check this before relying on {@link #hasSummary} to skip a
+     * post. A summary that is gone is forgotten.
+     *
+     * @return {@code true} if the summary notification with the given id is still active
+     */
+    boolean confirmSummary(Context context, String group, int summaryId) {
+        final NotificationManager nm = context.getSystemService(NotificationManager.class);
+        for (StatusBarNotification sbn : nm.getActiveNotifications()) {
+            if (sbn.getId() == summaryId && isGroupSummary(sbn.getNotification())) {
+                return true;
+            }
+        }
+        mSummaries.remove(group);
+        return false;
+    }
+
+    /**
+     * @return the content intent of the summary notification posted for the group
+     */
+    PendingIntent getSummaryContentIntent(String group) {
+        return mSummaries.get(group);
+    }
+
+    void onSummaryPosted(String group, PendingIntent contentIntent) {
+        mSummaries.put(group, contentIntent);
+    }
+
+    void onSummaryCanceled(String group) {
+        mSummaries.remove(group);
+    }
+
+    private static int compare(Entry a, Entry b) {
+        if (a.sortKey == null || b.sortKey == null) {
+            return a.sortKey == null ? (b.sortKey == null ? 0 : 1) : -1;
+        }
+        return a.sortKey.compareTo(b.sortKey);
+    }
+
+    private static boolean isTracked(String group, String[] groups) {
+        if (group == null) {
+            return false;
+        }
+        for (String tracked : groups) {
+            if (tracked.equals(group)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isGroupSummary(Notification n) {
+        return (n.flags & Notification.FLAG_GROUP_SUMMARY) == Notification.FLAG_GROUP_SUMMARY;
+    }
+
+    private static final class Entry {
+
+        final String group;
+        final String sortKey;
+        final PendingIntent contentIntent;
+
+        Entry(String group, String sortKey, PendingIntent contentIntent) {
+            this.group = group;
+            this.sortKey = sortKey;
+            this.contentIntent = contentIntent;
+        }
+    }
+}
@@ -21,13 +21,11 @@ import static com.android.deskclock.NotificationUtils.ALARM_UPCOMING_NOTIFICATIO
 import static com.android.deskclock.NotificationUtils.FIRING_NOTIFICATION_CHANNEL_ID;
 
 import android.app.Notification;
-import android.app.NotificationManager;
 import android.app.PendingIntent;
 import android.app.Service;
 import android.content.Context;
 import android.content.Intent;
 import android.content.res.Resources;
-import android.service.notification.StatusBarNotification;
 
 import androidx.core.app.NotificationCompat;
 import androidx.core.app.NotificationManagerCompat;
@@ -86,6 +84,11 @@ public final class AlarmNotifications {
      */
     private static final int ALARM_FIRING_NOTIFICATION_ID = Integer.MAX_VALUE - 7;
 
+    /**
+     * Tracks the posted upcoming and missed alarm notifications; guarded by the class lock.
+     */
+    private static final AlarmNotificationRegistry sRegistry = new AlarmNotificationRegistry();
+
     static synchronized void showUpcomingNotification(Context context,
             AlarmInstance instance, boolean lowPriority) {
         LogUtils.v("Displaying upcoming alarm notification for alarm instance: " + instance.mId +
@@ -132,121 +135,69 @@ public final class AlarmNotifications {
         builder.setContentIntent(PendingIntent.getActivity(context, id,
                 viewAlarmIntent, PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE));
 
-        NotificationManagerCompat nm = NotificationManagerCompat.from(context);
         NotificationUtils.createChannel(context, ALARM_UPCOMING_NOTIFICATION_CHANNEL_ID);
-        final Notification notification = builder.build();
-        nm.notify(id, notification);
-        updateUpcomingAlarmGroupNotification(context, -1, notification);
-    }
-
-    private static boolean isGroupSummary(Notification n) {
-        return (n.flags & Notification.FLAG_GROUP_SUMMARY) == Notification.FLAG_GROUP_SUMMARY;
+        notifyGroupMember(context, id, builder.build());
     }
 
     /**
-     * Method which returns the first active notification for a given group. If a notification was
-     * just posted, provide it to make sure it is included as a potential result. If a notification
-     * was just canceled, provide the id so that it is not included as a potential result. These
-     * extra parameters are needed due to a race condition which exists in
-     * {@link NotificationManager#getActiveNotifications()}.
-     *
-     * @param context Context from which to grab the NotificationManager
-     * @param group The group key to query for notifications
-     * @param canceledNotificationId The id of the just-canceled notification (-1 if none)
-     * @param postedNotification The notification that was just posted
-     * @return The first active notification for the group
+     * Posts an upcoming or missed alarm notification and updates the group summaries it affects.
      */
-    private static Notification getFirstActiveNotification(Context context, String group,
-            int canceledNotificationId, Notification postedNotification) {
-        final NotificationManager nm =
-                (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
-        final StatusBarNotification[] notifications = nm.getActiveNotifications();
-        Notification firstActiveNotification = postedNotification;
-        for (StatusBarNotification statusBarNotification : notifications) {
-            final Notification n = statusBarNotification.getNotification();
-            if (!isGroupSummary(n)
-                    && group.equals(n.getGroup())
-                    && statusBarNotification.getId() != canceledNotificationId) {
-                if (firstActiveNotification == null
-                        || n.getSortKey().compareTo(firstActiveNotification.getSortKey()) < 0) {
-                    firstActiveNotification = n;
-                }
-            }
+    private static void notifyGroupMember(Context context, int id, Notification notification) {
+        NotificationManagerCompat.from(context).notify(id, notification);
+
+        sRegistry.ensureSeeded(context, UPCOMING_GROUP_KEY, MISSED_GROUP_KEY);
+        final String previousGroup = sRegistry.onPosted(id, notification);
+        updateGroupNotification(context, notification.getGroup());
+        if (previousGroup != null) {
+            updateGroupNotification(context, previousGroup);
         }
-        return firstActiveNotification;
     }
 
-    private static Notification getActiveGroupSummaryNotification(Context context, String group) {
-        final NotificationManager nm =
-                (NotificationManager) context.getSystemService(Context.NOTIFICATION_SERVICE);
-        final StatusBarNotification[] notifications = nm.getActiveNotifications();
-        for (StatusBarNotification statusBarNotification : notifications) {
-            final Notification n = statusBarNotification.getNotification();
-            if (isGroupSummary(n) && group.equals(n.getGroup())) {
-                return n;
-            }
-        }
-        return null;
-    }
-
-    private static void updateUpcomingAlarmGroupNotification(Context context,
-            int canceledNotificationId, Notification postedNotification) {
-        final NotificationManagerCompat nm = NotificationManagerCompat.from(context);
-        final Notification firstUpcoming = getFirstActiveNotification(context, UPCOMING_GROUP_KEY,
-                canceledNotificationId, postedNotification);
-        if (firstUpcoming == null) {
-            nm.cancel(ALARM_GROUP_NOTIFICATION_ID);
-            return;
-        }
-
-        Notification summary = getActiveGroupSummaryNotification(context, UPCOMING_GROUP_KEY);
-        if (summary == null
-                || !Objects.equals(summary.contentIntent, firstUpcoming.contentIntent)) {
-            NotificationUtils.createChannel(context, ALARM_UPCOMING_NOTIFICATION_CHANNEL_ID);
-            summary = new NotificationCompat.Builder(context,
-                        ALARM_UPCOMING_NOTIFICATION_CHANNEL_ID)
-                    .setShowWhen(false)
-                    .setContentIntent(firstUpcoming.contentIntent)
-                    .setColor(ContextCompat.getColor(context, R.color.default_background))
-                    .setSmallIcon(R.drawable.stat_notify_alarm)
-                    .setGroup(UPCOMING_GROUP_KEY)
-                    .setGroupSummary(true)
-                    .setPriority(NotificationCompat.PRIORITY_LOW)
-                    .setCategory(NotificationCompat.CATEGORY_EVENT)
-                    .setVisibility(NotificationCompat.VISIBILITY_PUBLIC)
-                    .setLocalOnly(true)
-                    .build();
-            nm.notify(ALARM_GROUP_NOTIFICATION_ID, summary);
+    private static void updateGroupNotification(Context context, String group) {
+        if (UPCOMING_GROUP_KEY.equals(group)) {
+            updateGroupNotification(context, UPCOMING_GROUP_KEY, ALARM_GROUP_NOTIFICATION_ID,
+                    ALARM_UPCOMING_NOTIFICATION_CHANNEL_ID, NotificationCompat.PRIORITY_LOW);
+        } else if (MISSED_GROUP_KEY.equals(group)) {
+            updateGroupNotification(context, MISSED_GROUP_KEY, ALARM_GROUP_MISSED_NOTIFICATION_ID,
+                    ALARM_MISSED_NOTIFICATION_CHANNEL_ID, NotificationCompat.PRIORITY_HIGH);
         }
     }
 
-    private static void updateMissedAlarmGroupNotification(Context context,
-            int canceledNotificationId, Notification postedNotification) {
+    /**
+     * Posts, replaces or cancels the summary of a group so that it opens the same content as the
+     * first notification in the group. The summary is only touched when that content changes or
+     * when it is no longer showing.
+     */
+    private static void updateGroupNotification(Context context, String group,
+            int summaryId, String channelId, int priority) {
         final NotificationManagerCompat nm = NotificationManagerCompat.from(context);
-        final Notification firstMissed = getFirstActiveNotification(context, MISSED_GROUP_KEY,
-                canceledNotificationId, postedNotification);
-        if (firstMissed == null) {
-            nm.cancel(ALARM_GROUP_MISSED_NOTIFICATION_ID);
+        final PendingIntent firstContentIntent = sRegistry.getFirstContentIntent(group);
+        if (firstContentIntent == null) {
+            if (sRegistry.hasSummary(group)) {
+                nm.cancel(summaryId);
+                sRegistry.onSummaryCanceled(group);
+            }
             return;
         }
 
-        Notification summary = getActiveGroupSummaryNotification(context, MISSED_GROUP_KEY);
-        if (summary == null
-                || !Objects.equals(summary.contentIntent, firstMissed.contentIntent)) {
-            NotificationUtils.createChannel(context, ALARM_MISSED_NOTIFICATION_CHANNEL_ID);
-            summary = new NotificationCompat.Builder(context, ALARM_MISSED_NOTIFICATION_CHANNEL_ID)
+        if (!sRegistry.hasSummary(group)
+                || !Objects.equals(sRegistry.getSummaryContentIntent(group), firstContentIntent)
+                || !sRegistry.confirmSummary(context, group, summaryId)) {
+            NotificationUtils.createChannel(context, channelId);
+            final Notification summary = new NotificationCompat.Builder(context, channelId)
                     .setShowWhen(false)
-                    .setContentIntent(firstMissed.contentIntent)
+                    .setContentIntent(firstContentIntent)
                     .setColor(ContextCompat.getColor(context, R.color.default_background))
                     .setSmallIcon(R.drawable.stat_notify_alarm)
-                    .setGroup(MISSED_GROUP_KEY)
+                    .setGroup(group)
                     .setGroupSummary(true)
-                    .setPriority(NotificationCompat.PRIORITY_HIGH)
+                    .setPriority(priority)
                     .setCategory(NotificationCompat.CATEGORY_EVENT)
                     .setVisibility(NotificationCompat.VISIBILITY_PUBLIC)
                     .setLocalOnly(true)
                     .build();
-            nm.notify(ALARM_GROUP_MISSED_NOTIFICATION_ID, summary);
+            nm.notify(summaryId, summary);
+            sRegistry.onSummaryPosted(group, firstContentIntent);
         }
     }
 
@@ -259,7 +210,8 @@ public final class AlarmNotifications {
                         .setShowWhen(false)
                         .setContentTitle(instance.getLabelOrDefault(context))
                         .setContentText(context.getString(R.string.alarm_alert_snooze_until,
-                                AlarmUtils.getFormattedTime(context, instance.getAlarmTime())))
+                                AlarmUtils.getFormattedTime(context,
+                                        instance.getSchedule().getAlarmTime())))
                         .setColor(ContextCompat.getColor(context, R.color.default_background))
                         .setSmallIcon(R.drawable.stat_notify_alarm)
                         .setAutoCancel(false)
@@ -284,11 +236,8 @@ public final class AlarmNotifications {
         builder.setContentIntent(PendingIntent.getActivity(context, id, viewAlarmIntent,
                 PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE));
 
-        NotificationManagerCompat nm = NotificationManagerCompat.from(context);
         NotificationUtils.createChannel(context, ALARM_SNOOZE_NOTIFICATION_CHANNEL_ID);
-        final Notification notification = builder.build();
-        nm.notify(id, notification);
-        updateUpcomingAlarmGroupNotification(context, -1, notification);
+        notifyGroupMember(context, id, builder.build());
     }
 
     static synchronized void showMissedNotification(Context context,
@@ -296,7 +245,8 @@ public final class AlarmNotifications {
         LogUtils.v("Displaying missed notification for alarm instance: " + instance.mId);
 
         String label = instance.mLabel;
-        String alarmTime = AlarmUtils.getFormattedTime(context, instance.getAlarmTime());
+        String alarmTime = AlarmUtils.getFormattedTime(context,
+                instance.getSchedule().getAlarmTime());
         NotificationCompat.Builder builder = new NotificationCompat.Builder(
                 context, ALARM_MISSED_NOTIFICATION_CHANNEL_ID)
                         .setShowWhen(false)
@@ -328,11 +278,8 @@ public final class AlarmNotifications {
         builder.setContentIntent(PendingIntent.getBroadcast(context, id,
                 showAndDismiss, PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE));
 
-        NotificationManagerCompat nm = NotificationManagerCompat.from(context);
         NotificationUtils.createChannel(context, ALARM_MISSED_NOTIFICATION_CHANNEL_ID);
-        final Notification notification = builder.build();
-        nm.notify(id, notification);
-        updateMissedAlarmGroupNotification(context, -1, notification);
+        notifyGroupMember(context, id, builder.build());
     }
 
     static synchronized void showAlarmNotification(Service service, AlarmInstance instance) {
@@ -343,7 +290,7 @@ public final class AlarmNotifications {
                 service, FIRING_NOTIFICATION_CHANNEL_ID)
                         .setContentTitle(instance.getLabelOrDefault(service))
                         .setContentText(AlarmUtils.getFormattedTime(
-                                service, instance.getAlarmTime()))
+                                service, instance.getSchedule().getAlarmTime()))
                         .setColor(ContextCompat.getColor(service, R.color.default_background))
                         .setSmallIcon(R.drawable.stat_notify_alarm)
                         .setOngoing(true)
@@ -405,8 +352,9 @@ public final class AlarmNotifications {
         NotificationManagerCompat nm = NotificationManagerCompat.from(context);
         final int id = instance.hashCode();
         nm.cancel(id);
-        updateUpcomingAlarmGroupNotification(context, id, null);
-        updateMissedAlarmGroupNotification(context, id, null);
+
+        sRegistry.ensureSeeded(context, UPCOMING_GROUP_KEY, MISSED_GROUP_KEY);
+        updateGroupNotification(context, sRegistry.onCanceled(id));
     }
 
     /**
@@ -447,7 +395,7 @@ public final class AlarmNotifications {
      * @return the sort key that specifies the order of this alarm notification
      */
     private static String createSortKey(AlarmInstance instance) {
-        final String timeKey = SORT_KEY_FORMAT.format(instance.getAlarmTime().getTime());
+        final String timeKey = SORT_KEY_FORMAT.format(instance.getSchedule().getAlarmTime());
         final boolean missedAlarm = instance.mAlarmState == AlarmInstance.MISSED_STATE;
         return missedAlarm ? ("MISSED " + timeKey) : timeKey;
     }
@@ -21,9 +21,6 @@ import android.content.ContentResolver;
 import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
-import android.hardware.Sensor;
-import android.hardware.SensorEvent;
-import android.hardware.SensorEventListener;
 import android.hardware.SensorManager;
 import android.os.Binder;
 import android.os.IBinder;
@@ -33,8 +30,12 @@ import com.android.deskclock.LogUtils;
 import com.android.deskclock.R;
 import com.android.deskclock.data.DataModel;
 import com.android.deskclock.events.Events;
+import com.android.deskclock.perf.Perf;
 import com.android.deskclock.provider.AlarmInstance;
 
+import java.io.FileDescriptor;
+import java.io.PrintWriter;
+
 /**
  * This service is in charge of starting/stopping the alarm. It will bring up and manage the
  * {@link AlarmActivity} as well as {@link AlarmKlaxon}.
@@ -91,6 +92,11 @@ public class AlarmService extends Service {
         return super.onUnbind(intent);
     }
 
+    @Override
+    protected void dump(FileDescriptor fd, PrintWriter writer, String[] args) {
+        Perf.dump(writer);
+    }
+
     /**
      * Utility method to help stop an alarm properly. Nothing will happen, if alarm is not firing
      * or using a different instance.
@@ -107,7 +113,7 @@ public class AlarmService extends Service {
     }
 
     private AlarmInstance mCurrentAlarm = null;
-    private SensorManager mSensorManager;
+    private AlarmGestureDetector mGestureDetector;
     private int mFlipAction;
     private int mShakeAction;
 
@@ -189,7 +195,8 @@ public class AlarmService extends Service {
         mIsRegistered = true;
 
         // set up for flip and shake actions
-        mSensorManager = (SensorManager) getSystemService(Context.SENSOR_SERVICE);
+        mGestureDetector = new AlarmGestureDetector(
+                (SensorManager) getSystemService(Context.SENSOR_SERVICE), mGestureListener);
         mFlipAction = DataModel.getDataModel().getFlipAction();
         mShakeAction = DataModel.getDataModel().getShakeAction();
     }
@@ -201,33 +208,20 @@ public class AlarmService extends Service {
             return Service.START_NOT_STICKY;
         }
 
-        final long instanceId = AlarmInstance.getId(intent.getData());
         switch (intent.getAction()) {
-            case AlarmStateManager.CHANGE_STATE_ACTION:
-                AlarmStateManager.handleIntent(this, intent);
-
-                // If state is changed to firing, actually fire the alarm!
-                final int alarmState = intent.getIntExtra(AlarmStateManager.ALARM_STATE_EXTRA, -1);
-                if (alarmState == AlarmInstance.FIRED_STATE) {
-                    final ContentResolver cr = this.getContentResolver();
-                    final AlarmInstance instance = AlarmInstance.getInstance(cr, instanceId);
-                    if (instance == null) {
-                        LogUtils.e("No instance found to start alarm: %d", instanceId);
-                        if (mCurrentAlarm != null) {
-                            // Only release lock if we are not firing alarm
-                            AlarmAlertWakeLock.releaseCpuLock();
-                        }
-                        break;
-                    }
-
-                    if (mCurrentAlarm != null && mCurrentAlarm.mId == instanceId) {
-                        LogUtils.e("Alarm already started for instance: %d", instanceId);
-                        break;
+            case AlarmTimelineScheduler.ACTION_TIMELINE:
+                // Update the next alarm once for all transitions that came due together.
+                AlarmStateManager.batchNextAlarmUpdates(this, () -> {
+                    for (Intent stateChange : AlarmStateManager.takeDueStateChanges(this)) {
+                        handleStateChange(stateChange);
                     }
-                    startAlarm(instance);
-                }
+                });
+                break;
+            case AlarmStateManager.CHANGE_STATE_ACTION:
+                AlarmStateManager.batchNextAlarmUpdates(this, () -> handleStateChange(intent));
                 break;
             case STOP_ALARM_ACTION:
+                final long instanceId = AlarmInstance.getId(intent.getData());
                 if (mCurrentAlarm != null && mCurrentAlarm.mId != instanceId) {
                     LogUtils.e("Can't stop alarm for instance: %d because current alarm is: %d",
                             instanceId, mCurrentAlarm.mId);
@@ -240,6 +234,32 @@ public class AlarmService extends Service {
         return Service.START_NOT_STICKY;
     }
 
+    private void handleStateChange(Intent intent) {
+        AlarmStateManager.handleIntent(this, intent);
+
+        // If state is changed to firing, actually fire the alarm!
+        final int alarmState = intent.getIntExtra(AlarmStateManager.ALARM_STATE_EXTRA, -1);
+        if (alarmState == AlarmInstance.FIRED_STATE) {
+            final long instanceId = AlarmInstance.getId(intent.getData());
+            final ContentResolver cr = this.getContentResolver();
+            final AlarmInstance instance = AlarmInstance.getInstance(cr, instanceId);
+            if (instance == null) {
+                LogUtils.e("No instance found to start alarm: %d", instanceId);
+                if (mCurrentAlarm != null) {
+                    // Only release lock if we are not firing alarm
+                    AlarmAlertWakeLock.releaseCpuLock();
+                }
+                return;
+            }
+
+            if (mCurrentAlarm != null && mCurrentAlarm.mId == instanceId) {
+                LogUtils.e("Alarm already started for instance: %d", instanceId);
+                return;
+            }
+            startAlarm(instance);
+        }
+    }
+
     @Override
     public void onDestroy() {
         LogUtils.v("AlarmService.onDestroy() called");
@@ -254,144 +274,32 @@ public class AlarmService extends Service {
         }
     }
 
-    private interface ResettableSensorEventListener extends SensorEventListener {
-        void reset();
-    }
-
-    private final ResettableSensorEventListener mFlipListener =
-        new ResettableSensorEventListener() {
-        // Accelerometers are not quite accurate.
-        private static final float GRAVITY_UPPER_THRESHOLD = 1.3f * SensorManager.STANDARD_GRAVITY;
-        private static final float GRAVITY_LOWER_THRESHOLD = 0.7f * SensorManager.STANDARD_GRAVITY;
-        private static final int SENSOR_SAMPLES = 3;
-
-        private boolean mStopped;
-        private boolean mWasFaceUp;
-        private final boolean[] mSamples = new boolean[SENSOR_SAMPLES];
-        private int mSampleIndex;
-
-        @Override
-        public void onAccuracyChanged(Sensor sensor, int acc) {
-        }
-
-        @Override
-        public void reset() {
-            mWasFaceUp = false;
-            mStopped = false;
-            for (int i = 0; i < SENSOR_SAMPLES; i++) {
-                mSamples[i] = false;
-            }
-        }
-
-        private boolean filterSamples() {
-            boolean allPass = true;
-            for (boolean sample : mSamples) {
-                allPass = allPass && sample;
-            }
-            return allPass;
-        }
-
+    private final AlarmGestureDetector.Listener mGestureListener =
+            new AlarmGestureDetector.Listener() {
         @Override
-        public void onSensorChanged(SensorEvent event) {
-            // Add a sample overwriting the oldest one. Several samples
-            // are used to avoid the erroneous values the sensor sometimes
-            // returns.
-            float z = event.values[2];
-
-            if (mStopped) {
-                return;
-            }
-
-            if (!mWasFaceUp) {
-                // Check if its face up enough.
-                mSamples[mSampleIndex] = (z > GRAVITY_LOWER_THRESHOLD) &&
-                    (z < GRAVITY_UPPER_THRESHOLD);
-
-                // face up
-                if (filterSamples()) {
-                    mWasFaceUp = true;
-                    for (int i = 0; i < SENSOR_SAMPLES; i++) {
-                        mSamples[i] = false;
-                    }
-                }
-            } else {
-                // Check if its face down enough.
-                mSamples[mSampleIndex] = (z < -GRAVITY_LOWER_THRESHOLD) &&
-                    (z > -GRAVITY_UPPER_THRESHOLD);
-
-                // face down
-                if (filterSamples()) {
-                    mStopped = true;
-                    handleAction(mFlipAction);
-                }
-            }
-
-            mSampleIndex = ((mSampleIndex + 1) % SENSOR_SAMPLES);
+        public void onFlip() {
+            handleAction(mFlipAction);
         }
-    };
-
-    private final SensorEventListener mShakeListener = new SensorEventListener() {
-        private static final float SENSITIVITY = 16;
-        private static final int BUFFER = 5;
-        private final float[] gravity = new float[3];
-        private float average = 0;
-        private int fill = 0;
 
         @Override
-        public void onAccuracyChanged(Sensor sensor, int acc) {
-        }
-
-        public void onSensorChanged(SensorEvent event) {
-            final float alpha = 0.8F;
-
-            for (int i = 0; i < 3; i++) {
-                gravity[i] = alpha * gravity[i] + (1 - alpha) * event.values[i];
-            }
-
-            float x = event.values[0] - gravity[0];
-            float y = event.values[1] - gravity[1];
-            float z = event.values[2] - gravity[2];
-
-            if (fill <= BUFFER) {
-                average += Math.abs(x) + Math.abs(y) + Math.abs(z);
-                fill++;
-            } else {
-                if (average / BUFFER >= SENSITIVITY) {
-                    handleAction(mShakeAction);
-                }
-                average = 0;
-                fill = 0;
-            }
+        public void onShake() {
+            handleAction(mShakeAction);
         }
     };
 
     private void attachListeners() {
-        if (mFlipAction != ALARM_NO_ACTION) {
-            mFlipListener.reset();
-            mSensorManager.registerListener(mFlipListener,
-                    mSensorManager.getDefaultSensor(Sensor.TYPE_ACCELEROMETER),
-                    SensorManager.SENSOR_DELAY_NORMAL,
-                    300 * 1000); //batch every 300 milliseconds
-        }
-
-        if (mShakeAction != ALARM_NO_ACTION) {
-            mSensorManager.registerListener(mShakeListener,
-                    mSensorManager.getDefaultSensor(Sensor.TYPE_ACCELEROMETER),
-                    SensorManager.SENSOR_DELAY_GAME,
-                    50 * 1000); //batch every 50 milliseconds
-        }
+        mGestureDetector.start(mFlipAction != ALARM_NO_ACTION, mShakeAction != ALARM_NO_ACTION);
     }
 
     private void detachListeners() {
-        if (mFlipAction != ALARM_NO_ACTION) {
-            mSensorManager.unregisterListener(mFlipListener);
-        }
-        if (mShakeAction != ALARM_NO_ACTION) {
-            mSensorManager.unregisterListener(mShakeListener);
-        }
+        mGestureDetector.stop();
     }
 
     private void handleAction(int action) {
+        if (mCurrentAlarm == null) {
+            return;
+        }
+
         switch (action) {
             case ALARM_SNOOZE:
                 // Setup Snooze Action
@@ -28,6 +28,7 @@ import android.net.Uri;
 import android.os.Handler;
 import android.os.PowerManager;
 import android.text.format.DateFormat;
+import android.text.format.DateUtils;
 import android.widget.Toast;
 
 import androidx.core.app.NotificationManagerCompat;
@@ -42,8 +43,10 @@ import com.android.deskclock.R;
 import com.android.deskclock.Utils;
 import com.android.deskclock.data.DataModel;
 import com.android.deskclock.events.Events;
+import com.android.deskclock.perf.Perf;
 import com.android.deskclock.provider.Alarm;
 import com.android.deskclock.provider.AlarmInstance;
+import com.android.deskclock.provider.AlarmSchedule;
 
 import java.util.Calendar;
 import java.util.List;
@@ -128,9 +131,15 @@ public final class AlarmStateManager extends BroadcastReceiver {
     // Buffer time in seconds to fire alarm instead of marking it missed.
     public static final int ALARM_FIRE_BUFFER = 15;
 
+    // Keeps the pending state transitions of all instances behind a single AlarmManager wakeup.
+    private static final AlarmTimelineScheduler sTimelineScheduler = new AlarmTimelineScheduler();
+
     // Schedules alarm state transitions; can be mocked for testing purposes.
-    private static final StateChangeScheduler sStateChangeScheduler =
-            new AlarmManagerStateChangeScheduler();
+    private static final StateChangeScheduler sStateChangeScheduler = sTimelineScheduler;
+
+    // Caches the next alarm so the system is only told about it when it changes.
+    private static final NextAlarmTracker sNextAlarmTracker =
+            new NextAlarmTracker(new SystemNextAlarmPublisher());
 
     private static final String ACTION_SET_POWEROFF_ALARM =
             "org.codeaurora.poweroffalarm.action.SET_ALARM";
@@ -147,18 +156,36 @@ public final class AlarmStateManager extends BroadcastReceiver {
         return DataModel.getDataModel().getCalendar();
     }
 
+    private static long getCurrentTimeMillis() {
+        return DataModel.getDataModel().currentTimeMillis();
+    }
+
     /**
      * Update the next alarm stored in framework. This value is also displayed in digital widgets
      * and the clock tab in this app.
      */
     private static void updateNextAlarm(Context context) {
-        final AlarmInstance nextAlarm = getNextFiringAlarm(context);
+        sNextAlarmTracker.update(context);
+    }
 
-        if (nextAlarm != null) {
-            setPowerOffAlarm(context, nextAlarm);
-        }
+    /**
+     * Update the next alarm stored in framework after a change to a single instance only.
+     */
+    private static void updateNextAlarm(Context context, AlarmInstance changed) {
+        sNextAlarmTracker.update(context, changed);
+    }
 
-        updateNextAlarmInAlarmManager(context, nextAlarm);
+    /**
+     * Runs {@code work}, coalescing every next alarm update it requests on the calling thread
+     * into a single update once it completes.
+     */
+    static void batchNextAlarmUpdates(Context context, Runnable work) {
+        sNextAlarmTracker.beginBatch();
+        try {
+            work.run();
+        } finally {
+            sNextAlarmTracker.endBatch(context);
+        }
     }
 
     /**
@@ -174,7 +201,8 @@ public final class AlarmStateManager extends BroadcastReceiver {
 
         AlarmInstance nextAlarm = null;
         for (AlarmInstance instance : alarmInstances) {
-            if (nextAlarm == null || instance.getAlarmTime().before(nextAlarm.getAlarmTime())) {
+            if (nextAlarm == null || instance.getSchedule().getAlarmTime()
+                    < nextAlarm.getSchedule().getAlarmTime()) {
                 nextAlarm = instance;
             }
         }
@@ -197,8 +225,8 @@ public final class AlarmStateManager extends BroadcastReceiver {
                 flags | PendingIntent.FLAG_IMMUTABLE);
 
         if (nextAlarm != null) {
-            LogUtils.i("Setting upcoming AlarmClockInfo for alarm: " + nextAlarm.mId);
-            long alarmTime = nextAlarm.getAlarmTime().getTimeInMillis();
+            LogUtils.i("Setting upcoming AlarmClockInfo for alarm: %d", nextAlarm.mId);
+            long alarmTime = nextAlarm.getSchedule().getAlarmTime();
 
             // Create an intent that can be used to show or edit details of the next alarm.
             PendingIntent viewIntent = PendingIntent.getActivity(context, nextAlarm.hashCode(),
@@ -224,16 +252,16 @@ public final class AlarmStateManager extends BroadcastReceiver {
         ContentResolver cr = context.getContentResolver();
         Alarm alarm = Alarm.getAlarm(cr, instance.mAlarmId);
         if (alarm == null) {
-            LogUtils.e("Parent has been deleted with instance: " + instance);
+            LogUtils.e("Parent has been deleted with instance: %s", instance);
             return;
         }
 
         if (!alarm.daysOfWeek.isRepeating()) {
             if (alarm.deleteAfterUse) {
-                LogUtils.i("Deleting parent alarm: " + alarm.id);
+                LogUtils.i("Deleting parent alarm: %d", alarm.id);
                 Alarm.deleteAlarm(cr, alarm.id);
             } else {
-                LogUtils.i("Disabling parent alarm: " + alarm.id);
+                LogUtils.i("Disabling parent alarm: %d", alarm.id);
                 alarm.enabled = false;
                 Alarm.updateAlarm(cr, alarm);
             }
@@ -243,12 +271,15 @@ public final class AlarmStateManager extends BroadcastReceiver {
             // and has already been fired, schedule the subsequent instance.
             AlarmInstance nextRepeatedInstance = alarm.createInstanceAfter(getCurrentTime());
             if (instance.mAlarmState > AlarmInstance.FIRED_STATE
-                    && nextRepeatedInstance.getAlarmTime().equals(instance.getAlarmTime())) {
+                    && nextRepeatedInstance.getSchedule().getAlarmTime()
+                            == instance.getSchedule().getAlarmTime()) {
                 nextRepeatedInstance = alarm.createInstanceAfter(instance.getAlarmTime());
             }
 
-            LogUtils.i("Creating new instance for repeating alarm " + alarm.id + " at " +
-                    AlarmUtils.getFormattedTime(context, nextRepeatedInstance.getAlarmTime()));
+            final AlarmInstance newInstance = nextRepeatedInstance;
+            LogUtils.i(() -> "Creating new instance for repeating alarm " + alarm.id + " at "
+                    + AlarmUtils.getFormattedTime(context,
+                            newInstance.getSchedule().getAlarmTime()));
             AlarmInstance.addInstance(cr, nextRepeatedInstance);
             registerInstance(context, nextRepeatedInstance, true);
         }
@@ -271,7 +302,12 @@ public final class AlarmStateManager extends BroadcastReceiver {
         // Out Of Memory killer. If clock is killed during that jump, firing an alarm can fail to
         // occur. To be safer, the call begins in AlarmService, which has the power to display the
         // firing alarm if needed, so no jump is needed.
-        Intent intent = AlarmInstance.createIntent(context, AlarmService.class, instance.mId);
+        return createStateChangeIntent(context, tag, instance.mId, state);
+    }
+
+    private static Intent createStateChangeIntent(Context context, String tag, long instanceId,
+            Integer state) {
+        Intent intent = AlarmInstance.createIntent(context, AlarmService.class, instanceId);
         intent.setAction(CHANGE_STATE_ACTION);
         intent.addCategory(tag);
         intent.putExtra(ALARM_GLOBAL_ID_EXTRA, DataModel.getDataModel().getGlobalIntentId());
@@ -281,6 +317,24 @@ public final class AlarmStateManager extends BroadcastReceiver {
         return intent;
     }
 
+    /**
+     * @return an intent that applies a state change scheduled on the alarm timeline
+     */
+    static Intent createScheduledStateChangeIntent(Context context, long instanceId,
+            int state) {
+        return createStateChangeIntent(context, ALARM_MANAGER_TAG, instanceId, state);
+    }
+
+    /**
+     * Removes all state changes that have come due from the alarm timeline.
+     *
+     * @param context application context
+     * @return state change intents to handle, in chronological order
+     */
+    static List<Intent> takeDueStateChanges(Context context) {
+        return sTimelineScheduler.takeDueStateChanges(context);
+    }
+
     /**
      * Schedule alarm instance state changes with {@link AlarmManager}.
      *
@@ -289,7 +343,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
      * @param instance to change state to
      * @param newState to change to
      */
-    private static void scheduleInstanceStateChange(Context ctx, Calendar time,
+    private static void scheduleInstanceStateChange(Context ctx, long time,
             AlarmInstance instance, int newState) {
         sStateChangeScheduler.scheduleInstanceStateChange(ctx, time, instance, newState);
     }
@@ -314,7 +368,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
      * @param instance to set state to
      */
     public static void setSilentState(Context context, AlarmInstance instance) {
-        LogUtils.i("Setting silent state to instance " + instance.mId);
+        LogUtils.i("Setting silent state to instance %d", instance.mId);
 
         // Update alarm in db
         ContentResolver contentResolver = context.getContentResolver();
@@ -323,7 +377,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
 
         // Setup instance notification and scheduling timers
         AlarmNotifications.clearNotification(context, instance);
-        scheduleInstanceStateChange(context, instance.getLowNotificationTime(),
+        scheduleInstanceStateChange(context, instance.getSchedule().getLowNotificationTime(),
                 instance, AlarmInstance.LOW_NOTIFICATION_STATE);
     }
 
@@ -336,7 +390,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
      * @param instance to set state to
      */
     public static void setLowNotificationState(Context context, AlarmInstance instance) {
-        LogUtils.i("Setting low notification state to instance " + instance.mId);
+        LogUtils.i("Setting low notification state to instance %d", instance.mId);
 
         // Update alarm state in db
         ContentResolver contentResolver = context.getContentResolver();
@@ -345,7 +399,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
 
         // Setup instance notification and scheduling timers
         AlarmNotifications.showUpcomingNotification(context, instance, true);
-        scheduleInstanceStateChange(context, instance.getHighNotificationTime(),
+        scheduleInstanceStateChange(context, instance.getSchedule().getHighNotificationTime(),
                 instance, AlarmInstance.HIGH_NOTIFICATION_STATE);
     }
 
@@ -358,7 +412,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
      * @param instance to set state to
      */
     public static void setHideNotificationState(Context context, AlarmInstance instance) {
-        LogUtils.i("Setting hide notification state to instance " + instance.mId);
+        LogUtils.i("Setting hide notification state to instance %d", instance.mId);
 
         // Update alarm state in db
         ContentResolver contentResolver = context.getContentResolver();
@@ -367,7 +421,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
 
         // Setup instance notification and scheduling timers
         AlarmNotifications.clearNotification(context, instance);
-        scheduleInstanceStateChange(context, instance.getHighNotificationTime(),
+        scheduleInstanceStateChange(context, instance.getSchedule().getHighNotificationTime(),
                 instance, AlarmInstance.HIGH_NOTIFICATION_STATE);
     }
 
@@ -380,7 +434,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
      * @param instance to set state to
      */
     public static void setHighNotificationState(Context context, AlarmInstance instance) {
-        LogUtils.i("Setting high notification state to instance " + instance.mId);
+        LogUtils.i("Setting high notification state to instance %d", instance.mId);
 
         // Update alarm state in db
         ContentResolver contentResolver = context.getContentResolver();
@@ -389,8 +443,11 @@ public final class AlarmStateManager extends BroadcastReceiver {
 
         // Setup instance notification and scheduling timers
         AlarmNotifications.showUpcomingNotification(context, instance, false);
-        scheduleInstanceStateChange(context, instance.getAlarmTime(),
+        scheduleInstanceStateChange(context, instance.getSchedule().getAlarmTime(),
                 instance, AlarmInstance.FIRED_STATE);
+
+        // The alarm fires soon; load its ringtone now so it can start sounding immediately.
+        AlarmKlaxon.prepare(context, instance);
     }
 
     /**
@@ -402,7 +459,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
      * @param instance to set state to
      */
     public static void setFiredState(Context context, AlarmInstance instance) {
-        LogUtils.i("Setting fire state to instance " + instance.mId);
+        LogUtils.i("Setting fire state to instance %d", instance.mId);
 
         // Update alarm state in db
         ContentResolver contentResolver = context.getContentResolver();
@@ -418,8 +475,10 @@ public final class AlarmStateManager extends BroadcastReceiver {
 
         Events.sendAlarmEvent(R.string.action_fire, 0);
 
-        Calendar timeout = instance.getTimeout();
-        if (timeout != null) {
+        final AlarmSchedule schedule = instance.getSchedule();
+        Perf.sample(Perf.ALARM_FIRE_LATENCY, getCurrentTimeMillis() - schedule.getAlarmTime());
+        final long timeout = schedule.getTimeout(DataModel.getDataModel().getAlarmTimeout());
+        if (timeout != AlarmSchedule.NO_TIMEOUT) {
             scheduleInstanceStateChange(context, timeout, instance, AlarmInstance.MISSED_STATE);
         }
 
@@ -446,7 +505,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
         newAlarmTime.add(Calendar.MINUTE, snoozeMinutes);
 
         // Update alarm state and new alarm time in db.
-        LogUtils.i("Setting snoozed state to instance " + instance.mId + " for "
+        LogUtils.i(() -> "Setting snoozed state to instance " + instance.mId + " for "
                 + AlarmUtils.getFormattedTime(context, newAlarmTime));
         instance.setAlarmTime(newAlarmTime);
         instance.mAlarmState = AlarmInstance.SNOOZE_STATE;
@@ -454,8 +513,9 @@ public final class AlarmStateManager extends BroadcastReceiver {
 
         // Setup instance notification and scheduling timers
         AlarmNotifications.showSnoozeNotification(context, instance);
-        scheduleInstanceStateChange(context, instance.getAlarmTime(),
+        scheduleInstanceStateChange(context, instance.getSchedule().getAlarmTime(),
                 instance, AlarmInstance.FIRED_STATE);
+        AlarmKlaxon.prepare(context, instance);
 
         // Display the snooze minutes in a toast.
         if (showToast) {
@@ -470,7 +530,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
         }
 
         // Instance time changed, so find next alarm that will fire and notify system
-        updateNextAlarm(context);
+        updateNextAlarm(context, instance);
     }
 
     /**
@@ -482,7 +542,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
      * @param instance to set state to
      */
     public static void setMissedState(Context context, AlarmInstance instance) {
-        LogUtils.i("Setting missed state to instance " + instance.mId);
+        LogUtils.i("Setting missed state to instance %d", instance.mId);
         // Stop alarm if this instance is firing it
         AlarmService.stopAlarm(context, instance);
 
@@ -498,12 +558,12 @@ public final class AlarmStateManager extends BroadcastReceiver {
 
         // Setup instance notification and scheduling timers
         AlarmNotifications.showMissedNotification(context, instance);
-        scheduleInstanceStateChange(context, instance.getMissedTimeToLive(),
+        scheduleInstanceStateChange(context, instance.getSchedule().getMissedTimeToLive(),
                 instance, AlarmInstance.DISMISSED_STATE);
 
         cancelPowerOffAlarm(context, instance);
         // Instance is not valid anymore, so find next alarm that will fire and notify system
-        updateNextAlarm(context);
+        updateNextAlarm(context, instance);
     }
 
     /**
@@ -514,7 +574,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
      * @param instance to set state to
      */
     public static void setPreDismissState(Context context, AlarmInstance instance) {
-        LogUtils.i("Setting predismissed state to instance " + instance.mId);
+        LogUtils.i("Setting predismissed state to instance %d", instance.mId);
 
         // Update alarm in db
         final ContentResolver contentResolver = context.getContentResolver();
@@ -523,7 +583,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
 
         // Setup instance notification and scheduling timers
         AlarmNotifications.clearNotification(context, instance);
-        scheduleInstanceStateChange(context, instance.getAlarmTime(), instance,
+        scheduleInstanceStateChange(context, instance.getSchedule().getAlarmTime(), instance,
                 AlarmInstance.DISMISSED_STATE);
 
         // Check parent if it needs to reschedule, disable or delete itself
@@ -532,14 +592,14 @@ public final class AlarmStateManager extends BroadcastReceiver {
         }
 
         cancelPowerOffAlarm(context, instance);
-        updateNextAlarm(context);
+        updateNextAlarm(context, instance);
     }
 
     /**
      * This just sets the alarm instance to DISMISSED_STATE.
      */
     public static void setDismissState(Context context, AlarmInstance instance) {
-        LogUtils.i("Setting dismissed state to instance " + instance.mId);
+        LogUtils.i("Setting dismissed state to instance %d", instance.mId);
         instance.mAlarmState = AlarmInstance.DISMISSED_STATE;
         final ContentResolver contentResolver = context.getContentResolver();
         AlarmInstance.updateInstance(contentResolver, instance);
@@ -555,7 +615,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
      * @param instance to set state to
      */
     public static void deleteInstanceAndUpdateParent(Context context, AlarmInstance instance) {
-        LogUtils.i("Deleting instance " + instance.mId + " and updating parent alarm.");
+        LogUtils.i("Deleting instance %d and updating parent alarm.", instance.mId);
 
         // Remove all other timers and notifications associated to it
         unregisterInstance(context, instance);
@@ -580,7 +640,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
      * @param instance to unregister
      */
     public static void unregisterInstance(Context context, AlarmInstance instance) {
-        LogUtils.i("Unregistering instance " + instance.mId);
+        LogUtils.i("Unregistering instance %d", instance.mId);
         // Stop alarm if this instance is firing it
         AlarmService.stopAlarm(context, instance);
         AlarmNotifications.clearNotification(context, instance);
@@ -588,6 +648,23 @@ public final class AlarmStateManager extends BroadcastReceiver {
         setDismissState(context, instance);
     }
 
+    /**
+     * This will remove the notifications and alarm timers of each instance without writing to
+     * the database. This should only be used by callers that delete the instances themselves.
+     *
+     * @param context   application context
+     * @param instances to cancel
+     */
+    public static void cancelInstances(Context context, List<AlarmInstance> instances) {
+        for (AlarmInstance instance : instances) {
+            LogUtils.i("Canceling instance %d", instance.mId);
+            AlarmService.stopAlarm(context, instance);
+            AlarmNotifications.clearNotification(context, instance);
+            cancelScheduledInstanceStateChange(context, instance);
+            cancelPowerOffAlarm(context, instance);
+        }
+    }
+
     /**
      * This registers the AlarmInstance to the state manager. This will look at the instance
      * and choose the most appropriate state to put it in. This is primarily used by new
@@ -614,15 +691,12 @@ public final class AlarmStateManager extends BroadcastReceiver {
      */
     public static void registerInstance(Context context, AlarmInstance instance,
             boolean updateNextAlarm) {
-        LogUtils.i("Registering instance: " + instance.mId);
+        LogUtils.i("Registering instance: %d", instance.mId);
         final ContentResolver cr = context.getContentResolver();
         final Alarm alarm = Alarm.getAlarm(cr, instance.mAlarmId);
-        final Calendar currentTime = getCurrentTime();
-        final Calendar alarmTime = instance.getAlarmTime();
-        final Calendar timeoutTime = instance.getTimeout();
-        final Calendar lowNotificationTime = instance.getLowNotificationTime();
-        final Calendar highNotificationTime = instance.getHighNotificationTime();
-        final Calendar missedTTL = instance.getMissedTimeToLive();
+        final long currentTime = getCurrentTimeMillis();
+        final AlarmSchedule schedule = instance.getSchedule();
+        final long alarmTime = schedule.getAlarmTime();
 
         // Handle special use cases here
         if (instance.mAlarmState == AlarmInstance.DISMISSED_STATE) {
@@ -632,13 +706,14 @@ public final class AlarmStateManager extends BroadcastReceiver {
             return;
         } else if (instance.mAlarmState == AlarmInstance.FIRED_STATE) {
             // Keep alarm firing, unless it should be timed out
-            boolean hasTimeout = timeoutTime != null && currentTime.after(timeoutTime);
+            final int timeoutMinutes = DataModel.getDataModel().getAlarmTimeout();
+            boolean hasTimeout = currentTime > schedule.getTimeout(timeoutMinutes);
             if (!hasTimeout) {
                 setFiredState(context, instance);
                 return;
             }
         } else if (instance.mAlarmState == AlarmInstance.MISSED_STATE) {
-            if (currentTime.before(alarmTime)) {
+            if (currentTime < alarmTime) {
                 if (instance.mAlarmId == null) {
                     LogUtils.i("Cannot restore missed instance for one-time alarm");
                     // This instance parent got deleted (ie. deleteAfterUse), so
@@ -657,7 +732,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
                 Alarm.updateAlarm(cr, alarm);
             }
         } else if (instance.mAlarmState == AlarmInstance.PREDISMISSED_STATE) {
-            if (currentTime.before(alarmTime)) {
+            if (currentTime < alarmTime) {
                 setPreDismissState(context, instance);
             } else {
                 deleteInstanceAndUpdateParent(context, instance);
@@ -666,17 +741,14 @@ public final class AlarmStateManager extends BroadcastReceiver {
         }
 
         // Fix states that are time sensitive
-        if (currentTime.after(missedTTL)) {
+        if (currentTime > schedule.getMissedTimeToLive()) {
             // Alarm is so old, just dismiss it
             deleteInstanceAndUpdateParent(context, instance);
-        } else if (currentTime.after(alarmTime)) {
+        } else if (currentTime > alarmTime) {
             // There is a chance that the TIME_SET occurred right when the alarm should go off, so
             // we need to add a check to see if we should fire the alarm instead of marking it
             // missed.
-            Calendar alarmBuffer = Calendar.getInstance();
-            alarmBuffer.setTime(alarmTime.getTime());
-            alarmBuffer.add(Calendar.SECOND, ALARM_FIRE_BUFFER);
-            if (currentTime.before(alarmBuffer)) {
+            if (currentTime < alarmTime + ALARM_FIRE_BUFFER * DateUtils.SECOND_IN_MILLIS) {
                 setFiredState(context, instance);
             } else {
                 setMissedState(context, instance);
@@ -685,11 +757,10 @@ public final class AlarmStateManager extends BroadcastReceiver {
             // We only want to display snooze notification and not update the time,
             // so handle showing the notification directly
             AlarmNotifications.showSnoozeNotification(context, instance);
-            scheduleInstanceStateChange(context, instance.getAlarmTime(),
-                    instance, AlarmInstance.FIRED_STATE);
-        } else if (currentTime.after(highNotificationTime)) {
+            scheduleInstanceStateChange(context, alarmTime, instance, AlarmInstance.FIRED_STATE);
+        } else if (currentTime > schedule.getHighNotificationTime()) {
             setHighNotificationState(context, instance);
-        } else if (currentTime.after(lowNotificationTime)) {
+        } else if (currentTime > schedule.getLowNotificationTime()) {
             // Only show low notification if it wasn't hidden in the past
             if (instance.mAlarmState == AlarmInstance.HIDE_NOTIFICATION_STATE) {
                 setHideNotificationState(context, instance);
@@ -703,10 +774,27 @@ public final class AlarmStateManager extends BroadcastReceiver {
 
         // The caller prefers to handle updateNextAlarm for optimization
         if (updateNextAlarm) {
-            updateNextAlarm(context);
+            updateNextAlarm(context, instance);
         }
     }
 
+    /**
+     * Registers each of the given instances as {@link #registerInstance} does, then updates the
+     * next alarm once for all of them.
+     *
+     * @param context   application context
+     * @param instances to register
+     */
+    public static void registerInstances(Context context, List<AlarmInstance> instances) {
+        batchNextAlarmUpdates(context, () -> {
+            for (AlarmInstance instance : instances) {
+                registerInstance(context, instance, true /* updateNextAlarm */);
+            }
+            // Publish the next alarm even if there are no instances to register.
+            updateNextAlarm(context);
+        });
+    }
+
     /**
      * This will delete and unregister all instances associated with alarmId, without affect
      * the alarm itself. This should be used whenever modifying or deleting an alarm.
@@ -715,7 +803,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
      * @param alarmId to find instances to delete.
      */
     public static void deleteAllInstances(Context context, long alarmId) {
-        LogUtils.i("Deleting all instances of alarm: " + alarmId);
+        LogUtils.i("Deleting all instances of alarm: %d", alarmId);
         ContentResolver cr = context.getContentResolver();
         List<AlarmInstance> instances = AlarmInstance.getInstancesByAlarmId(cr, alarmId);
         for (AlarmInstance instance : instances) {
@@ -741,7 +829,8 @@ public final class AlarmStateManager extends BroadcastReceiver {
         // instances).
         final List<AlarmInstance> instances = AlarmInstance.getInstances(
                 contentResolver, null /* selection */);
-        instances.sort((lhs, rhs) -> rhs.getAlarmTime().compareTo(lhs.getAlarmTime()));
+        instances.sort((lhs, rhs) -> Long.compare(rhs.getSchedule().getAlarmTime(),
+                lhs.getSchedule().getAlarmTime()));
 
         for (AlarmInstance instance : instances) {
             final Alarm alarm = Alarm.getAlarm(contentResolver, instance.mAlarmId);
@@ -752,8 +841,9 @@ public final class AlarmStateManager extends BroadcastReceiver {
                 continue;
             }
             final Calendar priorAlarmTime = alarm.getPreviousAlarmTime(instance.getAlarmTime());
-            final Calendar missedTTLTime = instance.getMissedTimeToLive();
-            if (currentTime.before(priorAlarmTime) || currentTime.after(missedTTLTime)) {
+            final long missedTTLTime = instance.getSchedule().getMissedTimeToLive();
+            if (currentTime.before(priorAlarmTime)
+                    || currentTime.getTimeInMillis() > missedTTLTime) {
                 final Calendar oldAlarmTime = instance.getAlarmTime();
                 final Calendar newAlarmTime = alarm.getNextAlarmTime(currentTime);
                 final CharSequence oldTime = DateFormat.format("MM/dd/yyyy hh:mm a", oldAlarmTime);
@@ -813,7 +903,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
                 deleteInstanceAndUpdateParent(context, instance);
                 break;
             default:
-                LogUtils.e("Trying to change to unknown alarm state: " + state);
+                LogUtils.e("Trying to change to unknown alarm state: %d", state);
         }
     }
 
@@ -827,7 +917,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
         final PowerManager.WakeLock wl = AlarmAlertWakeLock.createPartialWakeLock(context);
         wl.acquire();
         AsyncHandler.post(() -> {
-            handleIntent(context, intent);
+            batchNextAlarmUpdates(context, () -> handleIntent(context, intent));
             result.finish();
             wl.release();
         });
@@ -835,13 +925,13 @@ public final class AlarmStateManager extends BroadcastReceiver {
 
     public static void handleIntent(Context context, Intent intent) {
         final String action = intent.getAction();
-        LogUtils.v("AlarmStateManager received intent " + intent);
+        LogUtils.v("AlarmStateManager received intent %s", intent);
         if (CHANGE_STATE_ACTION.equals(action)) {
             Uri uri = intent.getData();
             AlarmInstance instance = AlarmInstance.getInstance(context.getContentResolver(),
                     AlarmInstance.getId(uri));
             if (instance == null) {
-                LogUtils.e("Can not change state for unknown instance: " + uri);
+                LogUtils.e("Can not change state for unknown instance: %s", uri);
                 return;
             }
 
@@ -849,7 +939,7 @@ public final class AlarmStateManager extends BroadcastReceiver {
             int intentId = intent.getIntExtra(ALARM_GLOBAL_ID_EXTRA, -1);
             int alarmState = intent.getIntExtra(ALARM_STATE_EXTRA, -1);
             if (intentId != globalId) {
-                LogUtils.i("IntentId: " + intentId + " GlobalId: " + globalId + " AlarmState: " +
+                LogUtils.i("IntentId: %d GlobalId: %d AlarmState: %d", intentId, globalId,
                         alarmState);
                 // Allows dismiss/snooze requests to go through
                 if (!intent.hasCategory(ALARM_DISMISS_TAG) &&
@@ -908,69 +998,71 @@ public final class AlarmStateManager extends BroadcastReceiver {
     }
 
     /**
-     * Abstracts away how state changes are scheduled. The {@link AlarmManagerStateChangeScheduler}
+     * Abstracts away how state changes are scheduled. The {@link AlarmTimelineScheduler}
      * implementation schedules callbacks within the system AlarmManager. Alternate
      * implementations, such as test case mocks can subvert this behavior.
      */
     interface StateChangeScheduler {
-        void scheduleInstanceStateChange(Context context, Calendar time,
+        void scheduleInstanceStateChange(Context context, long time,
                 AlarmInstance instance, int newState);
 
         void cancelScheduledInstanceStateChange(Context context, AlarmInstance instance);
     }
 
+    /**
+     * Tells the framework and the power-off alarm hook about the next alarm.
+     */
+    private static final class SystemNextAlarmPublisher implements NextAlarmTracker.Publisher {
+        @Override
+        public AlarmInstance queryNextAlarm(Context context) {
+            return getNextFiringAlarm(context);
+        }
+
+        @Override
+        public void publishNextAlarm(Context context, AlarmInstance nextAlarm) {
+            if (nextAlarm != null) {
+                setPowerOffAlarm(context, nextAlarm);
+            }
+
+            updateNextAlarmInAlarmManager(context, nextAlarm);
+        }
+    }
+
     private static void setPowerOffAlarm(Context context, AlarmInstance instance) {
-         LogUtils.i("Set next power off alarm : instance id "+ instance.mId);
+         LogUtils.i("Set next power off alarm : instance id %d", instance.mId);
          Intent intent = new Intent(ACTION_SET_POWEROFF_ALARM);
          intent.addFlags(Intent.FLAG_RECEIVER_FOREGROUND);
          intent.setPackage(POWER_OFF_ALARM_PACKAGE);
-         intent.putExtra(TIME, instance.getAlarmTime().getTimeInMillis());
+         intent.putExtra(TIME, instance.getSchedule().getAlarmTime());
          context.sendBroadcast(intent);
     }
 
     private static void cancelPowerOffAlarm(Context context, AlarmInstance instance) {
          Intent intent = new Intent(ACTION_CANCEL_POWEROFF_ALARM);
          intent.addFlags(Intent.FLAG_RECEIVER_FOREGROUND);
-         intent.putExtra(TIME, instance.getAlarmTime().getTimeInMillis());
+         intent.putExtra(TIME, instance.getSchedule().getAlarmTime());
          intent.setPackage(POWER_OFF_ALARM_PACKAGE);
          context.sendBroadcast(intent);
     }
 
     /**
-     * Schedules state change callbacks within the AlarmManager.
+     * Cancels the per-instance {@link AlarmManager} wakeups that earlier versions used to
+     * schedule each state change; the timeline now schedules them all with a single wakeup. This
+     * only needs to run once, after the app is upgraded.
+     *
+     * @param context application context
      */
-    private static class AlarmManagerStateChangeScheduler implements StateChangeScheduler {
-        @Override
-        public void scheduleInstanceStateChange(Context context, Calendar time,
-                AlarmInstance instance, int newState) {
-            final long timeInMillis = time.getTimeInMillis();
-            LogUtils.i("Scheduling state change %d to instance %d at %s (%d)", newState,
-                    instance.mId, AlarmUtils.getFormattedTime(context, time), timeInMillis);
-            final Intent stateChangeIntent =
-                    createStateChangeIntent(context, ALARM_MANAGER_TAG, instance, newState);
-            // Treat alarm state change as high priority, use foreground broadcasts
-            stateChangeIntent.addFlags(Intent.FLAG_RECEIVER_FOREGROUND);
-            PendingIntent pendingIntent = PendingIntent.getService(context, instance.hashCode(),
-                    stateChangeIntent,
-                    PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
-
-            final AlarmManager am = (AlarmManager) context.getSystemService(ALARM_SERVICE);
-            // Ensure the alarm fires even if the device is dozing.
-            am.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, timeInMillis, pendingIntent);
-
-        }
-
-        @Override
-        public void cancelScheduledInstanceStateChange(Context context, AlarmInstance instance) {
-            LogUtils.v("Canceling instance " + instance.mId + " timers");
-
+    public static void cancelLegacyInstanceWakeups(Context context) {
+        final AlarmManager am = (AlarmManager) context.getSystemService(ALARM_SERVICE);
+        final ContentResolver cr = context.getContentResolver();
+        for (AlarmInstance instance : AlarmInstance.getInstances(cr, null /* selection */)) {
             // Create a PendingIntent that will match any one set for this instance
-            PendingIntent pendingIntent = PendingIntent.getService(context, instance.hashCode(),
+            final PendingIntent pendingIntent = PendingIntent.getService(context,
+                    instance.hashCode(),
                     createStateChangeIntent(context, ALARM_MANAGER_TAG, instance, null),
                     PendingIntent.FLAG_NO_CREATE | PendingIntent.FLAG_IMMUTABLE);
 
             if (pendingIntent != null) {
-                AlarmManager am = (AlarmManager) context.getSystemService(ALARM_SERVICE);
                 am.cancel(pendingIntent);
                 pendingIntent.cancel();
             }
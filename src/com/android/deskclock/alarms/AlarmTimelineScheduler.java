@@ -0,0 +1,267 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.alarms;
+
+import static android.content.Context.ALARM_SERVICE;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+import android.util.LongSparseArray;
+
+import androidx.annotation.NonNull;
+
+import com.android.deskclock.AlarmUtils;
+import com.android.deskclock.LogUtils;
+import com.android.deskclock.data.DataModel;
+import com.android.deskclock.provider.AlarmInstance;
+import com.android.deskclock.provider.AlarmSchedule;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Schedules alarm instance state changes on a single timeline. The pending transition of every
+ * instance is kept in one priority queue and only the earliest of them is armed in the
+ * {@link AlarmManager}, so any number of alarms costs a single registration. When that wakeup
+ * is delivered to {@link AlarmService}, every transition that has come due is applied and the
+ * wakeup is re-armed for the next one.
+ *
+ * <p>The queue is only a cache: each instance's pending transition follows from its state and
+ * {@link AlarmSchedule}, so a process started by the wakeup rebuilds it from the database.</p>
+ */
+final class AlarmTimelineScheduler implements AlarmStateManager.StateChangeScheduler {
+
+    /** Intent action of the single wakeup armed in the AlarmManager. */
+    static final String ACTION_TIMELINE = "com.android.deskclock.action.ALARM_TIMELINE";
+
+    /** Pending transitions ordered by time; the head is the one armed in the AlarmManager. */
+    private final PriorityQueue<Transition> mQueue = new PriorityQueue<>();
+
+    /** Maps instance id to its pending transition in {@link #mQueue}. */
+    private final LongSparseArray<Transition> mTransitions = new LongSparseArray<>();
+
+    /** The transition currently armed in the AlarmManager, if known. */
+    private Transition mArmed;
+
+    /** {@code true} once the pending transitions have been read from the database. */
+    private boolean mLoaded;
+
+    @Override
+    public synchronized void scheduleInstanceStateChange(Context context, long time,
+            AlarmInstance instance, int newState) {
+        ensureLoaded(context);
+        LogUtils.i(() -> "Scheduling state change " + newState + " to instance " + instance.mId
+                + " at " + AlarmUtils.getFormattedTime(context, time) + " (" + time + ")");
+        remove(instance.mId);
+        add(new Transition(instance.mId, newState, time));
+        arm(context);
+    }
+
+    @Override
+    public synchronized void cancelScheduledInstanceStateChange(Context context,
+            AlarmInstance instance) {
+        ensureLoaded(context);
+        LogUtils.v("Canceling instance %d timers", instance.mId);
+        remove(instance.mId);
+        arm(context);
+    }
+
+    /**
+     * Removes every transition that has come due from the timeline and re-arms the wakeup for
+     * the transitions that remain.
+     *
+     * @return state change intents to be handled like those created by
+     *      {@link AlarmStateManager#createStateChangeIntent}, in chronological order
+     */
+    synchronized List<Intent> takeDueStateChanges(Context context) {
+        ensureLoaded(context);
+
+        // The wakeup that delivered this call is no longer armed.
+        mArmed = null;
+
+        final long now = DataModel.getDataModel().currentTimeMillis();
+        List<Intent> intents = Collections.emptyList();
+        while (!mQueue.isEmpty() && mQueue.peek().time <= now) {
+            final Transition transition = mQueue.poll();
+            mTransitions.remove(transition.instanceId);
+            if (intents.isEmpty()) {
+                intents = new ArrayList<>();
+            }
+            intents.add(AlarmStateManager.createScheduledStateChangeIntent(context,
+                    transition.instanceId, transition.newState));
+        }
+
+        arm(context);
+        return intents;
+    }
+
+    /**
+     * Rebuilds the timeline from the instances in the database the first time it is used by
+     * this process.
+     */
+    private void ensureLoaded(Context context) {
+        if (mLoaded) {
+            return;
+        }
+        mLoaded = true;
+
+        final List<AlarmInstance> instances =
+                AlarmInstance.getInstances(context.getContentResolver(), null /* selection */);
+        final int timeoutMinutes = DataModel.getDataModel().getAlarmTimeout();
+        for (AlarmInstance instance : instances) {
+            final Transition transition = getPendingTransition(instance, timeoutMinutes);
+            if (transition != null) {
+                add(transition);
+            }
+        }
+        LogUtils.i("Loaded %d pending alarm state changes", mQueue.size());
+    }
+
+    /**
+     * Arms the AlarmManager for the earliest pending transition, or disarms it if there is none.
+     * The AlarmManager is only called when the earliest transition differs from the armed one.
+     */
+    private void arm(Context context) {
+        final Transition next = mQueue.peek();
+        if (next != null && next.equals(mArmed)) {
+            return;
+        }
+
+        final AlarmManager am = (AlarmManager) context.getSystemService(ALARM_SERVICE);
+        if (next == null) {
+            final PendingIntent pi = createWakeup(context, PendingIntent.FLAG_NO_CREATE);
+            if (pi != null) {
+                am.cancel(pi);
+                pi.cancel();
+            }
+        } else {
+            // Ensure the alarm fires even if the device is dozing.
+            final PendingIntent pi = createWakeup(context, PendingIntent.FLAG_UPDATE_CURRENT);
+            am.setExactAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, next.time, pi);
+        }
+        mArmed = next;
+    }
+
+    private void add(Transition transition) {
+        mQueue.add(transition);
+        mTransitions.put(transition.instanceId, transition);
+    }
+
+    private void remove(long instanceId) {
+        final Transition existing = mTransitions.get(instanceId);
+        if (existing != null) {
+            mQueue.remove(existing);
+            mTransitions.remove(instanceId);
+        }
+    }
+
+    private static PendingIntent createWakeup(Context context, int flags) {
+        final Intent intent = new Intent(context, AlarmService.class).setAction(ACTION_TIMELINE);
+        return PendingIntent.getService(context, 0 /* requestCode */, intent,
+                flags | PendingIntent.FLAG_IMMUTABLE);
+    }
+
+    /**
+     * Mirrors the state changes scheduled by the {@code set*State} methods of
+     * {@link AlarmStateManager}.
+     *
+     * @param timeoutMinutes the number of minutes alarms may ring; negative for no timeout
+     * @return the next state change of the given instance, or {@code null} if there is none
+     */
+    private static Transition getPendingTransition(AlarmInstance instance, int timeoutMinutes) {
+        final AlarmSchedule schedule = instance.getSchedule();
+        switch (instance.mAlarmState) {
+            case AlarmInstance.SILENT_STATE:
+                return new Transition(instance.mId, AlarmInstance.LOW_NOTIFICATION_STATE,
+                        schedule.getLowNotificationTime());
+            case AlarmInstance.LOW_NOTIFICATION_STATE:
+            case AlarmInstance.HIDE_NOTIFICATION_STATE:
+                return new Transition(instance.mId, AlarmInstance.HIGH_NOTIFICATION_STATE,
+                        schedule.getHighNotificationTime());
+            case AlarmInstance.HIGH_NOTIFICATION_STATE:
+            case AlarmInstance.SNOOZE_STATE:
+                return new Transition(instance.mId, AlarmInstance.FIRED_STATE,
+                        schedule.getAlarmTime());
+            case AlarmInstance.FIRED_STATE:
+                final long timeout = schedule.getTimeout(timeoutMinutes);
+                return timeout != AlarmSchedule.NO_TIMEOUT
+                        ? new Transition(instance.mId, AlarmInstance.MISSED_STATE, timeout)
+                        : null;
+            case AlarmInstance.MISSED_STATE:
+                return new Transition(instance.mId, AlarmInstance.DISMISSED_STATE,
+                        schedule.getMissedTimeToLive());
+            case AlarmInstance.PREDISMISSED_STATE:
+                return new Transition(instance.mId, AlarmInstance.DISMISSED_STATE,
+                        schedule.getAlarmTime());
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * A state change of one alarm instance at a moment in time.
+     */
+    private static final class Transition implements Comparable<Transition> {
+
+        final long instanceId;
+        final int newState;
+        final long time;
+
+        Transition(long instanceId, int newState, long time) {
+            this.instanceId = instanceId;
+            this.newState = newState;
+            this.time = time;
+        }
+
+        @Override
+        public int compareTo(Transition other) {
+            final int result = Long.compare(time, other.time);
+            return result != 0 ? result : Long.compare(instanceId, other.instanceId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Transition)) return false;
+            final Transition that = (Transition) o;
+            return instanceId == that.instanceId && newState == that.newState
+                    && time == that.time;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = Long.hashCode(instanceId);
+            result = 31 * result + newState;
+            result = 31 * result + Long.hashCode(time);
+            return result;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "Transition{" +
+                    "instanceId=" + instanceId +
+                    ", newState=" + newState +
+                    ", time=" + time +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.alarms;
+
+import android.content.Context;
+
+import com.android.deskclock.perf.Perf;
+import com.android.deskclock.provider.AlarmInstance;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tracks the alarm instance that fires next so that the system is only told about it when it
+ * changes.
+ *
+ * <ul>
+ *     <li>The next instance and its fire time are cached. When a single known instance changes,
+ *     the cache is updated from that instance alone; the database is only queried when the
+ *     cached next instance stops being the earliest, or when the change is not known.</li>
+ *     <li>The {@link Publisher} is only invoked when the next instance or its fire time differs
+ *     from the last one published.</li>
+ *     <li>Updates requested on a thread inside {@link #beginBatch}/{@link #endBatch} are
+ *     deferred and applied together when the outermost batch ends.</li>
+ * </ul>
+ */
+final class NextAlarmTracker {
+
+    /** Counter of next alarm updates that did not change the published next alarm. */
+    private static final String NEXT_ALARM_UNCHANGED = "next_alarm_unchanged";
+
+    /** Counter of next alarm updates deferred to the end of a batch. */
+    private static final String NEXT_ALARM_COALESCED = "next_alarm_coalesced";
+
+    /** Finds the next alarm in the database and tells the system about it. */
+    interface Publisher {
+        /**
+         * @return the instance that fires next, or {@code null} if none will fire
+         */
+        AlarmInstance queryNextAlarm(Context context);
+
+        /**
+         * @param nextAlarm the instance that fires next, or {@code null} if none will fire
+         */
+        void publishNextAlarm(Context context, AlarmInstance nextAlarm);
+    }
+
+    private final Publisher mPublisher;
+
+    /** The updates deferred by the batch running on the current thread, if any. */
+    private final ThreadLocal<Batch> mBatch = new ThreadLocal<>();
+
+    // The fields below are guarded by this object.
+
+    /** {@code true} if {@link #mNextAlarm} reflects the database. */
+    private boolean mKnown;
+
+    /** The instance that fires next, or {@code null} if none will fire. */
+    private AlarmInstance mNextAlarm;
+
+    /** {@code true} once a next alarm has been published by this process. */
+    private boolean mPublished;
+
+    /** The id and fire time of the last published next alarm. */
+    private long mPublishedId = AlarmInstance.INVALID_ID;
+    private long mPublishedTime;
+
+    NextAlarmTracker(Publisher publisher) {
+        mPublisher = publisher;
+    }
+
+    /**
+     * Defers every update requested on the calling thread until the matching call to
+     * {@link #endBatch}. Batches may nest.
+     */
+    void beginBatch() {
+        final Batch batch = mBatch.get();
+        if (batch == null) {
+            mBatch.set(new Batch());
+        } else {
+            batch.mDepth++;
+        }
+    }
+
+    /**
+     * Ends a batch started by {@link #beginBatch}; the outermost batch applies the deferred
+     * updates as a single update.
+     */
+    void endBatch(Context context) {
+        final Batch batch = mBatch.get();
+        if (--batch.mDepth > 0) {
+            return;
+        }
+
+        mBatch.remove();
+        if (batch.mRequested) {
+            synchronized (this) {
+                if (batch.mQueryRequired) {
+                    mKnown = false;
+                } else {
+                    for (AlarmInstance changed : batch.mChanged) {
+                        apply(changed);
+                    }
+                }
+                publish(context);
+            }
+        }
+    }
+
+    /**
+     * Updates the next alarm after changes to unknown instances, querying the database.
+     */
+    void update(Context context) {
+        final Batch batch = mBatch.get();
+        if (batch != null) {
+            batch.mRequested = true;
+            batch.mQueryRequired = true;
+            Perf.count(NEXT_ALARM_COALESCED);
+            return;
+        }
+
+        synchronized (this) {
+            mKnown = false;
+            publish(context);
+        }
+    }
+
+    /**
+     * Updates the next alarm after a change to {@code changed} alone, whose state and fire time
+     * have already been written to the database.
+     */
+    void update(Context context, AlarmInstance changed) {
+        final Batch batch = mBatch.get();
+        if (batch != null) {
+            batch.mRequested = true;
+            // Copy the instance; its owner may keep modifying it before the batch ends.
+            batch.mChanged.add(new AlarmInstance(changed));
+            Perf.count(NEXT_ALARM_COALESCED);
+            return;
+        }
+
+        synchronized (this) {
+            apply(changed);
+            publish(context);
+        }
+    }
+
+    /**
+     * Updates the cached next alarm from a change to a single instance, or marks the cache
+     * unknown if the new next alarm cannot be determined without a query.
+     */
+    private void apply(AlarmInstance changed) {
+        if (!mKnown) {
+            return;
+        }
+
+        final boolean active = changed.mAlarmState < AlarmInstance.FIRED_STATE;
+        final long time = changed.getSchedule().getAlarmTime();
+        if (mNextAlarm != null && mNextAlarm.mId == changed.mId) {
+            if (active && time <= mNextAlarm.getSchedule().getAlarmTime()) {
+                // The next alarm moved earlier or stayed put; it is still the earliest.
+                mNextAlarm = new AlarmInstance(changed);
+            } else {
+                // Another instance may now be the earliest.
+                mKnown = false;
+            }
+        } else if (active
+                && (mNextAlarm == null || time < mNextAlarm.getSchedule().getAlarmTime())) {
+            mNextAlarm = new AlarmInstance(changed);
+        }
+    }
+
+    /**
+     * Queries the next alarm if it is not known, then tells the system about it if it changed.
+     */
+    private void publish(Context context) {
+        Perf.count(Perf.NEXT_ALARM_UPDATE);
+        if (!mKnown) {
+            mNextAlarm = mPublisher.queryNextAlarm(context);
+            mKnown = true;
+        }
+
+        final long id = mNextAlarm == null ? AlarmInstance.INVALID_ID : mNextAlarm.mId;
+        final long time = mNextAlarm == null ? 0 : mNextAlarm.getSchedule().getAlarmTime();
+        if (mPublished && id == mPublishedId && time == mPublishedTime) {
+            Perf.count(NEXT_ALARM_UNCHANGED);
+            return;
+        }
+
+        mPublisher.publishNextAlarm(context, mNextAlarm);
+        mPublished = true;
+        mPublishedId = id;
+        mPublishedTime = time;
+    }
+
+    private static final class Batch {
+        /** The number of unfinished batches on this thread, including this one. */
+        private int mDepth = 1;
+
+        /** {@code true} if any update was requested during the batch. */
+        private boolean mRequested;
+
+        /** {@code true} if any update involved unknown changes. */
+        private boolean mQueryRequired;
+
+        /** The changed instances, in order, if every change was known. */
+        private final List<AlarmInstance> mChanged = new ArrayList<>();
+    }
+}
@@ -22,6 +22,9 @@ import android.content.Intent;
 import android.content.pm.ShortcutInfo;
 import android.content.pm.ShortcutManager;
 import android.graphics.drawable.Icon;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
 import android.os.UserManager;
 import android.provider.AlarmClock;
 
@@ -38,24 +41,81 @@ import com.android.deskclock.data.Stopwatch;
 import com.android.deskclock.data.StopwatchListener;
 import com.android.deskclock.events.Events;
 import com.android.deskclock.events.ShortcutEventTracker;
+import com.android.deskclock.perf.Perf;
 import com.android.deskclock.stopwatch.StopwatchService;
 import com.android.deskclock.uidata.UiDataModel;
 
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
+/**
+ * Publishes the app's dynamic shortcuts. All {@link ShortcutManager} calls are made on a
+ * background thread. Built shortcuts are cached until the next full update, and the stopwatch
+ * shortcut is republished only when its label changes, at most once per
+ * {@link #STOPWATCH_DEBOUNCE_MS}, and only while the system is not rate limiting this app. An
+ * update the system refuses is retried after {@link #RATE_LIMIT_RETRY_MS}; no other update is
+ * attempted in the meantime.
+ */
 class ShortcutController {
 
+    /** Counter of shortcut updates sent to the system. */
+    private static final String SHORTCUT_PUBLISHED = "shortcut_published";
+
+    /** Counter of stopwatch shortcut updates skipped because the label did not change. */
+    private static final String SHORTCUT_UNCHANGED = "shortcut_unchanged";
+
+    /** The time the stopwatch must stay in one state before its shortcut is republished. */
+    private static final long STOPWATCH_DEBOUNCE_MS = 500;
+
+    /** The delay before retrying an update refused by the system rate limiter. */
+    private static final long RATE_LIMIT_RETRY_MS = 60_000;
+
     private final Context mContext;
     private final ComponentName mComponentName;
     private final ShortcutManager mShortcutManager;
     private final UserManager mUserManager;
 
+    /** Runs every {@link ShortcutManager} call, in order. */
+    private final Handler mHandler;
+
+    /** Publishes the stopwatch shortcut matching {@link #mStopwatchRunning}. */
+    private final Runnable mPublishStopwatch = this::publishStopwatchShortcut;
+
+    /** Retries the update last refused by the system. */
+    private final Runnable mRetry = this::retryPublish;
+
+    /** The latest stopwatch state, written on the main thread. */
+    private volatile boolean mStopwatchRunning;
+
+    // The fields below are only accessed on the thread of mHandler.
+
+    /** The alarm, timer and screensaver shortcuts, which never change until the next update. */
+    private List<ShortcutInfo> mFixedShortcuts;
+
+    /** The stopwatch shortcuts, indexed by whether they pause (1) or start (0) the stopwatch. */
+    private final ShortcutInfo[] mStopwatchShortcuts = new ShortcutInfo[2];
+
+    /** The stopwatch state shown by the published shortcut, or {@code null} if unpublished. */
+    private Boolean mPublishedStopwatchRunning;
+
+    /** {@code true} while waiting to retry an update refused by the system. */
+    private boolean mRetryScheduled;
+
+    /** {@code true} if the last full update has yet to be accepted by the system. */
+    private boolean mFullUpdatePending;
+
     ShortcutController(Context context) {
         mContext = context;
         mComponentName = new ComponentName(mContext, DeskClock.class);
         mShortcutManager = mContext.getSystemService(ShortcutManager.class);
         mUserManager = (UserManager) mContext.getSystemService(Context.USER_SERVICE);
+
+        final HandlerThread thread =
+                new HandlerThread("ShortcutController", Process.THREAD_PRIORITY_BACKGROUND);
+        thread.start();
+        mHandler = new Handler(thread.getLooper());
+
         Controller.getController().addEventTracker(new ShortcutEventTracker(mContext));
         DataModel.getDataModel().addStopwatchListener(new StopwatchWatcher());
     }
@@ -65,18 +125,121 @@ class ShortcutController {
             LogUtils.i("Skipping shortcut update because user is locked.");
             return;
         }
+
+        mStopwatchRunning = DataModel.getDataModel().getStopwatch().isRunning();
+        // The full update below publishes the current stopwatch shortcut as well.
+        mHandler.removeCallbacks(mPublishStopwatch);
+        mHandler.post(this::publishAllShortcuts);
+    }
+
+    /**
+     * Rebuilds and publishes every shortcut; labels may have changed with the locale.
+     */
+    private void publishAllShortcuts() {
+        mFixedShortcuts = null;
+        Arrays.fill(mStopwatchShortcuts, null);
+        mPublishedStopwatchRunning = null;
+        mFullUpdatePending = true;
+
+        if (mRetryScheduled) {
+            // The scheduled retry performs the full update.
+            return;
+        }
+
+        final boolean running = mStopwatchRunning;
+        final List<ShortcutInfo> fixed = getFixedShortcuts();
+        try {
+            if (!mShortcutManager.setDynamicShortcuts(Arrays.asList(fixed.get(0), fixed.get(1),
+                    getStopwatchShortcut(running), fixed.get(2)))) {
+                LogUtils.i("Shortcut update is rate limited; retrying later.");
+                retryLater();
+                return;
+            }
+            mFullUpdatePending = false;
+            mPublishedStopwatchRunning = running;
+            Perf.count(SHORTCUT_PUBLISHED);
+        } catch (IllegalStateException e) {
+            LogUtils.wtf(e);
+        }
+    }
+
+    /**
+     * Publishes the stopwatch shortcut if its label differs from the published one.
+     */
+    private void publishStopwatchShortcut() {
+        if (mRetryScheduled) {
+            // The scheduled retry publishes the latest stopwatch state.
+            return;
+        }
+
+        final boolean running = mStopwatchRunning;
+        if (mPublishedStopwatchRunning != null && mPublishedStopwatchRunning == running) {
+            // The stopwatch was toggled back before the debounce window elapsed.
+            Perf.count(SHORTCUT_UNCHANGED);
+            return;
+        }
+
+        if (!mUserManager.isUserUnlocked()) {
+            LogUtils.i("Skipping stopwatch shortcut update because user is locked.");
+            return;
+        }
+
         try {
-            final ShortcutInfo alarm = createNewAlarmShortcut();
-            final ShortcutInfo timer = createNewTimerShortcut();
-            final ShortcutInfo stopwatch = createStopwatchShortcut();
-            final ShortcutInfo screensaver = createScreensaverShortcut();
-            mShortcutManager.setDynamicShortcuts(
-                    Arrays.asList(alarm, timer, stopwatch, screensaver));
+            if (mShortcutManager.isRateLimitingActive() || !mShortcutManager.updateShortcuts(
+                    Collections.singletonList(getStopwatchShortcut(running)))) {
+                LogUtils.i("Stopwatch shortcut update is rate limited; retrying later.");
+                retryLater();
+                return;
+            }
+            mPublishedStopwatchRunning = running;
+            Perf.count(SHORTCUT_PUBLISHED);
         } catch (IllegalStateException e) {
             LogUtils.wtf(e);
         }
     }
 
+    /**
+     * Defers every update until {@link #RATE_LIMIT_RETRY_MS} from now.
+     */
+    private void retryLater() {
+        mRetryScheduled = true;
+        mHandler.postDelayed(mRetry, RATE_LIMIT_RETRY_MS);
+    }
+
+    /**
+     * Publishes whatever was refused or deferred while the system was rate limiting this app.
+     */
+    private void retryPublish() {
+        mRetryScheduled = false;
+        if (mFullUpdatePending) {
+            publishAllShortcuts();
+        } else {
+            publishStopwatchShortcut();
+        }
+    }
+
+    /**
+     * @return the alarm, timer and screensaver shortcuts, in that order
+     */
+    private List<ShortcutInfo> getFixedShortcuts() {
+        if (mFixedShortcuts == null) {
+            mFixedShortcuts = Arrays.asList(createNewAlarmShortcut(), createNewTimerShortcut(),
+                    createScreensaverShortcut());
+        }
+        return mFixedShortcuts;
+    }
+
+    /**
+     * @param running {@code true} for the shortcut that pauses the stopwatch
+     */
+    private ShortcutInfo getStopwatchShortcut(boolean running) {
+        final int index = running ? 1 : 0;
+        if (mStopwatchShortcuts[index] == null) {
+            mStopwatchShortcuts[index] = createStopwatchShortcut(running);
+        }
+        return mStopwatchShortcuts[index];
+    }
+
     private ShortcutInfo createNewAlarmShortcut() {
         final Intent intent = new Intent(AlarmClock.ACTION_SET_ALARM)
                 .setClass(mContext, HandleApiCalls.class)
@@ -111,9 +274,8 @@ class ShortcutController {
                 .build();
     }
 
-    private ShortcutInfo createStopwatchShortcut() {
-        final @StringRes int action = DataModel.getDataModel().getStopwatch().isRunning()
-                ? R.string.action_pause : R.string.action_start;
+    private ShortcutInfo createStopwatchShortcut(boolean running) {
+        final @StringRes int action = running ? R.string.action_pause : R.string.action_start;
         final String shortcutId = UiDataModel.getUiDataModel()
                 .getShortcutId(R.string.category_stopwatch, action);
         final ShortcutInfo.Builder shortcut = new ShortcutInfo.Builder(mContext, shortcutId)
@@ -121,7 +283,7 @@ class ShortcutController {
                 .setActivity(mComponentName)
                 .setRank(2);
         final Intent intent;
-        if (DataModel.getDataModel().getStopwatch().isRunning()) {
+        if (running) {
             intent = new Intent(StopwatchService.ACTION_PAUSE_STOPWATCH)
                     .putExtra(Events.EXTRA_EVENT_LABEL, R.string.label_shortcut);
             shortcut.setShortLabel(mContext.getString(R.string.shortcut_pause_stopwatch_short))
@@ -160,16 +322,15 @@ class ShortcutController {
 
         @Override
         public void stopwatchUpdated(Stopwatch before, Stopwatch after) {
-            if (!mUserManager.isUserUnlocked()) {
-                LogUtils.i("Skipping stopwatch shortcut update because user is locked.");
+            if (before.isRunning() == after.isRunning()) {
+                // Laps and resets do not change the label of the shortcut.
                 return;
             }
-            try {
-                mShortcutManager.updateShortcuts(
-                        Collections.singletonList(createStopwatchShortcut()));
-            } catch (IllegalStateException e) {
-                LogUtils.wtf(e);
-            }
+
+            // Publish once the stopwatch has settled, coalescing rapid start/pause toggles.
+            mStopwatchRunning = after.isRunning();
+            mHandler.removeCallbacks(mPublishStopwatch);
+            mHandler.postDelayed(mPublishStopwatch, STOPWATCH_DEBOUNCE_MS);
         }
     }
 }
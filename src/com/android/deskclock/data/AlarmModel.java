@@ -94,7 +94,7 @@ final class AlarmModel {
     private final class SystemAlarmAlertChangeObserver extends ContentObserver {
 
         private SystemAlarmAlertChangeObserver() {
-            super(new Handler(Looper.myLooper()));
+            super(new Handler(Looper.getMainLooper()));
         }
 
         @Override
@@ -0,0 +1,162 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.data;
+
+import static android.text.format.DateUtils.DAY_IN_MILLIS;
+import static android.text.format.DateUtils.HOUR_IN_MILLIS;
+import static android.text.format.DateUtils.MINUTE_IN_MILLIS;
+
+import android.content.Context;
+
+import androidx.annotation.NonNull;
+
+import com.android.deskclock.R;
+import com.android.deskclock.Utils;
+
+import java.text.DateFormatSymbols;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.TimeZone;
+
+/**
+ * A read-only snapshot of the time in a city relative to the default time zone, as displayed by
+ * world clocks: the difference between the two offsets from UTC, whether the city is on a
+ * different day, and the formatted descriptions of both. Two snapshots are equal if a world
+ * clock would display them identically.
+ */
+public final class CityTime {
+
+    /** The difference between the city's UTC offset and the default UTC offset. */
+    private final long mOffsetDelta;
+
+    /** 1 if the city is on the next day, -1 if it is on the previous day, 0 otherwise. */
+    private final int mDayDifference;
+
+    /** The time difference, e.g. "3 hours ahead" or "Tomorrow, 3 hours ahead". */
+    private final String mTimeDifference;
+
+    /** The abbreviated day of the week in the city if it differs; {@code null} otherwise. */
+    private final String mShortWeekday;
+
+    private CityTime(long offsetDelta, int dayDifference, String timeDifference,
+            String shortWeekday) {
+        mOffsetDelta = offsetDelta;
+        mDayDifference = dayDifference;
+        mTimeDifference = timeDifference;
+        mShortWeekday = shortWeekday;
+    }
+
+    /**
+     * @return the difference, in milliseconds, between the city's UTC offset and the default one
+     */
+    public long getOffsetDelta() { return mOffsetDelta; }
+
+    /**
+     * @return 1 if the city is on the next day, -1 if it is on the previous day, 0 otherwise
+     */
+    public int getDayDifference() { return mDayDifference; }
+
+    /**
+     * @return {@code true} if the time in the city differs from the time in the default time zone
+     */
+    public boolean isTimeDifferent() { return mOffsetDelta != 0; }
+
+    /**
+     * @return the description of the time difference, prefixed with the relative day if the city
+     *      is on a different day
+     */
+    public String getTimeDifference() { return mTimeDifference; }
+
+    /**
+     * @return the abbreviated day of the week in the city if it is on a different day; {@code null}
+     *      otherwise
+     */
+    public String getShortWeekday() { return mShortWeekday; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        final CityTime that = (CityTime) o;
+        return mOffsetDelta == that.mOffsetDelta
+                && mDayDifference == that.mDayDifference
+                && Objects.equals(mTimeDifference, that.mTimeDifference)
+                && Objects.equals(mShortWeekday, that.mShortWeekday);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(mOffsetDelta, mDayDifference, mTimeDifference, mShortWeekday);
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "CityTime{" +
+                "mOffsetDelta=" + mOffsetDelta +
+                ", mDayDifference=" + mDayDifference +
+                ", mTimeDifference=" + mTimeDifference +
+                ", mShortWeekday=" + mShortWeekday +
+                '}';
+    }
+
+    /**
+     * @param context used to format the descriptions
+     * @param cityZone the time zone of the city
+     * @param localZone the default time zone
+     * @param time the time at which the city and default times are compared
+     * @return the time in the city relative to the default time zone at {@code time}
+     */
+    static CityTime create(Context context, TimeZone cityZone, TimeZone localZone, long time) {
+        // Compare offsets from UTC at the given time (daylight savings time, etc.)
+        final long localUtcOffset = localZone.getOffset(time);
+        final long cityUtcOffset = cityZone.getOffset(time);
+        final long offsetDelta = cityUtcOffset - localUtcOffset;
+
+        // Compare the calendar days in each time zone.
+        final long localDay = Math.floorDiv(time + localUtcOffset, DAY_IN_MILLIS);
+        final long cityDay = Math.floorDiv(time + cityUtcOffset, DAY_IN_MILLIS);
+        final int dayDifference = Long.signum(cityDay - localDay);
+
+        final int hoursDifferent = (int) (offsetDelta / HOUR_IN_MILLIS);
+        final int minutesDifferent = (int) (offsetDelta / MINUTE_IN_MILLIS) % 60;
+        final boolean displayMinutes = offsetDelta % HOUR_IN_MILLIS != 0;
+        final boolean isAhead = hoursDifferent > 0 || (hoursDifferent == 0
+                && minutesDifferent > 0);
+        String timeDifference = Utils.createHoursDifferentString(
+                context, displayMinutes, isAhead, hoursDifferent, minutesDifferent);
+
+        String shortWeekday = null;
+        if (dayDifference != 0) {
+            timeDifference = context.getString(dayDifference > 0
+                    ? R.string.world_hours_tomorrow
+                    : R.string.world_hours_yesterday, timeDifference);
+
+            // The epoch began on a Thursday; Calendar numbers the days of the week from Sunday.
+            final int dayOfWeek = (int) Math.floorMod(cityDay + 4, 7) + 1;
+            shortWeekday = DateFormatSymbols.getInstance(Locale.getDefault())
+                    .getShortWeekdays()[dayOfWeek];
+        }
+
+        return new CityTime(offsetDelta, dayDifference, timeDifference, shortWeekday);
+    }
+}
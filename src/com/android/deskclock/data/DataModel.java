@@ -39,6 +39,7 @@ import android.view.View;
 import androidx.annotation.Keep;
 import androidx.annotation.StringRes;
 
+import com.android.deskclock.Lazy;
 import com.android.deskclock.Predicate;
 import com.android.deskclock.R;
 import com.android.deskclock.timer.TimerService;
@@ -46,8 +47,8 @@ import com.android.deskclock.timer.TimerService;
 import java.util.Calendar;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
 
 /**
  * All application-wide data is accessible through this singleton.
@@ -152,6 +153,9 @@ public final class DataModel {
         }
     }
 
+    /** Features of the app whose sub-models can be created ahead of use by {@link #prewarm}. */
+    public enum Feature { ALARMS, CLOCKS, TIMERS, STOPWATCH }
+
     public static final String ACTION_WORLD_CITIES_CHANGED =
             "com.android.deskclock.WORLD_CITIES_CHANGED";
 
@@ -163,34 +167,40 @@ public final class DataModel {
     private Context mContext;
 
     /** The model from which settings are fetched. */
-    private SettingsModel mSettingsModel;
+    private Lazy<SettingsModel> mSettingsModel;
 
     /** The model from which city data are fetched. */
-    private CityModel mCityModel;
+    private Lazy<CityModel> mCityModel;
+
+    /** The model from which the times displayed by world clocks are fetched. */
+    private Lazy<WorldClockModel> mWorldClockModel;
 
     /** The model from which timer data are fetched. */
-    private TimerModel mTimerModel;
+    private Lazy<TimerModel> mTimerModel;
 
     /** The model from which alarm data are fetched. */
-    private AlarmModel mAlarmModel;
+    private Lazy<AlarmModel> mAlarmModel;
 
     /** The model from which widget data are fetched. */
-    private WidgetModel mWidgetModel;
+    private Lazy<WidgetModel> mWidgetModel;
 
     /** The model from which data about settings that silence alarms are fetched. */
-    private SilentSettingsModel mSilentSettingsModel;
+    private Lazy<SilentSettingsModel> mSilentSettingsModel;
 
     /** The model from which stopwatch data are fetched. */
-    private StopwatchModel mStopwatchModel;
+    private Lazy<StopwatchModel> mStopwatchModel;
 
     /** The model from which notification data are fetched. */
-    private NotificationModel mNotificationModel;
+    private Lazy<NotificationModel> mNotificationModel;
 
     /** The model from which time data are fetched. */
-    private TimeModel mTimeModel;
+    private Lazy<TimeModel> mTimeModel;
+
+    /** The snapshot of time data shared by each UI frame. */
+    private Lazy<FrameClock> mFrameClock;
 
     /** The model from which ringtone data are fetched. */
-    private RingtoneModel mRingtoneModel;
+    private Lazy<RingtoneModel> mRingtoneModel;
 
     public static DataModel getDataModel() {
         return sDataModel;
@@ -205,17 +215,55 @@ public final class DataModel {
         if (mContext != context) {
             mContext = context.getApplicationContext();
 
-            mTimeModel = new TimeModel(mContext);
-            mWidgetModel = new WidgetModel(prefs);
-            mNotificationModel = new NotificationModel();
-            mRingtoneModel = new RingtoneModel(mContext, prefs);
-            mSettingsModel = new SettingsModel(mContext, prefs, mTimeModel);
-            mCityModel = new CityModel(mContext, prefs, mSettingsModel);
-            mAlarmModel = new AlarmModel(mContext, mSettingsModel);
-            mSilentSettingsModel = new SilentSettingsModel(mContext, mNotificationModel);
-            mStopwatchModel = new StopwatchModel(mContext, prefs, mNotificationModel);
-            mTimerModel = new TimerModel(mContext, prefs, mSettingsModel, mRingtoneModel,
-                    mNotificationModel);
+            // Sub-models are created on first use, along with the sub-models they depend on.
+            final Context c = mContext;
+            mTimeModel = new Lazy<>(() -> new TimeModel(c));
+            mFrameClock = new Lazy<>(() -> new FrameClock(mTimeModel.get()));
+            mWidgetModel = new Lazy<>(() -> new WidgetModel(prefs));
+            mNotificationModel = new Lazy<>(NotificationModel::new);
+            mRingtoneModel = new Lazy<>(() -> new RingtoneModel(c, prefs));
+            mSettingsModel = new Lazy<>(() -> new SettingsModel(c, prefs, mTimeModel.get()));
+            mCityModel = new Lazy<>(() -> new CityModel(c, prefs, mSettingsModel.get()));
+            mWorldClockModel = new Lazy<>(() -> new WorldClockModel(c, mTimeModel.get()));
+            mAlarmModel = new Lazy<>(() -> new AlarmModel(c, mSettingsModel.get()));
+            mSilentSettingsModel = new Lazy<>(() ->
+                    new SilentSettingsModel(c, mNotificationModel.get()));
+            mStopwatchModel = new Lazy<>(() ->
+                    new StopwatchModel(c, prefs, mNotificationModel.get()));
+            mTimerModel = new Lazy<>(() -> new TimerModel(c, prefs, mSettingsModel.get(),
+                    mRingtoneModel.get(), mNotificationModel.get()));
+        }
+    }
+
+    /**
+     * Creates, on the given executor and in parallel, the sub-models that back the given
+     * feature so that they are ready by the time the UI first needs them.
+     */
+    public void prewarm(Feature feature, Executor executor) {
+        // Every screen needs settings and shows the state of settings that silence alarms.
+        prewarm(executor, mSettingsModel, mNotificationModel, mSilentSettingsModel);
+
+        switch (feature) {
+            case ALARMS:
+                prewarm(executor, mAlarmModel, mRingtoneModel);
+                break;
+            case CLOCKS:
+                prewarm(executor, mCityModel);
+                break;
+            case TIMERS:
+                prewarm(executor, mTimerModel);
+                break;
+            case STOPWATCH:
+                prewarm(executor, mStopwatchModel);
+                break;
+        }
+    }
+
+    private static void prewarm(Executor executor, Lazy<?>... models) {
+        for (Lazy<?> model : models) {
+            if (!model.isInitialized()) {
+                executor.execute(model::get);
+            }
         }
     }
 
@@ -234,8 +282,8 @@ public final class DataModel {
      */
     public void updateAfterReboot() {
         enforceMainLooper();
-        mTimerModel.updateTimersAfterReboot();
-        mStopwatchModel.setStopwatch(getStopwatch().updateAfterReboot());
+        mTimerModel.get().updateTimersAfterReboot();
+        mStopwatchModel.get().setStopwatch(getStopwatch().updateAfterReboot());
     }
 
     /**
@@ -243,8 +291,8 @@ public final class DataModel {
      */
     public void updateAfterTimeSet() {
         enforceMainLooper();
-        mTimerModel.updateTimersAfterTimeSet();
-        mStopwatchModel.setStopwatch(getStopwatch().updateAfterTimeSet());
+        mTimerModel.get().updateTimersAfterTimeSet();
+        mStopwatchModel.get().setStopwatch(getStopwatch().updateAfterTimeSet());
     }
 
     /**
@@ -288,23 +336,34 @@ public final class DataModel {
     public void setApplicationInForeground(boolean inForeground) {
         enforceMainLooper();
 
-        if (mNotificationModel.isApplicationInForeground() != inForeground) {
-            mNotificationModel.setApplicationInForeground(inForeground);
+        if (mNotificationModel.get().isApplicationInForeground() != inForeground) {
+            mNotificationModel.get().setApplicationInForeground(inForeground);
 
-            // Refresh all notifications in response to a change in app open state.
-            mTimerModel.updateNotification();
-            mTimerModel.updateMissedNotification();
-            mStopwatchModel.updateNotification();
-            mSilentSettingsModel.updateSilentState();
+            // Refresh all notifications in response to a change in app open state. While the app
+            // starts, models that are not yet created are refreshed after the first frame instead
+            // of delaying it; the refresh reads the open state current at that time.
+            if (mTimerModel.isInitialized() && mStopwatchModel.isInitialized()
+                    && mSilentSettingsModel.isInitialized()) {
+                refreshForegroundState();
+            } else {
+                getHandler().post(this::refreshForegroundState);
+            }
         }
     }
 
+    private void refreshForegroundState() {
+        mTimerModel.get().updateNotification();
+        mTimerModel.get().updateMissedNotification();
+        mStopwatchModel.get().updateNotification();
+        mSilentSettingsModel.get().updateSilentState();
+    }
+
     /**
      * @return {@code true} when the application is open in the foreground; {@code false} otherwise
      */
     public boolean isApplicationInForeground() {
         enforceMainLooper();
-        return mNotificationModel.isApplicationInForeground();
+        return mNotificationModel.get().isApplicationInForeground();
     }
 
     /**
@@ -313,9 +372,9 @@ public final class DataModel {
      */
     public void updateAllNotifications() {
         enforceMainLooper();
-        mTimerModel.updateNotification();
-        mTimerModel.updateMissedNotification();
-        mStopwatchModel.updateNotification();
+        mTimerModel.get().updateNotification();
+        mTimerModel.get().updateMissedNotification();
+        mStopwatchModel.get().updateNotification();
     }
 
     //
@@ -327,7 +386,7 @@ public final class DataModel {
      */
     public List<City> getAllCities() {
         enforceMainLooper();
-        return mCityModel.getAllCities();
+        return mCityModel.get().getAllCities();
     }
 
     /**
@@ -335,7 +394,7 @@ public final class DataModel {
      */
     public City getHomeCity() {
         enforceMainLooper();
-        return mCityModel.getHomeCity();
+        return mCityModel.get().getHomeCity();
     }
 
     /**
@@ -343,7 +402,7 @@ public final class DataModel {
      */
     public List<City> getUnselectedCities() {
         enforceMainLooper();
-        return mCityModel.getUnselectedCities();
+        return mCityModel.get().getUnselectedCities();
     }
 
     /**
@@ -351,7 +410,16 @@ public final class DataModel {
      */
     public List<City> getSelectedCities() {
         enforceMainLooper();
-        return mCityModel.getSelectedCities();
+        return mCityModel.get().getSelectedCities();
+    }
+
+    /**
+     * @return the time in the given {@code city} relative to the default time zone, computed once
+     *      per minute and shared by all world clocks
+     */
+    public CityTime getCityTime(City city) {
+        enforceMainLooper();
+        return mWorldClockModel.get().getCityTime(city);
     }
 
     /**
@@ -359,7 +427,7 @@ public final class DataModel {
      */
     public void setSelectedCities(Collection<City> cities) {
         enforceMainLooper();
-        mCityModel.setSelectedCities(cities);
+        mCityModel.get().setSelectedCities(cities);
     }
 
     /**
@@ -367,7 +435,7 @@ public final class DataModel {
      */
     public Comparator<City> getCityIndexComparator() {
         enforceMainLooper();
-        return mCityModel.getCityIndexComparator();
+        return mCityModel.get().getCityIndexComparator();
     }
 
     /**
@@ -375,7 +443,7 @@ public final class DataModel {
      */
     public CitySort getCitySort() {
         enforceMainLooper();
-        return mCityModel.getCitySort();
+        return mCityModel.get().getCitySort();
     }
 
     /**
@@ -383,7 +451,7 @@ public final class DataModel {
      */
     public void toggleCitySort() {
         enforceMainLooper();
-        mCityModel.toggleCitySort();
+        mCityModel.get().toggleCitySort();
     }
 
     /**
@@ -391,7 +459,7 @@ public final class DataModel {
      */
     public void addCityListener(CityListener cityListener) {
         enforceMainLooper();
-        mCityModel.addCityListener(cityListener);
+        mCityModel.get().addCityListener(cityListener);
     }
 
     /**
@@ -399,7 +467,7 @@ public final class DataModel {
      */
     public void removeCityListener(CityListener cityListener) {
         enforceMainLooper();
-        mCityModel.removeCityListener(cityListener);
+        mCityModel.get().removeCityListener(cityListener);
     }
 
     //
@@ -411,7 +479,7 @@ public final class DataModel {
      */
     public void addTimerListener(TimerListener timerListener) {
         enforceMainLooper();
-        mTimerModel.addTimerListener(timerListener);
+        mTimerModel.get().addTimerListener(timerListener);
     }
 
     /**
@@ -419,7 +487,7 @@ public final class DataModel {
      */
     public void removeTimerListener(TimerListener timerListener) {
         enforceMainLooper();
-        mTimerModel.removeTimerListener(timerListener);
+        mTimerModel.get().removeTimerListener(timerListener);
     }
 
     /**
@@ -427,7 +495,7 @@ public final class DataModel {
      */
     public List<Timer> getTimers() {
         enforceMainLooper();
-        return mTimerModel.getTimers();
+        return mTimerModel.get().getTimers();
     }
 
     /**
@@ -435,7 +503,7 @@ public final class DataModel {
      */
     public List<Timer> getExpiredTimers() {
         enforceMainLooper();
-        return mTimerModel.getExpiredTimers();
+        return mTimerModel.get().getExpiredTimers();
     }
 
     /**
@@ -444,7 +512,7 @@ public final class DataModel {
      */
     public Timer getTimer(int timerId) {
         enforceMainLooper();
-        return mTimerModel.getTimer(timerId);
+        return mTimerModel.get().getTimer(timerId);
     }
 
     /**
@@ -455,7 +523,7 @@ public final class DataModel {
      */
     public Timer addTimer(long length, String label, boolean deleteAfterUse) {
         enforceMainLooper();
-        return mTimerModel.addTimer(length, label, deleteAfterUse);
+        return mTimerModel.get().addTimer(length, label, deleteAfterUse);
     }
 
     /**
@@ -463,7 +531,7 @@ public final class DataModel {
      */
     public void removeTimer(Timer timer) {
         enforceMainLooper();
-        mTimerModel.removeTimer(timer);
+        mTimerModel.get().removeTimer(timer);
     }
 
     /**
@@ -480,7 +548,7 @@ public final class DataModel {
     public void startTimer(Service service, Timer timer) {
         enforceMainLooper();
         final Timer started = timer.start();
-        mTimerModel.updateTimer(started);
+        mTimerModel.get().updateTimer(started);
         if (timer.getRemainingTime() <= 0) {
             if (service != null) {
                 expireTimer(service, started);
@@ -495,7 +563,7 @@ public final class DataModel {
      */
     public void pauseTimer(Timer timer) {
         enforceMainLooper();
-        mTimerModel.updateTimer(timer.pause());
+        mTimerModel.get().updateTimer(timer.pause());
     }
 
     /**
@@ -504,7 +572,7 @@ public final class DataModel {
      */
     public void expireTimer(Service service, Timer timer) {
         enforceMainLooper();
-        mTimerModel.expireTimer(service, timer);
+        mTimerModel.get().expireTimer(service, timer);
     }
 
     /**
@@ -513,7 +581,7 @@ public final class DataModel {
     @Keep
     public void resetTimer(Timer timer) {
         enforceMainLooper();
-        mTimerModel.resetTimer(timer, false /* allowDelete */, 0 /* eventLabelId */);
+        mTimerModel.get().resetTimer(timer, false /* allowDelete */, 0 /* eventLabelId */);
     }
 
     /**
@@ -526,7 +594,7 @@ public final class DataModel {
      */
     public void resetOrDeleteTimer(Timer timer, @StringRes int eventLabelId) {
         enforceMainLooper();
-        mTimerModel.resetTimer(timer, true /* allowDelete */, eventLabelId);
+        mTimerModel.get().resetTimer(timer, true /* allowDelete */, eventLabelId);
     }
 
     /**
@@ -536,7 +604,7 @@ public final class DataModel {
      */
     public void resetOrDeleteExpiredTimers(@StringRes int eventLabelId) {
         enforceMainLooper();
-        mTimerModel.resetOrDeleteExpiredTimers(eventLabelId);
+        mTimerModel.get().resetOrDeleteExpiredTimers(eventLabelId);
     }
 
     /**
@@ -546,7 +614,7 @@ public final class DataModel {
      */
     public void resetUnexpiredTimers(@StringRes int eventLabelId) {
         enforceMainLooper();
-        mTimerModel.resetUnexpiredTimers(eventLabelId);
+        mTimerModel.get().resetUnexpiredTimers(eventLabelId);
     }
 
     /**
@@ -556,7 +624,7 @@ public final class DataModel {
      */
     public void resetMissedTimers(@StringRes int eventLabelId) {
         enforceMainLooper();
-        mTimerModel.resetMissedTimers(eventLabelId);
+        mTimerModel.get().resetMissedTimers(eventLabelId);
     }
 
     /**
@@ -564,7 +632,7 @@ public final class DataModel {
      */
     public void addTimerMinute(Timer timer) {
         enforceMainLooper();
-        mTimerModel.updateTimer(timer.addMinute());
+        mTimerModel.get().updateTimer(timer.addMinute());
     }
 
     /**
@@ -573,7 +641,7 @@ public final class DataModel {
      */
     public void setTimerLabel(Timer timer, String label) {
         enforceMainLooper();
-        mTimerModel.updateTimer(timer.setLabel(label));
+        mTimerModel.get().updateTimer(timer.setLabel(label));
     }
 
     /**
@@ -581,7 +649,7 @@ public final class DataModel {
      */
     public void updateTimerNotification() {
         enforceMainLooper();
-        mTimerModel.updateNotification();
+        mTimerModel.get().updateNotification();
     }
 
     /**
@@ -589,7 +657,7 @@ public final class DataModel {
      */
     public Uri getDefaultTimerRingtoneUri() {
         enforceMainLooper();
-        return mTimerModel.getDefaultTimerRingtoneUri();
+        return mTimerModel.get().getDefaultTimerRingtoneUri();
     }
 
     /**
@@ -597,7 +665,7 @@ public final class DataModel {
      */
     public boolean isTimerRingtoneSilent() {
         enforceMainLooper();
-        return mTimerModel.isTimerRingtoneSilent();
+        return mTimerModel.get().isTimerRingtoneSilent();
     }
 
     /**
@@ -605,7 +673,7 @@ public final class DataModel {
      */
     public Uri getTimerRingtoneUri() {
         enforceMainLooper();
-        return mTimerModel.getTimerRingtoneUri();
+        return mTimerModel.get().getTimerRingtoneUri();
     }
 
     /**
@@ -613,7 +681,7 @@ public final class DataModel {
      */
     public void setTimerRingtoneUri(Uri uri) {
         enforceMainLooper();
-        mTimerModel.setTimerRingtoneUri(uri);
+        mTimerModel.get().setTimerRingtoneUri(uri);
     }
 
     /**
@@ -621,7 +689,7 @@ public final class DataModel {
      */
     public String getTimerRingtoneTitle() {
         enforceMainLooper();
-        return mTimerModel.getTimerRingtoneTitle();
+        return mTimerModel.get().getTimerRingtoneTitle();
     }
 
     /**
@@ -630,7 +698,7 @@ public final class DataModel {
      */
     public long getTimerCrescendoDuration() {
         enforceMainLooper();
-        return mTimerModel.getTimerCrescendoDuration();
+        return mTimerModel.get().getTimerCrescendoDuration();
     }
 
     /**
@@ -638,7 +706,7 @@ public final class DataModel {
      */
     public boolean getTimerVibrate() {
         enforceMainLooper();
-        return mTimerModel.getTimerVibrate();
+        return mTimerModel.get().getTimerVibrate();
     }
 
     /**
@@ -646,7 +714,7 @@ public final class DataModel {
      */
     public void setTimerVibrate(boolean enabled) {
         enforceMainLooper();
-        mTimerModel.setTimerVibrate(enabled);
+        mTimerModel.get().setTimerVibrate(enabled);
     }
 
     //
@@ -658,7 +726,7 @@ public final class DataModel {
      */
     public Uri getDefaultAlarmRingtoneUri() {
         enforceMainLooper();
-        return mAlarmModel.getDefaultAlarmRingtoneUri();
+        return mAlarmModel.get().getDefaultAlarmRingtoneUri();
     }
 
     /**
@@ -666,7 +734,7 @@ public final class DataModel {
      */
     public void setDefaultAlarmRingtoneUri(Uri uri) {
         enforceMainLooper();
-        mAlarmModel.setDefaultAlarmRingtoneUri(uri);
+        mAlarmModel.get().setDefaultAlarmRingtoneUri(uri);
     }
 
     /**
@@ -675,7 +743,7 @@ public final class DataModel {
      */
     public long getAlarmCrescendoDuration() {
         enforceMainLooper();
-        return mAlarmModel.getAlarmCrescendoDuration();
+        return mAlarmModel.get().getAlarmCrescendoDuration();
     }
 
     /**
@@ -683,29 +751,29 @@ public final class DataModel {
      */
     public AlarmVolumeButtonBehavior getAlarmVolumeButtonBehavior() {
         enforceMainLooper();
-        return mAlarmModel.getAlarmVolumeButtonBehavior();
+        return mAlarmModel.get().getAlarmVolumeButtonBehavior();
     }
 
     /**
      * @return the number of minutes an alarm may ring before it has timed out and becomes missed
      */
     public int getAlarmTimeout() {
-        return mAlarmModel.getAlarmTimeout();
+        return mAlarmModel.get().getAlarmTimeout();
     }
 
     /**
      * @return the number of minutes an alarm will remain snoozed before it rings again
      */
     public int getSnoozeLength() {
-        return mAlarmModel.getSnoozeLength();
+        return mAlarmModel.get().getSnoozeLength();
     }
 
     public int getFlipAction() {
-        return mAlarmModel.getFlipAction();
+        return mAlarmModel.get().getFlipAction();
     }
 
     public int getShakeAction() {
-        return mAlarmModel.getShakeAction();
+        return mAlarmModel.get().getShakeAction();
     }
 
     //
@@ -717,7 +785,7 @@ public final class DataModel {
      */
     public void addStopwatchListener(StopwatchListener stopwatchListener) {
         enforceMainLooper();
-        mStopwatchModel.addStopwatchListener(stopwatchListener);
+        mStopwatchModel.get().addStopwatchListener(stopwatchListener);
     }
 
     /**
@@ -725,7 +793,7 @@ public final class DataModel {
      */
     public void removeStopwatchListener(StopwatchListener stopwatchListener) {
         enforceMainLooper();
-        mStopwatchModel.removeStopwatchListener(stopwatchListener);
+        mStopwatchModel.get().removeStopwatchListener(stopwatchListener);
     }
 
     /**
@@ -733,28 +801,28 @@ public final class DataModel {
      */
     public Stopwatch getStopwatch() {
         enforceMainLooper();
-        return mStopwatchModel.getStopwatch();
+        return mStopwatchModel.get().getStopwatch();
     }
 
     /**
      */
     public void startStopwatch() {
         enforceMainLooper();
-        mStopwatchModel.setStopwatch(getStopwatch().start());
+        mStopwatchModel.get().setStopwatch(getStopwatch().start());
     }
 
     /**
      */
     public void pauseStopwatch() {
         enforceMainLooper();
-        mStopwatchModel.setStopwatch(getStopwatch().pause());
+        mStopwatchModel.get().setStopwatch(getStopwatch().pause());
     }
 
     /**
      */
     public void resetStopwatch() {
         enforceMainLooper();
-        mStopwatchModel.setStopwatch(getStopwatch().reset());
+        mStopwatchModel.get().setStopwatch(getStopwatch().reset());
     }
 
     /**
@@ -762,7 +830,7 @@ public final class DataModel {
      */
     public List<Lap> getLaps() {
         enforceMainLooper();
-        return (mStopwatchModel != null) ? mStopwatchModel.getLaps() : new ArrayList<>();
+        return mStopwatchModel.get().getLaps();
     }
 
     /**
@@ -770,7 +838,7 @@ public final class DataModel {
      */
     public Lap addLap() {
         enforceMainLooper();
-        return mStopwatchModel.addLap();
+        return mStopwatchModel.get().addLap();
     }
 
     /**
@@ -778,7 +846,7 @@ public final class DataModel {
      */
     public boolean canAddMoreLaps() {
         enforceMainLooper();
-        return mStopwatchModel.canAddMoreLaps();
+        return mStopwatchModel.get().canAddMoreLaps();
     }
 
     /**
@@ -786,7 +854,7 @@ public final class DataModel {
      */
     public long getLongestLapTime() {
         enforceMainLooper();
-        return mStopwatchModel.getLongestLapTime();
+        return mStopwatchModel.get().getLongestLapTime();
     }
 
     /**
@@ -795,7 +863,7 @@ public final class DataModel {
      */
     public long getCurrentLapTime(long time) {
         enforceMainLooper();
-        return mStopwatchModel.getCurrentLapTime(time);
+        return mStopwatchModel.get().getCurrentLapTime(time);
     }
 
     //
@@ -807,28 +875,37 @@ public final class DataModel {
      * @return the current time in milliseconds
      */
     public long currentTimeMillis() {
-        return mTimeModel.currentTimeMillis();
+        return mTimeModel.get().currentTimeMillis();
     }
 
     /**
      * @return milliseconds since boot, including time spent in sleep
      */
     public long elapsedRealtime() {
-        return mTimeModel.elapsedRealtime();
+        return mTimeModel.get().elapsedRealtime();
+    }
+
+    /**
+     * @return the clocks as read once for the current UI frame; pass its values to time
+     *      computations so that everything drawn in one frame reads the clocks once
+     */
+    public FrameClock getFrameClock() {
+        enforceMainLooper();
+        return mFrameClock.get();
     }
 
     /**
      * @return {@code true} if 24 hour time format is selected; {@code false} otherwise
      */
     public boolean is24HourFormat() {
-        return mTimeModel.is24HourFormat();
+        return mTimeModel.get().is24HourFormat();
     }
 
     /**
      * @return a new calendar object initialized to the {@link #currentTimeMillis()}
      */
     public Calendar getCalendar() {
-        return mTimeModel.getCalendar();
+        return mTimeModel.get().getCalendar();
     }
 
     //
@@ -842,7 +919,7 @@ public final class DataModel {
      */
     public void loadRingtoneTitles() {
         enforceNotMainLooper();
-        mRingtoneModel.loadRingtoneTitles();
+        mRingtoneModel.get().loadRingtoneTitles();
     }
 
     /**
@@ -850,7 +927,19 @@ public final class DataModel {
      */
     public void loadRingtonePermissions() {
         enforceNotMainLooper();
-        mRingtoneModel.loadRingtonePermissions();
+        mRingtoneModel.get().loadRingtonePermissions();
+    }
+
+    /**
+     * Looks up the title of a system ringtone without touching the title cache. This method
+     * <strong>must</strong> be called on a background thread.
+     *
+     * @param uri the uri of a system ringtone
+     * @return the title of the ringtone with the {@code uri}; {@code null} if it cannot be found
+     */
+    public String queryRingtoneTitle(Uri uri) {
+        enforceNotMainLooper();
+        return mRingtoneModel.get().queryRingtoneTitle(uri);
     }
 
     /**
@@ -859,7 +948,7 @@ public final class DataModel {
      */
     public String getRingtoneTitle(Uri uri) {
         enforceMainLooper();
-        return mRingtoneModel.getRingtoneTitle(uri);
+        return mRingtoneModel.get().getRingtoneTitle(uri);
     }
 
     /**
@@ -868,7 +957,7 @@ public final class DataModel {
      */
     public void addCustomRingtone(Uri uri, String title) {
         enforceMainLooper();
-        mRingtoneModel.addCustomRingtone(uri, title);
+        mRingtoneModel.get().addCustomRingtone(uri, title);
     }
 
     /**
@@ -876,7 +965,7 @@ public final class DataModel {
      */
     public void removeCustomRingtone(Uri uri) {
         enforceMainLooper();
-        mRingtoneModel.removeCustomRingtone(uri);
+        mRingtoneModel.get().removeCustomRingtone(uri);
     }
 
     /**
@@ -884,7 +973,7 @@ public final class DataModel {
      */
     public List<CustomRingtone> getCustomRingtones() {
         enforceMainLooper();
-        return mRingtoneModel.getCustomRingtones();
+        return mRingtoneModel.get().getCustomRingtones();
     }
 
     //
@@ -898,7 +987,7 @@ public final class DataModel {
      */
     public void updateWidgetCount(Class widgetClass, int count, @StringRes int eventCategoryId) {
         enforceMainLooper();
-        mWidgetModel.updateWidgetCount(widgetClass, count, eventCategoryId);
+        mWidgetModel.get().updateWidgetCount(widgetClass, count, eventCategoryId);
     }
 
     //
@@ -910,7 +999,7 @@ public final class DataModel {
      */
     public void addSilentSettingsListener(OnSilentSettingsListener silentSettingsListener) {
         enforceMainLooper();
-        mSilentSettingsModel.addSilentSettingsListener(silentSettingsListener);
+        mSilentSettingsModel.get().addSilentSettingsListener(silentSettingsListener);
     }
 
     /**
@@ -918,14 +1007,14 @@ public final class DataModel {
      */
     public void removeSilentSettingsListener(OnSilentSettingsListener silentSettingsListener) {
         enforceMainLooper();
-        mSilentSettingsModel.removeSilentSettingsListener(silentSettingsListener);
+        mSilentSettingsModel.get().removeSilentSettingsListener(silentSettingsListener);
     }
 
     /**
      * @return the id used to discriminate relevant AlarmManager callbacks from defunct ones
      */
     public int getGlobalIntentId() {
-        return mSettingsModel.getGlobalIntentId();
+        return mSettingsModel.get().getGlobalIntentId();
     }
 
     /**
@@ -933,7 +1022,7 @@ public final class DataModel {
      */
     public void updateGlobalIntentId() {
         enforceMainLooper();
-        mSettingsModel.updateGlobalIntentId();
+        mSettingsModel.get().updateGlobalIntentId();
     }
 
     /**
@@ -941,7 +1030,7 @@ public final class DataModel {
      */
     public ClockStyle getClockStyle() {
         enforceMainLooper();
-        return mSettingsModel.getClockStyle();
+        return mSettingsModel.get().getClockStyle();
     }
 
     /**
@@ -949,7 +1038,7 @@ public final class DataModel {
      */
     public boolean getDisplayClockSeconds() {
         enforceMainLooper();
-        return mSettingsModel.getDisplayClockSeconds();
+        return mSettingsModel.get().getDisplayClockSeconds();
     }
 
     /**
@@ -957,7 +1046,7 @@ public final class DataModel {
      */
     public void setDisplayClockSeconds(boolean displaySeconds) {
         enforceMainLooper();
-        mSettingsModel.setDisplayClockSeconds(displaySeconds);
+        mSettingsModel.get().setDisplayClockSeconds(displaySeconds);
     }
 
     /**
@@ -965,7 +1054,7 @@ public final class DataModel {
      */
     public ClockStyle getScreensaverClockStyle() {
         enforceMainLooper();
-        return mSettingsModel.getScreensaverClockStyle();
+        return mSettingsModel.get().getScreensaverClockStyle();
     }
 
     /**
@@ -973,7 +1062,15 @@ public final class DataModel {
      */
     public boolean getScreensaverNightModeOn() {
         enforceMainLooper();
-        return mSettingsModel.getScreensaverNightModeOn();
+        return mSettingsModel.get().getScreensaverNightModeOn();
+    }
+
+    /**
+     * @return {@code true} if the screen saver should only redraw once a minute, without animating
+     */
+    public boolean getScreensaverLowPowerOn() {
+        enforceMainLooper();
+        return mSettingsModel.get().getScreensaverLowPowerOn();
     }
 
     /**
@@ -982,7 +1079,7 @@ public final class DataModel {
      */
     public boolean getShowHomeClock() {
         enforceMainLooper();
-        return mSettingsModel.getShowHomeClock();
+        return mSettingsModel.get().getShowHomeClock();
     }
 
     /**
@@ -991,21 +1088,21 @@ public final class DataModel {
      */
     public Weekdays.Order getWeekdayOrder() {
         enforceMainLooper();
-        return mSettingsModel.getWeekdayOrder();
+        return mSettingsModel.get().getWeekdayOrder();
     }
 
     /**
      * @return {@code true} if the restore process (of backup and restore) has completed
      */
     public boolean isRestoreBackupFinished() {
-        return mSettingsModel.isRestoreBackupFinished();
+        return mSettingsModel.get().isRestoreBackupFinished();
     }
 
     /**
      * @param finished {@code true} means the restore process (of backup and restore) has completed
      */
     public void setRestoreBackupFinished(boolean finished) {
-        mSettingsModel.setRestoreBackupFinished(finished);
+        mSettingsModel.get().setRestoreBackupFinished(finished);
     }
 
     /**
@@ -1013,7 +1110,7 @@ public final class DataModel {
      */
     public TimeZones getTimeZones() {
         enforceMainLooper();
-        return mSettingsModel.getTimeZones();
+        return mSettingsModel.get().getTimeZones();
     }
 
     /**
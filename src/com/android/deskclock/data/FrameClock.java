@@ -0,0 +1,68 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.data;
+
+import android.view.animation.AnimationUtils;
+
+/**
+ * A snapshot of the {@link TimeModel} clocks shared by everything drawn in the same UI frame.
+ * The clocks are read once, when the first value is requested during a frame, and the same
+ * values are returned for the rest of that frame. Timers, stopwatches and laps drawn together
+ * therefore agree with one another, and the clocks are not read once per view. Outside of a
+ * frame, such as in a posted callback, the snapshot lasts for the current millisecond of
+ * uptime. Must only be used on the main thread.
+ */
+public final class FrameClock {
+
+    private final TimeModel mTimeModel;
+
+    /** The animation time of the frame in which the clocks were last read. */
+    private long mFrameTime = Long.MIN_VALUE;
+
+    private long mElapsedRealtime;
+    private long mCurrentTimeMillis;
+
+    FrameClock(TimeModel timeModel) {
+        mTimeModel = timeModel;
+    }
+
+    /**
+     * @return milliseconds since boot, including time spent in sleep, at the current frame
+     */
+    public long elapsedRealtime() {
+        refresh();
+        return mElapsedRealtime;
+    }
+
+    /**
+     * @return the current time in milliseconds at the current frame
+     */
+    public long currentTimeMillis() {
+        refresh();
+        return mCurrentTimeMillis;
+    }
+
+    private void refresh() {
+        // The animation time is fixed for the duration of each frame.
+        final long frameTime = AnimationUtils.currentAnimationTimeMillis();
+        if (frameTime != mFrameTime) {
+            mFrameTime = frameTime;
+            mElapsedRealtime = mTimeModel.elapsedRealtime();
+            mCurrentTimeMillis = mTimeModel.currentTimeMillis();
+        }
+    }
+}
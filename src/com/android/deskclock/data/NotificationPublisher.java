@@ -0,0 +1,199 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.data;
+
+import android.app.Notification;
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.SparseArray;
+
+import androidx.core.app.NotificationManagerCompat;
+
+import com.android.deskclock.perf.Perf;
+
+import java.util.Objects;
+
+/**
+ * Posts notifications along with a summary of their visible content. A notification is only
+ * built and posted when its content differs from the content last posted under the same id, as
+ * compared by {@link Object#equals}. The first change after a quiet period is posted at once;
+ * further changes within {@link #MIN_POST_INTERVAL} of a post are coalesced into a single post
+ * of the latest content when the interval ends. Must be used on the main thread.
+ */
+final class NotificationPublisher {
+
+    /** The minimum time between two posts of the same notification. */
+    static final long MIN_POST_INTERVAL = 500;
+
+    /**
+     * Builds a notification when, and only when, it needs to be posted.
+     */
+    interface Factory {
+        Notification build();
+    }
+
+    private final NotificationManagerCompat mNotificationManager;
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
+    /** Maps notification id to the publishing state of that notification. */
+    private final SparseArray<Slot> mSlots = new SparseArray<>(4);
+
+    NotificationPublisher(Context context) {
+        mNotificationManager = NotificationManagerCompat.from(context);
+    }
+
+    /**
+     * Posts the notification built by {@code factory} unless a notification with equal
+     * {@code content} is already posted, or about to be, under {@code id}.
+     *
+     * @param content everything visible in the notification; must be immutable
+     */
+    void publish(int id, Object content, Factory factory) {
+        final Slot slot = getSlot(id);
+
+        // Drop the post if the latest content is already posted or about to be.
+        if (slot.pending != null ? Objects.equals(slot.pendingContent, content)
+                : slot.posted && Objects.equals(slot.content, content)) {
+            Perf.count(Perf.NOTIFICATION_UNCHANGED);
+            return;
+        }
+
+        // A pending post that would restore the posted content is no longer needed.
+        if (slot.pending != null && slot.posted && Objects.equals(slot.content, content)) {
+            clearPending(slot);
+            Perf.count(Perf.NOTIFICATION_UNCHANGED);
+            return;
+        }
+
+        // Post the first change after a quiet period at once.
+        final long nextPostTime = slot.lastPostTime + MIN_POST_INTERVAL;
+        if (!slot.posted || SystemClock.uptimeMillis() >= nextPostTime) {
+            clearPending(slot);
+            post(slot, content, factory);
+            return;
+        }
+
+        // Later changes within the interval are posted together when it ends.
+        if (slot.pending != null) {
+            Perf.count(Perf.NOTIFICATION_COALESCED);
+        } else {
+            mHandler.postAtTime(slot.flush, nextPostTime);
+        }
+        slot.pending = factory;
+        slot.pendingContent = content;
+    }
+
+    /**
+     * Cancels the notification posted under {@code id}, along with any post still pending.
+     */
+    void cancel(int id) {
+        final Slot slot = getSlot(id);
+        clearPending(slot);
+        if (slot.cancelled) {
+            Perf.count(Perf.NOTIFICATION_UNCHANGED);
+            return;
+        }
+
+        mNotificationManager.cancel(id);
+        slot.content = null;
+        slot.posted = false;
+        slot.cancelled = true;
+    }
+
+    /**
+     * Forgets what was posted so that the next call to {@link #publish} posts regardless of the
+     * content; used when something not captured by the content, such as locale, changes.
+     */
+    void invalidate() {
+        for (int i = 0; i < mSlots.size(); i++) {
+            final Slot slot = mSlots.valueAt(i);
+            slot.content = null;
+            slot.posted = false;
+            slot.cancelled = false;
+        }
+    }
+
+    private void post(Slot slot, Object content, Factory factory) {
+        mNotificationManager.notify(slot.id, factory.build());
+        slot.content = content;
+        slot.posted = true;
+        slot.cancelled = false;
+        slot.lastPostTime = SystemClock.uptimeMillis();
+        Perf.count(Perf.NOTIFICATION_POSTED);
+    }
+
+    private void clearPending(Slot slot) {
+        if (slot.pending != null) {
+            mHandler.removeCallbacks(slot.flush);
+            slot.pending = null;
+            slot.pendingContent = null;
+        }
+    }
+
+    private Slot getSlot(int id) {
+        Slot slot = mSlots.get(id);
+        if (slot == null) {
+            slot = new Slot(id);
+            mSlots.put(id, slot);
+        }
+        return slot;
+    }
+
+    /**
+     * The publishing state of one notification id.
+     */
+    private final class Slot {
+
+        final int id;
+
+        /** Posts the pending content once the minimum post interval has elapsed. */
+        final Runnable flush = this::flush;
+
+        /** The content of the posted notification. */
+        Object content;
+
+        /** {@code true} if a notification is posted under this id. */
+        boolean posted;
+
+        /** {@code true} if the notification is known to be cancelled. */
+        boolean cancelled;
+
+        /** The uptime at which the notification was last posted. */
+        long lastPostTime;
+
+        /** Builds the content to be posted once the minimum post interval has elapsed. */
+        Factory pending;
+        Object pendingContent;
+
+        Slot(int id) {
+            this.id = id;
+        }
+
+        private void flush() {
+            final Factory factory = pending;
+            if (factory != null) {
+                final Object content = pendingContent;
+                pending = null;
+                pendingContent = null;
+                post(this, content, factory);
+            }
+        }
+    }
+}
@@ -22,6 +22,7 @@ import static android.media.RingtoneManager.TITLE_COLUMN_INDEX;
 import android.annotation.SuppressLint;
 import android.content.BroadcastReceiver;
 import android.content.ContentResolver;
+import android.content.ContentUris;
 import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
@@ -32,19 +33,26 @@ import android.database.Cursor;
 import android.media.Ringtone;
 import android.media.RingtoneManager;
 import android.net.Uri;
+import android.os.Build;
 import android.os.Handler;
 import android.os.Looper;
+import android.provider.MediaStore;
 import android.provider.Settings;
+import android.text.TextUtils;
 import android.util.ArrayMap;
 import android.util.ArraySet;
 
+import androidx.annotation.RequiresApi;
+
 import com.android.deskclock.LogUtils;
 import com.android.deskclock.R;
 import com.android.deskclock.provider.Alarm;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.ListIterator;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 
@@ -53,10 +61,17 @@ import java.util.Set;
  */
 final class RingtoneModel {
 
+    /** The media volumes holding the ringtones whose titles are persisted. */
+    private static final String[] MEDIA_VOLUMES =
+            { MediaStore.VOLUME_INTERNAL, MediaStore.VOLUME_EXTERNAL_PRIMARY };
+
     private final Context mContext;
 
     private final SharedPreferences mPrefs;
 
+    /** Holds the persisted ringtone titles, apart from the settings in {@link #mPrefs}. */
+    private final SharedPreferences mTitlePrefs;
+
     /** Maps ringtone uri to ringtone title; looking up a title from scratch is expensive. */
     private final Map<Uri, String> mRingtoneTitles = new ArrayMap<>(16);
 
@@ -70,6 +85,7 @@ final class RingtoneModel {
     RingtoneModel(Context context, SharedPreferences prefs) {
         mContext = context;
         mPrefs = prefs;
+        mTitlePrefs = RingtoneTitleDAO.getTitlePreferences(context);
 
         // Clear caches affected by system settings when system settings change.
         final ContentResolver cr = mContext.getContentResolver();
@@ -145,6 +161,15 @@ final class RingtoneModel {
             return;
         }
 
+        // Titles persisted by an earlier process remain valid unless their media has changed
+        // since; reading them is far cheaper than walking the ringtone cursor. Titles dropped
+        // here are looked up again when they are next needed.
+        final Map<Uri, String> persisted = loadPersistedRingtoneTitles();
+        if (!persisted.isEmpty()) {
+            mRingtoneTitles.putAll(persisted);
+            return;
+        }
+
         final RingtoneManager ringtoneManager = new RingtoneManager(mContext);
         ringtoneManager.setType(STREAM_ALARM);
 
@@ -159,6 +184,8 @@ final class RingtoneModel {
             // best attempt only
             LogUtils.e("Error loading ringtone title cache", t);
         }
+
+        persistRingtoneTitles(mRingtoneTitles);
     }
 
     String getRingtoneTitle(Uri uri) {
@@ -177,20 +204,228 @@ final class RingtoneModel {
         String title = mRingtoneTitles.get(uri);
 
         if (title == null) {
-            // This is slow because a media player is created during Ringtone object creation.
-            final Ringtone ringtone = RingtoneManager.getRingtone(mContext, uri);
-            if (ringtone == null) {
+            title = queryRingtoneTitle(uri);
+            if (title == null) {
                 LogUtils.e("No ringtone for uri: %s", uri);
                 return mContext.getString(R.string.unknown_ringtone_title);
             }
 
             // Cache the title for later use.
-            title = ringtone.getTitle(mContext);
             mRingtoneTitles.put(uri, title);
+            persistRingtoneTitles(Collections.singletonMap(uri, title));
         }
         return title;
     }
 
+    /**
+     * @return the title of the ringtone at {@code uri}, or {@code null} if it cannot be found
+     */
+    String queryRingtoneTitle(Uri uri) {
+        // Media uris can be resolved with a metadata query rather than a Ringtone object.
+        if (ContentResolver.SCHEME_CONTENT.equals(uri.getScheme()) && !isSettingsUri(uri)) {
+            final String[] projection = { MediaStore.MediaColumns.TITLE };
+            try (Cursor cursor = mContext.getContentResolver()
+                    .query(uri, projection, null, null, null)) {
+                if (cursor != null && cursor.moveToFirst()) {
+                    final String title = cursor.getString(0);
+                    if (title != null) {
+                        return title;
+                    }
+                }
+            } catch (RuntimeException e) {
+                LogUtils.w("Unable to query ringtone title for uri: %s", uri);
+            }
+        }
+
+        // Titles such as "Default (Oxygen)" are composed by Ringtone itself. This is slow because
+        // a media player is created during Ringtone object creation.
+        final Ringtone ringtone = RingtoneManager.getRingtone(mContext, uri);
+        return ringtone == null ? null : ringtone.getTitle(mContext);
+    }
+
+    /**
+     * @return the titles persisted by an earlier process in the current locale, less those of
+     *      any ringtone modified or removed since they were persisted
+     */
+    private Map<Uri, String> loadPersistedRingtoneTitles() {
+        // Persisted titles can only be validated against per-row media generations.
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.R) {
+            return Collections.emptyMap();
+        }
+
+        final String locale = Locale.getDefault().toLanguageTag();
+        final Map<Uri, String> titles =
+                new ArrayMap<>(RingtoneTitleDAO.getRingtoneTitles(mTitlePrefs, locale));
+        if (titles.isEmpty()) {
+            return titles;
+        }
+
+        try {
+            final Set<Uri> stale = new ArraySet<>();
+            for (String volume : MEDIA_VOLUMES) {
+                final String version = MediaStore.getVersion(mContext, volume);
+                if (!version.equals(RingtoneTitleDAO.getMediaVersion(mTitlePrefs, volume))) {
+                    // The volume was rebuilt; its ids and generations no longer correspond.
+                    RingtoneTitleDAO.clearRingtoneTitles(mTitlePrefs);
+                    return Collections.emptyMap();
+                }
+
+                // Nothing on the volume has changed since the titles were validated.
+                final long generation = RingtoneTitleDAO.getMediaGeneration(mTitlePrefs, volume);
+                if (MediaStore.getGeneration(mContext, volume) != generation) {
+                    addStaleRingtones(volume, generation, titles.keySet(), stale);
+                }
+            }
+
+            if (!stale.isEmpty()) {
+                titles.keySet().removeAll(stale);
+                RingtoneTitleDAO.removeRingtoneTitles(mTitlePrefs, stale);
+            }
+            saveMediaGenerations();
+            return titles;
+        } catch (RuntimeException e) {
+            LogUtils.w("Unable to validate persisted ringtone titles");
+            return Collections.emptyMap();
+        }
+    }
+
+    /**
+     * Adds to {@code stale} each of the {@code cached} uris that refers to an audio file on the
+     * media {@code volume} that was removed, or modified after the given {@code generation}.
+     */
+    @RequiresApi(Build.VERSION_CODES.R)
+    private void addStaleRingtones(String volume, long generation, Collection<Uri> cached,
+            Set<Uri> stale) {
+        // Find the ids of the cached ringtones on this volume.
+        final Map<Uri, Long> ids = new ArrayMap<>();
+        for (Uri uri : cached) {
+            final long id = getMediaId(uri, volume);
+            if (id != -1) {
+                ids.put(uri, id);
+            }
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        final Set<Long> distinctIds = new ArraySet<>(ids.values());
+        final String[] selectionArgs = new String[distinctIds.size()];
+        int i = 0;
+        for (long id : distinctIds) {
+            selectionArgs[i++] = String.valueOf(id);
+        }
+        final String selection = MediaStore.MediaColumns._ID + " IN ("
+                + TextUtils.join(",", Collections.nCopies(selectionArgs.length, "?")) + ")";
+        final String[] projection =
+                { MediaStore.MediaColumns._ID, MediaStore.MediaColumns.GENERATION_MODIFIED };
+
+        // Only the ringtones that still exist, unmodified, keep their titles.
+        final Set<Long> unchanged = new ArraySet<>();
+        final Uri media = MediaStore.Audio.Media.getContentUri(volume);
+        try (Cursor cursor = mContext.getContentResolver()
+                .query(media, projection, selection, selectionArgs, null)) {
+            if (cursor == null) {
+                throw new IllegalStateException("Unable to query " + media);
+            }
+            while (cursor.moveToNext()) {
+                if (cursor.getLong(1) <= generation) {
+                    unchanged.add(cursor.getLong(0));
+                }
+            }
+        }
+
+        for (Map.Entry<Uri, Long> entry : ids.entrySet()) {
+            if (!unchanged.contains(entry.getValue())) {
+                stale.add(entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * @return the id of the audio file addressed by {@code uri} on the media {@code volume}, or
+     *      -1 if {@code uri} does not address an audio file on that volume
+     */
+    private static long getMediaId(Uri uri, String volume) {
+        final List<String> segments = uri.getPathSegments();
+        if (!MediaStore.AUTHORITY.equals(uri.getAuthority()) || segments.size() != 4
+                || !"audio".equals(segments.get(1)) || !"media".equals(segments.get(2))) {
+            return -1;
+        }
+
+        // Ringtones on the primary volume may also be addressed through "external".
+        final String uriVolume = segments.get(0);
+        final boolean onVolume = volume.equals(uriVolume)
+                || (MediaStore.VOLUME_EXTERNAL_PRIMARY.equals(volume)
+                        && MediaStore.VOLUME_EXTERNAL.equals(uriVolume));
+        if (!onVolume || !TextUtils.isDigitsOnly(segments.get(3))) {
+            return -1;
+        }
+        return Long.parseLong(segments.get(3));
+    }
+
+    /**
+     * @return {@code true} if {@code uri} addresses an audio file on a media volume whose
+     *      changes are tracked, so that its persisted title can be validated
+     */
+    private static boolean isTrackedMediaUri(Uri uri) {
+        for (String volume : MEDIA_VOLUMES) {
+            if (getMediaId(uri, volume) != -1) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records that the persisted titles reflect every media change made so far.
+     */
+    @RequiresApi(Build.VERSION_CODES.R)
+    private void saveMediaGenerations() {
+        for (String volume : MEDIA_VOLUMES) {
+            RingtoneTitleDAO.setMediaGeneration(mTitlePrefs, volume,
+                    MediaStore.getVersion(mContext, volume),
+                    MediaStore.getGeneration(mContext, volume));
+        }
+    }
+
+    /**
+     * Persists those of the given {@code titles} that can be validated by a later process.
+     */
+    private void persistRingtoneTitles(Map<Uri, String> titles) {
+        // Persisted titles could not be validated by a later process.
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.R) {
+            return;
+        }
+
+        final Map<Uri, String> persistable = new ArrayMap<>(titles.size());
+        for (Map.Entry<Uri, String> entry : titles.entrySet()) {
+            if (isTrackedMediaUri(entry.getKey())) {
+                persistable.put(entry.getKey(), entry.getValue());
+            }
+        }
+        if (persistable.isEmpty()) {
+            return;
+        }
+
+        final String locale = Locale.getDefault().toLanguageTag();
+        try {
+            if (RingtoneTitleDAO.getRingtoneTitles(mTitlePrefs, locale).isEmpty()) {
+                // Nothing persisted yet; these titles are current as of now.
+                saveMediaGenerations();
+            }
+            RingtoneTitleDAO.addRingtoneTitles(mTitlePrefs, locale, persistable);
+        } catch (RuntimeException e) {
+            LogUtils.w("Unable to read media generation; ringtone titles will not be persisted");
+        }
+    }
+
+    /**
+     * @return {@code true} if {@code uri} refers to a system setting such as the default alarm
+     */
+    private static boolean isSettingsUri(Uri uri) {
+        return Settings.AUTHORITY.equals(uri.getAuthority());
+    }
+
     private List<CustomRingtone> getMutableCustomRingtones() {
         if (mCustomRingtones == null) {
             mCustomRingtones = CustomRingtoneDAO.getCustomRingtones(mPrefs);
@@ -207,7 +442,7 @@ final class RingtoneModel {
     private final class SystemAlarmAlertChangeObserver extends ContentObserver {
 
         private SystemAlarmAlertChangeObserver() {
-            super(new Handler(Looper.myLooper()));
+            super(new Handler(Looper.getMainLooper()));
         }
 
         @Override
@@ -215,7 +450,8 @@ final class RingtoneModel {
             super.onChange(selfChange);
 
             // Titles such as "Default ringtone (Oxygen)" are wrong after default ringtone changes.
-            mRingtoneTitles.clear();
+            // Only titles that refer to system settings are affected; media titles remain valid.
+            mRingtoneTitles.keySet().removeIf(RingtoneModel::isSettingsUri);
         }
     }
 
@@ -227,6 +463,7 @@ final class RingtoneModel {
         public void onReceive(Context context, Intent intent) {
             // Titles such as "Default ringtone (Oxygen)" are wrong after locale changes.
             mRingtoneTitles.clear();
+            RingtoneTitleDAO.clearRingtoneTitles(mTitlePrefs);
         }
     }
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.data;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.net.Uri;
+import android.util.ArrayMap;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * This class encapsulates the transfer of cached ringtone titles between memory and their
+ * permanent storage in a {@link SharedPreferences} file of their own, apart from the settings.
+ * Each title is stored under its own key, so that titles can be added and dropped one at a
+ * time. Titles are localized, so all of them are stored along with the locale they were read
+ * in; titles stored in a different locale are treated as absent. The media generation through
+ * which the titles were validated is stored per volume.
+ */
+final class RingtoneTitleDAO {
+
+    /** The name of the preferences file holding only the cached titles. */
+    private static final String PREFS_NAME = "ringtone_titles";
+
+    /** Key to a preference that stores the locale of the cached titles. */
+    private static final String TITLE_CACHE_LOCALE = "ringtone_title_cache_locale";
+
+    /** Prefix of the keys of preferences that each store the title of one ringtone uri. */
+    private static final String TITLE_PREFIX = "ringtone_title_uri_";
+
+    /** Prefix of the keys of preferences that store the version of each media volume. */
+    private static final String MEDIA_VERSION_PREFIX = "ringtone_title_media_version_";
+
+    /** Prefix of the keys of preferences that store the generation of each media volume. */
+    private static final String MEDIA_GENERATION_PREFIX = "ringtone_title_media_generation_";
+
+    private RingtoneTitleDAO() {}
+
+    /**
+     * @return the preferences holding the cached titles; like the settings, they are kept in
+     *      device protected storage so that they are available before the user unlocks
+     */
+    static SharedPreferences getTitlePreferences(Context context) {
+        return context.createDeviceProtectedStorageContext()
+                .getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    /**
+     * @param locale the language tag of the locale the titles must be in
+     * @return the cached titles in {@code locale}; empty if there are none
+     */
+    static Map<Uri, String> getRingtoneTitles(SharedPreferences prefs, String locale) {
+        if (!locale.equals(prefs.getString(TITLE_CACHE_LOCALE, null))) {
+            return Collections.emptyMap();
+        }
+
+        final Map<Uri, String> titles = new ArrayMap<>();
+        for (Map.Entry<String, ?> entry : prefs.getAll().entrySet()) {
+            final String key = entry.getKey();
+            if (key.startsWith(TITLE_PREFIX) && entry.getValue() instanceof String) {
+                titles.put(Uri.parse(key.substring(TITLE_PREFIX.length())),
+                        (String) entry.getValue());
+            }
+        }
+        return titles;
+    }
+
+    /**
+     * @param locale the language tag of the locale the titles are in
+     * @param titles the titles to store in addition to those already stored
+     */
+    static void addRingtoneTitles(SharedPreferences prefs, String locale,
+            Map<Uri, String> titles) {
+        final SharedPreferences.Editor editor = prefs.edit()
+                .putString(TITLE_CACHE_LOCALE, locale);
+        for (Map.Entry<Uri, String> title : titles.entrySet()) {
+            if (title.getValue() != null) {
+                editor.putString(TITLE_PREFIX + title.getKey(), title.getValue());
+            }
+        }
+        editor.apply();
+    }
+
+    /**
+     * @param uris the ringtones whose cached titles are no longer valid
+     */
+    static void removeRingtoneTitles(SharedPreferences prefs, Collection<Uri> uris) {
+        final SharedPreferences.Editor editor = prefs.edit();
+        for (Uri uri : uris) {
+            editor.remove(TITLE_PREFIX + uri);
+        }
+        editor.apply();
+    }
+
+    /**
+     * @return the version of the media {@code volume} when the titles were last validated, or
+     *      {@code null} if they never were
+     */
+    static String getMediaVersion(SharedPreferences prefs, String volume) {
+        return prefs.getString(MEDIA_VERSION_PREFIX + volume, null);
+    }
+
+    /**
+     * @return the generation of the media {@code volume} when the titles were last validated
+     */
+    static long getMediaGeneration(SharedPreferences prefs, String volume) {
+        return prefs.getLong(MEDIA_GENERATION_PREFIX + volume, 0);
+    }
+
+    /**
+     * Records that the titles reflect all changes to the media {@code volume} through the given
+     * {@code version} and {@code generation}.
+     */
+    static void setMediaGeneration(SharedPreferences prefs, String volume, String version,
+            long generation) {
+        prefs.edit()
+                .putString(MEDIA_VERSION_PREFIX + volume, version)
+                .putLong(MEDIA_GENERATION_PREFIX + volume, generation)
+                .apply();
+    }
+
+    /**
+     * Removes all cached titles.
+     */
+    static void clearRingtoneTitles(SharedPreferences prefs) {
+        prefs.edit().clear().apply();
+    }
+}
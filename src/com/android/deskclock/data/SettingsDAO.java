@@ -34,6 +34,7 @@ import android.content.res.Resources;
 import android.net.Uri;
 import android.provider.Settings;
 import android.text.format.DateUtils;
+import android.util.ArraySet;
 
 import androidx.annotation.NonNull;
 
@@ -47,6 +48,7 @@ import com.android.deskclock.settings.SettingsActivity;
 import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Locale;
+import java.util.Set;
 import java.util.TimeZone;
 
 /**
@@ -66,6 +68,26 @@ final class SettingsDAO {
     /** Key to a preference that indicates whether restore (of backup and restore) has completed. */
     private static final String KEY_RESTORE_BACKUP_FINISHED = "restore_finished";
 
+    /** Keys of the preferences held by a {@link SettingsSnapshot}. */
+    private static final Set<String> SNAPSHOT_KEYS = new ArraySet<>(Arrays.asList(
+            SettingsActivity.KEY_AUTO_SILENCE,
+            SettingsActivity.KEY_ALARM_SNOOZE,
+            SettingsActivity.KEY_FLIP_ACTION,
+            SettingsActivity.KEY_SHAKE_ACTION,
+            SettingsActivity.KEY_ALARM_CRESCENDO,
+            SettingsActivity.KEY_TIMER_CRESCENDO,
+            SettingsActivity.KEY_VOLUME_BUTTONS,
+            SettingsActivity.KEY_WEEK_START,
+            KEY_SORT_PREFERENCE,
+            SettingsActivity.KEY_CLOCK_STYLE,
+            ScreensaverSettingsActivity.KEY_CLOCK_STYLE,
+            SettingsActivity.KEY_CLOCK_DISPLAY_SECONDS,
+            ScreensaverSettingsActivity.KEY_NIGHT_MODE,
+            ScreensaverSettingsActivity.KEY_LOW_POWER,
+            SettingsActivity.KEY_AUTO_HOME_CLOCK,
+            SettingsActivity.KEY_TIMER_VIBRATE,
+            SettingsActivity.KEY_HOME_TZ));
+
     private SettingsDAO() {}
 
     /**
@@ -113,17 +135,15 @@ final class SettingsDAO {
      * @return the user's home timezone
      */
     static TimeZone getHomeTimeZone(Context context, SharedPreferences prefs, TimeZone defaultTZ) {
-        String timeZoneId = prefs.getString(SettingsActivity.KEY_HOME_TZ, null);
-
         // If the recorded home timezone is legal, use it.
-        final TimeZones timeZones = getTimeZones(context, System.currentTimeMillis());
-        if (timeZones.contains(timeZoneId)) {
-            return TimeZone.getTimeZone(timeZoneId);
+        final TimeZone homeTimeZone = getRecordedHomeTimeZone(context, prefs);
+        if (homeTimeZone != null) {
+            return homeTimeZone;
         }
 
         // No legal home timezone has yet been recorded, attempt to record the default.
-        timeZoneId = defaultTZ.getID();
-        if (timeZones.contains(timeZoneId)) {
+        final String timeZoneId = defaultTZ.getID();
+        if (isLegalTimeZoneId(context, timeZoneId)) {
             prefs.edit().putString(SettingsActivity.KEY_HOME_TZ, timeZoneId).apply();
         }
 
@@ -132,6 +152,65 @@ final class SettingsDAO {
         return defaultTZ;
     }
 
+    /**
+     * @return the recorded home timezone if it is legal; {@code null} otherwise
+     */
+    private static TimeZone getRecordedHomeTimeZone(Context context, SharedPreferences prefs) {
+        final String timeZoneId = prefs.getString(SettingsActivity.KEY_HOME_TZ, null);
+        return isLegalTimeZoneId(context, timeZoneId) ? TimeZone.getTimeZone(timeZoneId) : null;
+    }
+
+    /**
+     * @return {@code true} if the timezone id is one of those offered for selection; unlike
+     *      {@link #getTimeZones} this neither computes offsets nor sorts
+     */
+    private static boolean isLegalTimeZoneId(Context context, String timeZoneId) {
+        if (timeZoneId == null) {
+            return false;
+        }
+        final String[] timeZoneIds = context.getResources().getStringArray(R.array.timezone_values);
+        for (String id : timeZoneIds) {
+            if (id.equals(timeZoneId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param key the key of a changed preference, or {@code null} if all preferences were cleared
+     * @return {@code true} if the change may alter the settings held by a {@link SettingsSnapshot}
+     */
+    static boolean affectsSettingsSnapshot(String key) {
+        return key == null || SNAPSHOT_KEYS.contains(key);
+    }
+
+    /**
+     * Parses every setting held by a {@link SettingsSnapshot}.
+     *
+     * @return an immutable copy of the current settings
+     */
+    static SettingsSnapshot getSettingsSnapshot(Context context, SharedPreferences prefs) {
+        return new SettingsSnapshot(
+                getAlarmTimeout(prefs),
+                getSnoozeLength(prefs),
+                getFlipAction(prefs),
+                getShakeAction(prefs),
+                getAlarmCrescendoDuration(prefs),
+                getTimerCrescendoDuration(prefs),
+                getAlarmVolumeButtonBehavior(prefs),
+                getWeekdayOrder(prefs),
+                getCitySort(prefs),
+                getClockStyle(context, prefs),
+                getScreensaverClockStyle(context, prefs),
+                getDisplayClockSeconds(prefs),
+                getScreensaverNightModeOn(prefs),
+                getScreensaverLowPowerOn(prefs),
+                getAutoShowHomeClock(prefs),
+                getTimerVibrate(prefs),
+                getRecordedHomeTimeZone(context, prefs));
+    }
+
     /**
      * @return a value indicating whether analog or digital clocks are displayed in the app
      */
@@ -179,6 +258,13 @@ final class SettingsDAO {
         return prefs.getBoolean(ScreensaverSettingsActivity.KEY_NIGHT_MODE, false);
     }
 
+    /**
+     * @return {@code true} if the screen saver should only redraw once a minute, without animating
+     */
+    static boolean getScreensaverLowPowerOn(SharedPreferences prefs) {
+        return prefs.getBoolean(ScreensaverSettingsActivity.KEY_LOW_POWER, false);
+    }
+
     /**
      * @return the uri of the selected ringtone or the {@code defaultUri} if no explicit selection
      *      has yet been made
@@ -16,8 +16,12 @@
 
 package com.android.deskclock.data;
 
+import android.content.BroadcastReceiver;
 import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
 import android.content.SharedPreferences;
+import android.content.SharedPreferences.OnSharedPreferenceChangeListener;
 import android.net.Uri;
 
 import com.android.deskclock.R;
@@ -40,9 +44,26 @@ final class SettingsModel {
     /** The model from which time data are fetched. */
     private final TimeModel mTimeModel;
 
+    /**
+     * Retain a hard reference to the shared preference observer to prevent it from being garbage
+     * collected. See {@link SharedPreferences#registerOnSharedPreferenceChangeListener} for detail.
+     */
+    @SuppressWarnings("FieldCanBeLocal")
+    private final OnSharedPreferenceChangeListener mPreferenceListener = new PreferenceListener();
+
+    /** Rebuild the settings snapshot when locale-dependent defaults change. */
+    @SuppressWarnings("FieldCanBeLocal")
+    private final BroadcastReceiver mLocaleChangedReceiver = new LocaleChangedReceiver();
+
     /** The uri of the default ringtone to use for timers until the user explicitly chooses one. */
     private Uri mDefaultTimerRingtoneUri;
 
+    /**
+     * The parsed settings, replaced as a whole whenever a preference changes so that readers on
+     * any thread observe either the old or the new settings, never a mix.
+     */
+    private volatile SettingsSnapshot mSnapshot;
+
     SettingsModel(Context context, SharedPreferences prefs, TimeModel timeModel) {
         mContext = context;
         mPrefs = prefs;
@@ -50,6 +71,23 @@ final class SettingsModel {
 
         // Set the user's default display seconds preference if one has not yet been chosen.
         SettingsDAO.setDefaultDisplayClockSeconds(mContext, prefs);
+
+        mSnapshot = SettingsDAO.getSettingsSnapshot(mContext, prefs);
+
+        // Rebuild the snapshot when preferences change.
+        prefs.registerOnSharedPreferenceChangeListener(mPreferenceListener);
+
+        // Rebuild the snapshot when locale changes.
+        final IntentFilter localeBroadcastFilter = new IntentFilter(Intent.ACTION_LOCALE_CHANGED);
+        mContext.registerReceiver(mLocaleChangedReceiver, localeBroadcastFilter,
+                Context.RECEIVER_NOT_EXPORTED);
+    }
+
+    /**
+     * @return an immutable copy of the settings read on hot paths; safe to call from any thread
+     */
+    SettingsSnapshot getSnapshot() {
+        return mSnapshot;
     }
 
     int getGlobalIntentId() {
@@ -61,46 +99,62 @@ final class SettingsModel {
     }
 
     CitySort getCitySort() {
-        return SettingsDAO.getCitySort(mPrefs);
+        return mSnapshot.getCitySort();
     }
 
     void toggleCitySort() {
         SettingsDAO.toggleCitySort(mPrefs);
+        refreshSnapshot();
     }
 
     TimeZone getHomeTimeZone() {
-        return SettingsDAO.getHomeTimeZone(mContext, mPrefs, TimeZone.getDefault());
+        return getHomeTimeZone(TimeZone.getDefault());
+    }
+
+    private TimeZone getHomeTimeZone(TimeZone defaultTZ) {
+        final TimeZone homeTimeZone = mSnapshot.getHomeTimeZone();
+        if (homeTimeZone != null) {
+            return homeTimeZone;
+        }
+
+        // No legal home timezone has been recorded; this records the default if it is legal.
+        return SettingsDAO.getHomeTimeZone(mContext, mPrefs, defaultTZ);
     }
 
     ClockStyle getClockStyle() {
-        return SettingsDAO.getClockStyle(mContext, mPrefs);
+        return mSnapshot.getClockStyle();
     }
 
     boolean getDisplayClockSeconds() {
-        return SettingsDAO.getDisplayClockSeconds(mPrefs);
+        return mSnapshot.getDisplayClockSeconds();
     }
 
     void setDisplayClockSeconds(boolean shouldDisplaySeconds) {
         SettingsDAO.setDisplayClockSeconds(mPrefs, shouldDisplaySeconds);
+        refreshSnapshot();
     }
 
     ClockStyle getScreensaverClockStyle() {
-        return SettingsDAO.getScreensaverClockStyle(mContext, mPrefs);
+        return mSnapshot.getScreensaverClockStyle();
     }
 
     boolean getScreensaverNightModeOn() {
-        return SettingsDAO.getScreensaverNightModeOn(mPrefs);
+        return mSnapshot.getScreensaverNightModeOn();
+    }
+
+    boolean getScreensaverLowPowerOn() {
+        return mSnapshot.getScreensaverLowPowerOn();
     }
 
     boolean getShowHomeClock() {
-        if (!SettingsDAO.getAutoShowHomeClock(mPrefs)) {
+        if (!mSnapshot.getAutoShowHomeClock()) {
             return false;
         }
 
         // Show the home clock if the current time and home time differ.
         // (By using UTC offset for this comparison the various DST rules are considered)
         final TimeZone defaultTZ = TimeZone.getDefault();
-        final TimeZone homeTimeZone = SettingsDAO.getHomeTimeZone(mContext, mPrefs, defaultTZ);
+        final TimeZone homeTimeZone = getHomeTimeZone(defaultTZ);
         final long now = System.currentTimeMillis();
         return homeTimeZone.getOffset(now) != defaultTZ.getOffset(now);
     }
@@ -122,23 +176,23 @@ final class SettingsModel {
     }
 
     AlarmVolumeButtonBehavior getAlarmVolumeButtonBehavior() {
-        return SettingsDAO.getAlarmVolumeButtonBehavior(mPrefs);
+        return mSnapshot.getAlarmVolumeButtonBehavior();
     }
 
     int getAlarmTimeout() {
-        return SettingsDAO.getAlarmTimeout(mPrefs);
+        return mSnapshot.getAlarmTimeout();
     }
 
     int getSnoozeLength() {
-        return SettingsDAO.getSnoozeLength(mPrefs);
+        return mSnapshot.getSnoozeLength();
     }
 
     int getFlipAction() {
-        return SettingsDAO.getFlipAction(mPrefs);
+        return mSnapshot.getFlipAction();
     }
 
     int getShakeAction() {
-        return SettingsDAO.getShakeAction(mPrefs);
+        return mSnapshot.getShakeAction();
     }
 
     Uri getDefaultAlarmRingtoneUri() {
@@ -150,15 +204,15 @@ final class SettingsModel {
     }
 
     long getAlarmCrescendoDuration() {
-        return SettingsDAO.getAlarmCrescendoDuration(mPrefs);
+        return mSnapshot.getAlarmCrescendoDuration();
     }
 
     long getTimerCrescendoDuration() {
-        return SettingsDAO.getTimerCrescendoDuration(mPrefs);
+        return mSnapshot.getTimerCrescendoDuration();
     }
 
     Weekdays.Order getWeekdayOrder() {
-        return SettingsDAO.getWeekdayOrder(mPrefs);
+        return mSnapshot.getWeekdayOrder();
     }
 
     boolean isRestoreBackupFinished() {
@@ -170,14 +224,48 @@ final class SettingsModel {
     }
 
     boolean getTimerVibrate() {
-        return SettingsDAO.getTimerVibrate(mPrefs);
+        return mSnapshot.getTimerVibrate();
     }
 
     void setTimerVibrate(boolean enabled) {
         SettingsDAO.setTimerVibrate(mPrefs, enabled);
+        refreshSnapshot();
     }
 
     TimeZones getTimeZones() {
         return SettingsDAO.getTimeZones(mContext, mTimeModel.currentTimeMillis());
     }
+
+    /**
+     * Replaces the snapshot with one reflecting the current preferences. Writes made through
+     * this model refresh immediately rather than waiting for the preference listener, so that
+     * they are visible to the very next read.
+     */
+    private void refreshSnapshot() {
+        mSnapshot = SettingsDAO.getSettingsSnapshot(mContext, mPrefs);
+    }
+
+    /**
+     * This receiver is notified when shared preferences change. The settings snapshot must be
+     * rebuilt if it holds the changed preference.
+     */
+    private final class PreferenceListener implements OnSharedPreferenceChangeListener {
+        @Override
+        public void onSharedPreferenceChanged(SharedPreferences prefs, String key) {
+            if (SettingsDAO.affectsSettingsSnapshot(key)) {
+                refreshSnapshot();
+            }
+        }
+    }
+
+    /**
+     * Rebuild the settings snapshot in response to a locale change; the default first day of
+     * the week depends on the locale.
+     */
+    private final class LocaleChangedReceiver extends BroadcastReceiver {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            refreshSnapshot();
+        }
+    }
 }
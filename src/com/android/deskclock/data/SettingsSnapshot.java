@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.data;
+
+import androidx.annotation.NonNull;
+
+import com.android.deskclock.data.DataModel.AlarmVolumeButtonBehavior;
+import com.android.deskclock.data.DataModel.CitySort;
+import com.android.deskclock.data.DataModel.ClockStyle;
+
+import java.util.TimeZone;
+
+/**
+ * An immutable, typed copy of the settings read on hot paths, such as while an alarm fires or a
+ * clock ticks. Preference strings are parsed once when the snapshot is built so that readers on
+ * any thread only load fields.
+ */
+final class SettingsSnapshot {
+
+    private final int mAlarmTimeout;
+    private final int mSnoozeLength;
+    private final int mFlipAction;
+    private final int mShakeAction;
+    private final long mAlarmCrescendoDuration;
+    private final long mTimerCrescendoDuration;
+    private final AlarmVolumeButtonBehavior mAlarmVolumeButtonBehavior;
+    private final Weekdays.Order mWeekdayOrder;
+    private final CitySort mCitySort;
+    private final ClockStyle mClockStyle;
+    private final ClockStyle mScreensaverClockStyle;
+    private final boolean mDisplayClockSeconds;
+    private final boolean mScreensaverNightModeOn;
+    private final boolean mScreensaverLowPowerOn;
+    private final boolean mAutoShowHomeClock;
+    private final boolean mTimerVibrate;
+
+    /** The recorded home time zone if it is legal; {@code null} otherwise. */
+    private final TimeZone mHomeTimeZone;
+
+    SettingsSnapshot(int alarmTimeout, int snoozeLength, int flipAction, int shakeAction,
+            long alarmCrescendoDuration, long timerCrescendoDuration,
+            AlarmVolumeButtonBehavior alarmVolumeButtonBehavior, Weekdays.Order weekdayOrder,
+            CitySort citySort, ClockStyle clockStyle, ClockStyle screensaverClockStyle,
+            boolean displayClockSeconds, boolean screensaverNightModeOn,
+            boolean screensaverLowPowerOn, boolean autoShowHomeClock, boolean timerVibrate,
+            TimeZone homeTimeZone) {
+        mAlarmTimeout = alarmTimeout;
+        mSnoozeLength = snoozeLength;
+        mFlipAction = flipAction;
+        mShakeAction = shakeAction;
+        mAlarmCrescendoDuration = alarmCrescendoDuration;
+        mTimerCrescendoDuration = timerCrescendoDuration;
+        mAlarmVolumeButtonBehavior = alarmVolumeButtonBehavior;
+        mWeekdayOrder = weekdayOrder;
+        mCitySort = citySort;
+        mClockStyle = clockStyle;
+        mScreensaverClockStyle = screensaverClockStyle;
+        mDisplayClockSeconds = displayClockSeconds;
+        mScreensaverNightModeOn = screensaverNightModeOn;
+        mScreensaverLowPowerOn = screensaverLowPowerOn;
+        mAutoShowHomeClock = autoShowHomeClock;
+        mTimerVibrate = timerVibrate;
+        mHomeTimeZone = homeTimeZone;
+    }
+
+    int getAlarmTimeout() {
+        return mAlarmTimeout;
+    }
+
+    int getSnoozeLength() {
+        return mSnoozeLength;
+    }
+
+    int getFlipAction() {
+        return mFlipAction;
+    }
+
+    int getShakeAction() {
+        return mShakeAction;
+    }
+
+    long getAlarmCrescendoDuration() {
+        return mAlarmCrescendoDuration;
+    }
+
+    long getTimerCrescendoDuration() {
+        return mTimerCrescendoDuration;
+    }
+
+    AlarmVolumeButtonBehavior getAlarmVolumeButtonBehavior() {
+        return mAlarmVolumeButtonBehavior;
+    }
+
+    Weekdays.Order getWeekdayOrder() {
+        return mWeekdayOrder;
+    }
+
+    CitySort getCitySort() {
+        return mCitySort;
+    }
+
+    ClockStyle getClockStyle() {
+        return mClockStyle;
+    }
+
+    ClockStyle getScreensaverClockStyle() {
+        return mScreensaverClockStyle;
+    }
+
+    boolean getDisplayClockSeconds() {
+        return mDisplayClockSeconds;
+    }
+
+    boolean getScreensaverNightModeOn() {
+        return mScreensaverNightModeOn;
+    }
+
+    boolean getScreensaverLowPowerOn() {
+        return mScreensaverLowPowerOn;
+    }
+
+    boolean getAutoShowHomeClock() {
+        return mAutoShowHomeClock;
+    }
+
+    boolean getTimerVibrate() {
+        return mTimerVibrate;
+    }
+
+    /**
+     * @return the recorded home time zone, or {@code null} if no legal home time zone has been
+     *      recorded yet
+     */
+    TimeZone getHomeTimeZone() {
+        // TimeZone is mutable; callers must not be able to change this snapshot.
+        return mHomeTimeZone == null ? null : (TimeZone) mHomeTimeZone.clone();
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "SettingsSnapshot{" +
+                "mAlarmTimeout=" + mAlarmTimeout +
+                ", mSnoozeLength=" + mSnoozeLength +
+                ", mFlipAction=" + mFlipAction +
+                ", mShakeAction=" + mShakeAction +
+                ", mAlarmCrescendoDuration=" + mAlarmCrescendoDuration +
+                ", mTimerCrescendoDuration=" + mTimerCrescendoDuration +
+                ", mAlarmVolumeButtonBehavior=" + mAlarmVolumeButtonBehavior +
+                ", mWeekdayOrder=" + mWeekdayOrder +
+                ", mCitySort=" + mCitySort +
+                ", mClockStyle=" + mClockStyle +
+                ", mScreensaverClockStyle=" + mScreensaverClockStyle +
+                ", mDisplayClockSeconds=" + mDisplayClockSeconds +
+                ", mScreensaverNightModeOn=" + mScreensaverNightModeOn +
+                ", mScreensaverLowPowerOn=" + mScreensaverLowPowerOn +
+                ", mAutoShowHomeClock=" + mAutoShowHomeClock +
+                ", mTimerVibrate=" + mTimerVibrate +
+                ", mHomeTimeZone=" + (mHomeTimeZone == null ? null : mHomeTimeZone.getID()) +
+                '}';
+    }
+}
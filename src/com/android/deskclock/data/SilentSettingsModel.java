@@ -220,7 +220,7 @@ final class SilentSettingsModel {
      */
     private final class ContentChangeWatcher extends ContentObserver {
         private ContentChangeWatcher() {
-            super(new Handler(Looper.myLooper()));
+            super(new Handler(Looper.getMainLooper()));
         }
 
         @Override
@@ -64,6 +64,15 @@ public final class Stopwatch {
      * @return the total amount of time accumulated up to this moment
      */
     public long getTotalTime() {
+        return getTotalTime(now());
+    }
+
+    /**
+     * @param now the elapsed realtime at which to compute the total, typically read from the
+     *      {@link FrameClock}
+     * @return the total amount of time accumulated up to {@code now}
+     */
+    public long getTotalTime(long now) {
         if (mState != RUNNING) {
             return mAccumulatedTime;
         }
@@ -71,7 +80,7 @@ public final class Stopwatch {
         // In practice, "now" can be any value due to device reboots. When the real-time clock
         // is reset, there is no more guarantee that "now" falls after the last start time. To
         // ensure the stopwatch is monotonically increasing, normalize negative time segments to 0,
-        final long timeSinceStart = now() - mLastStartTime;
+        final long timeSinceStart = now - mLastStartTime;
         return mAccumulatedTime + Math.max(0, timeSinceStart);
     }
 
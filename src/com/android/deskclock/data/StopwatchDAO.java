@@ -21,6 +21,7 @@ import static com.android.deskclock.data.Stopwatch.State.RESET;
 import android.content.SharedPreferences;
 
 import com.android.deskclock.data.Stopwatch.State;
+import com.android.deskclock.perf.Perf;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -75,6 +76,7 @@ final class StopwatchDAO {
      * @param stopwatch the last state of the stopwatch
      */
     static void setStopwatch(SharedPreferences prefs, Stopwatch stopwatch) {
+        final long start = Perf.begin();
         final SharedPreferences.Editor editor = prefs.edit();
 
         if (stopwatch.isReset()) {
@@ -90,6 +92,7 @@ final class StopwatchDAO {
         }
 
         editor.apply();
+        Perf.end(Perf.PREFS_WRITE, start);
     }
 
     /**
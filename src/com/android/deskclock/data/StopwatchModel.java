@@ -16,7 +16,6 @@
 
 package com.android.deskclock.data;
 
-import android.app.Notification;
 import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
@@ -24,7 +23,6 @@ import android.content.IntentFilter;
 import android.content.SharedPreferences;
 
 import androidx.annotation.VisibleForTesting;
-import androidx.core.app.NotificationManagerCompat;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -42,8 +40,8 @@ final class StopwatchModel {
     /** The model from which notification data are fetched. */
     private final NotificationModel mNotificationModel;
 
-    /** Used to create and destroy system notifications related to the stopwatch. */
-    private final NotificationManagerCompat mNotificationManager;
+    /** Used to post and cancel system notifications related to the stopwatch when it changes. */
+    private final NotificationPublisher mNotificationPublisher;
 
     /** Update stopwatch notification when locale changes. */
     @SuppressWarnings("FieldCanBeLocal")
@@ -66,7 +64,7 @@ final class StopwatchModel {
         mContext = context;
         mPrefs = prefs;
         mNotificationModel = notificationModel;
-        mNotificationManager = NotificationManagerCompat.from(context);
+        mNotificationPublisher = new NotificationPublisher(context);
 
         // Update stopwatch notification when locale changes.
         final IntentFilter localeBroadcastFilter = new IntentFilter(Intent.ACTION_LOCALE_CHANGED);
@@ -222,14 +220,16 @@ final class StopwatchModel {
 
         // Notification should be hidden if the stopwatch has no time or the app is open.
         if (stopwatch.isReset() || mNotificationModel.isApplicationInForeground()) {
-            mNotificationManager.cancel(mNotificationModel.getStopwatchNotificationId());
+            mNotificationPublisher.cancel(mNotificationModel.getStopwatchNotificationId());
             return;
         }
 
-        // Otherwise build and post a notification reflecting the latest stopwatch state.
-        final Notification notification =
-                mNotificationBuilder.build(mContext, mNotificationModel, stopwatch);
-        mNotificationManager.notify(mNotificationModel.getStopwatchNotificationId(), notification);
+        // Otherwise build and post a notification reflecting the latest stopwatch state, unless
+        // nothing visible has changed since it was last posted.
+        final Object content = StopwatchNotificationBuilder.getContent(stopwatch,
+                getLaps().size(), canAddMoreLaps());
+        mNotificationPublisher.publish(mNotificationModel.getStopwatchNotificationId(),
+                content, () -> mNotificationBuilder.build(mContext, mNotificationModel, stopwatch));
     }
 
     private List<Lap> getMutableLaps() {
@@ -246,6 +246,8 @@ final class StopwatchModel {
     private final class LocaleChangedReceiver extends BroadcastReceiver {
         @Override
         public void onReceive(Context context, Intent intent) {
+            mNotificationBuilder.clearCache();
+            mNotificationPublisher.invalidate();
             updateNotification();
         }
     }
@@ -27,6 +27,7 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.res.Resources;
 import android.os.SystemClock;
+import android.util.ArrayMap;
 import android.widget.RemoteViews;
 
 import androidx.annotation.StringRes;
@@ -43,22 +44,50 @@ import com.android.deskclock.events.Events;
 import com.android.deskclock.stopwatch.StopwatchService;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Builds notification to reflect the latest state of the stopwatch and recorded laps.
  */
 class StopwatchNotificationBuilder {
 
+    /**
+     * Actions reused across notification updates, keyed by intent action. Creating a
+     * PendingIntent is an IPC, and the notification is rebuilt on every stopwatch change.
+     */
+    private final Map<String, Action> mActions = new ArrayMap<>(4);
+
+    /** Loads the app when the notification is tapped. */
+    private PendingIntent mShowAppIntent;
+
+    /**
+     * @return everything visible in the notification built by {@link #build}
+     */
+    static Object getContent(Stopwatch stopwatch, int lapCount, boolean canAddMoreLaps) {
+        return Arrays.asList(stopwatch.getState(), lapCount, canAddMoreLaps,
+                stopwatch.getLastStartTime(), stopwatch.getAccumulatedTime());
+    }
+
+    /**
+     * Forgets cached actions, whose titles depend on the locale.
+     */
+    void clearCache() {
+        mActions.clear();
+    }
+
     public Notification build(Context context, NotificationModel nm, Stopwatch stopwatch) {
         @StringRes final int eventLabel = R.string.label_notification;
 
         // Intent to load the app when the notification is tapped.
-        final Intent showApp = new Intent(context, DeskClock.class)
-                .setAction(StopwatchService.ACTION_SHOW_STOPWATCH)
-                .putExtra(Events.EXTRA_EVENT_LABEL, eventLabel);
-
-        final PendingIntent pendingShowApp = Utils.pendingActivityIntent(context, showApp);
+        if (mShowAppIntent == null) {
+            final Intent showApp = new Intent(context, DeskClock.class)
+                    .setAction(StopwatchService.ACTION_SHOW_STOPWATCH)
+                    .putExtra(Events.EXTRA_EVENT_LABEL, eventLabel);
+            mShowAppIntent = Utils.pendingActivityIntent(context, showApp);
+        }
+        final PendingIntent pendingShowApp = mShowAppIntent;
 
         // Compute some values required below.
         final boolean running = stopwatch.isRunning();
@@ -73,23 +102,13 @@ class StopwatchNotificationBuilder {
 
         if (running) {
             // Left button: Pause
-            final Intent pause = new Intent(context, StopwatchService.class)
-                    .setAction(StopwatchService.ACTION_PAUSE_STOPWATCH)
-                    .putExtra(Events.EXTRA_EVENT_LABEL, eventLabel);
-
-            final CharSequence title1 = res.getText(R.string.sw_pause_button);
-            final PendingIntent intent1 = Utils.pendingServiceIntent(context, pause);
-            actions.add(new Action.Builder(null, title1, intent1).build());
+            actions.add(getAction(context, StopwatchService.ACTION_PAUSE_STOPWATCH,
+                    R.string.sw_pause_button));
 
             // Right button: Add Lap
             if (DataModel.getDataModel().canAddMoreLaps()) {
-                final Intent lap = new Intent(context, StopwatchService.class)
-                        .setAction(StopwatchService.ACTION_LAP_STOPWATCH)
-                        .putExtra(Events.EXTRA_EVENT_LABEL, eventLabel);
-
-                final CharSequence title2 = res.getText(R.string.sw_lap_button);
-                final PendingIntent intent2 = Utils.pendingServiceIntent(context, lap);
-                actions.add(new Action.Builder(null, title2, intent2).build());
+                actions.add(getAction(context, StopwatchService.ACTION_LAP_STOPWATCH,
+                        R.string.sw_lap_button));
             }
 
             // Show the current lap number if any laps have been recorded.
@@ -104,22 +123,12 @@ class StopwatchNotificationBuilder {
             }
         } else {
             // Left button: Start
-            final Intent start = new Intent(context, StopwatchService.class)
-                    .setAction(StopwatchService.ACTION_START_STOPWATCH)
-                    .putExtra(Events.EXTRA_EVENT_LABEL, eventLabel);
-
-            final CharSequence title1 = res.getText(R.string.sw_start_button);
-            final PendingIntent intent1 = Utils.pendingServiceIntent(context, start);
-            actions.add(new Action.Builder(null, title1, intent1).build());
+            actions.add(getAction(context, StopwatchService.ACTION_START_STOPWATCH,
+                    R.string.sw_start_button));
 
             // Right button: Reset (dismisses notification and resets stopwatch)
-            final Intent reset = new Intent(context, StopwatchService.class)
-                    .setAction(StopwatchService.ACTION_RESET_STOPWATCH)
-                    .putExtra(Events.EXTRA_EVENT_LABEL, eventLabel);
-
-            final CharSequence title2 = res.getText(R.string.sw_reset_button);
-            final PendingIntent intent2 = Utils.pendingServiceIntent(context, reset);
-            actions.add(new Action.Builder(null, title2, intent2).build());
+            actions.add(getAction(context, StopwatchService.ACTION_RESET_STOPWATCH,
+                    R.string.sw_reset_button));
 
             // Indicate the stopwatch is paused.
             content.setTextViewText(R.id.state, res.getString(R.string.swn_paused));
@@ -146,4 +155,21 @@ class StopwatchNotificationBuilder {
         NotificationUtils.createChannel(context, STOPWATCH_NOTIFICATION_CHANNEL_ID);
         return notification.build();
     }
+
+    /**
+     * @return an action that sends {@code action} to the {@link StopwatchService}
+     */
+    private Action getAction(Context context, String action, @StringRes int titleId) {
+        Action cached = mActions.get(action);
+        if (cached == null) {
+            final Intent intent = new Intent(context, StopwatchService.class)
+                    .setAction(action)
+                    .putExtra(Events.EXTRA_EVENT_LABEL, R.string.label_notification);
+
+            final PendingIntent pendingIntent = Utils.pendingServiceIntent(context, intent);
+            cached = new Action.Builder(null, context.getText(titleId), pendingIntent).build();
+            mActions.put(action, cached);
+        }
+        return cached;
+    }
 }
@@ -130,6 +130,16 @@ public final class Timer {
      *      return a negative amount
      */
     public long getRemainingTime() {
+        return getRemainingTime(now());
+    }
+
+    /**
+     * @param now the elapsed realtime at which to compute the remainder, typically read from the
+     *      {@link FrameClock}
+     * @return the total amount of time remaining up to {@code now}; expired and missed timers
+     *      will return a negative amount
+     */
+    public long getRemainingTime(long now) {
         if (mState == PAUSED || mState == RESET) {
             return mRemainingTime;
         }
@@ -137,7 +147,7 @@ public final class Timer {
         // In practice, "now" can be any value due to device reboots. When the real-time clock
         // is reset, there is no more guarantee that "now" falls after the last start time. To
         // ensure the timer is monotonically decreasing, normalize negative time segments to 0,
-        final long timeSinceStart = now() - mLastStartTime;
+        final long timeSinceStart = now - mLastStartTime;
         return mRemainingTime - Math.max(0, timeSinceStart);
     }
 
@@ -158,7 +168,16 @@ public final class Timer {
      *      than the {@link #getTotalLength() total length}
      */
     public long getElapsedTime() {
-        return getTotalLength() - getRemainingTime();
+        return getElapsedTime(now());
+    }
+
+    /**
+     * @param now the elapsed realtime at which to compute the elapsed time, typically read from
+     *      the {@link FrameClock}
+     * @return the total amount of time elapsed up to {@code now}
+     */
+    public long getElapsedTime(long now) {
+        return getTotalLength() - getRemainingTime(now);
     }
 
     long getLastStartTime() { return mLastStartTime; }
@@ -21,6 +21,7 @@ import static com.android.deskclock.data.Timer.State.RESET;
 import android.content.SharedPreferences;
 
 import com.android.deskclock.data.Timer.State;
+import com.android.deskclock.perf.Perf;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -136,6 +137,7 @@ final class TimerDAO {
      * @param timer the timer to be updated
      */
     static void updateTimer(SharedPreferences prefs, Timer timer) {
+        final long start = Perf.begin();
         final SharedPreferences.Editor editor = prefs.edit();
 
         // Record the fields of the timer.
@@ -150,6 +152,7 @@ final class TimerDAO {
         editor.putBoolean(DELETE_AFTER_USE + id, timer.getDeleteAfterUse());
 
         editor.apply();
+        Perf.end(Perf.PREFS_WRITE, start);
     }
 
     /**
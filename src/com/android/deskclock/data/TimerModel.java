@@ -36,7 +36,6 @@ import android.net.Uri;
 import android.util.ArraySet;
 
 import androidx.annotation.StringRes;
-import androidx.core.app.NotificationManagerCompat;
 
 import com.android.deskclock.AlarmAlertWakeLock;
 import com.android.deskclock.LogUtils;
@@ -78,8 +77,8 @@ final class TimerModel {
     /** The model from which ringtone data are fetched. */
     private final RingtoneModel mRingtoneModel;
 
-    /** Used to create and destroy system notifications related to timers. */
-    private final NotificationManagerCompat mNotificationManager;
+    /** Used to post and cancel system notifications related to timers when they change. */
+    private final NotificationPublisher mNotificationPublisher;
 
     /** Update timer notification when locale changes. */
     @SuppressWarnings("FieldCanBeLocal")
@@ -128,6 +127,9 @@ final class TimerModel {
      */
     private Service mService;
 
+    /** The content of the heads-up notification last shown by {@link #mService}. */
+    private Object mHeadsUpContent;
+
     TimerModel(Context context, SharedPreferences prefs, SettingsModel settingsModel,
             RingtoneModel ringtoneModel, NotificationModel notificationModel) {
         mContext = context;
@@ -135,7 +137,7 @@ final class TimerModel {
         mSettingsModel = settingsModel;
         mRingtoneModel = ringtoneModel;
         mNotificationModel = notificationModel;
-        mNotificationManager = NotificationManagerCompat.from(context);
+        mNotificationPublisher = new NotificationPublisher(context);
 
         mAlarmManager = (AlarmManager) mContext.getSystemService(Context.ALARM_SERVICE);
 
@@ -244,6 +246,7 @@ final class TimerModel {
             // If this is the first expired timer, retain the service that will be used to start
             // the heads-up notification in the foreground.
             mService = service;
+            mHeadsUpContent = null;
         } else if (mService != service) {
             // If this is not the first expired timer, the service should match the one given when
             // the first timer expired.
@@ -594,6 +597,9 @@ final class TimerModel {
         // Update the timer ringer.
         updateRinger(timer, null);
 
+        // Forget the notification actions of the removed timer.
+        mNotificationBuilder.onTimerRemoved(timer.getId());
+
         // Notify listeners of the change.
         for (TimerListener timerListener : mTimerListeners) {
             timerListener.timerRemoved(timer);
@@ -731,7 +737,7 @@ final class TimerModel {
     void updateNotification() {
         // Notifications should be hidden if the app is open.
         if (mNotificationModel.isApplicationInForeground()) {
-            mNotificationManager.cancel(mNotificationModel.getUnexpiredTimerNotificationId());
+            mNotificationPublisher.cancel(mNotificationModel.getUnexpiredTimerNotificationId());
             return;
         }
 
@@ -745,18 +751,19 @@ final class TimerModel {
 
         // If no unexpired timers exist, cancel the notification.
         if (unexpired.isEmpty()) {
-            mNotificationManager.cancel(mNotificationModel.getUnexpiredTimerNotificationId());
+            mNotificationPublisher.cancel(mNotificationModel.getUnexpiredTimerNotificationId());
             return;
         }
 
         // Sort the unexpired timers to locate the next one scheduled to expire.
         unexpired.sort(Timer.EXPIRY_COMPARATOR);
 
-        // Otherwise build and post a notification reflecting the latest unexpired timers.
-        final Notification notification =
-                mNotificationBuilder.build(mContext, mNotificationModel, unexpired);
+        // Otherwise build and post a notification reflecting the latest unexpired timers, unless
+        // nothing visible has changed since it was last posted.
         final int notificationId = mNotificationModel.getUnexpiredTimerNotificationId();
-        mNotificationManager.notify(notificationId, notification);
+        mNotificationPublisher.publish(notificationId,
+                TimerNotificationBuilder.getContent(unexpired),
+                () -> mNotificationBuilder.build(mContext, mNotificationModel, unexpired));
     }
 
     /**
@@ -766,21 +773,21 @@ final class TimerModel {
     void updateMissedNotification() {
         // Notifications should be hidden if the app is open.
         if (mNotificationModel.isApplicationInForeground()) {
-            mNotificationManager.cancel(mNotificationModel.getMissedTimerNotificationId());
+            mNotificationPublisher.cancel(mNotificationModel.getMissedTimerNotificationId());
             return;
         }
 
         final List<Timer> missed = getMissedTimers();
 
         if (missed.isEmpty()) {
-            mNotificationManager.cancel(mNotificationModel.getMissedTimerNotificationId());
+            mNotificationPublisher.cancel(mNotificationModel.getMissedTimerNotificationId());
             return;
         }
 
-        final Notification notification = mNotificationBuilder.buildMissed(mContext,
-                mNotificationModel, missed);
         final int notificationId = mNotificationModel.getMissedTimerNotificationId();
-        mNotificationManager.notify(notificationId, notification);
+        mNotificationPublisher.publish(notificationId,
+                TimerNotificationBuilder.getMissedContent(missed),
+                () -> mNotificationBuilder.buildMissed(mContext, mNotificationModel, missed));
     }
 
     /**
@@ -799,8 +806,16 @@ final class TimerModel {
         if (expired.isEmpty()) {
             mService.stopSelf();
             mService = null;
+            mHeadsUpContent = null;
+            return;
+        }
+
+        // Skip reposting if the service already shows this content.
+        final Object content = TimerNotificationBuilder.getHeadsUpContent(expired);
+        if (content.equals(mHeadsUpContent)) {
             return;
         }
+        mHeadsUpContent = content;
 
         // Otherwise build and post a foreground notification reflecting the latest expired timers.
         final Notification notification = mNotificationBuilder.buildHeadsUp(mContext, expired);
@@ -815,6 +830,9 @@ final class TimerModel {
         @Override
         public void onReceive(Context context, Intent intent) {
             mTimerRingtoneTitle = null;
+            mNotificationBuilder.clearCache();
+            mNotificationPublisher.invalidate();
+            mHeadsUpContent = null;
             updateNotification();
             updateMissedNotification();
             updateHeadsUpNotification();
@@ -29,8 +29,11 @@ import android.content.Intent;
 import android.content.res.Resources;
 import android.os.SystemClock;
 import android.text.TextUtils;
+import android.util.ArrayMap;
+import android.util.SparseArray;
 import android.widget.RemoteViews;
 
+import androidx.annotation.StringRes;
 import androidx.core.app.NotificationCompat;
 import androidx.core.content.ContextCompat;
 
@@ -43,13 +46,67 @@ import com.android.deskclock.timer.ExpiredTimersActivity;
 import com.android.deskclock.timer.TimerService;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Builds notifications to reflect the latest state of the timers.
  */
 class TimerNotificationBuilder {
 
+    /**
+     * Actions and pending intents reused across notification updates. Creating a PendingIntent
+     * is an IPC, and timer notifications are rebuilt on every timer change. Actions that apply
+     * to one timer, and its show intent, are kept by timer id and dropped when it is removed.
+     */
+    private final Map<String, Action> mActions = new ArrayMap<>();
+    private final SparseArray<Map<String, Action>> mTimerActions = new SparseArray<>();
+    private final SparseArray<PendingIntent> mShowTimerIntents = new SparseArray<>();
+    private PendingIntent mExpiredContentIntent;
+    private PendingIntent mExpiredFullScreenIntent;
+
+    /**
+     * @return everything visible in the notification built by {@link #build}
+     */
+    static Object getContent(List<Timer> unexpired) {
+        final Timer timer = unexpired.get(0);
+        return Arrays.asList(unexpired.size(), timer.getId(), timer.getState(), timer.getLabel(),
+                timer.isRunning() ? timer.getExpirationTime() : timer.getRemainingTime());
+    }
+
+    /**
+     * @return everything visible in the notification built by {@link #buildMissed}
+     */
+    static Object getMissedContent(List<Timer> missed) {
+        final Timer timer = missed.get(0);
+        return Arrays.asList(missed.size(), timer.getId(), timer.getLabel(),
+                timer.getExpirationTime());
+    }
+
+    /**
+     * @return everything visible in the notification built by {@link #buildHeadsUp}
+     */
+    static Object getHeadsUpContent(List<Timer> expired) {
+        return getMissedContent(expired);
+    }
+
+    /**
+     * Forgets cached actions, whose titles depend on the locale.
+     */
+    void clearCache() {
+        mActions.clear();
+        mTimerActions.clear();
+    }
+
+    /**
+     * Forgets the cached actions and intents of a timer that no longer exists.
+     */
+    void onTimerRemoved(int timerId) {
+        mTimerActions.remove(timerId);
+        mShowTimerIntents.remove(timerId);
+    }
+
     public Notification build(Context context, NotificationModel nm, List<Timer> unexpired) {
         final Timer timer = unexpired.get(0);
         final int count = unexpired.size();
@@ -74,44 +131,24 @@ class TimerNotificationBuilder {
                 }
 
                 // Left button: Pause
-                final Intent pause = new Intent(context, TimerService.class)
-                        .setAction(TimerService.ACTION_PAUSE_TIMER)
-                        .putExtra(TimerService.EXTRA_TIMER_ID, timer.getId());
-
-                final CharSequence title1 = res.getText(R.string.timer_pause);
-                final PendingIntent intent1 = Utils.pendingServiceIntent(context, pause);
-                actions.add(new Action.Builder(null, title1, intent1).build());
+                actions.add(getTimerAction(context, TimerService.ACTION_PAUSE_TIMER,
+                        timer.getId(), R.string.timer_pause));
 
                 // Right Button: +1 Minute
-                final Intent addMinute = new Intent(context, TimerService.class)
-                        .setAction(TimerService.ACTION_ADD_MINUTE_TIMER)
-                        .putExtra(TimerService.EXTRA_TIMER_ID, timer.getId());
-
-                final CharSequence title2 = res.getText(R.string.timer_plus_1_min);
-                final PendingIntent intent2 = Utils.pendingServiceIntent(context, addMinute);
-                actions.add(new Action.Builder(null, title2, intent2).build());
+                actions.add(getTimerAction(context, TimerService.ACTION_ADD_MINUTE_TIMER,
+                        timer.getId(), R.string.timer_plus_1_min));
 
             } else {
                 // Single timer is paused.
                 stateText = res.getString(R.string.timer_paused);
 
                 // Left button: Start
-                final Intent start = new Intent(context, TimerService.class)
-                        .setAction(TimerService.ACTION_START_TIMER)
-                        .putExtra(TimerService.EXTRA_TIMER_ID, timer.getId());
-
-                final CharSequence title1 = res.getText(R.string.sw_resume_button);
-                final PendingIntent intent1 = Utils.pendingServiceIntent(context, start);
-                actions.add(new Action.Builder(null, title1, intent1).build());
+                actions.add(getTimerAction(context, TimerService.ACTION_START_TIMER,
+                        timer.getId(), R.string.sw_resume_button));
 
                 // Right Button: Reset
-                final Intent reset = new Intent(context, TimerService.class)
-                        .setAction(TimerService.ACTION_RESET_TIMER)
-                        .putExtra(TimerService.EXTRA_TIMER_ID, timer.getId());
-
-                final CharSequence title2 = res.getText(R.string.sw_reset_button);
-                final PendingIntent intent2 = Utils.pendingServiceIntent(context, reset);
-                actions.add(new Action.Builder(null, title2, intent2).build());
+                actions.add(getTimerAction(context, TimerService.ACTION_RESET_TIMER,
+                        timer.getId(), R.string.sw_reset_button));
             }
         } else {
             if (running) {
@@ -123,19 +160,11 @@ class TimerNotificationBuilder {
             }
 
             final Intent reset = TimerService.createResetUnexpiredTimersIntent(context);
-
-            final CharSequence title1 = res.getText(R.string.timer_reset_all);
-            final PendingIntent intent1 = Utils.pendingServiceIntent(context, reset);
-            actions.add(new Action.Builder(null, title1, intent1).build());
+            actions.add(getAction(context, reset, R.string.timer_reset_all));
         }
 
         // Intent to load the app and show the timer when the notification is tapped.
-        final Intent showApp = new Intent(context, DeskClock.class)
-                .setAction(TimerService.ACTION_SHOW_TIMER)
-                .putExtra(TimerService.EXTRA_TIMER_ID, timer.getId())
-                .putExtra(Events.EXTRA_EVENT_LABEL, R.string.label_notification);
-
-        final PendingIntent pendingShowApp = Utils.pendingActivityIntent(context, showApp);
+        final PendingIntent pendingShowApp = getShowTimerIntent(context, timer.getId());
 
         final Builder notification = new NotificationCompat.Builder(
                 context, TIMER_MODEL_NOTIFICATION_CHANNEL_ID)
@@ -167,7 +196,6 @@ class TimerNotificationBuilder {
 
         // First action intent is to reset all timers.
         final Intent reset = TimerService.createResetExpiredTimersIntent(context);
-        final PendingIntent intent1 = Utils.pendingServiceIntent(context, reset);
 
         // Generate some descriptive text, a title, and an action name based on the timer count.
         final CharSequence stateText;
@@ -182,20 +210,16 @@ class TimerNotificationBuilder {
             }
 
             // Left button: Reset single timer
-            final CharSequence title1 = context.getString(R.string.timer_stop);
-            actions.add(new Action.Builder(null, title1, intent1).build());
+            actions.add(getAction(context, reset, R.string.timer_stop));
 
             // Right button: Add minute
-            final Intent addTime = TimerService.createAddMinuteTimerIntent(context, timer.getId());
-            final PendingIntent intent2 = Utils.pendingServiceIntent(context, addTime);
-            final CharSequence title2 = context.getString(R.string.timer_plus_1_min);
-            actions.add(new Action.Builder(null, title2, intent2).build());
+            actions.add(getTimerAction(context, TimerService.ACTION_ADD_MINUTE_TIMER,
+                    timer.getId(), R.string.timer_plus_1_min));
         } else {
             stateText = context.getString(R.string.timer_multi_times_up, count);
 
             // Left button: Reset all timers
-            final CharSequence title1 = context.getString(R.string.timer_stop_all);
-            actions.add(new Action.Builder(null, title1, intent1).build());
+            actions.add(getAction(context, reset, R.string.timer_stop_all));
         }
 
         final long base = getChronometerBase(timer);
@@ -203,13 +227,19 @@ class TimerNotificationBuilder {
         final String pname = context.getPackageName();
 
         // Content intent shows the timer full screen when clicked.
-        final Intent content = new Intent(context, ExpiredTimersActivity.class);
-        final PendingIntent contentIntent = Utils.pendingActivityIntent(context, content);
+        if (mExpiredContentIntent == null) {
+            final Intent content = new Intent(context, ExpiredTimersActivity.class);
+            mExpiredContentIntent = Utils.pendingActivityIntent(context, content);
+        }
+        final PendingIntent contentIntent = mExpiredContentIntent;
 
         // Full screen intent has flags so it is different than the content intent.
-        final Intent fullScreen = new Intent(context, ExpiredTimersActivity.class)
-                .setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_NO_USER_ACTION);
-        final PendingIntent pendingFullScreen = Utils.pendingActivityIntent(context, fullScreen);
+        if (mExpiredFullScreenIntent == null) {
+            final Intent fullScreen = new Intent(context, ExpiredTimersActivity.class)
+                    .setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_NO_USER_ACTION);
+            mExpiredFullScreenIntent = Utils.pendingActivityIntent(context, fullScreen);
+        }
+        final PendingIntent pendingFullScreen = mExpiredFullScreenIntent;
 
         final Builder notification = new NotificationCompat.Builder(
                 context, FIRING_NOTIFICATION_CHANNEL_ID)
@@ -257,31 +287,18 @@ class TimerNotificationBuilder {
             }
 
             // Reset button
-            final Intent reset = new Intent(context, TimerService.class)
-                    .setAction(TimerService.ACTION_RESET_TIMER)
-                    .putExtra(TimerService.EXTRA_TIMER_ID, timer.getId());
-
-            final CharSequence title1 = res.getText(R.string.timer_reset);
-            final PendingIntent intent1 = Utils.pendingServiceIntent(context, reset);
-            action = new Action.Builder(null, title1, intent1).build();
+            action = getTimerAction(context, TimerService.ACTION_RESET_TIMER, timer.getId(),
+                    R.string.timer_reset);
         } else {
             // Multiple missed timers.
             stateText = res.getString(R.string.timer_multi_missed, count);
 
             final Intent reset = TimerService.createResetMissedTimersIntent(context);
-
-            final CharSequence title1 = res.getText(R.string.timer_reset_all);
-            final PendingIntent intent1 = Utils.pendingServiceIntent(context, reset);
-            action = new Action.Builder(null, title1, intent1).build();
+            action = getAction(context, reset, R.string.timer_reset_all);
         }
 
         // Intent to load the app and show the timer when the notification is tapped.
-        final Intent showApp = new Intent(context, DeskClock.class)
-                .setAction(TimerService.ACTION_SHOW_TIMER)
-                .putExtra(TimerService.EXTRA_TIMER_ID, timer.getId())
-                .putExtra(Events.EXTRA_EVENT_LABEL, R.string.label_notification);
-
-        final PendingIntent pendingShowApp = Utils.pendingActivityIntent(context, showApp);
+        final PendingIntent pendingShowApp = getShowTimerIntent(context, timer.getId());
 
         final Builder notification = new NotificationCompat.Builder(
                 context, TIMER_MODEL_NOTIFICATION_CHANNEL_ID)
@@ -304,6 +321,69 @@ class TimerNotificationBuilder {
         return notification.build();
     }
 
+    /**
+     * @return an action that sends {@code action} for the timer with the given id to the
+     *      {@link TimerService}
+     */
+    private Action getTimerAction(Context context, String action, int timerId,
+            @StringRes int titleId) {
+        Map<String, Action> timerActions = mTimerActions.get(timerId);
+        if (timerActions == null) {
+            timerActions = new ArrayMap<>(2);
+            mTimerActions.put(timerId, timerActions);
+        }
+
+        final String key = action + '#' + titleId;
+        Action cached = timerActions.get(key);
+        if (cached == null) {
+            final Intent intent = new Intent(context, TimerService.class)
+                    .setAction(action)
+                    .putExtra(TimerService.EXTRA_TIMER_ID, timerId);
+
+            // Each timer needs its own PendingIntent; they differ only by extras.
+            final PendingIntent pendingIntent = PendingIntent.getService(context, timerId,
+                    intent, PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+            cached = new Action.Builder(null, context.getText(titleId), pendingIntent).build();
+            timerActions.put(key, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * @return an action that sends the given intent, which applies to all timers, to the
+     *      {@link TimerService}
+     */
+    private Action getAction(Context context, Intent intent, @StringRes int titleId) {
+        final String key = intent.getAction() + '#' + titleId;
+        Action cached = mActions.get(key);
+        if (cached == null) {
+            final PendingIntent pendingIntent = Utils.pendingServiceIntent(context, intent);
+            cached = new Action.Builder(null, context.getText(titleId), pendingIntent).build();
+            mActions.put(key, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * @return an intent that loads the app and shows the timer with the given id
+     */
+    private PendingIntent getShowTimerIntent(Context context, int timerId) {
+        PendingIntent cached = mShowTimerIntents.get(timerId);
+        if (cached == null) {
+            final Intent showApp = new Intent(context, DeskClock.class)
+                    .setAction(TimerService.ACTION_SHOW_TIMER)
+                    .putExtra(TimerService.EXTRA_TIMER_ID, timerId)
+                    .putExtra(Events.EXTRA_EVENT_LABEL, R.string.label_notification)
+                    .addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+
+            // Each timer needs its own PendingIntent; they differ only by extras.
+            cached = PendingIntent.getActivity(context, timerId, showApp,
+                    PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+            mShowTimerIntents.put(timerId, cached);
+        }
+        return cached;
+    }
+
     /**
      * @param timer the timer on which to base the chronometer display
      * @return the time at which the chronometer will/did reach 0:00 in realtime
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.data;
+
+import static android.text.format.DateUtils.MINUTE_IN_MILLIS;
+
+import android.content.Context;
+import android.util.ArrayMap;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+/**
+ * All {@link CityTime} data is accessed via this model. The times of the world clocks only
+ * change on minute boundaries, so each city's time is computed at most once per minute and
+ * shared by every world clock that displays it.
+ */
+final class WorldClockModel {
+
+    private final Context mContext;
+
+    /** The model from which the current time is fetched. */
+    private final TimeModel mTimeModel;
+
+    /** The city times computed for {@link #mMinute}, keyed by the id of the city time zone. */
+    private final Map<String, CityTime> mCityTimes = new ArrayMap<>();
+
+    /** The minute since the epoch for which {@link #mCityTimes} were computed. */
+    private long mMinute = Long.MIN_VALUE;
+
+    /** The default time zone and locale for which {@link #mCityTimes} were computed. */
+    private String mTimeZoneId;
+    private Locale mLocale;
+
+    WorldClockModel(Context context, TimeModel timeModel) {
+        mContext = context;
+        mTimeModel = timeModel;
+    }
+
+    /**
+     * @return the time in the given {@code city} relative to the default time zone
+     */
+    CityTime getCityTime(City city) {
+        final long minute = Math.floorDiv(mTimeModel.currentTimeMillis(), MINUTE_IN_MILLIS);
+        final TimeZone localZone = TimeZone.getDefault();
+        final Locale locale = Locale.getDefault();
+        if (minute != mMinute || !localZone.getID().equals(mTimeZoneId)
+                || !locale.equals(mLocale)) {
+            mCityTimes.clear();
+            mMinute = minute;
+            mTimeZoneId = localZone.getID();
+            mLocale = locale;
+        }
+
+        final TimeZone cityZone = city.getTimeZone();
+        CityTime cityTime = mCityTimes.get(cityZone.getID());
+        if (cityTime == null) {
+            final long time = minute * MINUTE_IN_MILLIS;
+            cityTime = CityTime.create(mContext, cityZone, localZone, time);
+            mCityTimes.put(cityZone.getID(), cityTime);
+        }
+        return cityTime;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.perf;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A fixed-size histogram of non-negative values. Values are counted in buckets whose upper
+ * bounds are powers of two, so recording never allocates and percentiles are accurate to within
+ * a factor of two. Not thread-safe.
+ */
+public final class Histogram {
+
+    /** Bucket {@code i} counts values {@code v} with {@code 2^(i-1) <= v < 2^i}; 0 holds 0. */
+    private final long[] mBuckets = new long[Long.SIZE];
+
+    private long mCount;
+    private long mSum;
+    private long mMin = Long.MAX_VALUE;
+    private long mMax = Long.MIN_VALUE;
+
+    /**
+     * @param value the value to record; negative values are recorded as {@code 0}
+     */
+    public void add(long value) {
+        final long v = Math.max(0, value);
+        mBuckets[Long.SIZE - Long.numberOfLeadingZeros(v)]++;
+        mCount++;
+        mSum += v;
+        mMin = Math.min(mMin, v);
+        mMax = Math.max(mMax, v);
+    }
+
+    public long getCount() { return mCount; }
+    public long getSum() { return mSum; }
+    public long getMin() { return mCount == 0 ? 0 : mMin; }
+    public long getMax() { return mCount == 0 ? 0 : mMax; }
+
+    /**
+     * @return the mean of the recorded values, or {@code 0} if none were recorded
+     */
+    public long getMean() {
+        return mCount == 0 ? 0 : mSum / mCount;
+    }
+
+    /**
+     * @param percentile a value between {@code 0} and {@code 100}
+     * @return an upper bound, within a factor of two and never above {@link #getMax()}, of the
+     *      value below which the given percentage of recorded values fall
+     */
+    public long getPercentile(double percentile) {
+        if (mCount == 0) {
+            return 0;
+        }
+
+        final long rank = Math.max(1, (long) Math.ceil(mCount * percentile / 100d));
+        long seen = 0;
+        for (int i = 0; i < mBuckets.length; i++) {
+            seen += mBuckets[i];
+            if (seen >= rank) {
+                final long upperBound = i == 0 ? 0 : (1L << i) - 1;
+                return Math.min(upperBound, mMax);
+            }
+        }
+        return mMax;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "count=" + mCount +
+                " min=" + getMin() +
+                " mean=" + getMean() +
+                " p50=" + getPercentile(50) +
+                " p90=" + getPercentile(90) +
+                " p99=" + getPercentile(99) +
+                " max=" + getMax();
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.perf;
+
+import java.io.PrintWriter;
+
+/**
+ * Reports spans, counters and histogram samples from hot paths to a {@link PerfSink}. Until a
+ * sink is installed every method costs a single volatile read and allocates nothing, so call
+ * sites need not be guarded. A span is measured as follows:
+ *
+ * <pre>
+ *     final long start = Perf.begin();
+ *     ...
+ *     Perf.end(Perf.PROVIDER_QUERY, start);
+ * </pre>
+ */
+public final class Perf {
+
+    /** Histogram of the delay, in milliseconds, between an alarm's time and it firing. */
+    public static final String ALARM_FIRE_LATENCY = "alarm_fire_latency_ms";
+
+    /** Span from an alarm's scheduled time until its ringtone starts playing. */
+    public static final String ALARM_FIRST_AUDIO = "alarm_first_audio";
+
+    /**
+     * Histogram of the time, in milliseconds, from process start to the first frame of the main
+     * activity; suffixed with the name of the tab shown first.
+     */
+    public static final String STARTUP_FIRST_FRAME = "startup_first_frame_ms";
+
+    /** Span of a query served by the alarm content provider. */
+    public static final String PROVIDER_QUERY = "provider_query";
+
+    /** Span of the relayout of one home screen widget. */
+    public static final String WIDGET_RELAYOUT = "widget_relayout";
+
+    /** Span of one tick of a timer or stopwatch display. */
+    public static final String FRAME_TICK = "frame_tick";
+
+    /** Histogram of the frames drawn by a screen saver in each full hour it is shown. */
+    public static final String SCREENSAVER_FRAMES_PER_HOUR = "screensaver_frames_per_hour";
+
+    /** Histogram of the main thread wakeups of a screen saver in each full hour it is shown. */
+    public static final String SCREENSAVER_WAKEUPS_PER_HOUR = "screensaver_wakeups_per_hour";
+
+    /** Span of a shared preferences write. */
+    public static final String PREFS_WRITE = "prefs_write";
+
+    /** Counter of notifications posted by the timer and stopwatch models. */
+    public static final String NOTIFICATION_POSTED = "notification_posted";
+
+    /** Counter of notification updates skipped because nothing visible changed. */
+    public static final String NOTIFICATION_UNCHANGED = "notification_unchanged";
+
+    /** Counter of notification updates superseded before they were posted. */
+    public static final String NOTIFICATION_COALESCED = "notification_coalesced";
+
+    /** Counter of next alarm updates applied, whether or not the next alarm changed. */
+    public static final String NEXT_ALARM_UPDATE = "next_alarm_update";
+
+    /** The sink receiving measurements; {@code null} while instrumentation is disabled. */
+    private static volatile PerfSink sSink;
+
+    private Perf() {}
+
+    /**
+     * @param sink receives all subsequent measurements; {@code null} disables instrumentation
+     */
+    public static void setSink(PerfSink sink) {
+        sSink = sink;
+    }
+
+    /**
+     * @return the sink receiving measurements, or {@code null} if instrumentation is disabled
+     */
+    public static PerfSink getSink() {
+        return sSink;
+    }
+
+    /**
+     * @return {@code true} if measurements are being recorded; useful to skip computing a sample
+     */
+    public static boolean isEnabled() {
+        return sSink != null;
+    }
+
+    /**
+     * @return a token marking the start of a span, to be passed to {@link #end}
+     */
+    public static long begin() {
+        return sSink == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Completes a span started by {@link #begin}. Spans begun while instrumentation was disabled
+     * are ignored.
+     */
+    public static void end(String metric, long start) {
+        final PerfSink sink = sSink;
+        if (sink != null && start != 0) {
+            final long now = System.nanoTime();
+            sink.onSpan(metric, start, now - start);
+        }
+    }
+
+    /**
+     * Increments a counter by one.
+     */
+    public static void count(String metric) {
+        count(metric, 1);
+    }
+
+    /**
+     * Adds {@code delta} to a counter.
+     */
+    public static void count(String metric, long delta) {
+        final PerfSink sink = sSink;
+        if (sink != null) {
+            sink.onCount(metric, delta);
+        }
+    }
+
+    /**
+     * Records one value of a histogram.
+     */
+    public static void sample(String metric, long value) {
+        final PerfSink sink = sSink;
+        if (sink != null) {
+            sink.onSample(metric, value);
+        }
+    }
+
+    /**
+     * Writes the recorded measurements, if any, in the style of a service dump.
+     */
+    public static void dump(PrintWriter writer) {
+        final PerfSink sink = sSink;
+        if (sink == null) {
+            writer.println("Perf: disabled");
+        } else {
+            sink.dump(writer);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.perf;
+
+import java.io.PrintWriter;
+
+/**
+ * Receives the measurements reported through {@link Perf}. Implementations may be called from
+ * any thread and must not block.
+ */
+public interface PerfSink {
+
+    /**
+     * Records a completed span.
+     *
+     * @param metric        identifies what was measured; one of the constants in {@link Perf}
+     * @param startNanos    the {@link System#nanoTime()} at which the span began
+     * @param durationNanos the duration of the span
+     */
+    void onSpan(String metric, long startNanos, long durationNanos);
+
+    /**
+     * Adds {@code delta} to a counter.
+     */
+    void onCount(String metric, long delta);
+
+    /**
+     * Records one value of a distribution.
+     */
+    void onSample(String metric, long value);
+
+    /**
+     * Writes a human-readable summary of the recorded measurements.
+     */
+    void dump(PrintWriter writer);
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.perf;
+
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link PerfSink} that keeps running aggregates of every metric along with the most recent
+ * measurements in a fixed-size ring buffer. Memory use is bounded by the capacity and the number
+ * of distinct metrics; recording allocates only the first time a metric is seen.
+ */
+public final class RingBufferPerfSink implements PerfSink {
+
+    private static final byte KIND_SPAN = 0;
+    private static final byte KIND_COUNT = 1;
+    private static final byte KIND_SAMPLE = 2;
+
+    /** Maps metric name to span durations in microseconds, or to sampled values. */
+    private final Map<String, Histogram> mHistograms = new TreeMap<>();
+
+    /** Maps metric name to counter total. */
+    private final Map<String, long[]> mCounters = new TreeMap<>();
+
+    // The ring buffer of recent measurements, stored as parallel arrays.
+    private final byte[] mKinds;
+    private final String[] mMetrics;
+    private final long[] mTimes;
+    private final long[] mValues;
+
+    /** The total number of measurements recorded; the next one is stored at this modulo size. */
+    private long mRecorded;
+
+    /**
+     * @param capacity the number of recent measurements to retain
+     */
+    public RingBufferPerfSink(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        mKinds = new byte[capacity];
+        mMetrics = new String[capacity];
+        mTimes = new long[capacity];
+        mValues = new long[capacity];
+    }
+
+    @Override
+    public synchronized void onSpan(String metric, long startNanos, long durationNanos) {
+        getHistogram(metric).add(TimeUnit.NANOSECONDS.toMicros(durationNanos));
+        append(KIND_SPAN, metric, startNanos, durationNanos);
+    }
+
+    @Override
+    public synchronized void onCount(String metric, long delta) {
+        long[] counter = mCounters.get(metric);
+        if (counter == null) {
+            counter = new long[1];
+            mCounters.put(metric, counter);
+        }
+        counter[0] += delta;
+        append(KIND_COUNT, metric, System.nanoTime(), delta);
+    }
+
+    @Override
+    public synchronized void onSample(String metric, long value) {
+        getHistogram(metric).add(value);
+        append(KIND_SAMPLE, metric, System.nanoTime(), value);
+    }
+
+    /**
+     * @return the total of the counter, or {@code 0} if it was never incremented
+     */
+    public synchronized long getCount(String metric) {
+        final long[] counter = mCounters.get(metric);
+        return counter == null ? 0 : counter[0];
+    }
+
+    /**
+     * @return the number of spans or samples recorded for the metric
+     */
+    public synchronized long getSampleCount(String metric) {
+        final Histogram histogram = mHistograms.get(metric);
+        return histogram == null ? 0 : histogram.getCount();
+    }
+
+    /**
+     * @return the number of recent measurements currently retained
+     */
+    public synchronized int getRetainedCount() {
+        return (int) Math.min(mRecorded, mKinds.length);
+    }
+
+    @Override
+    public synchronized void dump(PrintWriter writer) {
+        writer.println("Perf:");
+        writer.println("  Histograms (spans in us):");
+        for (Map.Entry<String, Histogram> entry : mHistograms.entrySet()) {
+            writer.println("    " + entry.getKey() + ": " + entry.getValue());
+        }
+
+        writer.println("  Counters:");
+        for (Map.Entry<String, long[]> entry : mCounters.entrySet()) {
+            writer.println("    " + entry.getKey() + ": " + entry.getValue()[0]);
+        }
+
+        final int retained = getRetainedCount();
+        writer.println("  Recent (" + retained + " of " + mRecorded + "):");
+        final long now = System.nanoTime();
+        for (long i = mRecorded - retained; i < mRecorded; i++) {
+            final int index = (int) (i % mKinds.length);
+            final long ageMillis = TimeUnit.NANOSECONDS.toMillis(now - mTimes[index]);
+            final String value;
+            switch (mKinds[index]) {
+                case KIND_SPAN:
+                    value = TimeUnit.NANOSECONDS.toMicros(mValues[index]) + "us";
+                    break;
+                case KIND_COUNT:
+                    value = "+" + mValues[index];
+                    break;
+                default:
+                    value = String.valueOf(mValues[index]);
+                    break;
+            }
+            writer.println("    -" + ageMillis + "ms " + mMetrics[index] + " " + value);
+        }
+    }
+
+    private Histogram getHistogram(String metric) {
+        Histogram histogram = mHistograms.get(metric);
+        if (histogram == null) {
+            histogram = new Histogram();
+            mHistograms.put(metric, histogram);
+        }
+        return histogram;
+    }
+
+    private void append(byte kind, String metric, long time, long value) {
+        final int index = (int) (mRecorded % mKinds.length);
+        mKinds[index] = kind;
+        mMetrics[index] = metric;
+        mTimes[index] = time;
+        mValues[index] = value;
+        mRecorded++;
+    }
+}
@@ -187,6 +187,19 @@ public final class Alarm implements Parcelable, ClockContract.AlarmsColumns {
         };
     }
 
+    /**
+     * Get the row of the alarms with instances join for a single alarm, as used by
+     * {@link #getAlarmsCursorLoader(Context)}.
+     *
+     * @param cr provides access to the content model
+     * @param alarmId for the desired alarm.
+     * @return cursor holding at most one row; the caller is responsible for closing it
+     */
+    public static Cursor getAlarmWithInstance(ContentResolver cr, long alarmId) {
+        return cr.query(ALARMS_WITH_INSTANCES_URI, QUERY_ALARMS_WITH_INSTANCES_COLUMNS,
+                ClockDatabaseHelper.ALARMS_TABLE_NAME + "." + _ID + "=" + alarmId, null, null);
+    }
+
     /**
      * Get alarm by id.
      *
@@ -348,6 +361,13 @@ public final class Alarm implements Parcelable, ClockContract.AlarmsColumns {
      * HIGH_NOTIFICATION, LOW_NOTIFICATION, and HIDE_NOTIFICATION.
      */
     public boolean canPreemptivelyDismiss() {
+        return canPreemptivelyDismiss(instanceState);
+    }
+
+    /**
+     * Whether an alarm whose next instance is in the given state can be preemptively dismissed.
+     */
+    public static boolean canPreemptivelyDismiss(int instanceState) {
         return instanceState == AlarmInstance.SNOOZE_STATE
                 || instanceState == AlarmInstance.HIGH_NOTIFICATION_STATE
                 || instanceState == AlarmInstance.LOW_NOTIFICATION_STATE
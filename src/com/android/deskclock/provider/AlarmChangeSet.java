@@ -0,0 +1,168 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.provider;
+
+import static com.android.deskclock.provider.ClockContract.AlarmsColumns.ALARM_CHANGES_URI;
+
+import android.content.ContentUris;
+import android.net.Uri;
+import android.text.TextUtils;
+import android.util.ArraySet;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Describes a single-row update made by {@link ClockProvider}: the alarm that owns the row, the
+ * table that was written and the columns whose values actually changed. Change sets travel as
+ * descendants of {@link ClockContract.AlarmsColumns#ALARM_CHANGES_URI} so that observers can
+ * react to the affected alarm only, rather than requerying every alarm on each write.
+ */
+public final class AlarmChangeSet {
+
+    private static final String PARAM_TABLE = "table";
+    private static final String PARAM_COLUMNS = "columns";
+    private static final String PARAM_INSTANCE_ID = "instance";
+    private static final String PARAM_INSTANCE_STATE = "state";
+
+    private static final String TABLE_ALARMS = "alarms";
+    private static final String TABLE_INSTANCES = "instances";
+
+    /** The id of the alarm affected by the change. */
+    public final long alarmId;
+
+    /** The id of the changed instance or {@link AlarmInstance#INVALID_ID} for alarm changes. */
+    public final long instanceId;
+
+    /** The new state of the changed instance, or {@code -1} if its state did not change. */
+    public final int instanceState;
+
+    /** The names of the columns whose values changed. */
+    public final Set<String> columns;
+
+    private AlarmChangeSet(long alarmId, long instanceId, int instanceState,
+            Set<String> columns) {
+        this.alarmId = alarmId;
+        this.instanceId = instanceId;
+        this.instanceState = instanceState;
+        this.columns = Collections.unmodifiableSet(columns);
+    }
+
+    static AlarmChangeSet forAlarm(long alarmId, Set<String> columns) {
+        return new AlarmChangeSet(alarmId, AlarmInstance.INVALID_ID, -1, columns);
+    }
+
+    static AlarmChangeSet forInstance(long alarmId, long instanceId, int instanceState,
+            Set<String> columns) {
+        return new AlarmChangeSet(alarmId, instanceId, instanceState, columns);
+    }
+
+    /**
+     * @return {@code true} if the change was made to an alarm instance rather than the alarm
+     */
+    public boolean isInstanceChange() {
+        return instanceId != AlarmInstance.INVALID_ID;
+    }
+
+    /**
+     * @return {@code true} if only the state of an alarm instance changed
+     */
+    public boolean isStateOnly() {
+        return isInstanceChange() && columns.size() == 1
+                && columns.contains(ClockContract.InstancesColumns.ALARM_STATE);
+    }
+
+    /**
+     * @return {@code true} if the change may alter the position of the alarm in a list sorted by
+     *      time of day
+     */
+    public boolean affectsSortOrder() {
+        return !isInstanceChange() && (columns.contains(ClockContract.AlarmsColumns.HOUR)
+                || columns.contains(ClockContract.AlarmsColumns.MINUTES));
+    }
+
+    /**
+     * @return the uri used to broadcast this change set to content observers
+     */
+    @NonNull
+    Uri toUri() {
+        final Uri.Builder builder = ContentUris.withAppendedId(ALARM_CHANGES_URI, alarmId)
+                .buildUpon()
+                .appendQueryParameter(PARAM_TABLE,
+                        isInstanceChange() ? TABLE_INSTANCES : TABLE_ALARMS)
+                .appendQueryParameter(PARAM_COLUMNS, TextUtils.join(",", columns));
+        if (isInstanceChange()) {
+            builder.appendQueryParameter(PARAM_INSTANCE_ID, String.valueOf(instanceId));
+            if (instanceState != -1) {
+                builder.appendQueryParameter(PARAM_INSTANCE_STATE, String.valueOf(instanceState));
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * @param uri a uri delivered to a content observer of
+     *      {@link ClockContract.AlarmsColumns#ALARM_CHANGES_URI}
+     * @return the change set described by the uri or {@code null} if it does not describe one
+     */
+    @Nullable
+    public static AlarmChangeSet fromUri(@Nullable Uri uri) {
+        if (uri == null || !ALARM_CHANGES_URI.getAuthority().equals(uri.getAuthority())) {
+            return null;
+        }
+
+        final List<String> segments = uri.getPathSegments();
+        final List<String> rootSegments = ALARM_CHANGES_URI.getPathSegments();
+        if (segments.size() != rootSegments.size() + 1
+                || !segments.subList(0, rootSegments.size()).equals(rootSegments)) {
+            return null;
+        }
+
+        try {
+            final long alarmId = ContentUris.parseId(uri);
+            final Set<String> columns = new ArraySet<>();
+            final String columnList = uri.getQueryParameter(PARAM_COLUMNS);
+            if (!TextUtils.isEmpty(columnList)) {
+                Collections.addAll(columns, TextUtils.split(columnList, ","));
+            }
+
+            if (!TABLE_INSTANCES.equals(uri.getQueryParameter(PARAM_TABLE))) {
+                return forAlarm(alarmId, columns);
+            }
+
+            final long instanceId = Long.parseLong(uri.getQueryParameter(PARAM_INSTANCE_ID));
+            final String state = uri.getQueryParameter(PARAM_INSTANCE_STATE);
+            return forInstance(alarmId, instanceId,
+                    state == null ? -1 : Integer.parseInt(state), columns);
+        } catch (NumberFormatException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "AlarmChangeSet{alarmId=" + alarmId
+                + ", instanceId=" + instanceId
+                + ", instanceState=" + instanceState
+                + ", columns=" + columns
+                + '}';
+    }
+}
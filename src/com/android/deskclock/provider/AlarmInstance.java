@@ -50,7 +50,7 @@ public final class AlarmInstance implements ClockContract.InstancesColumns {
     /**
      * Offset from alarm time to stop showing missed notification.
      */
-    private static final int MISSED_TIME_TO_LIVE_HOUR_OFFSET = 12;
+    static final int MISSED_TIME_TO_LIVE_HOUR_OFFSET = 12;
 
     /**
      * AlarmInstances start with an invalid id when it hasn't been saved to the database.
@@ -176,7 +176,8 @@ public final class AlarmInstance implements ClockContract.InstancesColumns {
         }
         AlarmInstance nextAlarmInstance = alarmInstances.get(0);
         for (AlarmInstance instance : alarmInstances) {
-            if (instance.getAlarmTime().before(nextAlarmInstance.getAlarmTime())) {
+            if (instance.getSchedule().getAlarmTime()
+                    < nextAlarmInstance.getSchedule().getAlarmTime()) {
                 nextAlarmInstance = instance;
             }
         }
@@ -224,7 +225,8 @@ public final class AlarmInstance implements ClockContract.InstancesColumns {
         // should fix the root issue if you see the error message.
         String dupSelector = AlarmInstance.ALARM_ID + " = " + instance.mAlarmId;
         for (AlarmInstance otherInstances : getInstances(contentResolver, dupSelector)) {
-            if (otherInstances.getAlarmTime().equals(instance.getAlarmTime())) {
+            if (otherInstances.getSchedule().getAlarmTime()
+                    == instance.getSchedule().getAlarmTime()) {
                 LogUtils.i("Detected duplicate instance in DB. Updating " + otherInstances + " to "
                         + instance);
                 // Copy over the new instance values and update the db
@@ -276,6 +278,14 @@ public final class AlarmInstance implements ClockContract.InstancesColumns {
     public int mAlarmState;
     public boolean mIncreasingVolume;
 
+    /** The state transition times derived from the fields above; rebuilt when they change. */
+    private AlarmSchedule mSchedule;
+    private int mScheduleYear;
+    private int mScheduleMonth;
+    private int mScheduleDay;
+    private int mScheduleHour;
+    private int mScheduleMinute;
+
     public AlarmInstance(Calendar calendar, Long alarmId) {
         this(calendar);
         mAlarmId = alarmId;
@@ -353,21 +363,35 @@ public final class AlarmInstance implements ClockContract.InstancesColumns {
         mMinute = calendar.get(Calendar.MINUTE);
     }
 
+    /**
+     * Return the times at which this instance changes state. The schedule is computed once and
+     * reused until the alarm time or the time zone changes.
+     *
+     * @return the schedule of this instance
+     */
+    public AlarmSchedule getSchedule() {
+        AlarmSchedule schedule = mSchedule;
+        if (schedule == null || !schedule.isCurrent()
+                || mScheduleYear != mYear || mScheduleMonth != mMonth || mScheduleDay != mDay
+                || mScheduleHour != mHour || mScheduleMinute != mMinute) {
+            schedule = AlarmSchedule.create(mYear, mMonth, mDay, mHour, mMinute);
+            mSchedule = schedule;
+            mScheduleYear = mYear;
+            mScheduleMonth = mMonth;
+            mScheduleDay = mDay;
+            mScheduleHour = mHour;
+            mScheduleMinute = mMinute;
+        }
+        return schedule;
+    }
+
     /**
      * Return the time when a alarm should fire.
      *
      * @return the time
      */
     public Calendar getAlarmTime() {
-        Calendar calendar = Calendar.getInstance();
-        calendar.set(Calendar.YEAR, mYear);
-        calendar.set(Calendar.MONTH, mMonth);
-        calendar.set(Calendar.DAY_OF_MONTH, mDay);
-        calendar.set(Calendar.HOUR_OF_DAY, mHour);
-        calendar.set(Calendar.MINUTE, mMinute);
-        calendar.set(Calendar.SECOND, 0);
-        calendar.set(Calendar.MILLISECOND, 0);
-        return calendar;
+        return AlarmSchedule.toCalendar(getSchedule().getAlarmTime());
     }
 
     /**
@@ -376,9 +400,7 @@ public final class AlarmInstance implements ClockContract.InstancesColumns {
      * @return the time
      */
     public Calendar getLowNotificationTime() {
-        Calendar calendar = getAlarmTime();
-        calendar.add(Calendar.HOUR_OF_DAY, LOW_NOTIFICATION_HOUR_OFFSET);
-        return calendar;
+        return AlarmSchedule.toCalendar(getSchedule().getLowNotificationTime());
     }
 
     /**
@@ -387,9 +409,7 @@ public final class AlarmInstance implements ClockContract.InstancesColumns {
      * @return the time
      */
     public Calendar getHighNotificationTime() {
-        Calendar calendar = getAlarmTime();
-        calendar.add(Calendar.MINUTE, HIGH_NOTIFICATION_MINUTE_OFFSET);
-        return calendar;
+        return AlarmSchedule.toCalendar(getSchedule().getHighNotificationTime());
     }
 
     /**
@@ -398,9 +418,7 @@ public final class AlarmInstance implements ClockContract.InstancesColumns {
      * @return the time
      */
     public Calendar getMissedTimeToLive() {
-        Calendar calendar = getAlarmTime();
-        calendar.add(Calendar.HOUR, MISSED_TIME_TO_LIVE_HOUR_OFFSET);
-        return calendar;
+        return AlarmSchedule.toCalendar(getSchedule().getMissedTimeToLive());
     }
 
     /**
@@ -410,15 +428,14 @@ public final class AlarmInstance implements ClockContract.InstancesColumns {
      */
     public Calendar getTimeout() {
         final int timeoutMinutes = DataModel.getDataModel().getAlarmTimeout();
+        final long timeout = getSchedule().getTimeout(timeoutMinutes);
 
         // Alarm silence has been set to "None"
-        if (timeoutMinutes < 0) {
+        if (timeout == AlarmSchedule.NO_TIMEOUT) {
             return null;
         }
 
-        Calendar calendar = getAlarmTime();
-        calendar.add(Calendar.MINUTE, timeoutMinutes);
-        return calendar;
+        return AlarmSchedule.toCalendar(timeout);
     }
 
     @Override
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.provider;
+
+import static android.text.format.DateUtils.MINUTE_IN_MILLIS;
+import static com.android.deskclock.provider.AlarmInstance.HIGH_NOTIFICATION_MINUTE_OFFSET;
+import static com.android.deskclock.provider.AlarmInstance.LOW_NOTIFICATION_HOUR_OFFSET;
+import static com.android.deskclock.provider.AlarmInstance.MISSED_TIME_TO_LIVE_HOUR_OFFSET;
+
+import androidx.annotation.NonNull;
+
+import java.util.Calendar;
+
+/**
+ * An immutable snapshot of the moments, in milliseconds since the epoch, at which an
+ * {@link AlarmInstance} changes state. The wall clock fields of the instance are converted once,
+ * using the time zone rules in effect when the schedule is built, so state decisions reduce to
+ * comparisons of longs.
+ */
+public final class AlarmSchedule {
+
+    /** Value of {@link #getTimeout(int)} when alarms ring until they are dismissed. */
+    public static final long NO_TIMEOUT = Long.MAX_VALUE;
+
+    /** Incremented each time the default time zone or its rules change. */
+    private static volatile int sZoneGeneration;
+
+    private final int mZoneGeneration;
+
+    private final long mAlarmTime;
+    private final long mLowNotificationTime;
+    private final long mHighNotificationTime;
+    private final long mMissedTimeToLive;
+
+    private AlarmSchedule(int zoneGeneration, long alarmTime, long lowNotificationTime,
+            long highNotificationTime, long missedTimeToLive) {
+        mZoneGeneration = zoneGeneration;
+        mAlarmTime = alarmTime;
+        mLowNotificationTime = lowNotificationTime;
+        mHighNotificationTime = highNotificationTime;
+        mMissedTimeToLive = missedTimeToLive;
+    }
+
+    /**
+     * Builds the schedule of an alarm instance from its wall clock fields.
+     */
+    static AlarmSchedule create(int year, int month, int day, int hour, int minute) {
+        final int zoneGeneration = sZoneGeneration;
+
+        final Calendar calendar = Calendar.getInstance();
+        calendar.clear();
+        calendar.set(year, month, day, hour, minute, 0);
+        final long alarmTime = calendar.getTimeInMillis();
+
+        // Offsets are applied to the calendar rather than the millis so that they honor
+        // daylight saving transitions exactly as before.
+        calendar.add(Calendar.HOUR_OF_DAY, LOW_NOTIFICATION_HOUR_OFFSET);
+        final long lowNotificationTime = calendar.getTimeInMillis();
+
+        calendar.setTimeInMillis(alarmTime);
+        calendar.add(Calendar.MINUTE, HIGH_NOTIFICATION_MINUTE_OFFSET);
+        final long highNotificationTime = calendar.getTimeInMillis();
+
+        calendar.setTimeInMillis(alarmTime);
+        calendar.add(Calendar.HOUR, MISSED_TIME_TO_LIVE_HOUR_OFFSET);
+        final long missedTimeToLive = calendar.getTimeInMillis();
+
+        return new AlarmSchedule(zoneGeneration, alarmTime, lowNotificationTime,
+                highNotificationTime, missedTimeToLive);
+    }
+
+    /**
+     * Invalidates all schedules built before now. Must be called when the default time zone or
+     * the time zone rules change.
+     */
+    public static synchronized void onTimeZoneChanged() {
+        sZoneGeneration++;
+    }
+
+    /**
+     * @return {@code true} if this schedule was built with the current time zone rules
+     */
+    boolean isCurrent() {
+        return mZoneGeneration == sZoneGeneration;
+    }
+
+    /**
+     * @return the time at which the alarm fires
+     */
+    public long getAlarmTime() {
+        return mAlarmTime;
+    }
+
+    /**
+     * @return the time at which a low priority notification should be shown
+     */
+    public long getLowNotificationTime() {
+        return mLowNotificationTime;
+    }
+
+    /**
+     * @return the time at which a high priority notification should be shown
+     */
+    public long getHighNotificationTime() {
+        return mHighNotificationTime;
+    }
+
+    /**
+     * @return the time at which a missed notification should be removed
+     */
+    public long getMissedTimeToLive() {
+        return mMissedTimeToLive;
+    }
+
+    /**
+     * @param timeoutMinutes the number of minutes alarms may ring; negative for no timeout
+     * @return the time at which a firing alarm is silenced and marked as missed, or
+     *      {@link #NO_TIMEOUT} if it rings until dismissed
+     */
+    public long getTimeout(int timeoutMinutes) {
+        return timeoutMinutes < 0 ? NO_TIMEOUT : mAlarmTime + timeoutMinutes * MINUTE_IN_MILLIS;
+    }
+
+    /**
+     * @return a new calendar set to the given time in the default time zone
+     */
+    public static Calendar toCalendar(long time) {
+        final Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(time);
+        return calendar;
+    }
+
+    @NonNull
+    @Override
+    public String toString() {
+        return "AlarmSchedule{" +
+                "mAlarmTime=" + mAlarmTime +
+                ", mLowNotificationTime=" + mLowNotificationTime +
+                ", mHighNotificationTime=" + mHighNotificationTime +
+                ", mMissedTimeToLive=" + mMissedTimeToLive +
+                '}';
+    }
+}
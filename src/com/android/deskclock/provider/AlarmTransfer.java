@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.provider;
+
+import android.content.ContentProviderOperation;
+import android.content.ContentProviderResult;
+import android.content.ContentResolver;
+import android.content.Context;
+import android.content.OperationApplicationException;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.RemoteException;
+
+import com.android.deskclock.LogUtils;
+import com.android.deskclock.Utils;
+import com.android.deskclock.alarms.AlarmStateManager;
+import com.android.deskclock.data.Weekdays;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * Exports and imports alarms as JSON lines: one JSON object per line, each describing one alarm.
+ * For example:
+ *
+ * <pre>
+ * {"hour":6,"minutes":30,"days":31,"enabled":true,"label":"Early shift","ringtone":"..."}
+ * </pre>
+ *
+ * {@code days} holds the bits of {@link Weekdays}. Only {@code hour} and {@code minutes} are
+ * required; a missing {@code ringtone} follows the default alarm ringtone. Alarms are read and
+ * written a line at a time, never as a whole file. Neither direction may run on the main thread.
+ */
+public final class AlarmTransfer {
+
+    private static final LogUtils.Logger LOGGER = new LogUtils.Logger("AlarmTransfer");
+
+    private static final String KEY_HOUR = "hour";
+    private static final String KEY_MINUTES = "minutes";
+    private static final String KEY_DAYS = "days";
+    private static final String KEY_ENABLED = "enabled";
+    private static final String KEY_VIBRATE = "vibrate";
+    private static final String KEY_LABEL = "label";
+    private static final String KEY_RINGTONE = "ringtone";
+    private static final String KEY_DELETE_AFTER_USE = "deleteAfterUse";
+    private static final String KEY_INCREASING_VOLUME = "increasingVolume";
+
+    private AlarmTransfer() {}
+
+    /**
+     * Writes every alarm to {@code out}, one per line.
+     *
+     * @return the number of alarms written
+     */
+    public static int exportAlarms(ContentResolver cr, Writer out) throws IOException {
+        Utils.enforceNotMainLooper();
+
+        int count = 0;
+        try (Cursor cursor = cr.query(Alarm.CONTENT_URI, null, null, null, null)) {
+            if (cursor == null) {
+                throw new IOException("Failed to query alarms");
+            }
+
+            final int hourIndex = cursor.getColumnIndexOrThrow(Alarm.HOUR);
+            final int minutesIndex = cursor.getColumnIndexOrThrow(Alarm.MINUTES);
+            final int daysIndex = cursor.getColumnIndexOrThrow(Alarm.DAYS_OF_WEEK);
+            final int enabledIndex = cursor.getColumnIndexOrThrow(Alarm.ENABLED);
+            final int vibrateIndex = cursor.getColumnIndexOrThrow(Alarm.VIBRATE);
+            final int labelIndex = cursor.getColumnIndexOrThrow(Alarm.LABEL);
+            final int ringtoneIndex = cursor.getColumnIndexOrThrow(Alarm.RINGTONE);
+            final int deleteIndex = cursor.getColumnIndexOrThrow(Alarm.DELETE_AFTER_USE);
+            final int volumeIndex = cursor.getColumnIndexOrThrow(Alarm.INCREASING_VOLUME);
+
+            while (cursor.moveToNext()) {
+                final JSONObject json = new JSONObject();
+                try {
+                    json.put(KEY_HOUR, cursor.getInt(hourIndex));
+                    json.put(KEY_MINUTES, cursor.getInt(minutesIndex));
+                    json.put(KEY_DAYS, cursor.getInt(daysIndex));
+                    json.put(KEY_ENABLED, cursor.getInt(enabledIndex) == 1);
+                    json.put(KEY_VIBRATE, cursor.getInt(vibrateIndex) == 1);
+                    json.put(KEY_LABEL, cursor.getString(labelIndex));
+                    // A null ringtone follows the default; leave it out to preserve that.
+                    if (!cursor.isNull(ringtoneIndex)) {
+                        json.put(KEY_RINGTONE, cursor.getString(ringtoneIndex));
+                    }
+                    json.put(KEY_DELETE_AFTER_USE, cursor.getInt(deleteIndex) == 1);
+                    json.put(KEY_INCREASING_VOLUME, cursor.getInt(volumeIndex) == 1);
+                } catch (JSONException e) {
+                    throw new IOException("Failed to export alarm", e);
+                }
+                out.write(json.toString());
+                out.write('\n');
+                count++;
+            }
+        }
+
+        out.flush();
+        LOGGER.i("Exported %d alarms", count);
+        return count;
+    }
+
+    /**
+     * Adds an alarm for each line of {@code in}. All alarms, and the next instance of each
+     * enabled alarm, are inserted in a single transaction; the instances are then scheduled
+     * together. Nothing is imported if any line is malformed.
+     *
+     * @return the number of alarms imported
+     */
+    public static int importAlarms(Context context, Reader in) throws IOException {
+        Utils.enforceNotMainLooper();
+
+        final ArrayList<ContentProviderOperation> operations = new ArrayList<>();
+        final List<Integer> instanceOperations = new ArrayList<>();
+        final List<AlarmInstance> instances = new ArrayList<>();
+        final Calendar now = Calendar.getInstance();
+        int count = 0;
+
+        final BufferedReader reader = new BufferedReader(in);
+        int lineNumber = 0;
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+
+            final Alarm alarm = parseAlarm(line, lineNumber);
+            final int alarmOperation = operations.size();
+            operations.add(ContentProviderOperation.newInsert(Alarm.CONTENT_URI)
+                    .withValues(Alarm.createContentValues(alarm))
+                    .build());
+            count++;
+
+            if (alarm.enabled) {
+                // The alarm id is not known until the alarm row is inserted.
+                final AlarmInstance instance = alarm.createInstanceAfter(now);
+                instanceOperations.add(operations.size());
+                instances.add(instance);
+                operations.add(ContentProviderOperation.newInsert(AlarmInstance.CONTENT_URI)
+                        .withValues(AlarmInstance.createContentValues(instance))
+                        .withValueBackReference(AlarmInstance.ALARM_ID, alarmOperation)
+                        .build());
+            }
+        }
+
+        if (operations.isEmpty()) {
+            return 0;
+        }
+
+        final ContentProviderResult[] results;
+        try {
+            results = context.getContentResolver().applyBatch(ClockContract.AUTHORITY, operations);
+        } catch (OperationApplicationException | RemoteException e) {
+            throw new IOException("Failed to import alarms", e);
+        }
+
+        for (int i = 0; i < instances.size(); i++) {
+            // Each instance is inserted immediately after its alarm.
+            final int operation = instanceOperations.get(i);
+            final AlarmInstance instance = instances.get(i);
+            instance.mAlarmId = Alarm.getId(results[operation - 1].uri);
+            instance.mId = AlarmInstance.getId(results[operation].uri);
+        }
+
+        // Schedule every new instance, then the next alarm, in one pass.
+        AlarmStateManager.registerInstances(context, instances);
+
+        LOGGER.i("Imported %d alarms with %d instances", count, instances.size());
+        return count;
+    }
+
+    private static Alarm parseAlarm(String line, int lineNumber) throws IOException {
+        try {
+            final JSONObject json = new JSONObject(line);
+            final int hour = json.getInt(KEY_HOUR);
+            final int minutes = json.getInt(KEY_MINUTES);
+            if (hour < 0 || hour > 23 || minutes < 0 || minutes > 59) {
+                throw new IOException("Invalid time on line " + lineNumber);
+            }
+
+            final Alarm alarm = new Alarm(hour, minutes);
+            alarm.daysOfWeek = Weekdays.fromBits(json.optInt(KEY_DAYS, 0));
+            alarm.enabled = json.optBoolean(KEY_ENABLED, true);
+            alarm.vibrate = json.optBoolean(KEY_VIBRATE, alarm.vibrate);
+            alarm.label = json.optString(KEY_LABEL, "");
+            alarm.alert = json.isNull(KEY_RINGTONE)
+                    ? null : Uri.parse(json.getString(KEY_RINGTONE));
+            alarm.deleteAfterUse = json.optBoolean(KEY_DELETE_AFTER_USE, false);
+            alarm.increasingVolume = json.optBoolean(KEY_INCREASING_VOLUME, false);
+            return alarm;
+        } catch (JSONException e) {
+            throw new IOException("Malformed alarm on line " + lineNumber, e);
+        }
+    }
+}
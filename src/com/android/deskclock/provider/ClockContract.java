@@ -103,6 +103,13 @@ public final class ClockContract {
         Uri ALARMS_WITH_INSTANCES_URI = Uri.parse("content://" + AUTHORITY
                 + "/alarms_with_instances");
 
+        /**
+         * The content:// style URL under which single-row updates are broadcast as
+         * {@link AlarmChangeSet}s, identifying the affected alarm and the changed columns.
+         * Updates are reported here instead of through {@link #ALARMS_WITH_INSTANCES_URI}.
+         */
+        Uri ALARM_CHANGES_URI = Uri.parse("content://" + AUTHORITY + "/alarm_changes");
+
         /**
          * Hour in 24-hour localtime 0 - 23.
          * <p>Type: INTEGER</p>
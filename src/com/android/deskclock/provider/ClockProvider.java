@@ -22,10 +22,13 @@ import static com.android.deskclock.provider.ClockDatabaseHelper.ALARMS_TABLE_NA
 import static com.android.deskclock.provider.ClockDatabaseHelper.INSTANCES_TABLE_NAME;
 
 import android.content.ContentProvider;
+import android.content.ContentProviderOperation;
+import android.content.ContentProviderResult;
 import android.content.ContentResolver;
 import android.content.ContentUris;
 import android.content.ContentValues;
 import android.content.Context;
+import android.content.OperationApplicationException;
 import android.content.UriMatcher;
 import android.database.Cursor;
 import android.database.sqlite.SQLiteDatabase;
@@ -33,17 +36,28 @@ import android.database.sqlite.SQLiteQueryBuilder;
 import android.net.Uri;
 import android.text.TextUtils;
 import android.util.ArrayMap;
+import android.util.ArraySet;
 
 import androidx.annotation.NonNull;
 
 import com.android.deskclock.LogUtils;
+import com.android.deskclock.perf.Perf;
 
+import java.util.ArrayList;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 public class ClockProvider extends ContentProvider {
 
     private ClockDatabaseHelper mOpenHelper;
 
+    /**
+     * The uris to notify once the batch running on the current thread commits, or {@code null}
+     * if no batch is running on the current thread.
+     */
+    private final ThreadLocal<Set<Uri>> mBatchNotifications = new ThreadLocal<>();
+
     private static final int ALARMS = 1;
     private static final int ALARMS_ID = 2;
     private static final int INSTANCES = 3;
@@ -142,6 +156,7 @@ public class ClockProvider extends ContentProvider {
     @Override
     public Cursor query(@NonNull Uri uri, String[] projectionIn, String selection,
             String[] selectionArgs, String sort) {
+        final long start = Perf.begin();
         SQLiteQueryBuilder qb = new SQLiteQueryBuilder();
         SQLiteDatabase db = mOpenHelper.getReadableDatabase();
 
@@ -181,6 +196,7 @@ public class ClockProvider extends ContentProvider {
             ret.setNotificationUri(getContext().getContentResolver(), uri);
         }
 
+        Perf.end(Perf.PROVIDER_QUERY, start);
         return ret;
     }
 
@@ -205,16 +221,19 @@ public class ClockProvider extends ContentProvider {
     public int update(@NonNull Uri uri, ContentValues values, String where, String[] whereArgs) {
         int count;
         String alarmId;
+        final AlarmChangeSet changeSet;
         SQLiteDatabase db = mOpenHelper.getWritableDatabase();
         switch (sURIMatcher.match(uri)) {
             case ALARMS_ID:
                 alarmId = uri.getLastPathSegment();
+                changeSet = computeAlarmChangeSet(db, Long.parseLong(alarmId), values);
                 count = db.update(ALARMS_TABLE_NAME, values,
                         AlarmsColumns._ID + "=" + alarmId,
                         null);
                 break;
             case INSTANCES_ID:
                 alarmId = uri.getLastPathSegment();
+                changeSet = computeInstanceChangeSet(db, Long.parseLong(alarmId), values);
                 count = db.update(INSTANCES_TABLE_NAME, values,
                         InstancesColumns._ID + "=" + alarmId,
                         null);
@@ -223,8 +242,24 @@ public class ClockProvider extends ContentProvider {
                 throw new UnsupportedOperationException("Cannot update URI: " + uri);
             }
         }
-        LogUtils.v("*** notifyChange() id: " + alarmId + " url " + uri);
-        notifyChange(getContext().getContentResolver(), uri);
+
+        if (changeSet == null) {
+            // The row is missing or the update did not change any values; nobody needs to know.
+            return count;
+        }
+
+        final Set<Uri> batchNotifications = mBatchNotifications.get();
+        if (batchNotifications != null) {
+            // Observers cannot scope a batch to single rows, so ask them to reload everything.
+            batchNotifications.add(getTableUri(uri));
+            batchNotifications.add(AlarmsColumns.ALARM_CHANGES_URI);
+            return count;
+        }
+
+        LogUtils.v("*** notifyChange() id: %s url %s", alarmId, uri);
+        final ContentResolver resolver = getContext().getContentResolver();
+        resolver.notifyChange(uri, null);
+        resolver.notifyChange(changeSet.toUri(), null);
         return count;
     }
 
@@ -248,6 +283,52 @@ public class ClockProvider extends ContentProvider {
         return uriResult;
     }
 
+    /**
+     * Inserts all rows in a single transaction; observers are notified once it commits.
+     */
+    @Override
+    public int bulkInsert(@NonNull Uri uri, @NonNull ContentValues[] values) {
+        final int match = sURIMatcher.match(uri);
+        if (match != ALARMS && match != INSTANCES) {
+            throw new IllegalArgumentException("Cannot insert from URI: " + uri);
+        }
+
+        final SQLiteDatabase db = mOpenHelper.getWritableDatabase();
+        final boolean outermost = beginBatch(db);
+        boolean successful = false;
+        try {
+            for (ContentValues rowValues : values) {
+                insert(uri, rowValues);
+            }
+            db.setTransactionSuccessful();
+            successful = true;
+        } finally {
+            endBatch(db, outermost, successful);
+        }
+        return values.length;
+    }
+
+    /**
+     * Applies all operations in a single transaction; observers are notified once it commits.
+     */
+    @NonNull
+    @Override
+    public ContentProviderResult[] applyBatch(
+            @NonNull ArrayList<ContentProviderOperation> operations)
+            throws OperationApplicationException {
+        final SQLiteDatabase db = mOpenHelper.getWritableDatabase();
+        final boolean outermost = beginBatch(db);
+        boolean successful = false;
+        try {
+            final ContentProviderResult[] results = super.applyBatch(operations);
+            db.setTransactionSuccessful();
+            successful = true;
+            return results;
+        } finally {
+            endBatch(db, outermost, successful);
+        }
+    }
+
     @Override
     public int delete(@NonNull Uri uri, String where, String[] whereArgs) {
         int count;
@@ -290,12 +371,156 @@ public class ClockProvider extends ContentProvider {
      * Notify affected URIs of changes.
      */
     private void notifyChange(ContentResolver resolver, Uri uri) {
+        final int match = sURIMatcher.match(uri);
+        final boolean joined = match == ALARMS || match == INSTANCES
+                || match == ALARMS_ID || match == INSTANCES_ID;
+
+        final Set<Uri> batchNotifications = mBatchNotifications.get();
+        if (batchNotifications != null) {
+            batchNotifications.add(getTableUri(uri));
+            if (joined) {
+                batchNotifications.add(AlarmsColumns.ALARMS_WITH_INSTANCES_URI);
+            }
+            return;
+        }
+
         resolver.notifyChange(uri, null);
 
-        final int match = sURIMatcher.match(uri);
         // Also notify the joined table of changes to instances or alarms.
-        if (match == ALARMS || match == INSTANCES || match == ALARMS_ID || match == INSTANCES_ID) {
+        if (joined) {
             resolver.notifyChange(AlarmsColumns.ALARMS_WITH_INSTANCES_URI, null);
         }
     }
+
+    /**
+     * Starts a transaction whose change notifications are deferred until it commits. Batches
+     * may nest; only the outermost batch sends notifications.
+     *
+     * @return {@code true} if this is the outermost batch on the current thread
+     */
+    private boolean beginBatch(SQLiteDatabase db) {
+        final boolean outermost = mBatchNotifications.get() == null;
+        if (outermost) {
+            mBatchNotifications.set(new ArraySet<>());
+        }
+        db.beginTransaction();
+        return outermost;
+    }
+
+    /**
+     * Ends a transaction started by {@link #beginBatch} and, if it was the outermost batch and
+     * it committed, notifies each affected uri once.
+     */
+    private void endBatch(SQLiteDatabase db, boolean outermost, boolean successful) {
+        try {
+            db.endTransaction();
+        } finally {
+            if (outermost) {
+                final Set<Uri> uris = mBatchNotifications.get();
+                mBatchNotifications.remove();
+                if (successful) {
+                    final ContentResolver resolver = getContext().getContentResolver();
+                    for (Uri uri : uris) {
+                        resolver.notifyChange(uri, null);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the uri of the table containing the row identified by {@code uri}; notifying it
+     *      also notifies observers of every row in the table
+     */
+    private static Uri getTableUri(Uri uri) {
+        switch (sURIMatcher.match(uri)) {
+            case ALARMS:
+            case ALARMS_ID:
+                return AlarmsColumns.CONTENT_URI;
+            case INSTANCES:
+            case INSTANCES_ID:
+                return InstancesColumns.CONTENT_URI;
+            default:
+                return uri;
+        }
+    }
+
+    /**
+     * @return the change set describing the columns of the alarm that {@code values} will change
+     *      or {@code null} if the alarm does not exist or nothing would change
+     */
+    private static AlarmChangeSet computeAlarmChangeSet(SQLiteDatabase db, long alarmId,
+            ContentValues values) {
+        final String[] columns = values.keySet().toArray(new String[0]);
+        try (Cursor cursor = db.query(ALARMS_TABLE_NAME, columns,
+                AlarmsColumns._ID + "=" + alarmId, null, null, null, null)) {
+            if (cursor == null || !cursor.moveToFirst()) {
+                return null;
+            }
+
+            final Set<String> changed = getChangedColumns(cursor, values);
+            return changed.isEmpty() ? null : AlarmChangeSet.forAlarm(alarmId, changed);
+        }
+    }
+
+    /**
+     * @return the change set describing the columns of the instance that {@code values} will
+     *      change or {@code null} if the instance does not exist or nothing would change
+     */
+    private static AlarmChangeSet computeInstanceChangeSet(SQLiteDatabase db, long instanceId,
+            ContentValues values) {
+        final Set<String> keys = values.keySet();
+        final String[] columns = new String[keys.size() + 1];
+        columns[0] = InstancesColumns.ALARM_ID;
+        int i = 1;
+        for (String key : keys) {
+            columns[i++] = key;
+        }
+
+        try (Cursor cursor = db.query(INSTANCES_TABLE_NAME, columns,
+                InstancesColumns._ID + "=" + instanceId, null, null, null, null)) {
+            if (cursor == null || !cursor.moveToFirst()) {
+                return null;
+            }
+
+            final Set<String> changed = getChangedColumns(cursor, values);
+            if (changed.isEmpty()) {
+                return null;
+            }
+
+            // Report the owning alarm after the update, in case the instance is being reassigned.
+            final Long newAlarmId = values.getAsLong(InstancesColumns.ALARM_ID);
+            final long alarmId = newAlarmId != null ? newAlarmId : cursor.getLong(0);
+            final Integer state = values.getAsInteger(InstancesColumns.ALARM_STATE);
+            final int newState = state != null && changed.contains(InstancesColumns.ALARM_STATE)
+                    ? state : -1;
+            return AlarmChangeSet.forInstance(alarmId, instanceId, newState, changed);
+        }
+    }
+
+    /**
+     * @param cursor positioned on the current row, with columns named after the keys of
+     *      {@code values}
+     * @return the names of the columns whose stored value differs from {@code values}
+     */
+    private static Set<String> getChangedColumns(Cursor cursor, ContentValues values) {
+        final Set<String> changed = new ArraySet<>();
+        for (String column : values.keySet()) {
+            final int index = cursor.getColumnIndex(column);
+            if (index == -1) {
+                changed.add(column);
+                continue;
+            }
+
+            final String oldValue = cursor.isNull(index) ? null : cursor.getString(index);
+            final Object value = values.get(column);
+            // SQLite stores booleans as integers, so compare them the same way.
+            final String newValue = value instanceof Boolean
+                    ? ((Boolean) value ? "1" : "0") : values.getAsString(column);
+            if (!Objects.equals(oldValue, newValue)) {
+                changed.add(column);
+            }
+        }
+        return changed;
+    }
 }
@@ -22,11 +22,10 @@ import android.net.Uri;
 
 import com.android.deskclock.ItemAdapter;
 import com.android.deskclock.Utils;
-import com.android.deskclock.data.DataModel;
 
 abstract class RingtoneHolder extends ItemAdapter.ItemHolder<Uri> {
 
-    private final String mName;
+    private String mName;
     private final boolean mHasPermissions;
     private boolean mSelected;
     private boolean mPlaying;
@@ -52,7 +51,13 @@ abstract class RingtoneHolder extends ItemAdapter.ItemHolder<Uri> {
     boolean isPlaying() { return mPlaying; }
     void setPlaying(boolean playing) { mPlaying = playing; }
 
+    /**
+     * @return the title of the ringtone, or an empty placeholder while it is being resolved
+     */
     String getName() {
-        return mName != null ? mName : DataModel.getDataModel().getRingtoneTitle(getUri());
+        return mName != null ? mName : "";
     }
+
+    boolean hasName() { return mName != null; }
+    void setName(String name) { mName = name; }
 }
@@ -37,83 +37,168 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Assembles the list of ItemHolders that back the RecyclerView used to choose a ringtone.
+ * Assembles the list of ItemHolders that back the RecyclerView used to choose a ringtone. The
+ * list is delivered in pages: the first holds the headers, the custom ringtones and a screenful of
+ * system ringtones, and each later page appends a batch of the remaining system ringtones. Every
+ * delivery is a new list that repeats the holders of earlier pages, so consumers may either
+ * replace their data or append only what is new.
  */
 class RingtoneLoader extends AsyncTaskLoader<List<ItemAdapter.ItemHolder<Uri>>> {
 
+    /** The number of system ringtones in the first page; roughly one screenful. */
+    private static final int FIRST_PAGE_SIZE = 16;
+
+    /** The number of system ringtones in each later page. */
+    private static final int PAGE_SIZE = 64;
+
     private final Uri mDefaultRingtoneUri;
     private final String mDefaultRingtoneTitle;
     private List<CustomRingtone> mCustomRingtones;
 
+    /** Guards the paging state below, which is built on background threads. */
+    private final Object mLock = new Object();
+
+    /** The holders loaded so far; {@code null} before the first page is loaded. */
+    private List<ItemAdapter.ItemHolder<Uri>> mItemHolders;
+
+    /** Produces the system ringtone uris; {@code null} before the first page is loaded. */
+    private RingtoneManager mRingtoneManager;
+
+    /** The open system ringtone cursor; {@code null} once all system ringtones are loaded. */
+    private Cursor mSystemRingtoneCursor;
+
+    /** {@code true} while system ringtones remain to be loaded into later pages. */
+    private volatile boolean mHasMorePages;
+
     RingtoneLoader(Context context, Uri defaultRingtoneUri, String defaultRingtoneTitle) {
         super(context);
         mDefaultRingtoneUri = defaultRingtoneUri;
         mDefaultRingtoneTitle = defaultRingtoneTitle;
     }
 
+    /**
+     * @return {@code true} if the most recently loaded page is not the last one
+     */
+    boolean hasMorePages() {
+        return mHasMorePages;
+    }
+
     @Override
     protected void onStartLoading() {
         super.onStartLoading();
 
         mCustomRingtones = DataModel.getDataModel().getCustomRingtones();
+        closePages();
         forceLoad();
     }
 
     @Override
     public List<ItemAdapter.ItemHolder<Uri>> loadInBackground() {
-        // Prime the ringtone title cache for later access.
-        DataModel.getDataModel().loadRingtoneTitles();
+        synchronized (mLock) {
+            if (mItemHolders == null) {
+                loadFirstPage();
+            } else {
+                loadSystemRingtones(PAGE_SIZE);
+            }
+            return new ArrayList<>(mItemHolders);
+        }
+    }
+
+    @Override
+    public void deliverResult(List<ItemAdapter.ItemHolder<Uri>> itemHolders) {
+        super.deliverResult(itemHolders);
+
+        // Load the next page only after this one is displayed so the pages never compete.
+        if (isStarted() && mHasMorePages) {
+            forceLoad();
+        }
+    }
+
+    @Override
+    protected void onReset() {
+        super.onReset();
+        mCustomRingtones = null;
+        closePages();
+    }
+
+    private void loadFirstPage() {
         DataModel.getDataModel().loadRingtonePermissions();
 
         // Fetch the standard system ringtones.
-        final RingtoneManager ringtoneManager = new RingtoneManager(getContext());
-        ringtoneManager.setType(STREAM_ALARM);
+        mRingtoneManager = new RingtoneManager(getContext());
+        mRingtoneManager.setType(STREAM_ALARM);
 
-        Cursor systemRingtoneCursor;
         try {
-            systemRingtoneCursor = ringtoneManager.getCursor();
+            mSystemRingtoneCursor = mRingtoneManager.getCursor();
         } catch (Exception e) {
             LogUtils.e("Could not get system ringtone cursor");
-            systemRingtoneCursor = new MatrixCursor(new String[] {});
+            mSystemRingtoneCursor = new MatrixCursor(new String[] {});
         }
-        final int systemRingtoneCount = systemRingtoneCursor.getCount();
+        final int systemRingtoneCount = mSystemRingtoneCursor.getCount();
         // item count = # system ringtones + # custom ringtones + 2 headers + Add new music item
         final int itemCount = systemRingtoneCount + mCustomRingtones.size() + 3;
 
-        final List<ItemAdapter.ItemHolder<Uri>> itemHolders = new ArrayList<>(itemCount);
+        mItemHolders = new ArrayList<>(itemCount);
 
         // Add the item holder for the Music heading.
-        itemHolders.add(new HeaderHolder(R.string.your_sounds));
+        mItemHolders.add(new HeaderHolder(R.string.your_sounds));
 
         // Add an item holder for each custom ringtone and also cache a pretty name.
         for (CustomRingtone ringtone : mCustomRingtones) {
-            itemHolders.add(new CustomRingtoneHolder(ringtone));
+            mItemHolders.add(new CustomRingtoneHolder(ringtone));
         }
 
         // Add an item holder for the "Add new" music ringtone.
-        itemHolders.add(new AddCustomRingtoneHolder());
+        mItemHolders.add(new AddCustomRingtoneHolder());
 
         // Add an item holder for the Ringtones heading.
-        itemHolders.add(new HeaderHolder(R.string.device_sounds));
+        mItemHolders.add(new HeaderHolder(R.string.device_sounds));
 
         // Add an item holder for the silent ringtone.
-        itemHolders.add(new SystemRingtoneHolder(RINGTONE_SILENT, null));
+        final String silentTitle = getContext().getString(R.string.silent_ringtone_title);
+        mItemHolders.add(new SystemRingtoneHolder(RINGTONE_SILENT, silentTitle));
 
         // Add an item holder for the system default alarm sound.
-        itemHolders.add(new SystemRingtoneHolder(mDefaultRingtoneUri, mDefaultRingtoneTitle));
+        mItemHolders.add(new SystemRingtoneHolder(mDefaultRingtoneUri, mDefaultRingtoneTitle));
+
+        loadSystemRingtones(FIRST_PAGE_SIZE);
+    }
 
-        // Add an item holder for each system ringtone.
-        for (int i = 0; i < systemRingtoneCount; i++) {
-            final Uri ringtoneUri = ringtoneManager.getRingtoneUri(i);
-            itemHolders.add(new SystemRingtoneHolder(ringtoneUri, null));
+    /**
+     * Adds an item holder for each of the next {@code count} system ringtones. Titles are read
+     * from the cursor; holders whose title is missing are resolved later by the picker.
+     */
+    private void loadSystemRingtones(int count) {
+        final Cursor cursor = mSystemRingtoneCursor;
+        if (cursor == null) {
+            return;
         }
 
-        return itemHolders;
+        for (int i = 0; i < count && cursor.moveToNext(); i++) {
+            final Uri ringtoneUri = mRingtoneManager.getRingtoneUri(cursor.getPosition());
+            final String title = cursor.getString(RingtoneManager.TITLE_COLUMN_INDEX);
+            mItemHolders.add(new SystemRingtoneHolder(ringtoneUri, title));
+        }
+
+        mHasMorePages = !cursor.isLast() && !cursor.isAfterLast() && cursor.getCount() > 0;
+        if (!mHasMorePages) {
+            cursor.close();
+            mSystemRingtoneCursor = null;
+        }
     }
 
-    @Override
-    protected void onReset() {
-        super.onReset();
-        mCustomRingtones = null;
+    /**
+     * Discards all loaded pages so that the next load starts over from the first page.
+     */
+    private void closePages() {
+        synchronized (mLock) {
+            if (mSystemRingtoneCursor != null) {
+                mSystemRingtoneCursor.close();
+                mSystemRingtoneCursor = null;
+            }
+            mRingtoneManager = null;
+            mItemHolders = null;
+            mHasMorePages = false;
+        }
     }
 }
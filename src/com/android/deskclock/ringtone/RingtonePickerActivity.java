@@ -60,6 +60,7 @@ import com.android.deskclock.data.DataModel;
 import com.android.deskclock.provider.Alarm;
 import com.android.deskclock.widget.CollapsingToolbarBaseActivity;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -112,6 +113,15 @@ public class RingtonePickerActivity extends CollapsingToolbarBaseActivity
     /** Identifies the alarm to receive the selected ringtone; -1 indicates there is no alarm. */
     private long mAlarmId;
 
+    /** The most recent page delivered by the {@link RingtoneLoader}. */
+    private List<ItemAdapter.ItemHolder<Uri>> mLoadedItemHolders;
+
+    /** Resolves, one at a time, the titles of system ringtones the loader could not name. */
+    private final ExecutorService mTitleExecutor = Executors.newSingleThreadExecutor();
+
+    /** Delivers resolved titles to the main thread. */
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+
     /**
      * @return an intent that launches the ringtone picker to edit the ringtone of the given
      *      {@code alarm}
@@ -224,6 +234,12 @@ public class RingtonePickerActivity extends CollapsingToolbarBaseActivity
         super.onStop();
     }
 
+    @Override
+    protected void onDestroy() {
+        mTitleExecutor.shutdownNow();
+        super.onDestroy();
+    }
+
     @Override
     protected void onSaveInstanceState(@NonNull Bundle outState) {
         super.onSaveInstanceState(outState);
@@ -242,12 +258,31 @@ public class RingtonePickerActivity extends CollapsingToolbarBaseActivity
     @Override
     public void onLoadFinished(@NonNull Loader<List<ItemAdapter.ItemHolder<Uri>>> loader,
                                List<ItemAdapter.ItemHolder<Uri>> itemHolders) {
-        // Update the adapter with fresh data.
-        mRingtoneAdapter.setItems(itemHolders);
+        // Later pages repeat the holders of earlier ones; append only the new holders so the
+        // selection, playback and scroll position are undisturbed.
+        final List<ItemAdapter.ItemHolder<Uri>> loaded = mLoadedItemHolders;
+        final boolean nextPage = loaded != null && !loaded.isEmpty() && !itemHolders.isEmpty()
+                && loaded.get(0) == itemHolders.get(0);
+        final List<ItemAdapter.ItemHolder<Uri>> added;
+        if (nextPage) {
+            added = itemHolders.subList(loaded.size(), itemHolders.size());
+            mRingtoneAdapter.addItems(added);
+        } else {
+            // Update the adapter with fresh data.
+            added = itemHolders;
+            mRingtoneAdapter.setItems(new ArrayList<>(itemHolders));
+        }
+        mLoadedItemHolders = itemHolders;
+        resolveTitlesAsync(added);
+
+        final boolean lastPage = !((RingtoneLoader) loader).hasMorePages();
 
         // Attempt to select the requested ringtone.
         final RingtoneHolder toSelect = getRingtoneHolder(mSelectedRingtoneUri);
-        if (toSelect != null) {
+        if (toSelect != null && toSelect.isSelected()) {
+            // The ringtone was selected when an earlier page was delivered.
+            return;
+        } else if (toSelect != null) {
             toSelect.setSelected(true);
             mSelectedRingtoneUri = toSelect.getUri();
             toSelect.notifyItemChanged();
@@ -256,7 +291,7 @@ public class RingtonePickerActivity extends CollapsingToolbarBaseActivity
             if (mIsPlaying) {
                 startPlayingRingtone(toSelect);
             }
-        } else {
+        } else if (lastPage) {
             // Clear the selection since it does not exist in the data.
             RingtonePreviewKlaxon.stop(this);
             mSelectedRingtoneUri = null;
@@ -265,7 +300,9 @@ public class RingtonePickerActivity extends CollapsingToolbarBaseActivity
     }
 
     @Override
-    public void onLoaderReset(@NonNull Loader<List<ItemAdapter.ItemHolder<Uri>>> loader) {}
+    public void onLoaderReset(@NonNull Loader<List<ItemAdapter.ItemHolder<Uri>>> loader) {
+        mLoadedItemHolders = null;
+    }
 
     @Override
     protected void onActivityResult(int requestCode, int resultCode, Intent data) {
@@ -289,6 +326,39 @@ public class RingtonePickerActivity extends CollapsingToolbarBaseActivity
         addCustomRingtoneAsync(uri);
     }
 
+    /**
+     * Looks up, in the background, the titles of the given ringtones that have none yet and shows
+     * each one as soon as it is known. Until then the ringtones display a placeholder.
+     */
+    private void resolveTitlesAsync(List<ItemAdapter.ItemHolder<Uri>> itemHolders) {
+        for (ItemAdapter.ItemHolder<Uri> itemHolder : itemHolders) {
+            if (!(itemHolder instanceof RingtoneHolder)) {
+                continue;
+            }
+
+            final RingtoneHolder ringtoneHolder = (RingtoneHolder) itemHolder;
+            if (ringtoneHolder.hasName()) {
+                continue;
+            }
+
+            final Uri uri = ringtoneHolder.getUri();
+            final Context context = getApplicationContext();
+            mTitleExecutor.execute(() -> {
+                String title = DataModel.getDataModel().queryRingtoneTitle(uri);
+                if (title == null) {
+                    LogUtils.e("No ringtone for uri: %s", uri);
+                    title = context.getString(R.string.unknown_ringtone_title);
+                }
+
+                final String name = title;
+                mHandler.post(() -> {
+                    ringtoneHolder.setName(name);
+                    ringtoneHolder.notifyItemChanged();
+                });
+            });
+        }
+    }
+
     private void onItemRemovedClicked(int indexOfRingtoneToRemove) {
         // Find the ringtone to be removed.
         final List<ItemAdapter.ItemHolder<Uri>> items = mRingtoneAdapter.getItems();
@@ -35,6 +35,7 @@ public final class ScreensaverSettingsActivity extends CollapsingToolbarBaseActi
 
     public static final String KEY_CLOCK_STYLE = "screensaver_clock_style";
     public static final String KEY_NIGHT_MODE = "screensaver_night_mode";
+    public static final String KEY_LOW_POWER = "screensaver_low_power";
     private static final String PREFS_FRAGMENT_TAG = "prefs_fragment";
 
     @Override
@@ -93,13 +94,15 @@ public final class ScreensaverSettingsActivity extends CollapsingToolbarBaseActi
         private void refresh() {
             final ListPreference clockStylePref = findPreference(KEY_CLOCK_STYLE);
             final CheckBoxPreference nightModePref = findPreference(KEY_NIGHT_MODE);
-            if (clockStylePref != null && nightModePref != null) {
+            final CheckBoxPreference lowPowerPref = findPreference(KEY_LOW_POWER);
+            if (clockStylePref != null && nightModePref != null && lowPowerPref != null) {
                 final int index = clockStylePref.findIndexOfValue(DataModel.getDataModel().
                         getScreensaverClockStyle().toString().toLowerCase());
                 clockStylePref.setValueIndex(index);
                 clockStylePref.setSummary(clockStylePref.getEntries()[index]);
                 clockStylePref.setOnPreferenceChangeListener(this);
                 nightModePref.setChecked(DataModel.getDataModel().getScreensaverNightModeOn());
+                lowPowerPref.setChecked(DataModel.getDataModel().getScreensaverLowPowerOn());
             }
         }
     }
@@ -102,7 +102,7 @@ class LapsAdapter extends RecyclerView.Adapter<LapsAdapter.LapItemHolder> {
             totalTime = lap.getAccumulatedTime();
         } else {
             // For the current lap, compute times relative to the stopwatch.
-            totalTime = getStopwatch().getTotalTime();
+            totalTime = getStopwatch().getTotalTime(getFrameTime());
             lapTime = DataModel.getDataModel().getCurrentLapTime(totalTime);
             lapNumber = getLaps().size() + 1;
         }
@@ -319,7 +319,7 @@ class LapsAdapter extends RecyclerView.Adapter<LapsAdapter.LapItemHolder> {
      * @return a formatted version of the accumulated time
      */
     private String formatAccumulatedTime(long accumulatedTime, boolean isBinding) {
-        final long totalTime = getStopwatch().getTotalTime();
+        final long totalTime = getStopwatch().getTotalTime(getFrameTime());
         final long longestAccumulatedTime = Math.max(totalTime, accumulatedTime);
         final String formattedTime = formatTime(longestAccumulatedTime, accumulatedTime, LRM_SPACE);
 
@@ -337,6 +337,13 @@ class LapsAdapter extends RecyclerView.Adapter<LapsAdapter.LapItemHolder> {
         return DataModel.getDataModel().getStopwatch();
     }
 
+    /**
+     * @return the elapsed realtime shared by all laps drawn in the current frame
+     */
+    private static long getFrameTime() {
+        return DataModel.getDataModel().getFrameClock().elapsedRealtime();
+    }
+
     private List<Lap> getLaps() {
         return DataModel.getDataModel().getLaps();
     }
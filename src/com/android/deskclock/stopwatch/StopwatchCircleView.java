@@ -30,6 +30,7 @@ import com.android.deskclock.ThemeUtils;
 import com.android.deskclock.data.DataModel;
 import com.android.deskclock.data.Lap;
 import com.android.deskclock.data.Stopwatch;
+import com.android.deskclock.widget.CircleTrack;
 
 import java.util.List;
 
@@ -59,6 +60,12 @@ public final class StopwatchCircleView extends View {
     private final Paint mFill = new Paint();
     private final RectF mArcRect = new RectF();
 
+    /** The cached circle beneath the arc indicating the completed portion of the lap. */
+    private final CircleTrack mTrack = new CircleTrack();
+
+    /** Redraws once the completed arc has grown by a pixel. */
+    private final Runnable mInvalidate = this::invalidate;
+
     @SuppressWarnings("unused")
     public StopwatchCircleView(Context context) {
         this(context, null);
@@ -100,15 +107,15 @@ public final class StopwatchCircleView extends View {
         final float radius = Math.min(xCenter, yCenter) - mStrokeSize;
 
         // Reset old painting state.
-        mPaint.setColor(mCircleColor);
         mPaint.setStrokeWidth(mStrokeSize);
 
+        // Draw a complete white circle to indicate the amount of reference lap that remains.
+        mTrack.draw(canvas, getWidth(), getHeight(), radius, mStrokeSize, mCircleColor);
+
         final List<Lap> laps = getLaps();
 
         // If a reference lap does not exist or should not be drawn, draw a simple white circle.
         if (laps.isEmpty() || !DataModel.getDataModel().canAddMoreLaps()) {
-            // Draw a complete white circle; no red arc required.
-            canvas.drawCircle(xCenter, yCenter, radius, mPaint);
 
             // No need to continue animating the plain white circle.
             return;
@@ -120,18 +127,15 @@ public final class StopwatchCircleView extends View {
         final Lap firstLap = laps.get(lapCount - 1);
         final Lap priorLap = laps.get(0);
         final long firstLapTime = firstLap.getLapTime();
-        final long currentLapTime = stopwatch.getTotalTime() - priorLap.getAccumulatedTime();
+        final long now = DataModel.getDataModel().getFrameClock().elapsedRealtime();
+        final long currentLapTime = stopwatch.getTotalTime(now) - priorLap.getAccumulatedTime();
 
-        // Draw a combination of red and white arcs to create a circle.
+        // Draw a red arc over the white circle.
         mArcRect.top = yCenter - radius;
         mArcRect.bottom = yCenter + radius;
         mArcRect.left =  xCenter - radius;
         mArcRect.right = xCenter + radius;
         final float redPercent = (float) currentLapTime / (float) firstLapTime;
-        final float whitePercent = 1 - (redPercent > 1 ? 1 : redPercent);
-        // Draw a white arc to indicate the amount of reference lap that remains.
-        canvas.drawArc(mArcRect, 270 + (1 - whitePercent) * 360, whitePercent * 360, false, mPaint);
-        // Draw a red arc to indicate the amount of reference lap completed.
 
         // Draw an arc to indicate the amount of reference lap completed.
         mPaint.setColor(mCompletedColor);
@@ -156,10 +160,21 @@ public final class StopwatchCircleView extends View {
 
         // If the stopwatch is not running it does not require continuous updates.
         if (stopwatch.isRunning()) {
-            postInvalidateOnAnimation();
+            // Skip the frames in which the arc and dot would not move by a whole pixel.
+            final long delay =
+                    CircleTrack.getProgressToNextPixel(currentLapTime, firstLapTime, radius);
+            removeCallbacks(mInvalidate);
+            postOnAnimationDelayed(mInvalidate, delay);
         }
     }
 
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        removeCallbacks(mInvalidate);
+        mTrack.release();
+    }
+
     private Stopwatch getStopwatch() {
         return DataModel.getDataModel().getStopwatch();
     }
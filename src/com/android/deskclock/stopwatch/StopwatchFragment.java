@@ -63,6 +63,7 @@ import com.android.deskclock.data.Lap;
 import com.android.deskclock.data.Stopwatch;
 import com.android.deskclock.data.StopwatchListener;
 import com.android.deskclock.events.Events;
+import com.android.deskclock.perf.Perf;
 import com.android.deskclock.uidata.TabListener;
 import com.android.deskclock.uidata.UiDataModel;
 import com.android.deskclock.uidata.UiDataModel.Tab;
@@ -485,7 +486,8 @@ public final class StopwatchFragment extends DeskClockFragment {
     private void updateTime() {
         // Compute the total time of the stopwatch.
         final Stopwatch stopwatch = getStopwatch();
-        final long totalTime = stopwatch.getTotalTime();
+        final long totalTime =
+                stopwatch.getTotalTime(DataModel.getDataModel().getFrameClock().elapsedRealtime());
         mStopwatchTextController.setTimeString(totalTime);
 
         // Update the current lap.
@@ -528,6 +530,7 @@ public final class StopwatchFragment extends DeskClockFragment {
         @Override
         public void run() {
             final long startTime = Utils.now();
+            final long tickStart = Perf.begin();
 
             updateTime();
 
@@ -545,6 +548,7 @@ public final class StopwatchFragment extends DeskClockFragment {
                 mMainTimeText.setAlpha(1f);
                 mHundredthsTimeText.setAlpha(1f);
             }
+            Perf.end(Perf.FRAME_TICK, tickStart);
 
             if (!stopwatch.isReset()) {
                 final long period = stopwatch.isPaused()
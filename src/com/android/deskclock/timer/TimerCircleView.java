@@ -26,7 +26,9 @@ import android.view.View;
 
 import com.android.deskclock.R;
 import com.android.deskclock.ThemeUtils;
+import com.android.deskclock.data.DataModel;
 import com.android.deskclock.data.Timer;
+import com.android.deskclock.widget.CircleTrack;
 
 /**
  * Custom view that draws timer progress as a circle.
@@ -49,6 +51,12 @@ public final class TimerCircleView extends View {
     private final Paint mFill = new Paint();
     private final RectF mArcRect = new RectF();
 
+    /** The cached circle beneath the arc indicating the completed portion of the timer. */
+    private final CircleTrack mTrack = new CircleTrack();
+
+    /** Redraws once the completed arc has grown by a pixel. */
+    private final Runnable mInvalidate = this::invalidate;
+
     private Timer mTimer;
 
     @SuppressWarnings("unused")
@@ -93,14 +101,13 @@ public final class TimerCircleView extends View {
         final float radius = Math.min(xCenter, yCenter) - mStrokeSize;
 
         // Reset old painting state.
-        mPaint.setColor(mRemainderColor);
         mPaint.setStrokeWidth(mStrokeSize);
 
         // If the timer is reset, draw a simple white circle.
         final float redPercent;
         if (mTimer.isReset()) {
             // Draw a complete white circle; no red arc required.
-            canvas.drawCircle(xCenter, yCenter, radius, mPaint);
+            mTrack.draw(canvas, getWidth(), getHeight(), radius, mStrokeSize, mRemainderColor);
 
             // Red percent is 0 since no timer progress has been made.
             redPercent = 0;
@@ -113,20 +120,29 @@ public final class TimerCircleView extends View {
             // Red percent is 1 since the timer has expired.
             redPercent = 1;
         } else {
-            // Draw a combination of red and white arcs to create a circle.
+            // Draw a complete white circle to indicate the amount of timer that remains.
+            mTrack.draw(canvas, getWidth(), getHeight(), radius, mStrokeSize, mRemainderColor);
+
             mArcRect.top = yCenter - radius;
             mArcRect.bottom = yCenter + radius;
             mArcRect.left = xCenter - radius;
             mArcRect.right = xCenter + radius;
-            redPercent = Math.min(1, (float) mTimer.getElapsedTime() / (float) mTimer.getTotalLength());
-            final float whitePercent = 1 - redPercent;
-
-            // Draw a white arc to indicate the amount of timer that remains.
-            canvas.drawArc(mArcRect, 270, whitePercent * 360, false, mPaint);
+            final long now = DataModel.getDataModel().getFrameClock().elapsedRealtime();
+            final long elapsedTime = mTimer.getElapsedTime(now);
+            final long totalLength = mTimer.getTotalLength();
+            redPercent = Math.min(1, (float) elapsedTime / (float) totalLength);
 
-            // Draw a red arc to indicate the amount of timer completed.
+            // Draw a red arc over it to indicate the amount of timer completed.
             mPaint.setColor(mCompletedColor);
             canvas.drawArc(mArcRect, 270, -redPercent * 360 , false, mPaint);
+
+            if (mTimer.isRunning()) {
+                // Skip the frames in which the arc would not move by a whole pixel.
+                final long delay =
+                        CircleTrack.getProgressToNextPixel(elapsedTime, totalLength, radius);
+                removeCallbacks(mInvalidate);
+                postOnAnimationDelayed(mInvalidate, delay);
+            }
         }
 
         // Draw a dot to indicate current progress through the timer.
@@ -135,9 +151,12 @@ public final class TimerCircleView extends View {
         final float dotX = xCenter + (float) (radius * Math.cos(dotAngleRadians));
         final float dotY = yCenter + (float) (radius * Math.sin(dotAngleRadians));
         canvas.drawCircle(dotX, dotY, mDotRadius, mFill);
+    }
 
-        if (mTimer.isRunning()) {
-            postInvalidateOnAnimation();
-        }
+    @Override
+    protected void onDetachedFromWindow() {
+        super.onDetachedFromWindow();
+        removeCallbacks(mInvalidate);
+        mTrack.release();
     }
 }
@@ -55,6 +55,7 @@ import com.android.deskclock.data.DataModel;
 import com.android.deskclock.data.Timer;
 import com.android.deskclock.data.TimerListener;
 import com.android.deskclock.events.Events;
+import com.android.deskclock.perf.Perf;
 import com.android.deskclock.uidata.UiDataModel;
 
 import java.io.Serializable;
@@ -510,8 +511,12 @@ public final class TimerFragment extends DeskClockFragment {
         @Override
         public void run() {
             final long startTime = SystemClock.elapsedRealtime();
+            final long tickStart = Perf.begin();
+            final boolean continuousUpdates = mAdapter.updateTime();
+            Perf.end(Perf.FRAME_TICK, tickStart);
+
             // If no timers require continuous updates, avoid scheduling the next update.
-            if (!mAdapter.updateTime()) {
+            if (!continuousUpdates) {
                 return;
             }
             final long endTime = SystemClock.elapsedRealtime();
@@ -21,7 +21,6 @@ import static android.R.attr.state_pressed;
 
 import android.content.Context;
 import android.content.res.ColorStateList;
-import android.os.SystemClock;
 import android.text.TextUtils;
 import android.util.AttributeSet;
 import android.view.View;
@@ -34,6 +33,7 @@ import androidx.constraintlayout.widget.ConstraintLayout;
 import com.android.deskclock.R;
 import com.android.deskclock.ThemeUtils;
 import com.android.deskclock.TimerTextController;
+import com.android.deskclock.data.DataModel;
 import com.android.deskclock.data.Timer;
 
 /**
@@ -97,7 +97,8 @@ public class TimerItem extends ConstraintLayout {
      */
     void update(Timer timer) {
         // Update the time.
-        mTimerTextController.setTimeString(timer.getRemainingTime());
+        final long now = DataModel.getDataModel().getFrameClock().elapsedRealtime();
+        mTimerTextController.setTimeString(timer.getRemainingTime(now));
 
         // Update the label if it changed.
         final String label = timer.getLabel();
@@ -106,7 +107,7 @@ public class TimerItem extends ConstraintLayout {
         }
 
         // Update visibility of things that may blink.
-        final boolean blinkOff = SystemClock.elapsedRealtime() % 1000 < 500;
+        final boolean blinkOff = now % 1000 < 500;
         if (mCircleView != null) {
             final boolean hideCircle = (timer.isExpired() || timer.isMissed()) && blinkOff;
             mCircleView.setVisibility(hideCircle ? INVISIBLE : VISIBLE);
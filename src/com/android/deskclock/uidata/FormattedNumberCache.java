@@ -0,0 +1,191 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.uidata;
+
+import java.util.Arrays;
+
+/**
+ * A fixed-capacity map from {@code long} keys to strings that evicts the least recently used
+ * entry when full. Keys are never boxed and lookups never allocate. Entries live in parallel
+ * arrays threaded onto a doubly-linked recency list, and are found through an open-addressing
+ * hash table with linear probing. Not thread-safe.
+ */
+final class FormattedNumberCache {
+
+    /** Marks an empty hash table slot or the end of the recency list. */
+    private static final int NONE = -1;
+
+    // Entries, indexed by entry number.
+    private final long[] mKeys;
+    private final String[] mValues;
+    private final int[] mNewer;
+    private final int[] mOlder;
+
+    /** Maps hash slots to entry numbers; sized to a power of two at most half full. */
+    private final int[] mTable;
+
+    private int mSize;
+
+    /** The most and least recently used entries. */
+    private int mNewest = NONE;
+    private int mOldest = NONE;
+
+    private long mHits;
+    private long mMisses;
+    private long mEvictions;
+
+    /**
+     * @param capacity the maximum number of entries retained
+     */
+    FormattedNumberCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        mKeys = new long[capacity];
+        mValues = new String[capacity];
+        mNewer = new int[capacity];
+        mOlder = new int[capacity];
+        mTable = new int[Integer.highestOneBit(capacity) << 2];
+        Arrays.fill(mTable, NONE);
+    }
+
+    /**
+     * @return the value cached for {@code key}, now the most recently used, or {@code null}
+     */
+    String get(long key) {
+        final int slot = findSlot(key);
+        if (slot == NONE) {
+            mMisses++;
+            return null;
+        }
+
+        mHits++;
+        final int entry = mTable[slot];
+        if (entry != mNewest) {
+            unlink(entry);
+            linkNewest(entry);
+        }
+        return mValues[entry];
+    }
+
+    /**
+     * Caches {@code value} for {@code key}, which must not already be cached, evicting the least
+     * recently used entry if the cache is full.
+     */
+    void put(long key, String value) {
+        final int entry;
+        if (mSize == mKeys.length) {
+            entry = mOldest;
+            removeSlot(findSlot(mKeys[entry]));
+            unlink(entry);
+            mEvictions++;
+        } else {
+            entry = mSize++;
+        }
+
+        mKeys[entry] = key;
+        mValues[entry] = value;
+        linkNewest(entry);
+
+        final int mask = mTable.length - 1;
+        int slot = hash(key) & mask;
+        while (mTable[slot] != NONE) {
+            slot = (slot + 1) & mask;
+        }
+        mTable[slot] = entry;
+    }
+
+    /**
+     * Removes every entry; the counters are retained.
+     */
+    void clear() {
+        Arrays.fill(mTable, NONE);
+        Arrays.fill(mValues, null);
+        mSize = 0;
+        mNewest = NONE;
+        mOldest = NONE;
+    }
+
+    int size() { return mSize; }
+    long getHits() { return mHits; }
+    long getMisses() { return mMisses; }
+    long getEvictions() { return mEvictions; }
+
+    /**
+     * @return the hash table slot holding {@code key}, or {@link #NONE} if it is not cached
+     */
+    private int findSlot(long key) {
+        final int mask = mTable.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            final int entry = mTable[slot];
+            if (entry == NONE) {
+                return NONE;
+            }
+            if (mKeys[entry] == key) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * Empties the given slot, shifting later entries of the same probe sequence back so that
+     * every remaining entry stays reachable from its home slot.
+     */
+    private void removeSlot(int slot) {
+        final int mask = mTable.length - 1;
+        int hole = slot;
+        for (int i = (slot + 1) & mask; mTable[i] != NONE; i = (i + 1) & mask) {
+            final int home = hash(mKeys[mTable[i]]) & mask;
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                mTable[hole] = mTable[i];
+                hole = i;
+            }
+        }
+        mTable[hole] = NONE;
+    }
+
+    private void linkNewest(int entry) {
+        mNewer[entry] = NONE;
+        mOlder[entry] = mNewest;
+        if (mNewest != NONE) {
+            mNewer[mNewest] = entry;
+        }
+        mNewest = entry;
+        if (mOldest == NONE) {
+            mOldest = entry;
+        }
+    }
+
+    private void unlink(int entry) {
+        final int newer = mNewer[entry];
+        final int older = mOlder[entry];
+        if (newer == NONE) {
+            mNewest = older;
+        } else {
+            mOlder[newer] = older;
+        }
+        if (older == NONE) {
+            mOldest = newer;
+        } else {
+            mNewer[older] = newer;
+        }
+    }
+
+    private static int hash(long key) {
+        return Long.hashCode(key * 0x9E3779B97F4A7C15L);
+    }
+}
@@ -23,8 +23,8 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
 import android.util.ArrayMap;
-import android.util.SparseArray;
 
+import java.text.DecimalFormatSymbols;
 import java.text.SimpleDateFormat;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
@@ -40,12 +40,21 @@ final class FormattedStringModel {
     @SuppressWarnings("FieldCanBeLocal")
     private final BroadcastReceiver mLocaleChangedReceiver = new LocaleChangedReceiver();
 
+    /** The number of formatted numbers retained; enough for every timer and stopwatch field. */
+    private static final int NUMBER_FORMAT_CACHE_CAPACITY = 256;
+
+    /** The sign prefixed to negative numbers. */
+    private static final char MINUS_SIGN = '−';
+
     /**
      * Caches formatted numbers in the current locale padded with zeroes to requested lengths.
-     * The first level of the cache maps length to the second level of the cache.
-     * The second level of the cache maps an integer to a formatted String in the current locale.
+     * Keys pack the sign, length and value; see {@link #getNumberFormatCacheKey}.
      */
-    private final SparseArray<SparseArray<String>> mNumberFormatCache = new SparseArray<>(3);
+    private final FormattedNumberCache mNumberFormatCache =
+            new FormattedNumberCache(NUMBER_FORMAT_CACHE_CAPACITY);
+
+    /** The digits 0-9 of the current locale; {@code null} until first needed. */
+    private char[] mDigits;
 
     /** Single-character version of weekday names; e.g.: 'S', 'M', 'T', 'W', 'T', 'F', 'S' */
     private Map<Integer, String> mShortWeekdayNames;
@@ -108,25 +117,68 @@ final class FormattedStringModel {
             throw new IllegalArgumentException("value may not be negative: " + value);
         }
 
-        // Look up the value cache using the length; -ve and +ve values are cached separately.
-        final int lengthCacheKey = negative ? -length : length;
-        SparseArray<String> valueCache = mNumberFormatCache.get(lengthCacheKey);
-        if (valueCache == null) {
-            valueCache = new SparseArray<>((int) Math.pow(10, length));
-            mNumberFormatCache.put(lengthCacheKey, valueCache);
-        }
-
-        // Look up the cached formatted value using the value.
-        String formatted = valueCache.get(value);
+        final long key = getNumberFormatCacheKey(negative, value, length);
+        String formatted = mNumberFormatCache.get(key);
         if (formatted == null) {
-            final String sign = negative ? "−" : "";
-            formatted = String.format(Locale.getDefault(), sign + "%0" + length + "d", value);
-            valueCache.put(value, formatted);
+            formatted = formatNumber(negative, value, length);
+            mNumberFormatCache.put(key, formatted);
         }
 
         return formatted;
     }
 
+    /**
+     * @return the number of formatted numbers served from the cache
+     */
+    long getFormattedNumberCacheHits() {
+        return mNumberFormatCache.getHits();
+    }
+
+    /**
+     * @return the number of formatted numbers that had to be formatted
+     */
+    long getFormattedNumberCacheMisses() {
+        return mNumberFormatCache.getMisses();
+    }
+
+    /**
+     * Formats {@code value} with the digits of the current locale, equivalent to
+     * {@code String.format("%0<length>d")} but without parsing a format string.
+     */
+    private String formatNumber(boolean negative, int value, int length) {
+        if (mDigits == null) {
+            final char zero = DecimalFormatSymbols.getInstance(Locale.getDefault()).getZeroDigit();
+            mDigits = new char[10];
+            for (int i = 0; i < mDigits.length; i++) {
+                mDigits[i] = (char) (zero + i);
+            }
+        }
+
+        int digitCount = 1;
+        for (int remaining = value / 10; remaining > 0; remaining /= 10) {
+            digitCount++;
+        }
+        final int signLength = negative ? 1 : 0;
+        final char[] chars = new char[signLength + Math.max(length, digitCount)];
+
+        int remaining = value;
+        for (int i = chars.length - 1; i >= signLength; i--) {
+            chars[i] = mDigits[remaining % 10];
+            remaining /= 10;
+        }
+        if (negative) {
+            chars[0] = MINUS_SIGN;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * @return a cache key unique to the given sign, length and non-negative value
+     */
+    private static long getNumberFormatCacheKey(boolean negative, int value, int length) {
+        return (negative ? 1L << 63 : 0) | ((long) (length & 0x7FFFFFFF) << 32) | value;
+    }
+
     /**
      * @param calendarDay any of the following values
      *                     <ul>
@@ -191,6 +243,7 @@ final class FormattedStringModel {
         @Override
         public void onReceive(Context context, Intent intent) {
             mNumberFormatCache.clear();
+            mDigits = null;
             mShortWeekdayNames = null;
             mLongWeekdayNames = null;
         }
@@ -28,11 +28,13 @@ import androidx.annotation.StringRes;
 
 import com.android.deskclock.AlarmClockFragment;
 import com.android.deskclock.ClockFragment;
+import com.android.deskclock.Lazy;
 import com.android.deskclock.R;
 import com.android.deskclock.stopwatch.StopwatchFragment;
 import com.android.deskclock.timer.TimerFragment;
 
 import java.util.Calendar;
+import java.util.concurrent.Executor;
 
 /**
  * All application-wide user interface data is accessible through this singleton.
@@ -71,13 +73,13 @@ public final class UiDataModel {
     private Context mContext;
 
     /** The model from which tab data are fetched. */
-    private TabModel mTabModel;
+    private Lazy<TabModel> mTabModel;
 
     /** The model from which formatted strings are fetched. */
-    private FormattedStringModel mFormattedStringModel;
+    private Lazy<FormattedStringModel> mFormattedStringModel;
 
     /** The model from which timed callbacks originate. */
-    private PeriodicCallbackModel mPeriodicCallbackModel;
+    private Lazy<PeriodicCallbackModel> mPeriodicCallbackModel;
 
     private UiDataModel() {}
 
@@ -88,9 +90,24 @@ public final class UiDataModel {
         if (mContext != context) {
             mContext = context.getApplicationContext();
 
-            mPeriodicCallbackModel = new PeriodicCallbackModel(mContext);
-            mFormattedStringModel = new FormattedStringModel(mContext);
-            mTabModel = new TabModel(prefs);
+            // Sub-models are created on first use.
+            final Context c = mContext;
+            mPeriodicCallbackModel = new Lazy<>(() -> new PeriodicCallbackModel(c));
+            mFormattedStringModel = new Lazy<>(() -> new FormattedStringModel(c));
+            mTabModel = new Lazy<>(() -> new TabModel(prefs));
+        }
+    }
+
+    /**
+     * Creates, on the given executor, the sub-models every screen needs so that they are ready
+     * by the time the UI first needs them.
+     */
+    public void prewarm(Executor executor) {
+        if (!mFormattedStringModel.isInitialized()) {
+            executor.execute(mFormattedStringModel::get);
+        }
+        if (!mPeriodicCallbackModel.isInitialized()) {
+            executor.execute(mPeriodicCallbackModel::get);
         }
     }
 
@@ -118,7 +135,7 @@ public final class UiDataModel {
      */
     public String getFormattedNumber(int value) {
         enforceMainLooper();
-        return mFormattedStringModel.getFormattedNumber(value);
+        return mFormattedStringModel.get().getFormattedNumber(value);
     }
 
     /**
@@ -134,7 +151,23 @@ public final class UiDataModel {
      */
     public String getFormattedNumber(int value, int length) {
         enforceMainLooper();
-        return mFormattedStringModel.getFormattedNumber(value, length);
+        return mFormattedStringModel.get().getFormattedNumber(value, length);
+    }
+
+    /**
+     * @return the number of calls to {@link #getFormattedNumber} served from the cache
+     */
+    public long getFormattedNumberCacheHits() {
+        enforceMainLooper();
+        return mFormattedStringModel.get().getFormattedNumberCacheHits();
+    }
+
+    /**
+     * @return the number of calls to {@link #getFormattedNumber} that had to format the number
+     */
+    public long getFormattedNumberCacheMisses() {
+        enforceMainLooper();
+        return mFormattedStringModel.get().getFormattedNumberCacheMisses();
     }
 
     /**
@@ -152,7 +185,7 @@ public final class UiDataModel {
      */
     public String getShortWeekday(int calendarDay) {
         enforceMainLooper();
-        return mFormattedStringModel.getShortWeekday(calendarDay);
+        return mFormattedStringModel.get().getShortWeekday(calendarDay);
     }
 
     /**
@@ -170,7 +203,7 @@ public final class UiDataModel {
      */
     public String getLongWeekday(int calendarDay) {
         enforceMainLooper();
-        return mFormattedStringModel.getLongWeekday(calendarDay);
+        return mFormattedStringModel.get().getLongWeekday(calendarDay);
     }
 
     //
@@ -210,7 +243,7 @@ public final class UiDataModel {
      */
     public void addTabListener(TabListener tabListener) {
         enforceMainLooper();
-        mTabModel.addTabListener(tabListener);
+        mTabModel.get().addTabListener(tabListener);
     }
 
     /**
@@ -218,7 +251,7 @@ public final class UiDataModel {
      */
     public void removeTabListener(TabListener tabListener) {
         enforceMainLooper();
-        mTabModel.removeTabListener(tabListener);
+        mTabModel.get().removeTabListener(tabListener);
     }
 
     /**
@@ -226,7 +259,7 @@ public final class UiDataModel {
      */
     public int getTabCount() {
         enforceMainLooper();
-        return mTabModel.getTabCount();
+        return mTabModel.get().getTabCount();
     }
 
     /**
@@ -234,7 +267,7 @@ public final class UiDataModel {
      */
     public Tab getSelectedTab() {
         enforceMainLooper();
-        return mTabModel.getSelectedTab();
+        return mTabModel.get().getSelectedTab();
     }
 
     /**
@@ -242,7 +275,7 @@ public final class UiDataModel {
      */
     public void setSelectedTab(Tab tab) {
         enforceMainLooper();
-        mTabModel.setSelectedTab(tab);
+        mTabModel.get().setSelectedTab(tab);
     }
 
     /**
@@ -250,7 +283,7 @@ public final class UiDataModel {
      */
     public void addTabScrollListener(TabScrollListener tabScrollListener) {
         enforceMainLooper();
-        mTabModel.addTabScrollListener(tabScrollListener);
+        mTabModel.get().addTabScrollListener(tabScrollListener);
     }
 
     /**
@@ -258,7 +291,7 @@ public final class UiDataModel {
      */
     public void removeTabScrollListener(TabScrollListener tabScrollListener) {
         enforceMainLooper();
-        mTabModel.removeTabScrollListener(tabScrollListener);
+        mTabModel.get().removeTabScrollListener(tabScrollListener);
     }
 
     /**
@@ -269,7 +302,7 @@ public final class UiDataModel {
      */
     public void setTabScrolledToTop(Tab tab, boolean scrolledToTop) {
         enforceMainLooper();
-        mTabModel.setTabScrolledToTop(tab, scrolledToTop);
+        mTabModel.get().setTabScrolledToTop(tab, scrolledToTop);
     }
 
     /**
@@ -277,7 +310,7 @@ public final class UiDataModel {
      */
     public boolean isSelectedTabScrolledToTop() {
         enforceMainLooper();
-        return mTabModel.isTabScrolledToTop(getSelectedTab());
+        return mTabModel.get().isTabScrolledToTop(getSelectedTab());
     }
 
     //
@@ -306,7 +339,7 @@ public final class UiDataModel {
      */
     public void addMinuteCallback(Runnable runnable, long offset) {
         enforceMainLooper();
-        mPeriodicCallbackModel.addMinuteCallback(runnable, offset);
+        mPeriodicCallbackModel.get().addMinuteCallback(runnable, offset);
     }
 
     /**
@@ -314,7 +347,15 @@ public final class UiDataModel {
      */
     public void addQuarterHourCallback(Runnable runnable) {
         enforceMainLooper();
-        mPeriodicCallbackModel.addQuarterHourCallback(runnable);
+        mPeriodicCallbackModel.get().addQuarterHourCallback(runnable);
+    }
+
+    /**
+     * @param runnable to be called every hour
+     */
+    public void addHourCallback(Runnable runnable) {
+        enforceMainLooper();
+        mPeriodicCallbackModel.get().addHourCallback(runnable);
     }
 
     /**
@@ -322,7 +363,7 @@ public final class UiDataModel {
      */
     public void addMidnightCallback(Runnable runnable) {
         enforceMainLooper();
-        mPeriodicCallbackModel.addMidnightCallback(runnable);
+        mPeriodicCallbackModel.get().addMidnightCallback(runnable);
     }
 
     /**
@@ -330,6 +371,6 @@ public final class UiDataModel {
      */
     public void removePeriodicCallback(Runnable runnable) {
         enforceMainLooper();
-        mPeriodicCallbackModel.removePeriodicCallback(runnable);
+        mPeriodicCallbackModel.get().removePeriodicCallback(runnable);
     }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.widget;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RenderNode;
+import android.os.Build;
+
+/**
+ * Draws the full circular track beneath a progress arc. The track only changes when its view is
+ * resized, so on hardware accelerated canvases it is recorded once into a {@link RenderNode} and
+ * replayed on each frame; other canvases draw it directly.
+ */
+public final class CircleTrack {
+
+    private final Paint mPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+
+    /** The recorded track, or {@code null} if not yet recorded or not supported. */
+    private RenderNode mNode;
+
+    // The parameters of the recorded track.
+    private int mWidth;
+    private int mHeight;
+    private float mRadius;
+    private float mStrokeWidth;
+    private int mColor;
+
+    public CircleTrack() {
+        mPaint.setStyle(Paint.Style.STROKE);
+    }
+
+    /**
+     * Draws a circle centered within a view of the given size.
+     */
+    public void draw(Canvas canvas, int width, int height, float radius, float strokeWidth,
+            int color) {
+        if (Build.VERSION.SDK_INT < Build.VERSION_CODES.Q || !canvas.isHardwareAccelerated()) {
+            drawTrack(canvas, width, height, radius, strokeWidth, color);
+            return;
+        }
+
+        if (mNode == null || !mNode.hasDisplayList() || width != mWidth || height != mHeight
+                || radius != mRadius || strokeWidth != mStrokeWidth || color != mColor) {
+            if (mNode == null) {
+                mNode = new RenderNode("CircleTrack");
+            }
+            mNode.setPosition(0, 0, width, height);
+            final Canvas recording = mNode.beginRecording(width, height);
+            try {
+                drawTrack(recording, width, height, radius, strokeWidth, color);
+            } finally {
+                mNode.endRecording();
+            }
+            mWidth = width;
+            mHeight = height;
+            mRadius = radius;
+            mStrokeWidth = strokeWidth;
+            mColor = color;
+        }
+
+        canvas.drawRenderNode(mNode);
+    }
+
+    /**
+     * Discards the recorded track; call when its view is detached.
+     */
+    public void release() {
+        if (mNode != null) {
+            mNode.discardDisplayList();
+        }
+    }
+
+    /**
+     * @param progress the progress around the circle, in the same units as {@code period}
+     * @param period the progress corresponding to one full turn around the circle
+     * @param radius the radius of the circle in pixels
+     * @return the progress still to be made before the end of an arc of the given progress moves
+     *      into the next pixel along the circle
+     */
+    public static long getProgressToNextPixel(long progress, long period, float radius) {
+        final double circumference = 2 * Math.PI * radius;
+        if (period <= 0 || circumference < 1) {
+            return 0;
+        }
+
+        final double progressPerPixel = period / circumference;
+        final double nextPixel = Math.floor(progress / progressPerPixel) + 1;
+        return Math.max(0, (long) Math.ceil(nextPixel * progressPerPixel) - progress);
+    }
+
+    private void drawTrack(Canvas canvas, int width, int height, float radius, float strokeWidth,
+            int color) {
+        mPaint.setStrokeWidth(strokeWidth);
+        mPaint.setColor(color);
+        canvas.drawCircle(width / 2, height / 2, radius, mPaint);
+    }
+}
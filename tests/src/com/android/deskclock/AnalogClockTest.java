@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock;
+
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static android.text.format.DateUtils.MINUTE_IN_MILLIS;
+import static android.text.format.DateUtils.SECOND_IN_MILLIS;
+import static org.junit.Assert.assertEquals;
+
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class AnalogClockTest {
+
+    private static final long BOUNDARY = 1_700_000_040_000L;
+
+    @Test
+    public void tickTimeIsStartOfCurrentInterval() {
+        assertEquals(BOUNDARY, AnalogClock.getTickTime(BOUNDARY, SECOND_IN_MILLIS));
+        assertEquals(BOUNDARY, AnalogClock.getTickTime(BOUNDARY + 500, SECOND_IN_MILLIS));
+        assertEquals(BOUNDARY, AnalogClock.getTickTime(BOUNDARY + 30_000, MINUTE_IN_MILLIS));
+    }
+
+    @Test
+    public void earlyTickShowsNextInterval() {
+        // A tick delivered just before the boundary must not show the previous second again.
+        assertEquals(BOUNDARY, AnalogClock.getTickTime(BOUNDARY - 5, SECOND_IN_MILLIS));
+        assertEquals(BOUNDARY, AnalogClock.getTickTime(BOUNDARY - 5, MINUTE_IN_MILLIS));
+        assertEquals(BOUNDARY - SECOND_IN_MILLIS,
+                AnalogClock.getTickTime(BOUNDARY - 500, SECOND_IN_MILLIS));
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock;
+
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class CrescendoCurveTest {
+
+    private static final long[] DURATIONS = { 1000, 5000, 10000, 30000, 60000 };
+
+    @Test
+    public void curveStartsNearSilentAndEndsAtFullVolume() {
+        for (long duration : DURATIONS) {
+            final CrescendoCurve curve = CrescendoCurve.forDuration(duration);
+            final int last = curve.getStepCount() - 1;
+            assertEquals(0, curve.getStepTime(0));
+            assertEquals(0.01f, curve.getStepVolume(0), 0.0001f);
+            assertEquals(duration, curve.getStepTime(last));
+            assertEquals(1f, curve.getStepVolume(last), 0f);
+            assertEquals(1f, curve.getVolumeAt(duration), 0f);
+            assertEquals(1f, curve.getVolumeAt(duration * 2), 0f);
+        }
+    }
+
+    @Test
+    public void curveIsMonotonic() {
+        for (long duration : DURATIONS) {
+            final CrescendoCurve curve = CrescendoCurve.forDuration(duration);
+            for (int i = 1; i < curve.getStepCount(); i++) {
+                assertTrue(curve.getStepTime(i) - curve.getStepTime(i - 1)
+                        >= CrescendoCurve.MIN_STEP_MILLIS);
+                assertTrue(curve.getStepVolume(i) > curve.getStepVolume(i - 1));
+            }
+        }
+    }
+
+    @Test
+    public void stepsAreImperceptible() {
+        for (long duration : DURATIONS) {
+            final CrescendoCurve curve = CrescendoCurve.forDuration(duration);
+            for (int i = 1; i < curve.getStepCount(); i++) {
+                final double stepDb = 20 * Math.log10(curve.getStepVolume(i))
+                        - 20 * Math.log10(curve.getStepVolume(i - 1));
+                // Short crescendos are limited by the minimum step time instead.
+                final double maxStepDb = Math.max(CrescendoCurve.QUIET_STEP_DB,
+                        -CrescendoCurve.MIN_GAIN_DB * CrescendoCurve.MIN_STEP_MILLIS / duration);
+                assertTrue(stepDb <= maxStepDb + 0.01);
+            }
+        }
+    }
+
+    @Test
+    public void longCrescendosUseCoarseSteps() {
+        final CrescendoCurve curve = CrescendoCurve.forDuration(60000);
+        // A fixed 50ms schedule would need 1200 adjustments.
+        assertTrue(curve.getStepCount() < 100);
+    }
+
+    @Test
+    public void volumeFollowsDecibelRamp() {
+        final CrescendoCurve curve = CrescendoCurve.forDuration(10000);
+        // Halfway through the gain is -20dB; the step in effect is at most one step below it.
+        final float volume = curve.getVolumeAt(5000);
+        assertTrue(volume <= 0.1f);
+        assertTrue(volume >= (float) Math.pow(10, (-20 - CrescendoCurve.LOUD_STEP_DB) / 20));
+    }
+
+    @Test
+    public void delayToNextStep() {
+        final CrescendoCurve curve = CrescendoCurve.forDuration(10000);
+        assertEquals(curve.getStepTime(1), curve.getDelayToNextStep(0));
+        assertEquals(curve.getStepTime(2) - curve.getStepTime(1) - 1,
+                curve.getDelayToNextStep(curve.getStepTime(1) + 1));
+        assertEquals(-1, curve.getDelayToNextStep(10000));
+    }
+
+    @Test
+    public void curvesAreSharedPerDuration() {
+        assertSame(CrescendoCurve.forDuration(5000), CrescendoCurve.forDuration(5000));
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock;
+
+import android.app.Instrumentation;
+import android.content.ContentResolver;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.provider.AlarmClock;
+
+import androidx.test.InstrumentationRegistry;
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+
+import com.android.deskclock.alarms.AlarmStateManager;
+import com.android.deskclock.provider.Alarm;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures the throughput of {@link HandleApiCalls} for a burst of SET_ALARM intents sent one
+ * after another, as automation does. The elapsed time and the rate in intents per second are
+ * reported as instrumentation status.
+ */
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class HandleApiCallsBenchmarkTest {
+
+    /** Identifies the alarms created by this benchmark so they can be removed. */
+    private static final String LABEL = "HandleApiCallsBenchmark";
+
+    /** The number of distinct alarms set by each burst. */
+    private static final int DISTINCT_ALARMS = 20;
+
+    /** The number of times each alarm is set by each burst; repeats may be coalesced. */
+    private static final int REPEATS = 3;
+
+    private static final long TIMEOUT_MILLIS = 60_000;
+
+    private Instrumentation mInstrumentation;
+    private Context mContext;
+
+    @Before
+    public void setUp() throws Exception {
+        mInstrumentation = InstrumentationRegistry.getInstrumentation();
+        mContext = mInstrumentation.getTargetContext();
+        deleteBenchmarkAlarms();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        deleteBenchmarkAlarms();
+    }
+
+    @Test
+    public void setAlarmBurst() throws Exception {
+        final IntentCommandPipeline pipeline = IntentCommandPipeline.getPipeline();
+        final int intentCount = DISTINCT_ALARMS * REPEATS;
+        final long expectedSubmitted = pipeline.getSubmittedCount() + intentCount;
+
+        final long start = SystemClock.elapsedRealtime();
+        for (int repeat = 0; repeat < REPEATS; repeat++) {
+            for (int i = 0; i < DISTINCT_ALARMS; i++) {
+                mContext.startActivity(createSetAlarmIntent(i));
+            }
+        }
+        // Every intent is validated on the main thread and submitted to the pipeline.
+        final long deadline = start + TIMEOUT_MILLIS;
+        while (pipeline.getSubmittedCount() < expectedSubmitted) {
+            assertTrue("Intents were not all handled", SystemClock.elapsedRealtime() < deadline);
+            SystemClock.sleep(5);
+        }
+        final long dispatched = SystemClock.elapsedRealtime() - start;
+
+        assertTrue(pipeline.awaitIdle(TIMEOUT_MILLIS));
+        final long elapsed = SystemClock.elapsedRealtime() - start;
+
+        // However the requests were coalesced, each distinct alarm exists exactly once.
+        assertEquals(DISTINCT_ALARMS, getBenchmarkAlarms().size());
+
+        final Bundle results = new Bundle();
+        results.putLong("set_alarm_burst_dispatch_ms", dispatched);
+        results.putLong("set_alarm_burst_total_ms", elapsed);
+        results.putDouble("set_alarm_burst_intents_per_second",
+                intentCount * 1000d / Math.max(1, elapsed));
+        LogUtils.i("HandleApiCallsBenchmark: %d intents in %d ms", intentCount, elapsed);
+        mInstrumentation.sendStatus(0, results);
+    }
+
+    private Intent createSetAlarmIntent(int index) {
+        return new Intent(AlarmClock.ACTION_SET_ALARM)
+                .setClass(mContext, HandleApiCalls.class)
+                .addFlags(Intent.FLAG_ACTIVITY_NEW_TASK)
+                .putExtra(AlarmClock.EXTRA_HOUR, 3)
+                .putExtra(AlarmClock.EXTRA_MINUTES, index)
+                .putExtra(AlarmClock.EXTRA_MESSAGE, LABEL)
+                .putExtra(AlarmClock.EXTRA_SKIP_UI, true);
+    }
+
+    private List<Alarm> getBenchmarkAlarms() {
+        final ContentResolver cr = mContext.getContentResolver();
+        return Alarm.getAlarms(cr, Alarm.LABEL + "=?", LABEL);
+    }
+
+    private void deleteBenchmarkAlarms() throws InterruptedException {
+        IntentCommandPipeline.getPipeline().awaitIdle(TIMEOUT_MILLIS);
+        final ContentResolver cr = mContext.getContentResolver();
+        for (Alarm alarm : getBenchmarkAlarms()) {
+            AlarmStateManager.deleteAllInstances(mContext, alarm.id);
+            Alarm.deleteAlarm(cr, alarm.id);
+        }
+    }
+}
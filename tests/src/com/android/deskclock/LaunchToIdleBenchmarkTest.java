@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock;
+
+import android.app.Instrumentation;
+import android.os.Bundle;
+import android.os.SystemClock;
+
+import androidx.test.InstrumentationRegistry;
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+import androidx.test.rule.ActivityTestRule;
+
+import com.android.deskclock.uidata.UiDataModel;
+import com.android.deskclock.uidata.UiDataModel.Tab;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures how long {@link DeskClock} takes to launch and for its main thread to go idle with
+ * each tab selected. This includes work done after the first frame, and the process is already
+ * running, so it measures warm launches rather than time to first frame; that is recorded for
+ * cold starts on device by {@link com.android.deskclock.perf.Perf#STARTUP_FIRST_FRAME}. Median
+ * times are reported as instrumentation status under keys such as
+ * {@code launch_to_idle_ms.alarms}.
+ */
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class LaunchToIdleBenchmarkTest {
+
+    private static final int WARMUP_RUNS = 2;
+    private static final int MEASURED_RUNS = 7;
+
+    private Instrumentation mInstrumentation;
+    private Tab mOriginalTab;
+
+    @Rule
+    public ActivityTestRule<DeskClock> rule = new ActivityTestRule<>(DeskClock.class, false, false);
+
+    @Before
+    public void setUp() {
+        mInstrumentation = InstrumentationRegistry.getInstrumentation();
+        mInstrumentation.runOnMainSync(() ->
+                mOriginalTab = UiDataModel.getUiDataModel().getSelectedTab());
+    }
+
+    @After
+    public void tearDown() {
+        mInstrumentation.runOnMainSync(() ->
+                UiDataModel.getUiDataModel().setSelectedTab(mOriginalTab));
+    }
+
+    @Test
+    public void launchEachTab() {
+        final Bundle results = new Bundle();
+        for (Tab tab : Tab.values()) {
+            for (int i = 0; i < WARMUP_RUNS; i++) {
+                launch(tab);
+            }
+
+            final long[] times = new long[MEASURED_RUNS];
+            for (int i = 0; i < MEASURED_RUNS; i++) {
+                times[i] = launch(tab);
+                assertTrue(tab + " launched in negative time", times[i] >= 0);
+            }
+
+            Arrays.sort(times);
+            final long median = times[MEASURED_RUNS / 2];
+            final String key = "launch_to_idle_ms." + tab.name().toLowerCase(Locale.ROOT);
+            results.putLong(key, median);
+            LogUtils.i("LaunchToIdleBenchmark %s: %d ms", key, median);
+        }
+        mInstrumentation.sendStatus(0, results);
+    }
+
+    /**
+     * @return the milliseconds from launching the activity on the given tab until it is idle
+     */
+    private long launch(Tab tab) {
+        mInstrumentation.runOnMainSync(() -> UiDataModel.getUiDataModel().setSelectedTab(tab));
+
+        final long start = SystemClock.elapsedRealtime();
+        rule.launchActivity(null);
+        mInstrumentation.waitForIdleSync();
+        final long elapsed = SystemClock.elapsedRealtime() - start;
+
+        rule.finishActivity();
+        mInstrumentation.waitForIdleSync();
+        return elapsed;
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock;
+
+import android.app.Instrumentation;
+import android.content.Context;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static com.android.deskclock.MoveScreensaverRunnable.PATH_LENGTH;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Exercise the fixed path along which the low power screen saver moves.
+ */
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class MoveScreensaverRunnableTest {
+
+    private static final int CONTENT_WIDTH = 1000;
+    private static final int CONTENT_HEIGHT = 600;
+    private static final int SAVER_WIDTH = 200;
+    private static final int SAVER_HEIGHT = 100;
+
+    private static final int FREE_X = CONTENT_WIDTH - SAVER_WIDTH;
+    private static final int FREE_Y = CONTENT_HEIGHT - SAVER_HEIGHT;
+
+    private Instrumentation mInstrumentation;
+    private View mSaverView;
+    private MoveScreensaverRunnable mRunnable;
+
+    @Before
+    public void setUp() {
+        mInstrumentation = InstrumentationRegistry.getInstrumentation();
+        final Context context = mInstrumentation.getTargetContext();
+        final FrameLayout contentView = new FrameLayout(context);
+        contentView.layout(0, 0, CONTENT_WIDTH, CONTENT_HEIGHT);
+        mSaverView = new View(context);
+        mSaverView.layout(0, 0, SAVER_WIDTH, SAVER_HEIGHT);
+        mRunnable = new MoveScreensaverRunnable(contentView, mSaverView, true);
+    }
+
+    @Test
+    public void initialPositionFitsSmallestDimension() {
+        mSaverView.setAlpha(0f);
+        mInstrumentation.runOnMainSync(mRunnable);
+
+        // The initial position is chosen within a square that fits either orientation.
+        assertTrue(mSaverView.getX() <= CONTENT_HEIGHT - SAVER_WIDTH);
+        assertTrue(mSaverView.getY() <= CONTENT_HEIGHT - SAVER_HEIGHT);
+        assertEquals(1f, mSaverView.getAlpha(), 0f);
+    }
+
+    @Test
+    public void pathStaysWithinContentAndRepeatsHourly() {
+        mSaverView.setAlpha(1f);
+        final float[] x = new float[PATH_LENGTH + 1];
+        final float[] y = new float[PATH_LENGTH + 1];
+        mInstrumentation.runOnMainSync(() -> {
+            for (int i = 0; i <= PATH_LENGTH; i++) {
+                mRunnable.run();
+                x[i] = mSaverView.getX();
+                y[i] = mSaverView.getY();
+            }
+        });
+
+        for (int i = 0; i < PATH_LENGTH; i++) {
+            assertTrue("x[" + i + "]=" + x[i], x[i] >= 0 && x[i] <= FREE_X);
+            assertTrue("y[" + i + "]=" + y[i], y[i] >= 0 && y[i] <= FREE_Y);
+        }
+        assertEquals(1f, mSaverView.getAlpha(), 0f);
+
+        // The path starts over after one position per minute of an hour.
+        assertEquals(x[0], x[PATH_LENGTH], 0f);
+        assertEquals(y[0], y[PATH_LENGTH], 0f);
+    }
+
+    @Test
+    public void pathSpreadsPositionsOverContent() {
+        mSaverView.setAlpha(1f);
+        final float[] x = new float[PATH_LENGTH];
+        final float[] y = new float[PATH_LENGTH];
+        mInstrumentation.runOnMainSync(() -> {
+            for (int i = 0; i < PATH_LENGTH; i++) {
+                mRunnable.run();
+                x[i] = mSaverView.getX() / FREE_X;
+                y[i] = mSaverView.getY() / FREE_Y;
+            }
+        });
+
+        // Consecutive positions are far apart so that no pixels stay lit from minute to minute.
+        for (int i = 1; i < PATH_LENGTH; i++) {
+            final double distance = Math.hypot(x[i] - x[i - 1], y[i] - y[i - 1]);
+            assertTrue("Step " + i + " moved " + distance, distance > 0.4);
+        }
+
+        // Each quadrant of the content is visited about equally often.
+        final int[] quadrants = new int[4];
+        for (int i = 0; i < PATH_LENGTH; i++) {
+            quadrants[(x[i] < 0.5f ? 0 : 2) + (y[i] < 0.5f ? 0 : 1)]++;
+        }
+        for (int visits : quadrants) {
+            assertTrue("Quadrant visited " + visits + " times", Math.abs(visits - 15) <= 3);
+        }
+    }
+}
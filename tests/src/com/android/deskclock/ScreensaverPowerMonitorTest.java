@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock;
+
+import android.app.Instrumentation;
+import android.os.SystemClock;
+import android.view.View;
+
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.android.deskclock.perf.Perf;
+import com.android.deskclock.perf.RecordingPerfSink;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.android.deskclock.ScreensaverPowerMonitor.FULL_HOUR_MILLIS;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Exercise the hourly reports of the screen saver's frames and wakeups.
+ */
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class ScreensaverPowerMonitorTest {
+
+    private Instrumentation mInstrumentation;
+    private RecordingPerfSink mSink;
+    private ScreensaverPowerMonitor mMonitor;
+
+    @Before
+    public void setUp() {
+        mInstrumentation = InstrumentationRegistry.getInstrumentation();
+        mSink = new RecordingPerfSink();
+        Perf.setSink(mSink);
+
+        final View contentView = new View(mInstrumentation.getTargetContext());
+        mMonitor = new ScreensaverPowerMonitor(new LogUtils.Logger("PowerMonitorTest"),
+                contentView);
+        mInstrumentation.runOnMainSync(mMonitor::start);
+    }
+
+    @After
+    public void tearDown() {
+        mInstrumentation.runOnMainSync(mMonitor::stop);
+        Perf.setSink(null);
+    }
+
+    @Test
+    public void partialHoursAreNotSampled() {
+        final long now = SystemClock.elapsedRealtime();
+        mInstrumentation.runOnMainSync(() -> {
+            // The period that began when the monitor started.
+            mMonitor.report(now);
+            // A period just short of a full hour.
+            mMonitor.report(now + FULL_HOUR_MILLIS - 1);
+        });
+
+        assertTrue(mSink.samples.toString(), getHourlySamples().isEmpty());
+    }
+
+    @Test
+    public void fullHoursAreSampled() {
+        final long now = SystemClock.elapsedRealtime();
+        mInstrumentation.runOnMainSync(() -> {
+            mMonitor.report(now);
+            mMonitor.report(now + FULL_HOUR_MILLIS);
+        });
+
+        final List<String> samples = getHourlySamples();
+        assertEquals(samples.toString(), 2, samples.size());
+        assertTrue(samples.get(0).startsWith(Perf.SCREENSAVER_FRAMES_PER_HOUR + "="));
+        assertTrue(samples.get(1).startsWith(Perf.SCREENSAVER_WAKEUPS_PER_HOUR + "="));
+    }
+
+    /**
+     * @return the hourly screen saver samples recorded so far
+     */
+    private List<String> getHourlySamples() {
+        final List<String> hourly = new ArrayList<>();
+        synchronized (mSink) {
+            for (String sample : mSink.samples) {
+                if (sample.startsWith(Perf.SCREENSAVER_FRAMES_PER_HOUR)
+                        || sample.startsWith(Perf.SCREENSAVER_WAKEUPS_PER_HOUR)) {
+                    hourly.add(sample);
+                }
+            }
+        }
+        return hourly;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.alarms;
+
+import android.hardware.SensorManager;
+
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Replays synthetic accelerometer traces through the gesture filters of
+ * {@link AlarmGestureDetector}.
+ */
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class AlarmGestureDetectorTest {
+
+    private static final float G = SensorManager.STANDARD_GRAVITY;
+
+    /** 50Hz, as delivered for SENSOR_DELAY_GAME. */
+    private static final long GAME_PERIOD_NS = 20_000_000L;
+
+    private AlarmGestureDetector.FlipFilter flipFilter;
+    private AlarmGestureDetector.ShakeFilter shakeFilter;
+
+    @Before
+    public void setUp() {
+        flipFilter = new AlarmGestureDetector.FlipFilter();
+        flipFilter.reset();
+        shakeFilter = new AlarmGestureDetector.ShakeFilter();
+        shakeFilter.reset();
+    }
+
+    @Test
+    public void flip_faceUpThenFaceDown() {
+        final SensorTrace trace = new SensorTrace(GAME_PERIOD_NS)
+                .hold(1000, 0, 0, G)
+                .hold(1000, 0, 0, -G);
+        assertEquals(1, trace.replayFlips(flipFilter));
+    }
+
+    @Test
+    public void flip_reportedOnlyOnce() {
+        final SensorTrace trace = new SensorTrace(GAME_PERIOD_NS)
+                .hold(1000, 0, 0, G)
+                .hold(1000, 0, 0, -G)
+                .hold(1000, 0, 0, G)
+                .hold(1000, 0, 0, -G);
+        assertEquals(1, trace.replayFlips(flipFilter));
+    }
+
+    @Test
+    public void flip_faceDownWithoutFaceUp() {
+        final SensorTrace trace = new SensorTrace(GAME_PERIOD_NS)
+                .hold(3000, 0, 0, -G);
+        assertEquals(0, trace.replayFlips(flipFilter));
+    }
+
+    @Test
+    public void flip_briefFaceDownGlitchIgnored() {
+        final SensorTrace trace = new SensorTrace(GAME_PERIOD_NS)
+                .hold(1000, 0, 0, G)
+                .hold(200, 0, 0, -G)
+                .hold(1000, 0, 0, G);
+        assertEquals(0, trace.replayFlips(flipFilter));
+    }
+
+    @Test
+    public void flip_batchedBurstIsSpacedByTimestamp() {
+        // A burst of samples delivered at once from the hardware FIFO spans only 60ms.
+        final SensorTrace trace = new SensorTrace(GAME_PERIOD_NS)
+                .hold(1000, 0, 0, G)
+                .hold(60, 0, 0, -G)
+                .hold(1000, 0, 0, G);
+        assertEquals(0, trace.replayFlips(flipFilter));
+    }
+
+    @Test
+    public void shake_restingDevice() {
+        final SensorTrace trace = new SensorTrace(GAME_PERIOD_NS)
+                .hold(5000, 0, 0, G);
+        assertEquals(0, trace.replayShakes(shakeFilter));
+    }
+
+    @Test
+    public void shake_gentleMotionIgnored() {
+        final SensorTrace trace = new SensorTrace(GAME_PERIOD_NS)
+                .hold(500, 0, 0, G)
+                .oscillate(2000, 2f, 0, 0, G);
+        assertEquals(0, trace.replayShakes(shakeFilter));
+    }
+
+    @Test
+    public void shake_vigorousMotion() {
+        final SensorTrace trace = new SensorTrace(GAME_PERIOD_NS)
+                .hold(500, 0, 0, G)
+                .oscillate(100, 3 * G, 0, 0, G)
+                .hold(2000, 0, 0, G);
+        assertEquals(1, trace.replayShakes(shakeFilter));
+    }
+
+    /**
+     * A recorded or synthesized sequence of accelerometer samples.
+     */
+    private static final class SensorTrace {
+
+        private final long periodNs;
+        private final List<float[]> samples = new ArrayList<>();
+        private final List<Long> timestamps = new ArrayList<>();
+        private long now;
+
+        SensorTrace(long periodNs) {
+            this.periodNs = periodNs;
+        }
+
+        /** Appends samples with constant acceleration for {@code durationMs}. */
+        SensorTrace hold(long durationMs, float x, float y, float z) {
+            for (long t = 0; t < durationMs * 1_000_000L; t += periodNs) {
+                add(x, y, z);
+            }
+            return this;
+        }
+
+        /** Appends samples alternating by {@code +/- amplitude} along x around a rest vector. */
+        SensorTrace oscillate(long durationMs, float amplitude, float x, float y, float z) {
+            boolean positive = true;
+            for (long t = 0; t < durationMs * 1_000_000L; t += periodNs) {
+                add(x + (positive ? amplitude : -amplitude), y, z);
+                positive = !positive;
+            }
+            return this;
+        }
+
+        int replayFlips(AlarmGestureDetector.FlipFilter filter) {
+            int count = 0;
+            for (int i = 0; i < samples.size(); i++) {
+                if (filter.onSample(timestamps.get(i), samples.get(i)[2])) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        int replayShakes(AlarmGestureDetector.ShakeFilter filter) {
+            int count = 0;
+            for (float[] sample : samples) {
+                if (filter.onSample(sample[0], sample[1], sample[2])) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        private void add(float x, float y, float z) {
+            samples.add(new float[] { x, y, z });
+            timestamps.add(now);
+            now += periodNs;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.data;
+
+import static android.text.format.DateUtils.HOUR_IN_MILLIS;
+import static android.text.format.DateUtils.MINUTE_IN_MILLIS;
+
+import android.content.Context;
+
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.TimeZone;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class CityTimeTest {
+
+    /** 2026-01-15 12:00 UTC, a Thursday. */
+    private static final long NOON_UTC = 1_768_478_400_000L;
+
+    private static final TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private final Context mContext =
+            InstrumentationRegistry.getInstrumentation().getTargetContext();
+
+    @Test
+    public void sameZoneHasNoDifference() {
+        final CityTime cityTime = CityTime.create(mContext, UTC, UTC, NOON_UTC);
+        assertFalse(cityTime.isTimeDifferent());
+        assertEquals(0, cityTime.getOffsetDelta());
+        assertEquals(0, cityTime.getDayDifference());
+        assertNull(cityTime.getShortWeekday());
+    }
+
+    @Test
+    public void partialHourOffsetOnSameDay() {
+        final TimeZone kathmandu = TimeZone.getTimeZone("Asia/Kathmandu");
+        final CityTime cityTime = CityTime.create(mContext, kathmandu, UTC, NOON_UTC);
+        assertTrue(cityTime.isTimeDifferent());
+        assertEquals(5 * HOUR_IN_MILLIS + 45 * MINUTE_IN_MILLIS, cityTime.getOffsetDelta());
+        assertEquals(0, cityTime.getDayDifference());
+    }
+
+    @Test
+    public void cityOnNextAndPreviousDay() {
+        final TimeZone kiritimati = TimeZone.getTimeZone("Pacific/Kiritimati");
+        final CityTime tomorrow = CityTime.create(mContext, kiritimati, UTC, NOON_UTC);
+        assertEquals(1, tomorrow.getDayDifference());
+        assertNotNull(tomorrow.getShortWeekday());
+
+        final CityTime yesterday = CityTime.create(mContext, UTC, kiritimati, NOON_UTC);
+        assertEquals(-1, yesterday.getDayDifference());
+        assertNotEquals(tomorrow, yesterday);
+    }
+
+    @Test
+    public void equalWhenDisplayedIdentically() {
+        final TimeZone tokyo = TimeZone.getTimeZone("Asia/Tokyo");
+        assertEquals(CityTime.create(mContext, tokyo, UTC, NOON_UTC),
+                CityTime.create(mContext, tokyo, UTC, NOON_UTC + MINUTE_IN_MILLIS));
+    }
+}
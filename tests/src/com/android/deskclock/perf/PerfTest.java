@@ -0,0 +1,116 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.perf;
+
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class PerfTest {
+
+    @After
+    public void tearDown() {
+        Perf.setSink(null);
+    }
+
+    @Test
+    public void disabledPerfRecordsNothing() {
+        final RecordingPerfSink sink = new RecordingPerfSink();
+        final long start = Perf.begin();
+        assertEquals(0, start);
+
+        // A span begun while disabled is dropped even if a sink is installed before it ends.
+        Perf.setSink(sink);
+        Perf.end(Perf.PROVIDER_QUERY, start);
+        assertTrue(sink.spans.isEmpty());
+
+        Perf.setSink(null);
+        assertFalse(Perf.isEnabled());
+        Perf.count(Perf.NOTIFICATION_POSTED);
+        Perf.sample(Perf.ALARM_FIRE_LATENCY, 5);
+        assertTrue(sink.counts.isEmpty());
+        assertTrue(sink.samples.isEmpty());
+    }
+
+    @Test
+    public void enabledPerfReportsToSink() {
+        final RecordingPerfSink sink = new RecordingPerfSink();
+        Perf.setSink(sink);
+
+        Perf.end(Perf.WIDGET_RELAYOUT, Perf.begin());
+        Perf.count(Perf.NOTIFICATION_POSTED);
+        Perf.count(Perf.NOTIFICATION_UNCHANGED, 3);
+        Perf.sample(Perf.ALARM_FIRE_LATENCY, 42);
+
+        assertEquals(Collections.singletonList(Perf.WIDGET_RELAYOUT), sink.spans);
+        assertEquals(Arrays.asList(Perf.NOTIFICATION_POSTED + "+1",
+                Perf.NOTIFICATION_UNCHANGED + "+3"), sink.counts);
+        assertEquals(Collections.singletonList(Perf.ALARM_FIRE_LATENCY + "=42"), sink.samples);
+    }
+
+    @Test
+    public void ringBufferRetainsNewestAndAggregatesAll() {
+        final RingBufferPerfSink sink = new RingBufferPerfSink(4);
+        for (int i = 0; i < 10; i++) {
+            sink.onCount(Perf.NOTIFICATION_POSTED, 1);
+            sink.onSample(Perf.ALARM_FIRE_LATENCY, i);
+        }
+
+        assertEquals(4, sink.getRetainedCount());
+        assertEquals(10, sink.getCount(Perf.NOTIFICATION_POSTED));
+        assertEquals(10, sink.getSampleCount(Perf.ALARM_FIRE_LATENCY));
+
+        final StringWriter out = new StringWriter();
+        sink.dump(new PrintWriter(out));
+        final String dump = out.toString();
+        assertTrue(dump, dump.contains("Recent (4 of 20)"));
+        assertTrue(dump, dump.contains(Perf.ALARM_FIRE_LATENCY + ": count=10 min=0 mean=4"));
+    }
+
+    @Test
+    public void histogramPercentilesAreBoundedByBuckets() {
+        final Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getPercentile(50));
+
+        for (int i = 1; i <= 100; i++) {
+            histogram.add(i);
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(1, histogram.getMin());
+        assertEquals(100, histogram.getMax());
+        assertEquals(50, histogram.getMean());
+
+        // The true median is 50, which falls in the bucket [32, 63].
+        assertEquals(63, histogram.getPercentile(50));
+        // The true maximum is 100; bucket bounds never exceed it.
+        assertEquals(100, histogram.getPercentile(100));
+        assertEquals(1, histogram.getPercentile(0));
+    }
+}
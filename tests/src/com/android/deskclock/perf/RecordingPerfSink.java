@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.perf;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link PerfSink} that records every measurement in memory so tests can assert on them.
+ */
+public final class RecordingPerfSink implements PerfSink {
+
+    public final List<String> spans = new ArrayList<>();
+    public final List<String> counts = new ArrayList<>();
+    public final List<String> samples = new ArrayList<>();
+
+    @Override
+    public synchronized void onSpan(String metric, long startNanos, long durationNanos) {
+        spans.add(metric);
+    }
+
+    @Override
+    public synchronized void onCount(String metric, long delta) {
+        counts.add(metric + "+" + delta);
+    }
+
+    @Override
+    public synchronized void onSample(String metric, long value) {
+        samples.add(metric + "=" + value);
+    }
+
+    @Override
+    public void dump(PrintWriter writer) {
+        writer.println("RecordingPerfSink: " + spans + " " + counts + " " + samples);
+    }
+}
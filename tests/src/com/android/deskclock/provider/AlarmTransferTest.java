@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.provider;
+
+import android.content.ContentResolver;
+import android.content.Context;
+
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.android.deskclock.alarms.AlarmStateManager;
+import com.android.deskclock.perf.Perf;
+import com.android.deskclock.perf.RecordingPerfSink;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Verifies that alarms exported by {@link AlarmTransfer} import back with one instance per
+ * enabled alarm and a single next alarm update.
+ */
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class AlarmTransferTest {
+
+    /** Identifies the alarms created by this test so they can be removed. */
+    private static final String LABEL = "AlarmTransferTest";
+
+    private Context mContext;
+    private ContentResolver mContentResolver;
+
+    @Before
+    public void setUp() {
+        mContext = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        mContentResolver = mContext.getContentResolver();
+        deleteTestAlarms();
+    }
+
+    @After
+    public void tearDown() {
+        Perf.setSink(null);
+        deleteTestAlarms();
+    }
+
+    @Test
+    public void exportThenImportRestoresAlarmsWithInstances() throws Exception {
+        Alarm.addAlarm(mContentResolver, createAlarm(6, true));
+        Alarm.addAlarm(mContentResolver, createAlarm(7, true));
+        Alarm.addAlarm(mContentResolver, createAlarm(8, false));
+
+        final StringWriter exported = new StringWriter();
+        AlarmTransfer.exportAlarms(mContentResolver, exported);
+
+        // Import only the alarms of this test, after removing the originals.
+        final StringBuilder lines = new StringBuilder();
+        for (String line : exported.toString().split("\n")) {
+            if (!line.isEmpty() && LABEL.equals(new JSONObject(line).optString("label"))) {
+                lines.append(line).append('\n');
+            }
+        }
+        deleteTestAlarms();
+
+        final RecordingPerfSink sink = new RecordingPerfSink();
+        Perf.setSink(sink);
+        assertEquals(3, AlarmTransfer.importAlarms(mContext, new StringReader(lines.toString())));
+        Perf.setSink(null);
+
+        final List<Alarm> alarms = getTestAlarms();
+        assertEquals(3, alarms.size());
+        for (Alarm alarm : alarms) {
+            final List<AlarmInstance> instances =
+                    AlarmInstance.getInstancesByAlarmId(mContentResolver, alarm.id);
+            assertEquals(alarm.toString(), alarm.enabled ? 1 : 0, instances.size());
+        }
+
+        synchronized (sink) {
+            assertEquals(1, Collections.frequency(sink.counts, Perf.NEXT_ALARM_UPDATE + "+1"));
+        }
+    }
+
+    private static Alarm createAlarm(int hour, boolean enabled) {
+        final Alarm alarm = new Alarm(hour, 15);
+        alarm.enabled = enabled;
+        alarm.label = LABEL;
+        return alarm;
+    }
+
+    private List<Alarm> getTestAlarms() {
+        return Alarm.getAlarms(mContentResolver, Alarm.LABEL + "=?", LABEL);
+    }
+
+    private void deleteTestAlarms() {
+        for (Alarm alarm : getTestAlarms()) {
+            AlarmStateManager.deleteAllInstances(mContext, alarm.id);
+            Alarm.deleteAlarm(mContentResolver, alarm.id);
+        }
+    }
+}
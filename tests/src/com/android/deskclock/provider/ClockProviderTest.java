@@ -0,0 +1,174 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.provider;
+
+import android.content.ContentProviderOperation;
+import android.content.ContentResolver;
+import android.content.ContentUris;
+import android.content.ContentValues;
+import android.content.Context;
+import android.content.OperationApplicationException;
+import android.database.ContentObserver;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.SystemClock;
+
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.android.deskclock.provider.ClockContract.AlarmsColumns;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * Verifies that the batched writes of {@link ClockProvider} notify observers of the alarms
+ * table once per committed batch, and not at all when the batch is rolled back.
+ */
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class ClockProviderTest {
+
+    /** Identifies the alarms created by this test so they can be removed. */
+    private static final String LABEL = "ClockProviderTest";
+
+    private static final int ALARM_COUNT = 5;
+
+    /** How long to wait for notifications that must not arrive. */
+    private static final long SETTLE_MILLIS = 500;
+
+    private ContentResolver mContentResolver;
+    private HandlerThread mObserverThread;
+    private final AtomicInteger mChanges = new AtomicInteger();
+    private ContentObserver mObserver;
+
+    @Before
+    public void setUp() {
+        final Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        mContentResolver = context.getContentResolver();
+        deleteTestAlarms();
+
+        mObserverThread = new HandlerThread("ClockProviderTest");
+        mObserverThread.start();
+        mObserver = new ContentObserver(new Handler(mObserverThread.getLooper())) {
+            @Override
+            public void onChange(boolean selfChange, Uri uri) {
+                mChanges.incrementAndGet();
+            }
+        };
+        mContentResolver.registerContentObserver(AlarmsColumns.CONTENT_URI, false, mObserver);
+    }
+
+    @After
+    public void tearDown() {
+        mContentResolver.unregisterContentObserver(mObserver);
+        mObserverThread.quitSafely();
+        deleteTestAlarms();
+    }
+
+    @Test
+    public void bulkInsertNotifiesOnce() {
+        final ContentValues[] values = new ContentValues[ALARM_COUNT];
+        for (int i = 0; i < ALARM_COUNT; i++) {
+            values[i] = Alarm.createContentValues(createAlarm(i));
+        }
+
+        assertEquals(ALARM_COUNT, mContentResolver.bulkInsert(AlarmsColumns.CONTENT_URI, values));
+        assertEquals(ALARM_COUNT, getTestAlarmCount());
+        assertEquals(1, awaitChanges());
+    }
+
+    @Test
+    public void applyBatchNotifiesOnce() throws Exception {
+        final ArrayList<ContentProviderOperation> operations = new ArrayList<>();
+        for (int i = 0; i < ALARM_COUNT; i++) {
+            operations.add(ContentProviderOperation.newInsert(AlarmsColumns.CONTENT_URI)
+                    .withValues(Alarm.createContentValues(createAlarm(i)))
+                    .build());
+        }
+
+        mContentResolver.applyBatch(ClockContract.AUTHORITY, operations);
+        assertEquals(ALARM_COUNT, getTestAlarmCount());
+        assertEquals(1, awaitChanges());
+    }
+
+    @Test
+    public void rolledBackBatchDoesNotNotify() throws Exception {
+        final ArrayList<ContentProviderOperation> operations = new ArrayList<>();
+        for (int i = 0; i < ALARM_COUNT; i++) {
+            operations.add(ContentProviderOperation.newInsert(AlarmsColumns.CONTENT_URI)
+                    .withValues(Alarm.createContentValues(createAlarm(i)))
+                    .build());
+        }
+        // No alarm has this id, so the final operation fails and the batch is rolled back.
+        final Uri missingAlarm = ContentUris.withAppendedId(AlarmsColumns.CONTENT_URI, -1);
+        operations.add(ContentProviderOperation.newDelete(missingAlarm)
+                .withExpectedCount(1)
+                .build());
+
+        try {
+            mContentResolver.applyBatch(ClockContract.AUTHORITY, operations);
+            fail("Expected the batch to fail");
+        } catch (OperationApplicationException expected) {
+            // The batch was rolled back.
+        }
+
+        assertEquals(0, getTestAlarmCount());
+        SystemClock.sleep(SETTLE_MILLIS);
+        assertEquals(0, mChanges.get());
+    }
+
+    /**
+     * Waits for the first notification, then for any that would follow it.
+     *
+     * @return the number of notifications received
+     */
+    private int awaitChanges() {
+        final long deadline = SystemClock.elapsedRealtime() + 5 * SETTLE_MILLIS;
+        while (mChanges.get() == 0) {
+            assertTrue("No change was notified", SystemClock.elapsedRealtime() < deadline);
+            SystemClock.sleep(10);
+        }
+        SystemClock.sleep(SETTLE_MILLIS);
+        return mChanges.get();
+    }
+
+    private static Alarm createAlarm(int index) {
+        final Alarm alarm = new Alarm(4, index);
+        alarm.label = LABEL;
+        return alarm;
+    }
+
+    private int getTestAlarmCount() {
+        return Alarm.getAlarms(mContentResolver, Alarm.LABEL + "=?", LABEL).size();
+    }
+
+    private void deleteTestAlarms() {
+        for (Alarm alarm : Alarm.getAlarms(mContentResolver, Alarm.LABEL + "=?", LABEL)) {
+            Alarm.deleteAlarm(mContentResolver, alarm.id);
+        }
+    }
+}
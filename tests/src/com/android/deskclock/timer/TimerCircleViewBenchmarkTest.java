@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.timer;
+
+import android.app.Instrumentation;
+import android.graphics.Canvas;
+import android.graphics.ColorFilter;
+import android.graphics.PixelFormat;
+import android.graphics.RecordingCanvas;
+import android.graphics.RenderNode;
+import android.graphics.drawable.Drawable;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.view.Choreographer;
+import android.view.ViewGroup;
+import android.widget.GridLayout;
+
+import androidx.annotation.NonNull;
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.test.rule.ActivityTestRule;
+
+import com.android.deskclock.DeskClock;
+import com.android.deskclock.LogUtils;
+import com.android.deskclock.data.DataModel;
+import com.android.deskclock.data.Timer;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Measures the cost of drawing a landscape grid of running timers: the average time to record
+ * one frame of every {@link TimerCircleView}, and the number of times per second that each view
+ * is actually redrawn while the grid is on screen. Both are reported as instrumentation status.
+ */
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class TimerCircleViewBenchmarkTest {
+
+    /** The number of timers visible at once; a full landscape grid on a tablet. */
+    private static final int TIMER_COUNT = 12;
+    private static final int COLUMN_COUNT = 4;
+
+    /** The size of each cell in the grid, in pixels. */
+    private static final int CELL_SIZE = 480;
+
+    private static final int WARMUP_FRAMES = 30;
+    private static final int FRAMES = 600;
+
+    /** How long the redraws of the views on screen are counted. */
+    private static final long REDRAW_MILLIS = 2000;
+
+    @Rule
+    public ActivityTestRule<DeskClock> rule = new ActivityTestRule<>(DeskClock.class, true);
+
+    private Instrumentation mInstrumentation;
+    private final List<Timer> mTimers = new ArrayList<>();
+    private final List<TimerCircleView> mViews = new ArrayList<>();
+    private final List<DrawCounter> mDrawCounters = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        mInstrumentation = InstrumentationRegistry.getInstrumentation();
+        final DeskClock activity = rule.getActivity();
+        mInstrumentation.runOnMainSync(() -> {
+            final GridLayout grid = new GridLayout(activity);
+            grid.setColumnCount(COLUMN_COUNT);
+            for (int i = 0; i < TIMER_COUNT; i++) {
+                final Timer timer = DataModel.getDataModel()
+                        .addTimer(MINUTES.toMillis(i + 1), "", false);
+                DataModel.getDataModel().startTimer(timer);
+                mTimers.add(DataModel.getDataModel().getTimer(timer.getId()));
+
+                // The foreground is drawn each time the view itself is redrawn.
+                final DrawCounter drawCounter = new DrawCounter();
+                final TimerCircleView view = new TimerCircleView(activity);
+                view.setForeground(drawCounter);
+                grid.addView(view, new ViewGroup.LayoutParams(CELL_SIZE, CELL_SIZE));
+                view.update(mTimers.get(i));
+                mViews.add(view);
+                mDrawCounters.add(drawCounter);
+            }
+            activity.addContentView(grid, new ViewGroup.LayoutParams(
+                    ViewGroup.LayoutParams.WRAP_CONTENT, ViewGroup.LayoutParams.WRAP_CONTENT));
+        });
+        mInstrumentation.waitForIdleSync();
+    }
+
+    @After
+    public void tearDown() {
+        mInstrumentation.runOnMainSync(() -> {
+            for (Timer timer : mTimers) {
+                DataModel.getDataModel().removeTimer(timer);
+            }
+        });
+    }
+
+    @Test
+    public void drawRunningTimerGrid() throws InterruptedException {
+        final long[] elapsed = new long[1];
+        mInstrumentation.runOnMainSync(() -> {
+            final RenderNode frame = new RenderNode("TimerCircleViewBenchmark");
+            frame.setPosition(0, 0, CELL_SIZE, CELL_SIZE);
+            for (int i = 0; i < WARMUP_FRAMES; i++) {
+                drawFrame(frame);
+            }
+
+            final long start = SystemClock.elapsedRealtimeNanos();
+            for (int i = 0; i < FRAMES; i++) {
+                drawFrame(frame);
+            }
+            elapsed[0] = SystemClock.elapsedRealtimeNanos() - start;
+            frame.discardDisplayList();
+        });
+        final double frameMicros = elapsed[0] / 1000d / FRAMES;
+
+        // Count the frames produced while the grid is on screen and the redraws of each view.
+        final FrameCounter frameCounter = new FrameCounter(REDRAW_MILLIS);
+        mInstrumentation.runOnMainSync(frameCounter::start);
+        assertTrue(frameCounter.mDone.await(REDRAW_MILLIS * 5, MILLISECONDS));
+
+        final double seconds = REDRAW_MILLIS / 1000d;
+        final double framesPerSecond = frameCounter.mFrames / seconds;
+        final double redrawsPerView = frameCounter.mRedraws / seconds / TIMER_COUNT;
+
+        // A view that redrew on every frame would fail this; most arcs move far less often.
+        assertTrue("Redrawn " + redrawsPerView + " times/s over " + framesPerSecond + " frames/s",
+                redrawsPerView <= framesPerSecond / 4);
+
+        final Bundle results = new Bundle();
+        results.putDouble("timer_grid_frame_us", frameMicros);
+        results.putDouble("timer_grid_redraws_per_view_per_second", redrawsPerView);
+        LogUtils.i("TimerCircleViewBenchmark: %d timers, %.1f us per frame, %.1f redraws/s",
+                TIMER_COUNT, frameMicros, redrawsPerView);
+        mInstrumentation.sendStatus(0, results);
+    }
+
+    /** Records every view into {@code frame}, as a hardware accelerated frame would. */
+    private void drawFrame(RenderNode frame) {
+        final RecordingCanvas canvas = frame.beginRecording();
+        try {
+            for (TimerCircleView view : mViews) {
+                view.draw(canvas);
+            }
+        } finally {
+            frame.endRecording();
+        }
+    }
+
+    /**
+     * Counts the frames produced by the main thread's choreographer for a fixed duration, and
+     * the redraws of all timer views during those frames.
+     */
+    private final class FrameCounter implements Choreographer.FrameCallback {
+
+        private final CountDownLatch mDone = new CountDownLatch(1);
+        private final long mDurationNanos;
+        private long mStartNanos;
+        private int mFrames;
+        private int mRedraws;
+
+        private FrameCounter(long durationMillis) {
+            mDurationNanos = MILLISECONDS.toNanos(durationMillis);
+        }
+
+        private void start() {
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+
+        @Override
+        public void doFrame(long frameTimeNanos) {
+            if (mStartNanos == 0) {
+                mStartNanos = frameTimeNanos;
+                for (DrawCounter drawCounter : mDrawCounters) {
+                    drawCounter.mDraws = 0;
+                }
+            } else if (frameTimeNanos - mStartNanos >= mDurationNanos) {
+                for (DrawCounter drawCounter : mDrawCounters) {
+                    mRedraws += drawCounter.mDraws;
+                }
+                mDone.countDown();
+                return;
+            }
+            mFrames++;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    /** An invisible foreground that counts the number of times it is drawn. */
+    private static final class DrawCounter extends Drawable {
+
+        private int mDraws;
+
+        @Override
+        public void draw(@NonNull Canvas canvas) {
+            mDraws++;
+        }
+
+        @Override
+        public void setAlpha(int alpha) {
+        }
+
+        @Override
+        public void setColorFilter(ColorFilter colorFilter) {
+        }
+
+        @Override
+        public int getOpacity() {
+            return PixelFormat.TRANSPARENT;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (C) 2026 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.android.deskclock.uidata;
+
+import androidx.test.internal.runner.junit4.AndroidJUnit4ClassRunner;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+@RunWith(AndroidJUnit4ClassRunner.class)
+public class FormattedNumberCacheTest {
+
+    @Test
+    public void evictsLeastRecentlyUsed() {
+        final FormattedNumberCache cache = new FormattedNumberCache(2);
+        cache.put(1, "one");
+        cache.put(2, "two");
+
+        // Touch 1 so that 2 becomes the least recently used entry.
+        assertEquals("one", cache.get(1));
+        cache.put(3, "three");
+
+        assertNull(cache.get(2));
+        assertEquals("one", cache.get(1));
+        assertEquals("three", cache.get(3));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictions());
+    }
+
+    @Test
+    public void keysDifferingOnlyInHighBits() {
+        final FormattedNumberCache cache = new FormattedNumberCache(4);
+        cache.put(5, "a");
+        cache.put(5 | (2L << 32), "b");
+        cache.put(5 | (1L << 63), "c");
+
+        assertEquals("a", cache.get(5));
+        assertEquals("b", cache.get(5 | (2L << 32)));
+        assertEquals("c", cache.get(5 | (1L << 63)));
+    }
+
+    @Test
+    public void countsHitsAndMisses() {
+        final FormattedNumberCache cache = new FormattedNumberCache(4);
+        assertNull(cache.get(1));
+        cache.put(1, "one");
+        assertEquals("one", cache.get(1));
+        assertEquals("one", cache.get(1));
+
+        assertEquals(2, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void clearRetainsCounters() {
+        final FormattedNumberCache cache = new FormattedNumberCache(4);
+        cache.put(1, "one");
+        assertEquals("one", cache.get(1));
+        cache.clear();
+
+        assertNull(cache.get(1));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+    }
+}
@@ -84,4 +84,20 @@ public class FormattedStringModelTest {
 
         assertEquals("−999", model.getFormattedNumber(true, 999, 3));
     }
+
+    @Test
+    public void formattedNumberLongerThanLength() {
+        assertEquals("100", model.getFormattedNumber(false, 100, 2));
+        assertEquals("−100", model.getFormattedNumber(true, 100, 1));
+    }
+
+    @Test
+    public void formattedNumberCacheCounters() {
+        assertEquals("07", model.getFormattedNumber(7, 2));
+        assertEquals("07", model.getFormattedNumber(7, 2));
+        assertEquals("007", model.getFormattedNumber(7, 3));
+
+        assertEquals(1, model.getFormattedNumberCacheHits());
+        assertEquals(2, model.getFormattedNumberCacheMisses());
+    }
 }